@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.bus;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.bus.alloc.EventAllocator;
+import reactor.bus.filter.PassThroughFilter;
+import reactor.bus.registry.CachingRegistry;
+import reactor.bus.registry.Registration;
+import reactor.bus.routing.CompiledConsumerRouter;
+import reactor.bus.selector.Selectors;
+import reactor.core.alloc.Reference;
+import reactor.core.dispatch.SynchronousDispatcher;
+import reactor.fn.Consumer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routing cost of {@link EventBus#notify(Object, Event)} over a {@link CachingRegistry} holding {@code
+ * registrations} consumers.
+ * <p>
+ * The bus runs on the {@link SynchronousDispatcher} so the numbers isolate selection and routing from any
+ * hand-off cost, which {@code DispatcherBenchmarks} measures separately. {@link #notifyPooled()} notifies events
+ * allocated from an {@link EventAllocator} and recycled once routed. Each key has a consumer of events and a consumer
+ * of event data, which the default router only invokes after a {@link ClassCastException}, unlike {@link
+ * #notifyCompiled()}.
+ *
+ * @author Stephane Maldini
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class EventBusBenchmarks {
+
+	@Param({"1", "100", "10000"})
+	public int registrations;
+
+	private EventBus       eventBus;
+	private EventBus       uncachedEventBus;
+	private EventBus       compiledEventBus;
+	private EventAllocator eventAllocator;
+	private Blackhole      blackhole;
+
+	@Setup
+	public void setup(final Blackhole bh) {
+		this.blackhole = bh;
+		this.eventBus = new EventBus(new CachingRegistry<Consumer<?>>(), SynchronousDispatcher.INSTANCE, null, null,
+				null);
+		this.uncachedEventBus = new EventBus(new CachingRegistry<Consumer<?>>(false, false, null),
+				SynchronousDispatcher.INSTANCE, null, null, null);
+		this.compiledEventBus = new EventBus(new CachingRegistry<Consumer<?>>(), SynchronousDispatcher.INSTANCE,
+				new CompiledConsumerRouter(new PassThroughFilter(), null), null, null);
+		this.eventAllocator = EventAllocator.defaultEventAllocator();
+
+		Consumer<Event<Object>> consumer = new Consumer<Event<Object>>() {
+			@Override
+			public void accept(Event<Object> ev) {
+				blackhole.consume(ev.getData());
+			}
+		};
+		Consumer<String> dataConsumer = new Consumer<String>() {
+			@Override
+			public void accept(String data) {
+				blackhole.consume(data);
+			}
+		};
+		for (int i = 0; i < registrations; i++) {
+			eventBus.on(Selectors.object("key-" + i), consumer);
+			uncachedEventBus.on(Selectors.object("key-" + i), consumer);
+			uncachedEventBus.getConsumerRegistry().register(Selectors.object("key-" + i), dataConsumer);
+			compiledEventBus.on(Selectors.object("key-" + i), consumer);
+			compiledEventBus.getConsumerRegistry().register(Selectors.object("key-" + i), dataConsumer);
+			eventBus.getConsumerRegistry().register(Selectors.object("key-" + i), dataConsumer);
+		}
+	}
+
+	/**
+	 * Notify a key whose selection has already been cached by the registry.
+	 */
+	@Benchmark
+	public void notifyCached() {
+		eventBus.notify("key-0", Event.wrap("data"));
+	}
+
+	/**
+	 * Notify a key whose selection has already been compiled into an invoker chain.
+	 */
+	@Benchmark
+	public void notifyCompiled() {
+		compiledEventBus.notify("key-0", Event.wrap("data"));
+	}
+
+	/**
+	 * Notify a pooled event, recycled once routed.
+	 */
+	@Benchmark
+	public void notifyPooled() {
+		Reference<Event<String>> ref = eventAllocator.get(String.class);
+		ref.get().setData("data");
+		eventBus.notifyPooled("key-0", ref);
+	}
+
+	/**
+	 * Notify an event whose id and headers are used.
+	 */
+	@Benchmark
+	public void notifyWithHeaders() {
+		Event<String> ev = Event.wrap("data");
+		ev.getHeaders().set("x-header", "value");
+		blackhole.consume(ev.getId());
+		eventBus.notify("key-0", ev);
+	}
+
+	/**
+	 * Notify through a registry with its cache disabled, selecting the registrations from its indexes each time.
+	 */
+	@Benchmark
+	public void notifyUncached() {
+		uncachedEventBus.notify("key-0", Event.wrap("data"));
+	}
+
+	/**
+	 * The request/reply pattern registers and cancels an anonymous selector per call, invalidating the registry
+	 * cache each time.
+	 */
+	@Benchmark
+	public void registerAndCancel() {
+		Registration<?> reg = eventBus.on(Selectors.anonymous(), new Consumer<Event<Object>>() {
+			@Override
+			public void accept(Event<Object> ev) {
+			}
+		});
+		eventBus.notify("key-0", Event.wrap("data"));
+		reg.cancel();
+	}
+
+}
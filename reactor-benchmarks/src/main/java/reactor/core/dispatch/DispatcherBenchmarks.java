@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.dispatch;
+
+import org.openjdk.jmh.annotations.*;
+import reactor.core.Dispatcher;
+import reactor.fn.Consumer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput and round-trip latency of the {@link Dispatcher} implementations.
+ * <p>
+ * {@link #dispatch()} publishes a batch of events and waits for all of them to be consumed, so the measured rate is
+ * the sustained rate of the dispatcher and not the rate at which its backlog fills up. {@link #dispatchBatch()} does
+ * the same through {@link Dispatcher#dispatchBatch(List, Consumer, Consumer)}. {@link #roundTrip()} dispatches
+ * a single event and waits for it, the sampled times giving the latency percentiles of a hand-off.
+ * {@link #dispatchFromManyProducers()} dispatches from several threads at once, each one waiting for the backlog when
+ * it is full.
+ *
+ * @author Stephane Maldini
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class DispatcherBenchmarks {
+
+	static final int BATCH_SIZE = 1024;
+
+	@Param({"sync", "ringBuffer", "mpsc", "workQueue", "threadPoolExecutor", "workStealing"})
+	public String type;
+
+	@Param({"2048"})
+	public int backlog;
+
+	private final AtomicLong   consumed = new AtomicLong();
+	private final Object       data     = new Object();
+	private final List<Object> batch    = Collections.nCopies(BATCH_SIZE, data);
+
+	private final Consumer<Object> consumer = new Consumer<Object>() {
+		@Override
+		public void accept(Object o) {
+			consumed.incrementAndGet();
+		}
+	};
+
+	private Dispatcher dispatcher;
+	private long       produced;
+
+	@Setup
+	public void setup() {
+		dispatcher = createDispatcher(type, backlog);
+		consumed.set(0);
+		produced = 0;
+	}
+
+	@TearDown
+	public void tearDown() {
+		dispatcher.awaitAndShutdown(5, TimeUnit.SECONDS);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void dispatch() {
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			dispatcher.dispatch(data, consumer, null);
+		}
+		produced += BATCH_SIZE;
+		awaitConsumed();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void dispatchBatch() {
+		dispatcher.dispatchBatch(batch, consumer, null);
+		produced += BATCH_SIZE;
+		awaitConsumed();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	@Threads(4)
+	public void dispatchFromManyProducers() {
+		dispatcher.dispatch(data, consumer, null);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void roundTrip() {
+		dispatcher.dispatch(data, consumer, null);
+		produced++;
+		awaitConsumed();
+	}
+
+	private void awaitConsumed() {
+		while (consumed.get() < produced) {
+			Thread.yield();
+		}
+	}
+
+	static Dispatcher createDispatcher(String type, int backlog) {
+		switch (type) {
+			case "sync":
+				return SynchronousDispatcher.INSTANCE;
+			case "ringBuffer":
+				return new RingBufferDispatcher("bench-ringBuffer", backlog);
+			case "mpsc":
+				return new MpscDispatcher("bench-mpsc", backlog);
+			case "workQueue":
+				return new WorkQueueDispatcher("bench-workQueue", 2, backlog, null);
+			case "threadPoolExecutor":
+				return new ThreadPoolExecutorDispatcher(2, backlog, "bench-threadPoolExecutor");
+			case "workStealing":
+				return new WorkStealingDispatcher(2, backlog, "bench-workStealing");
+			default:
+				throw new IllegalArgumentException("Unknown dispatcher type: " + type);
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.fn.timer;
+
+import org.openjdk.jmh.annotations.*;
+import reactor.fn.Consumer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scheduling then cancelling a timeout, the common path of {@code timeout()} operators, while the timer holds
+ * {@code outstanding} long-running registrations.
+ *
+ * @author Stephane Maldini
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class TimerBenchmarks {
+
+	@Param({"hashWheel", "hierarchical"})
+	public String type;
+
+	@Param({"0", "100000"})
+	public int outstanding;
+
+	private Timer          timer;
+	private Consumer<Long> task;
+
+	@Setup
+	public void setup() {
+		switch (type) {
+			case "hashWheel":
+				timer = new HashWheelTimer(10);
+				break;
+			case "hierarchical":
+				timer = new HierarchicalWheelTimer(10);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown timer type: " + type);
+		}
+
+		task = new Consumer<Long>() {
+			@Override
+			public void accept(Long now) {
+			}
+		};
+		for (int i = 0; i < outstanding; i++) {
+			timer.submit(task, 1 + i % 60, TimeUnit.MINUTES);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		timer.cancel();
+	}
+
+	@Benchmark
+	public void submitAndCancel() {
+		timer.submit(task, 1, TimeUnit.SECONDS).cancel();
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.io.buffer;
+
+import org.openjdk.jmh.annotations.*;
+import reactor.core.alloc.Allocator;
+import reactor.core.alloc.Reference;
+import reactor.core.alloc.ReferenceCountingAllocator;
+import reactor.fn.Supplier;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of leasing a {@link Buffer}, filling it and giving it back, from a {@link ReferenceCountingAllocator} of direct
+ * buffers against a {@link PooledBufferAllocator}, and of allocating a new heap buffer each time.
+ *
+ * @author Stephane Maldini
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class BufferAllocatorBenchmarks {
+
+	@Param({"referenceCounting", "pooled"})
+	public String type;
+
+	@Param({"512"})
+	public int size;
+
+	private Allocator<Buffer> allocator;
+	private byte[]            payload;
+
+	@Setup
+	public void setup() {
+		payload = new byte[size];
+		switch (type) {
+			case "referenceCounting":
+				allocator = new ReferenceCountingAllocator<Buffer>(256, new Supplier<Buffer>() {
+					@Override
+					public Buffer get() {
+						return new Buffer(ByteBuffer.allocateDirect(size));
+					}
+				});
+				break;
+			case "pooled":
+				allocator = new PooledBufferAllocator(size, true, 64);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown allocator type: " + type);
+		}
+	}
+
+	@Benchmark
+	@Threads(2)
+	public int lease() {
+		Reference<Buffer> ref = allocator.allocate();
+		int length = ref.get().append(payload).flip().remaining();
+		ref.release();
+		return length;
+	}
+
+	@Benchmark
+	@Threads(2)
+	public int allocateHeap() {
+		return new Buffer(size, true).append(payload).flip().remaining();
+	}
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.io.codec;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.fn.Consumer;
+import reactor.fn.Function;
+import reactor.io.buffer.Buffer;
+import reactor.io.buffer.PooledBufferAllocator;
+import reactor.io.codec.json.JsonCodec;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding cost of the {@link reactor.io.codec} codecs. Run with {@code -prof gc} to get the
+ * allocation rate per frame. Framing encoders encode into pooled frames, released once measured as a channel does
+ * once it has written them.
+ *
+ * @author Stephane Maldini
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CodecBenchmarks {
+
+	static final int LINES = 16;
+
+	private Function<String, Buffer> stringEncoder;
+	private Function<Buffer, String> stringDecoder;
+	private Function<String, Buffer> delimitedEncoder;
+	private Function<Buffer, String> delimitedDecoder;
+	private Function<String, Buffer> lengthFieldEncoder;
+	private Function<Buffer, String> lengthFieldDecoder;
+	private Function<Tick, Buffer>   jsonEncoder;
+	private Function<Buffer, Tick>   jsonDecoder;
+
+	private String message;
+	private Tick   tick;
+	private Buffer stringFrame;
+	private Buffer delimitedFrames;
+	private Buffer lengthFieldFrame;
+	private Buffer jsonFrame;
+
+	@Setup
+	public void setup(final Blackhole bh) {
+		Consumer<String> sink = new Consumer<String>() {
+			@Override
+			public void accept(String s) {
+				bh.consume(s);
+			}
+		};
+
+		StringCodec stringCodec = new StringCodec();
+		DelimitedCodec<String, String> delimitedCodec =
+				new DelimitedCodec<String, String>((byte) 10, true, stringCodec, PooledBufferAllocator.DEFAULT);
+		LengthFieldCodec<String, String> lengthFieldCodec =
+				new LengthFieldCodec<String, String>(4, stringCodec, PooledBufferAllocator.DEFAULT);
+		JsonCodec<Tick, Tick> jsonCodec = new JsonCodec<Tick, Tick>(Tick.class);
+
+		stringEncoder = stringCodec.encoder();
+		stringDecoder = stringCodec.decoder(null);
+		delimitedEncoder = delimitedCodec.encoder();
+		delimitedDecoder = delimitedCodec.decoder(sink);
+		lengthFieldEncoder = lengthFieldCodec.encoder();
+		lengthFieldDecoder = lengthFieldCodec.decoder(null);
+		jsonEncoder = jsonCodec.encoder();
+		jsonDecoder = jsonCodec.decoder(null);
+
+		message = "2015-01-01T00:00:00.000Z INFO [reactor] dispatched 1024 events in 12ms";
+		tick = new Tick("ACME", 42.5d, 1420070400000L);
+
+		stringFrame = stringEncoder.apply(message);
+		lengthFieldFrame = lengthFieldEncoder.apply(message);
+		jsonFrame = jsonEncoder.apply(tick);
+		delimitedFrames = new Buffer();
+		for (int i = 0; i < LINES; i++) {
+			delimitedFrames.append(delimitedEncoder.apply(message));
+		}
+		delimitedFrames.flip();
+	}
+
+	@Benchmark
+	public Buffer stringEncode() {
+		return stringEncoder.apply(message);
+	}
+
+	@Benchmark
+	public String stringDecode() {
+		stringFrame.position(0);
+		return stringDecoder.apply(stringFrame);
+	}
+
+	@Benchmark
+	public int delimitedEncode() {
+		Buffer frame = delimitedEncoder.apply(message);
+		int length = frame.remaining();
+		PooledBufferAllocator.release(frame);
+		return length;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LINES)
+	public String delimitedDecode() {
+		delimitedFrames.position(0);
+		return delimitedDecoder.apply(delimitedFrames);
+	}
+
+	@Benchmark
+	public int lengthFieldEncode() {
+		Buffer frame = lengthFieldEncoder.apply(message);
+		int length = frame.remaining();
+		PooledBufferAllocator.release(frame);
+		return length;
+	}
+
+	@Benchmark
+	public String lengthFieldDecode() {
+		lengthFieldFrame.position(0);
+		return lengthFieldDecoder.apply(lengthFieldFrame);
+	}
+
+	@Benchmark
+	public Buffer jsonEncode() {
+		return jsonEncoder.apply(tick);
+	}
+
+	@Benchmark
+	public Tick jsonDecode() {
+		jsonFrame.position(0);
+		return jsonDecoder.apply(jsonFrame);
+	}
+
+	public static class Tick {
+		public String symbol;
+		public double price;
+		public long   timestamp;
+
+		public Tick() {
+		}
+
+		public Tick(String symbol, double price, long timestamp) {
+			this.symbol = symbol;
+			this.price = price;
+			this.timestamp = timestamp;
+		}
+	}
+
+}
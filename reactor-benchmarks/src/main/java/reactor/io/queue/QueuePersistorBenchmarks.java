@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.io.queue;
+
+import net.openhft.chronicle.ChronicleConfig;
+import org.openjdk.jmh.annotations.*;
+import reactor.io.codec.StandardCodecs;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offer and remove throughput of the file-based {@link QueuePersistor QueuePersistors}, with an in-memory baseline.
+ * The {@code mapped-*} persistors force their files every 1000 messages, every 10 milliseconds or never.
+ *
+ * @author Stephane Maldini
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class QueuePersistorBenchmarks {
+
+	@Param({"memory", "chronicle", "mapped-never", "mapped-1000msg", "mapped-10ms"})
+	public String persistor;
+
+	private QueuePersistor<String> queue;
+	private String                 basePath;
+	private String                 message;
+
+	@Setup
+	public void setup() throws IOException {
+		basePath = System.getProperty("java.io.tmpdir") + "/persistor-benchmark-" + System.nanoTime();
+		message = "2015-01-01T00:00:00.000Z INFO [reactor] dispatched 1024 events in 12ms";
+
+		if ("memory".equals(persistor)) {
+			queue = new InMemoryQueuePersistor<String>();
+		} else if ("chronicle".equals(persistor)) {
+			queue = new IndexedChronicleQueuePersistor<String>(basePath, StandardCodecs.STRING_CODEC, true, true,
+					ChronicleConfig.DEFAULT.clone());
+		} else if ("mapped-never".equals(persistor)) {
+			queue = mapped(0, 0l);
+		} else if ("mapped-1000msg".equals(persistor)) {
+			queue = mapped(1000, 0l);
+		} else {
+			queue = mapped(0, 10l);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		queue.close();
+	}
+
+	@Benchmark
+	public Long offer() {
+		return queue.offer(message);
+	}
+
+	@Benchmark
+	public String offerAndRemove() {
+		queue.offer(message);
+		return queue.remove();
+	}
+
+	private QueuePersistor<String> mapped(int syncEveryMessages, long syncEveryMillis) throws IOException {
+		return new MappedSegmentQueuePersistor<String>(basePath, StandardCodecs.STRING_CODEC, true, true,
+				MappedSegmentQueuePersistor.DEFAULT_SEGMENT_SIZE, syncEveryMessages, syncEveryMillis);
+	}
+
+}
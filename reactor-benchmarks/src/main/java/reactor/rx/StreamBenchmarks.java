@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Publisher;
+import reactor.Environment;
+import reactor.fn.Consumer;
+import reactor.fn.Function;
+import reactor.fn.Predicate;
+import reactor.rx.stream.Broadcaster;
+import reactor.rx.stream.GroupedStream;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-element cost of common synchronous {@link Stream} chains.
+ * <p>
+ * Each chain is materialized once against a {@link Broadcaster} so the benchmarks measure steady-state signal
+ * propagation, except {@link #rangeMapFilter()} which also pays for assembling and subscribing the chain.
+ *
+ * @author Stephane Maldini
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class StreamBenchmarks {
+
+	static final int RANGE_SIZE = 1000;
+
+	static final Function<Integer, Integer> INCREMENT = new Function<Integer, Integer>() {
+		@Override
+		public Integer apply(Integer i) {
+			return i + 1;
+		}
+	};
+
+	static final Predicate<Integer> EVEN = new Predicate<Integer>() {
+		@Override
+		public boolean test(Integer i) {
+			return (i & 1) == 0;
+		}
+	};
+
+	private Broadcaster<Integer> mapFilterMap;
+	private Broadcaster<Integer> flatMap;
+	private Broadcaster<Integer> buffer;
+	private Broadcaster<Integer> groupBy;
+
+	private Consumer<Object> sink;
+	private int              value;
+
+	@Setup
+	public void setup(final Blackhole bh) {
+		Environment.initializeIfEmpty();
+
+		sink = new Consumer<Object>() {
+			@Override
+			public void accept(Object o) {
+				bh.consume(o);
+			}
+		};
+
+		mapFilterMap = Streams.broadcast();
+		mapFilterMap.map(INCREMENT).filter(EVEN).map(INCREMENT).consume(sink);
+
+		flatMap = Streams.broadcast();
+		flatMap.flatMap(new Function<Integer, Publisher<Integer>>() {
+			@Override
+			public Publisher<Integer> apply(Integer i) {
+				return Streams.just(i);
+			}
+		}).consume(sink);
+
+		buffer = Streams.broadcast();
+		buffer.buffer(32).consume(sink);
+
+		groupBy = Streams.broadcast();
+		groupBy.groupBy(new Function<Integer, Integer>() {
+			@Override
+			public Integer apply(Integer i) {
+				return i & 7;
+			}
+		}).consume(new Consumer<GroupedStream<Integer, Integer>>() {
+			@Override
+			public void accept(GroupedStream<Integer, Integer> group) {
+				group.consume(sink);
+			}
+		});
+	}
+
+	@TearDown
+	public void tearDown() {
+		mapFilterMap.onComplete();
+		flatMap.onComplete();
+		buffer.onComplete();
+		groupBy.onComplete();
+	}
+
+	@Benchmark
+	public void mapFilterMap() {
+		mapFilterMap.onNext(value++);
+	}
+
+	@Benchmark
+	public void flatMap() {
+		flatMap.onNext(value++);
+	}
+
+	@Benchmark
+	public void buffer() {
+		buffer.onNext(value++);
+	}
+
+	@Benchmark
+	public void groupBy() {
+		groupBy.onNext(value++);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RANGE_SIZE)
+	public void rangeMapFilter() {
+		Streams.range(1, RANGE_SIZE)
+				.map(INCREMENT)
+				.filter(EVEN)
+				.consume(sink);
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx.stream;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Publisher;
+import reactor.Environment;
+import reactor.core.DispatcherSupplier;
+import reactor.fn.Function;
+import reactor.rx.Streams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of CPU-bound work split over rails by {@link ParallelStream}, merged as results come with {@link
+ * #sequential()} or in order with {@link #ordered()}, against the same work spread with {@link
+ * reactor.rx.Stream#partition(int)} and merged back with {@code flatMap}.
+ *
+ * @author Stephane Maldini
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ParallelStreamBenchmarks {
+
+	static final int RANGE_SIZE = 10000;
+
+	static final Function<Integer, Integer> WORK = new Function<Integer, Integer>() {
+		@Override
+		public Integer apply(Integer i) {
+			Blackhole.consumeCPU(64);
+			return i;
+		}
+	};
+
+	@Param({"1", "4"})
+	public int rails;
+
+	private DispatcherSupplier dispatchers;
+
+	@Setup
+	public void setup() {
+		dispatchers = Environment.newCachedDispatchers(rails, "bench-rails");
+	}
+
+	@TearDown
+	public void tearDown() {
+		dispatchers.shutdown();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RANGE_SIZE)
+	public Object sequential() throws InterruptedException {
+		return Streams.range(1, RANGE_SIZE).parallel(rails).runOn(dispatchers).map(WORK).sequential()
+				.count().next().await(10, TimeUnit.SECONDS);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RANGE_SIZE)
+	public Object ordered() throws InterruptedException {
+		return Streams.range(1, RANGE_SIZE).parallel(rails).runOn(dispatchers).map(WORK).ordered()
+				.count().next().await(10, TimeUnit.SECONDS);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RANGE_SIZE)
+	public Object partition() throws InterruptedException {
+		return Streams.range(1, RANGE_SIZE).partition(rails).flatMap(
+				new Function<GroupedStream<Integer, Integer>, Publisher<Integer>>() {
+					@Override
+					public Publisher<Integer> apply(GroupedStream<Integer, Integer> partition) {
+						return partition.dispatchOn(dispatchers.get()).map(WORK);
+					}
+				}).count().next().await(10, TimeUnit.SECONDS);
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx.subscription;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of broadcasting a next signal through a {@link FanOutSubscription} to a number of subscribers, from one or
+ * several publisher threads.
+ *
+ * @author Stephane Maldini
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class FanOutSubscriptionBenchmarks {
+
+	@Param({"2", "100"})
+	public int subscribers;
+
+	private FanOutSubscription<Integer> fanOut;
+	private Integer                     value = 1;
+
+	@Setup
+	public void setup(final Blackhole bh) {
+		Subscriber<Integer> subscriber = new Subscriber<Integer>() {
+			@Override
+			public void onSubscribe(Subscription s) {
+			}
+
+			@Override
+			public void onNext(Integer integer) {
+				bh.consume(integer);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		};
+
+		fanOut = new FanOutSubscription<Integer>(null,
+				new PushSubscription<Integer>(null, subscriber),
+				new PushSubscription<Integer>(null, subscriber));
+		for (int i = 2; i < subscribers; i++) {
+			fanOut.add(new PushSubscription<Integer>(null, subscriber));
+		}
+	}
+
+	@Benchmark
+	public void broadcast() {
+		fanOut.onNext(value);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void contendedBroadcast() {
+		fanOut.onNext(value);
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx.subscription;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.queue.CompletableLinkedQueue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffering cost of the lock-based {@link ReactiveSubscription} against the lock-free {@link DrainSubscription}.
+ * <p>
+ * {@link #burst()} buffers a batch of next signals before requesting them on the same thread. The {@code contended}
+ * group runs a publisher thread pushing next signals while a subscriber thread requests a new batch each time the
+ * previous one is consumed, the publisher skipping its turn while the buffer is full. Its {@code published} counter is
+ * the number of signals getting through.
+ *
+ * @author Stephane Maldini
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ReactiveSubscriptionBenchmarks {
+
+	static final int BATCH_SIZE = 32;
+
+	@Param({"reactive", "drain"})
+	public String type;
+
+	@Param({"1024"})
+	public int capacity;
+
+	private ReactiveSubscription<Integer> subscription;
+	private Integer                       value = 1;
+
+	@Setup
+	public void setup(final Blackhole bh) {
+		Subscriber<Integer> subscriber = new Subscriber<Integer>() {
+			@Override
+			public void onSubscribe(Subscription s) {
+			}
+
+			@Override
+			public void onNext(Integer integer) {
+				bh.consume(integer);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		};
+
+		switch (type) {
+			case "reactive":
+				subscription = new ReactiveSubscription<Integer>(null, subscriber, new CompletableLinkedQueue<Integer>());
+				break;
+			case "drain":
+				subscription = new DrainSubscription<Integer>(null, subscriber, capacity);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown subscription type: " + type);
+		}
+		subscription.maxCapacity(capacity);
+	}
+
+	@Benchmark
+	@Group("burst")
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void burst() {
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			subscription.onNext(value);
+		}
+		subscription.request(BATCH_SIZE);
+	}
+
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(1)
+	public void publish(PublishCounters counters) {
+		if (subscription.getBufferSize() >= capacity) {
+			counters.full++;
+			return;
+		}
+		subscription.onNext(value);
+		counters.published++;
+	}
+
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(1)
+	public void request() {
+		if (subscription.capacity() <= 0) {
+			subscription.request(BATCH_SIZE);
+		}
+	}
+
+	/**
+	 * Next signals pushed by the publisher, and attempts skipped because the buffer was full.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters
+	public static class PublishCounters {
+		public long published;
+		public long full;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			published = 0;
+			full = 0;
+		}
+	}
+
+}
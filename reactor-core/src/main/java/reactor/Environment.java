@@ -33,6 +33,7 @@ import reactor.core.support.MultiValueMap;
 import reactor.fn.Consumer;
 import reactor.fn.Supplier;
 import reactor.fn.timer.HashWheelTimer;
+import reactor.fn.timer.HierarchicalWheelTimer;
 import reactor.fn.timer.Timer;
 import reactor.jarjar.com.lmax.disruptor.WaitStrategy;
 import reactor.jarjar.com.lmax.disruptor.dsl.ProducerType;
@@ -73,6 +74,22 @@ public class Environment implements Iterable<Map.Entry<String, List<Dispatcher>>
 	 */
 	public static final String WORK_QUEUE = "workQueue";
 
+	/**
+	 * The property selecting the type of the environment timer, either {@link #HASH_WHEEL_TIMER} or {@link
+	 * #HIERARCHICAL_WHEEL_TIMER}
+	 */
+	public static final String TIMER_TYPE = "reactor.timer.type";
+
+	/**
+	 * The type of the default {@link reactor.fn.timer.HashWheelTimer}
+	 */
+	public static final String HASH_WHEEL_TIMER = "hashWheel";
+
+	/**
+	 * The type of the {@link reactor.fn.timer.HierarchicalWheelTimer}, scaling to large numbers of timeouts
+	 */
+	public static final String HIERARCHICAL_WHEEL_TIMER = "hierarchicalWheel";
+
 	/**
 	 * The number of processors available to the runtime
 	 *
@@ -466,6 +483,35 @@ public class Environment implements Iterable<Map.Entry<String, List<Dispatcher>>
 				new AgileWaitingStrategy());
 	}
 
+	/**
+	 * Create a pool of single-threaded dispatchers, one per CPU in {@code cpus}, without pinning their thread. The same
+	 * partition or group key is always assigned the same dispatcher by {@link AffinityDispatcherSupplier#get(Object)}.
+	 *
+	 * @param name the name of the dispatchers
+	 * @param cpus the CPUs to assign the dispatchers to
+	 * @return the affinity-aware dispatcher pool
+	 * @since 2.0
+	 */
+	public static AffinityDispatcherSupplier newAffinityCachedDispatchers(String name, int... cpus) {
+		return newAffinityCachedDispatchers(name, false, cpus);
+	}
+
+	/**
+	 * Create a pool of single-threaded dispatchers, one per CPU in {@code cpus}, optionally pinning each one to its CPU
+	 * on Linux. The same partition or group key is always assigned the same dispatcher by {@link
+	 * AffinityDispatcherSupplier#get(Object)}.
+	 *
+	 * @param name the name of the dispatchers
+	 * @param pin  {@code true} to pin each dispatcher thread to its CPU
+	 * @param cpus the CPUs to assign the dispatchers to
+	 * @return the affinity-aware dispatcher pool
+	 * @since 2.0
+	 */
+	public static AffinityDispatcherSupplier newAffinityCachedDispatchers(String name, boolean pin, int... cpus) {
+		return new AffinityDispatcherSupplier(name, cpus, pin, 1024, null, ProducerType.MULTI,
+				new AgileWaitingStrategy());
+	}
+
 	private static ThreadPoolExecutorDispatcher createThreadPoolExecutorDispatcher(DispatcherConfiguration
 			                                                                               dispatcherConfiguration) {
 		int size = getSize(dispatcherConfiguration, 0);
@@ -476,6 +522,16 @@ public class Environment implements Iterable<Map.Entry<String, List<Dispatcher>>
 				dispatcherConfiguration.getName());
 	}
 
+	private static WorkStealingDispatcher createWorkStealingDispatcher(DispatcherConfiguration
+			                                                                  dispatcherConfiguration) {
+		int size = getSize(dispatcherConfiguration, 0);
+		int backlog = getBacklog(dispatcherConfiguration, 128);
+
+		return new WorkStealingDispatcher(size,
+				backlog,
+				dispatcherConfiguration.getName());
+	}
+
 	private static WorkQueueDispatcher createWorkQueueDispatcher(DispatcherConfiguration dispatcherConfiguration) {
 		int size = getSize(dispatcherConfiguration, 0);
 		int backlog = getBacklog(dispatcherConfiguration, 16384);
@@ -757,14 +813,17 @@ public class Environment implements Iterable<Map.Entry<String, List<Dispatcher>>
 	}
 
 	/**
-	 * Get the {@code Environment}-wide {@link reactor.fn.timer.SimpleHashWheelTimer}.
+	 * Get the {@code Environment}-wide {@link Timer}, a {@link reactor.fn.timer.HierarchicalWheelTimer} if the {@link
+	 * #TIMER_TYPE} property is {@link #HIERARCHICAL_WHEEL_TIMER}, a {@link reactor.fn.timer.HashWheelTimer} otherwise.
 	 *
 	 * @return the timer.
 	 */
 	public Timer getTimer() {
 		if (null == timer.get()) {
 			synchronized (timer) {
-				Timer t = new HashWheelTimer();
+				Timer t = HIERARCHICAL_WHEEL_TIMER.equals(getProperty(TIMER_TYPE, HASH_WHEEL_TIMER)) ?
+						new HierarchicalWheelTimer() :
+						new HashWheelTimer();
 				if (!timer.compareAndSet(null, t)) {
 					t.cancel();
 				}
@@ -903,6 +962,8 @@ public class Environment implements Iterable<Map.Entry<String, List<Dispatcher>>
 			dispatcher = createThreadPoolExecutorDispatcher(dispatcherConfiguration);
 		} else if (DispatcherType.WORK_QUEUE == dispatcherConfiguration.getType()) {
 			dispatcher = createWorkQueueDispatcher(dispatcherConfiguration);
+		} else if (DispatcherType.WORK_STEALING == dispatcherConfiguration.getType()) {
+			dispatcher = createWorkStealingDispatcher(dispatcherConfiguration);
 		}
 
 		return dispatcher;
@@ -914,7 +975,19 @@ public class Environment implements Iterable<Map.Entry<String, List<Dispatcher>>
 
 			if (!dispatcherConfiguration.getName().equalsIgnoreCase(name)) continue;
 
-			if (DispatcherType.DISPATCHER_GROUP == dispatcherConfiguration.getType()) {
+			if (DispatcherType.DISPATCHER_GROUP == dispatcherConfiguration.getType()
+					&& null != dispatcherConfiguration.getAffinity()) {
+				addCachedDispatchers(dispatcherConfiguration.getName(),
+						new AffinityDispatcherSupplier(
+								dispatcherConfiguration.getName(),
+								dispatcherConfiguration.getAffinity(),
+								dispatcherConfiguration.isPinned(),
+								getBacklog(dispatcherConfiguration, 1024),
+								null,
+								ProducerType.MULTI,
+								new AgileWaitingStrategy()
+						));
+			} else if (DispatcherType.DISPATCHER_GROUP == dispatcherConfiguration.getType()) {
 				addCachedDispatchers(dispatcherConfiguration.getName(),
 						createDispatcherFactory(
 								dispatcherConfiguration.getName(),
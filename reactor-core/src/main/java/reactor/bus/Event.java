@@ -25,9 +25,16 @@ import reactor.fn.tuple.Tuple2;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Wrapper for an object that needs to be processed by {@link reactor.fn.Consumer}s.
+ * <p>
+ * The id and the {@link Headers} of an event are only created when they are first requested, so that notifying an
+ * event that doesn't use them does not allocate anything else than the event itself. Events can also be pooled with
+ * an {@link reactor.bus.alloc.EventAllocator} and notified with {@link EventBus#notifyPooled(Object,
+ * reactor.core.alloc.Reference)}, which recycles them once routed. An event notified any other way is never recycled
+ * by the {@link EventBus}.
  *
  * @param <T>
  *     The type of the wrapped object
@@ -39,6 +46,15 @@ import java.util.*;
 public class Event<T> implements Serializable, Recyclable {
 
   private static final long serialVersionUID = -2476263092040373361L;
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<Event, UUID> ID_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(Event.class, UUID.class, "id");
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<Event, Headers> HEADERS_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(Event.class, Headers.class, "headers");
+
   private final transient Consumer<Throwable> errorConsumer;
   private volatile        UUID                id;
   private volatile        Headers             headers;
@@ -128,13 +144,16 @@ public class Event<T> implements Serializable, Recyclable {
   }
 
   /**
-   * Get the globally-unique id of this event.
+   * Get the globally-unique id of this event, created from a {@link UUIDUtils#sequential() sequence} of the calling
+   * thread the first time it is requested.
    *
    * @return Unique {@link UUID} of this event.
    */
-  public synchronized UUID getId() {
+  public UUID getId() {
+    UUID id = this.id;
     if (null == id) {
-      id = UUIDUtils.create();
+      ID_UPDATER.compareAndSet(this, null, UUIDUtils.sequential());
+      id = this.id;
     }
     return id;
   }
@@ -144,13 +163,24 @@ public class Event<T> implements Serializable, Recyclable {
    *
    * @return The Event's Headers
    */
-  public synchronized Headers getHeaders() {
+  public Headers getHeaders() {
+    Headers headers = this.headers;
     if (null == headers) {
-      headers = new Headers();
+      HEADERS_UPDATER.compareAndSet(this, null, new Headers());
+      headers = this.headers;
     }
     return headers;
   }
 
+  /**
+   * Get the {@link Headers} attached to this event without creating them.
+   *
+   * @return The Event's Headers, or {@code null} if none have been set or requested yet
+   */
+  Headers peekHeaders() {
+    return headers;
+  }
+
   /**
    * Get the key to send replies to.
    *
@@ -265,7 +295,7 @@ public class Event<T> implements Serializable, Recyclable {
   public void recycle() {
     this.id = null;
     if (null != this.headers) {
-      this.headers.headers.clear();
+      this.headers.clear();
     }
     this.replyTo = null;
     this.key = null;
@@ -293,6 +323,9 @@ public class Event<T> implements Serializable, Recyclable {
   /**
    * Headers are a Map-like structure of name-value pairs. Header names are case-insensitive, as determined by {@link
    * String#CASE_INSENSITIVE_ORDER}. A header can be removed by setting its value to {@code null}.
+   * <p>
+   * Headers are stored in a small open-addressed array and are not synchronized: like the {@link Event} they belong
+   * to, they are expected to be modified by one thread at a time.
    */
   public static class Headers implements Serializable, Iterable<Tuple2<String, Object>> {
 
@@ -305,19 +338,20 @@ public class Event<T> implements Serializable, Recyclable {
      */
     public static final String ORIGIN = "x-reactor-origin";
 
-    private static final long serialVersionUID = 4984692586458514948L;
+    private static final long serialVersionUID = -3214795362145283921L;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final boolean sealed;
 
-    private final Object monitor = UUIDUtils.create();
-    private final Map<String, Object> headers;
+    // names at even indexes, values at odd indexes, linear probing
+    private Object[] table;
+    private int      size;
 
     private Headers(boolean sealed, Map<String, Object> headers) {
-      Map<String, Object> copy = new TreeMap<String, Object>(String.CASE_INSENSITIVE_ORDER);
-      copyHeaders(headers, copy);
-      if (sealed) {
-        this.headers = Collections.unmodifiableMap(copy);
-      } else {
-        this.headers = copy;
-      }
+      this.sealed = sealed;
+      this.table = new Object[INITIAL_CAPACITY * 2];
+      copyHeaders(headers);
     }
 
     /**
@@ -348,12 +382,9 @@ public class Event<T> implements Serializable, Recyclable {
      * @return {@code this}
      */
     public Headers setAll(Map<String, Object> headers) {
-      if (null == headers || headers.isEmpty()) {
-        return this;
-      } else {
-        synchronized (this.monitor) {
-          copyHeaders(headers, this.headers);
-        }
+      if (null != headers && !headers.isEmpty()) {
+        checkWritable();
+        copyHeaders(headers);
       }
       return this;
     }
@@ -369,9 +400,8 @@ public class Event<T> implements Serializable, Recyclable {
      * @return {@code this}
      */
     public <V> Headers set(String name, V value) {
-      synchronized (this.monitor) {
-        setHeader(name, value, headers);
-      }
+      checkWritable();
+      setHeader(name, value);
       return this;
     }
 
@@ -395,9 +425,7 @@ public class Event<T> implements Serializable, Recyclable {
      * @return The origin header, may be {@code null}.
      */
     public String getOrigin() {
-      synchronized (this.monitor) {
-        return (String) headers.get(ORIGIN);
-      }
+      return get(ORIGIN);
     }
 
     /**
@@ -410,10 +438,7 @@ public class Event<T> implements Serializable, Recyclable {
      * @return {@code this}
      */
     public Headers setOrigin(String id) {
-      synchronized (this.monitor) {
-        setHeader(ORIGIN, id, headers);
-      }
-      return this;
+      return set(ORIGIN, id);
     }
 
     /**
@@ -426,9 +451,8 @@ public class Event<T> implements Serializable, Recyclable {
      */
     @SuppressWarnings("unchecked")
     public <V> V get(String name) {
-      synchronized (monitor) {
-        return (V) headers.get(name);
-      }
+      int index = indexOf(name);
+      return index < 0 ? null : (V) table[index + 1];
     }
 
     /**
@@ -440,9 +464,7 @@ public class Event<T> implements Serializable, Recyclable {
      * @return {@code true} if a value exists, {@code false} otherwise.
      */
     public boolean contains(String name) {
-      synchronized (monitor) {
-        return headers.containsKey(name);
-      }
+      return indexOf(name) >= 0;
     }
 
     /**
@@ -451,9 +473,7 @@ public class Event<T> implements Serializable, Recyclable {
      * @return The unmodifiable header map
      */
     public Map<String, Object> asMap() {
-      synchronized (monitor) {
-        return Collections.unmodifiableMap(headers);
-      }
+      return Collections.unmodifiableMap(toMap());
     }
 
     /**
@@ -462,9 +482,7 @@ public class Event<T> implements Serializable, Recyclable {
      * @return A read-only version of the headers.
      */
     public Headers readOnly() {
-      synchronized (monitor) {
-        return new Headers(true, headers);
-      }
+      return new Headers(true, toMap());
     }
 
     /**
@@ -472,34 +490,129 @@ public class Event<T> implements Serializable, Recyclable {
      */
     @Override
     public Iterator<Tuple2<String, Object>> iterator() {
-      synchronized (this.monitor) {
-        List<Tuple2<String, Object>> headers = new ArrayList<Tuple2<String, Object>>(this.headers.size());
-        for (Map.Entry<String, Object> header : this.headers.entrySet()) {
-          headers.add(Tuple.of(header.getKey(), header.getValue()));
-        }
-        return Collections.unmodifiableList(headers).iterator();
+      Map<String, Object> headers = toMap();
+      List<Tuple2<String, Object>> tuples = new ArrayList<Tuple2<String, Object>>(headers.size());
+      for (Map.Entry<String, Object> header : headers.entrySet()) {
+        tuples.add(Tuple.of(header.getKey(), header.getValue()));
       }
+      return Collections.unmodifiableList(tuples).iterator();
     }
 
     @Override
     public String toString() {
-      return headers.toString();
+      return toMap().toString();
+    }
+
+    void clear() {
+      if (size > 0) {
+        Arrays.fill(table, null);
+        size = 0;
+      }
     }
 
-    private void copyHeaders(Map<String, Object> source, Map<String, Object> target) {
+    private void checkWritable() {
+      if (sealed) {
+        throw new UnsupportedOperationException("Headers are read-only");
+      }
+    }
+
+    private Map<String, Object> toMap() {
+      Map<String, Object> map = new TreeMap<String, Object>(String.CASE_INSENSITIVE_ORDER);
+      for (int i = 0; i < table.length; i += 2) {
+        if (null != table[i]) {
+          map.put((String) table[i], table[i + 1]);
+        }
+      }
+      return map;
+    }
+
+    private void copyHeaders(Map<String, Object> source) {
       if (source != null) {
         for (Map.Entry<String, Object> entry : source.entrySet()) {
-          setHeader(entry.getKey(), entry.getValue(), target);
+          setHeader(entry.getKey(), entry.getValue());
         }
       }
     }
 
-    private void setHeader(String name, Object value, Map<String, Object> target) {
+    private void setHeader(String name, Object value) {
+      int index = indexOf(name);
       if (value == null) {
-        target.remove(name);
+        if (index >= 0) {
+          remove(index);
+        }
+      } else if (index >= 0) {
+        table[index + 1] = value;
       } else {
-        target.put(name, value);
+        if ((size + 1) * 4 > (table.length / 2) * 3) {
+          resize();
+        }
+        index = slot(name, table.length);
+        while (null != table[index]) {
+          index = (index + 2) & (table.length - 1);
+        }
+        table[index] = name;
+        table[index + 1] = value;
+        size++;
+      }
+    }
+
+    private int indexOf(String name) {
+      if (size == 0) {
+        return -1;
+      }
+      int index = slot(name, table.length);
+      Object candidate;
+      while (null != (candidate = table[index])) {
+        if (name.equalsIgnoreCase((String) candidate)) {
+          return index;
+        }
+        index = (index + 2) & (table.length - 1);
+      }
+      return -1;
+    }
+
+    private void remove(int index) {
+      int mask = table.length - 1;
+      table[index] = null;
+      table[index + 1] = null;
+      size--;
+      // shift back the following entries of the probe sequence into the freed slot
+      int next = (index + 2) & mask;
+      while (null != table[next]) {
+        int home = slot((String) table[next], table.length);
+        if (((next - home) & mask) >= ((next - index) & mask)) {
+          table[index] = table[next];
+          table[index + 1] = table[next + 1];
+          table[next] = null;
+          table[next + 1] = null;
+          index = next;
+        }
+        next = (next + 2) & mask;
+      }
+    }
+
+    private void resize() {
+      Object[] previous = table;
+      table = new Object[previous.length * 2];
+      for (int i = 0; i < previous.length; i += 2) {
+        if (null != previous[i]) {
+          int index = slot((String) previous[i], table.length);
+          while (null != table[index]) {
+            index = (index + 2) & (table.length - 1);
+          }
+          table[index] = previous[i];
+          table[index + 1] = previous[i + 1];
+        }
+      }
+    }
+
+    private static int slot(String name, int length) {
+      int hash = 0;
+      for (int i = 0; i < name.length(); i++) {
+        hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
       }
+      hash ^= hash >>> 16;
+      return (hash << 1) & (length - 1);
     }
   }
 
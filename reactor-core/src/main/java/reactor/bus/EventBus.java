@@ -31,6 +31,7 @@ import reactor.bus.selector.Selector;
 import reactor.bus.selector.Selectors;
 import reactor.bus.spec.EventBusSpec;
 import reactor.core.Dispatcher;
+import reactor.core.alloc.Reference;
 import reactor.core.dispatch.SynchronousDispatcher;
 import reactor.core.support.Assert;
 import reactor.core.support.UUIDUtils;
@@ -70,6 +71,17 @@ public class EventBus implements Observable, Consumer<Event<?>> {
 
 	private volatile UUID id;
 
+	private final Consumer<Reference<Event<?>>> pooledEventRouter = new Consumer<Reference<Event<?>>>() {
+		@Override
+		public void accept(Reference<Event<?>> reference) {
+			try {
+				EventBus.this.accept(reference.get());
+			} finally {
+				reference.release();
+			}
+		}
+	};
+
 
 	/**
 	 * Create a new {@link reactor.bus.spec.EventBusSpec} to configure a Reactor.
@@ -313,6 +325,26 @@ public class EventBus implements Observable, Consumer<Event<?>> {
 		return notify(key, supplier.get());
 	}
 
+	/**
+	 * Notify this component that the pooled {@link Event} of the given {@link Reference}, e.g. allocated from an {@link
+	 * reactor.bus.alloc.EventAllocator}, is ready to be processed. The bus takes over the reference and releases it once
+	 * the event has been routed to the consumers, so that notifying pooled events doesn't allocate. A consumer must then
+	 * {@link Event#copy() copy} the event to keep it after returning.
+	 *
+	 * @param key       The key to be matched by {@link Selector Selectors}
+	 * @param reference The {@link Reference} to the pooled {@link Event}, released once routed
+	 * @param <E>       The type of the {@link Event}
+	 * @return {@literal this}
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends Event<?>> EventBus notifyPooled(Object key, Reference<E> reference) {
+		Assert.notNull(key, "Key cannot be null.");
+		Assert.notNull(reference, "Reference cannot be null.");
+		reference.get().setKey(key);
+		dispatcher.dispatch((Reference<Event<?>>) (Reference<?>) reference, pooledEventRouter, dispatchErrorHandler);
+		return this;
+	}
+
 	@Override
 	public EventBus notify(Object key) {
 		return notify(key, new Event<Void>(Void.class));
@@ -442,7 +474,7 @@ public class EventBus implements Observable, Consumer<Event<?>> {
 		}
 
 		private ReplyToEvent(Event<T> delegate, Observable replyToObservable) {
-			this(delegate.getHeaders(), delegate.getData(), delegate.getReplyTo(), replyToObservable,
+			this(delegate.peekHeaders(), delegate.getData(), delegate.getReplyTo(), replyToObservable,
 					delegate.getErrorConsumer());
 		}
 
@@ -13,39 +13,70 @@
  *  See the License for the specific language governing permissions and
  *  limitations under the License.
  */
-
 package reactor.bus.registry;
 
 import com.gs.collections.api.block.function.Function0;
-import com.gs.collections.api.block.procedure.Procedure;
-import com.gs.collections.api.list.MutableList;
 import com.gs.collections.impl.list.mutable.FastList;
-import com.gs.collections.impl.list.mutable.MultiReaderFastList;
 import com.gs.collections.impl.map.mutable.UnifiedMap;
+import reactor.bus.selector.ClassSelector;
+import reactor.bus.selector.ObjectSelector;
 import reactor.bus.selector.Selector;
+import reactor.bus.selector.UriPathSelector;
 import reactor.fn.Consumer;
 import reactor.jarjar.jsr166e.ConcurrentHashMapV8;
 
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
- * Implementation of {@link Registry} that uses a partitioned cache that partitions on thread
- * id.
+ * Implementation of {@link Registry} that indexes {@link Registration Registrations} by {@link Selector} type and
+ * caches the {@link Registration Registrations} selected for each key.
+ * <p>
+ * Plain {@link ObjectSelector ObjectSelectors}, such as anonymous selectors, are indexed by their object,
+ * {@link ClassSelector ClassSelectors} are grouped by their type and {@link UriPathSelector UriPathSelectors} are
+ * stored in a trie of their literal path segments. Any other {@link Selector} is matched against every key missing
+ * the cache. Selected {@link Registration Registrations} keep their registration order.
+ * <p>
+ * When a {@link Registration} is added or removed, only the cached keys matched by its {@link Selector} are evicted.
+ * Selections are returned as {@link SelectedRegistrations}, which a router can attach its compiled form of the
+ * selection to until it is evicted.
  *
  * @author Jon Brisbin
+ * @author Stephane Maldini
  */
 public class CachingRegistry<T> implements Registry<T> {
 
-	private final NewThreadLocalRegsFn newThreadLocalRegsFn = new NewThreadLocalRegsFn();
-	private final NewRegsFn            newRegsFn            = new NewRegsFn();
+	/**
+	 * The number of cached keys after which the cache is reset, e.g. when keys are timestamps.
+	 */
+	private static final int MAX_CACHED_KEYS = 1 << 16;
+
+	private static final Comparator<Registration<?>> REGISTRATION_ORDER = new Comparator<Registration<?>>() {
+		@Override
+		public int compare(Registration<?> o1, Registration<?> o2) {
+			long order1 = ((IndexedRegistration<?>) o1).order;
+			long order2 = ((IndexedRegistration<?>) o2).order;
+			return order1 < order2 ? -1 : (order1 == order2 ? 0 : 1);
+		}
+	};
+
+	private final NewRegsFn newRegsFn = new NewRegsFn();
 
-	private final boolean                                                                        useCache;
-	private final boolean                                                                        cacheNotFound;
-	private final Consumer<Object>                                                               onNotFound;
-	private final MultiReaderFastList<Registration<? extends T>>                                 registrations;
-	private final ConcurrentHashMapV8<Long, UnifiedMap<Object, List<Registration<? extends T>>>> threadLocalCache;
+	private final boolean                                                      useCache;
+	private final boolean                                                      cacheNotFound;
+	private final Consumer<Object>                                             onNotFound;
+	private final ReentrantReadWriteLock                                       lock;
+	private final UnifiedMap<Object, List<Registration<? extends T>>>          objectIndex;
+	private final UnifiedMap<Class<?>, List<Registration<? extends T>>>        typeIndex;
+	private final UriPathIndex<Registration<? extends T>>                      pathIndex;
+	private final FastList<Registration<? extends T>>                          registrations;
+	private final ConcurrentHashMapV8<Object, List<Registration<? extends T>>> cache;
+
+	private long nextOrder = 0l;
 
 	public CachingRegistry() {
 		this(true, true, null);
@@ -55,75 +86,69 @@ public class CachingRegistry<T> implements Registry<T> {
 		this.useCache = useCache;
 		this.cacheNotFound = cacheNotFound;
 		this.onNotFound = onNotFound;
-		this.registrations = MultiReaderFastList.newList();
-		this.threadLocalCache = new ConcurrentHashMapV8<Long, UnifiedMap<Object, List<Registration<? extends T>>>>();
+		this.lock = new ReentrantReadWriteLock();
+		this.objectIndex = UnifiedMap.newMap();
+		this.typeIndex = UnifiedMap.newMap();
+		this.pathIndex = new UriPathIndex<Registration<? extends T>>();
+		this.registrations = FastList.newList();
+		this.cache = new ConcurrentHashMapV8<Object, List<Registration<? extends T>>>();
 	}
 
 	@Override
 	public <V extends T> Registration<V> register(Selector sel, V obj) {
 		RemoveRegistration removeFn = new RemoveRegistration();
-		final Registration<V> reg = new CachableRegistration<V>(sel, obj, removeFn);
-		removeFn.reg = reg;
 
-		registrations.withWriteLockAndDelegate(new Procedure<MutableList<Registration<? extends T>>>() {
-			@Override
-			public void value(MutableList<Registration<? extends T>> regs) {
-				regs.add(reg);
-			}
-		});
-		if (useCache) {
-			threadLocalCache.clear();
+		lock.writeLock().lock();
+		try {
+			IndexedRegistration<V> reg = new IndexedRegistration<V>(sel, obj, removeFn, nextOrder++);
+			removeFn.reg = reg;
+			index(reg);
+			evict(sel);
+			return reg;
+		} finally {
+			lock.writeLock().unlock();
 		}
-
-		return reg;
 	}
 
 	@Override
-	public boolean unregister(final Object key) {
-		final AtomicBoolean modified = new AtomicBoolean(false);
-		registrations.withWriteLockAndDelegate(new Procedure<MutableList<Registration<? extends T>>>() {
-			@Override
-			public void value(final MutableList<Registration<? extends T>> regs) {
-				Iterator<Registration<? extends T>> registrationIterator = regs.iterator();
-				Registration<? extends T> reg;
-				while (registrationIterator.hasNext()) {
-					reg = registrationIterator.next();
-					if (reg.getSelector().matches(key)) {
-						registrationIterator.remove();
-						modified.compareAndSet(false, true);
-					}
-				}
-				if (useCache && modified.get()) {
-					threadLocalCache.clear();
+	public boolean unregister(Object key) {
+		lock.writeLock().lock();
+		try {
+			List<Registration<? extends T>> regs = collect(key);
+			for (Registration<? extends T> reg : regs) {
+				if (unindex((IndexedRegistration<? extends T>) reg)) {
+					evict(((IndexedRegistration<? extends T>) reg).selector);
 				}
 			}
-		});
-		return modified.get();
+			return !regs.isEmpty();
+		} finally {
+			lock.writeLock().unlock();
+		}
 	}
 
 	@Override
 	public List<Registration<? extends T>> select(Object key) {
-		// use a thread-local cache
-		UnifiedMap<Object, List<Registration<? extends T>>> allRegs = threadLocalRegs();
-
 		// maybe pull Registrations from cache for this key
 		List<Registration<? extends T>> selectedRegs = null;
-		if (useCache && (null != (selectedRegs = allRegs.get(key)))) {
+		if (useCache && null != key && (null != (selectedRegs = cache.get(key)))) {
 			return selectedRegs;
 		}
 
 		// cache not used or cache miss
 		cacheMiss(key);
-		selectedRegs = FastList.newList();
 
-		// find Registrations based on Selector
-		for (Registration<? extends T> reg : this) {
-			if (reg.getSelector().matches(key)) {
-				selectedRegs.add(reg);
+		lock.readLock().lock();
+		try {
+			// find Registrations based on Selector, caching them before any change can evict them
+			selectedRegs = collect(key);
+			if (useCache && null != key && (!selectedRegs.isEmpty() || cacheNotFound)) {
+				if (cache.size() >= MAX_CACHED_KEYS) {
+					cache.clear();
+				}
+				cache.put(key, selectedRegs);
 			}
-		}
-		if (useCache && (!selectedRegs.isEmpty() || cacheNotFound)) {
-			allRegs.put(key, selectedRegs);
+		} finally {
+			lock.readLock().unlock();
 		}
 
 		// nothing found, maybe invoke handler
@@ -137,47 +162,178 @@ public class CachingRegistry<T> implements Registry<T> {
 
 	@Override
 	public void clear() {
-		registrations.clear();
-		threadLocalCache.clear();
+		lock.writeLock().lock();
+		try {
+			objectIndex.clear();
+			typeIndex.clear();
+			pathIndex.clear();
+			registrations.clear();
+			cache.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
 	}
 
 	@Override
 	public Iterator<Registration<? extends T>> iterator() {
-		return FastList.<Registration<? extends T>>newList(registrations).iterator();
+		FastList<Registration<? extends T>> regs = FastList.newList();
+		lock.readLock().lock();
+		try {
+			for (List<Registration<? extends T>> objectRegs : objectIndex.values()) {
+				regs.addAll(objectRegs);
+			}
+			for (List<Registration<? extends T>> typeRegs : typeIndex.values()) {
+				regs.addAll(typeRegs);
+			}
+			pathIndex.collectAll(regs);
+			regs.addAll(registrations);
+		} finally {
+			lock.readLock().unlock();
+		}
+		return regs.sortThis(REGISTRATION_ORDER).iterator();
 	}
 
 	protected void cacheMiss(Object key) {
 	}
 
-	private UnifiedMap<Object, List<Registration<? extends T>>> threadLocalRegs() {
-		Long threadId = Thread.currentThread().getId();
-		UnifiedMap<Object, List<Registration<? extends T>>> regs;
-		if (null == (regs = threadLocalCache.get(threadId))) {
-			regs = threadLocalCache.computeIfAbsent(threadId, newThreadLocalRegsFn);
+	private List<Registration<? extends T>> collect(Object key) {
+		SelectedRegistrations<T> selectedRegs = new SelectedRegistrations<T>();
+
+		List<Registration<? extends T>> objectRegs;
+		if (!objectIndex.isEmpty() && null != (objectRegs = objectIndex.get(key))) {
+			selectedRegs.addAll(objectRegs);
+		}
+
+		if (!typeIndex.isEmpty() && null != key) {
+			// few distinct types are usually registered, cheaper to test than the key type hierarchy
+			Class<?> type;
+			for (Map.Entry<Class<?>, List<Registration<? extends T>>> typeRegs : typeIndex.entrySet()) {
+				type = typeRegs.getKey();
+				if (type.isAssignableFrom(key.getClass()) ||
+						(Class.class.isInstance(key) && type.isAssignableFrom((Class<?>) key))) {
+					selectedRegs.addAll(typeRegs.getValue());
+				}
+			}
+		}
+
+		if (!pathIndex.isEmpty() && key instanceof String) {
+			List<Registration<? extends T>> pathRegs = FastList.newList();
+			pathIndex.collect((String) key, pathRegs);
+			addMatching(pathRegs, key, selectedRegs);
+		}
+
+		addMatching(registrations, key, selectedRegs);
+
+		// Registrations selected from several indexes are put back in registration order
+		for (int i = 1; i < selectedRegs.size(); i++) {
+			if (REGISTRATION_ORDER.compare(selectedRegs.get(i - 1), selectedRegs.get(i)) > 0) {
+				Collections.sort(selectedRegs, REGISTRATION_ORDER);
+				break;
+			}
 		}
-		return regs;
+
+		return selectedRegs;
 	}
 
-	private final class RemoveRegistration implements Runnable {
-		Registration<? extends T> reg;
+	private void index(IndexedRegistration<? extends T> reg) {
+		Selector sel = reg.selector;
+		if (isObjectSelector(sel)) {
+			objectIndex.getIfAbsentPut(sel.getObject(), newRegsFn).add(reg);
+		} else if (sel.getClass() == ClassSelector.class) {
+			typeIndex.getIfAbsentPut((Class<?>) sel.getObject(), newRegsFn).add(reg);
+		} else if (sel.getClass() == UriPathSelector.class) {
+			pathIndex.add(((UriPathSelector) sel).getObject().getTemplate(), reg);
+		} else {
+			registrations.add(reg);
+		}
+	}
 
-		@Override
-		public void run() {
-			registrations.withWriteLockAndDelegate(new Procedure<MutableList<Registration<? extends T>>>() {
-				@Override
-				public void value(MutableList<Registration<? extends T>> regs) {
-					regs.remove(reg);
-					threadLocalCache.clear();
-				}
-			});
+	private boolean unindex(IndexedRegistration<? extends T> reg) {
+		Selector sel = reg.selector;
+		if (isObjectSelector(sel)) {
+			return removeFrom(objectIndex, sel.getObject(), reg);
+		} else if (sel.getClass() == ClassSelector.class) {
+			return removeFrom(typeIndex, (Class<?>) sel.getObject(), reg);
+		} else if (sel.getClass() == UriPathSelector.class) {
+			return pathIndex.remove(((UriPathSelector) sel).getObject().getTemplate(), reg);
+		} else {
+			return registrations.remove(reg);
+		}
+	}
+
+	/**
+	 * Evict the cached keys matched by the given {@link Selector}.
+	 */
+	private void evict(Selector sel) {
+		if (!useCache || cache.isEmpty()) {
+			return;
+		}
+		if (isObjectSelector(sel)) {
+			cache.remove(sel.getObject());
+			return;
+		}
+		for (Object key : cache.keySet()) {
+			if (sel.matches(key)) {
+				cache.remove(key);
+			}
+		}
+	}
+
+	private <K> boolean removeFrom(UnifiedMap<K, List<Registration<? extends T>>> index,
+	                               K key,
+	                               Registration<? extends T> reg) {
+		List<Registration<? extends T>> regs = index.get(key);
+		if (null == regs || !regs.remove(reg)) {
+			return false;
+		}
+		if (regs.isEmpty()) {
+			index.remove(key);
+		}
+		return true;
+	}
+
+	private static <T> void addMatching(List<Registration<? extends T>> candidates,
+	                                    Object key,
+	                                    List<Registration<? extends T>> selectedRegs) {
+		for (Registration<? extends T> reg : candidates) {
+			if (reg.getSelector().matches(key)) {
+				selectedRegs.add(reg);
+			}
+		}
+	}
+
+	/**
+	 * Subclasses of {@link ObjectSelector} usually override {@link Selector#matches(Object)}, so only plain instances
+	 * can be looked up by their object.
+	 */
+	private static boolean isObjectSelector(Selector sel) {
+		return sel.getClass() == ObjectSelector.class && null != sel.getObject();
+	}
+
+	private static final class IndexedRegistration<T> extends CachableRegistration<T> {
+		final Selector selector;
+		final long     order;
+
+		IndexedRegistration(Selector selector, T object, Runnable onCancel, long order) {
+			super(selector, object, onCancel);
+			this.selector = selector;
+			this.order = order;
 		}
 	}
 
-	private final class NewThreadLocalRegsFn
-			implements ConcurrentHashMapV8.Fun<Long, UnifiedMap<Object, List<Registration<? extends T>>>> {
+	private final class RemoveRegistration implements Runnable {
+		IndexedRegistration<? extends T> reg;
+
 		@Override
-		public UnifiedMap<Object, List<Registration<? extends T>>> apply(Long aLong) {
-			return UnifiedMap.newMap();
+		public void run() {
+			lock.writeLock().lock();
+			try {
+				if (unindex(reg)) {
+					evict(reg.selector);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
 		}
 	}
 
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.bus.registry;
+
+import java.util.ArrayList;
+
+/**
+ * The {@link Registration Registrations} a {@link CachingRegistry} selected for a key. The list stays cached until a
+ * {@link Registration} matching the key is added or removed, so a {@link reactor.bus.routing.Router} can attach what it
+ * compiled the list into and find it again the next time the key is selected.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public final class SelectedRegistrations<T> extends ArrayList<Registration<? extends T>> {
+
+	private static final long serialVersionUID = 1l;
+
+	private transient volatile Object attachment;
+
+	/**
+	 * The object attached to this list, if any.
+	 *
+	 * @return the attachment or {@code null}
+	 */
+	public Object getAttachment() {
+		return attachment;
+	}
+
+	/**
+	 * Attach an object to this list, replacing any previous attachment.
+	 *
+	 * @param attachment the object to attach
+	 */
+	public void setAttachment(Object attachment) {
+		this.attachment = attachment;
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.bus.registry;
+
+import com.gs.collections.impl.list.mutable.FastList;
+import com.gs.collections.impl.map.mutable.UnifiedMap;
+
+import java.util.List;
+
+/**
+ * A trie of {@link reactor.bus.selector.UriPathTemplate} patterns keyed on their literal path segments.
+ * <p>
+ * A template is stored under the node reached by its leading literal segments. If it only has literal segments, it
+ * is a candidate for paths ending on that node. Otherwise it is a candidate for every path going through that node,
+ * whatever the remaining segments. Candidates must still be matched against the path. The index is not thread-safe.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+final class UriPathIndex<T> {
+
+	private static final String SEPARATOR = "/";
+
+	private final Node<T> root = new Node<T>();
+
+	private int size = 0;
+
+	void add(String template, T value) {
+		String[] segments = template.split(SEPARATOR, -1);
+		Node<T> node = root;
+		for (String segment : segments) {
+			if (!isLiteral(segment)) {
+				node.prefixed.add(value);
+				size++;
+				return;
+			}
+			Node<T> child = node.children.get(segment);
+			if (null == child) {
+				child = new Node<T>();
+				node.children.put(segment, child);
+			}
+			node = child;
+		}
+		node.exact.add(value);
+		size++;
+	}
+
+	boolean remove(String template, T value) {
+		String[] segments = template.split(SEPARATOR, -1);
+		Node<T> node = root;
+		for (String segment : segments) {
+			if (!isLiteral(segment)) {
+				return removed(node.prefixed.remove(value));
+			}
+			node = node.children.get(segment);
+			if (null == node) {
+				return false;
+			}
+		}
+		return removed(node.exact.remove(value));
+	}
+
+	void collect(String path, List<T> candidates) {
+		String[] segments = path.split(SEPARATOR, -1);
+		Node<T> node = root;
+		candidates.addAll(node.prefixed);
+		for (String segment : segments) {
+			node = node.children.get(segment);
+			if (null == node) {
+				return;
+			}
+			candidates.addAll(node.prefixed);
+		}
+		candidates.addAll(node.exact);
+	}
+
+	void collectAll(List<T> values) {
+		root.collectAll(values);
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	void clear() {
+		root.children.clear();
+		root.prefixed.clear();
+		root.exact.clear();
+		size = 0;
+	}
+
+	private boolean removed(boolean removed) {
+		if (removed) {
+			size--;
+		}
+		return removed;
+	}
+
+	/**
+	 * A segment is literal if the template matches it character by character, i.e. it holds no variable, no splat
+	 * and no regular expression syntax.
+	 */
+	private static boolean isLiteral(String segment) {
+		char c;
+		for (int i = 0; i < segment.length(); i++) {
+			c = segment.charAt(i);
+			if (!Character.isLetterOrDigit(c) && "-_~%:@!&',;=".indexOf(c) == -1) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static final class Node<T> {
+		final UnifiedMap<String, Node<T>> children = UnifiedMap.newMap();
+		final FastList<T>                 prefixed = FastList.newList();
+		final FastList<T>                 exact    = FastList.newList();
+
+		void collectAll(List<T> values) {
+			values.addAll(prefixed);
+			values.addAll(exact);
+			for (Node<T> child : children.values()) {
+				child.collectAll(values);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.bus.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.bus.Event;
+import reactor.bus.convert.Converter;
+import reactor.bus.filter.Filter;
+import reactor.bus.filter.PassThroughFilter;
+import reactor.bus.registry.Registration;
+import reactor.bus.registry.SelectedRegistrations;
+import reactor.core.support.Assert;
+import reactor.fn.Consumer;
+import reactor.fn.support.CancelConsumerException;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link Router} compiling the consumers selected for a key into a chain of invokers, each one knowing which argument
+ * its consumer accepts. Events are then routed with direct {@link Consumer#accept} calls, without relying on a {@link
+ * ClassCastException} to find out that a consumer expects the event data rather than the event.
+ * <p>
+ * The chain is attached to the {@link SelectedRegistrations} cached by a {@link reactor.bus.registry.CachingRegistry}
+ * and is compiled again only once a registration change has evicted them. Registrations selected by another registry
+ * are compiled for each event. An event that doesn't match the argument a consumer accepts, or any event when a
+ * {@link Converter} is configured, is handed to an {@link ArgumentConvertingConsumerInvoker} like {@link
+ * ConsumerFilteringRouter} does.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public class CompiledConsumerRouter implements Router {
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+	private final Filter          filter;
+	private final boolean         passThrough;
+	private final Converter       converter;
+	private final ConsumerInvoker fallbackInvoker;
+
+	/**
+	 * Creates a new {@code CompiledConsumerRouter} that will use the {@code filter} to filter consumers.
+	 *
+	 * @param filter    The filter to use. Must not be {@code null}.
+	 * @param converter The converter used when an event doesn't match the argument of a consumer. May be {@code null}.
+	 * @throws IllegalArgumentException if {@code filter} is null.
+	 */
+	public CompiledConsumerRouter(Filter filter, Converter converter) {
+		Assert.notNull(filter, "filter must not be null");
+
+		this.filter = filter;
+		this.passThrough = filter.getClass() == PassThroughFilter.class;
+		this.converter = converter;
+		this.fallbackInvoker = new ArgumentConvertingConsumerInvoker(converter);
+	}
+
+	@Override
+	public <E> void route(Object key, E event,
+	                      List<Registration<? extends Consumer<?>>> consumers,
+	                      Consumer<E> completionConsumer,
+	                      Consumer<Throwable> errorConsumer) {
+		if (null != consumers && !consumers.isEmpty()) {
+			Invoker[] invokers = chain(consumers).invokers;
+			if (passThrough) {
+				for (int i = 0; i < invokers.length; i++) {
+					invokers[i].invoke(event, errorConsumer);
+				}
+			} else {
+				List<Invoker> selected = filter.filter(Arrays.asList(invokers), key);
+				int size = selected.size();
+				for (int i = 0; i < size; i++) {
+					selected.get(i).invoke(event, errorConsumer);
+				}
+			}
+		}
+		if (null != completionConsumer) {
+			try {
+				completionConsumer.accept(event);
+			} catch (Exception e) {
+				if (null != errorConsumer) {
+					errorConsumer.accept(e);
+				} else {
+					logger.error("Completion Consumer {} failed: {}", completionConsumer, e.getMessage(), e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the {@code Filter} being used
+	 *
+	 * @return The {@code Filter}.
+	 */
+	public Filter getFilter() {
+		return filter;
+	}
+
+	private Chain chain(List<Registration<? extends Consumer<?>>> consumers) {
+		if (!(consumers instanceof SelectedRegistrations)) {
+			return new Chain(consumers);
+		}
+		SelectedRegistrations<?> selected = (SelectedRegistrations<?>) consumers;
+		Object attachment = selected.getAttachment();
+		// a registry can be shared by several buses, each one with its own router
+		if (attachment instanceof Chain && ((Chain) attachment).router() == this) {
+			return (Chain) attachment;
+		}
+		Chain chain = new Chain(consumers);
+		selected.setAttachment(chain);
+		return chain;
+	}
+
+	private final class Chain {
+		final Invoker[] invokers;
+
+		Chain(List<Registration<? extends Consumer<?>>> consumers) {
+			int size = consumers.size();
+			int count = 0;
+			Invoker[] invokers = new Invoker[size];
+			for (int i = 0; i < size; i++) {
+				Registration<? extends Consumer<?>> reg = consumers.get(i);
+				if (null != reg) {
+					invokers[count++] = new Invoker(reg);
+				}
+			}
+			this.invokers = count == size ? invokers : Arrays.copyOf(invokers, count);
+		}
+
+		CompiledConsumerRouter router() {
+			return CompiledConsumerRouter.this;
+		}
+	}
+
+	private final class Invoker {
+		final Registration<? extends Consumer<?>> reg;
+
+		// resolved from the first consumer seen, a paused registration doesn't expose its consumer
+		Class<?> argType;
+
+		Invoker(Registration<? extends Consumer<?>> reg) {
+			this.reg = reg;
+			Consumer<?> consumer = reg.getObject();
+			if (null != consumer) {
+				this.argType = ArgumentConvertingConsumerInvoker.resolveArgType(consumer);
+			}
+		}
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		void invoke(Object event, Consumer<Throwable> errorConsumer) {
+			Consumer consumer = reg.getObject();
+			if (null == consumer) {
+				// cancelled or paused
+				return;
+			}
+			try {
+				Class<?> type = argType;
+				if (null == type) {
+					type = argType = ArgumentConvertingConsumerInvoker.resolveArgType(consumer);
+				}
+				if (null != type && type.isInstance(event)) {
+					consumer.accept(event);
+				} else if (null != type && null == converter && event instanceof Event
+						&& type.isInstance(((Event<?>) event).getData())) {
+					consumer.accept(((Event<?>) event).getData());
+				} else {
+					fallbackInvoker.invoke(consumer, Void.TYPE, event);
+				}
+			} catch (CancelConsumerException cancel) {
+				reg.cancel();
+			} catch (Throwable t) {
+				if (null != errorConsumer) {
+					errorConsumer.accept(t);
+				} else {
+					logger.error("Event routing failed for {}: {}", consumer, t.getMessage(), t);
+					if (RuntimeException.class.isInstance(t)) {
+						throw (RuntimeException) t;
+					} else {
+						throw new IllegalStateException(t);
+					}
+				}
+			} finally {
+				if (reg.isCancelAfterUse()) {
+					reg.cancel();
+				}
+			}
+		}
+
+		@Override
+		public String toString() {
+			return reg.toString();
+		}
+	}
+
+}
@@ -56,6 +56,7 @@ public abstract class EventRoutingComponentSpec<SPEC extends EventRoutingCompone
 	private Consumer<Throwable>   uncaughtErrorHandler;
 	private Registry<Consumer<?>> consumerRegistry;
 	private boolean traceEventPath = false;
+	private boolean compiledEventRouting = false;
 
 	/**
 	 * Configures the component's EventRouter to use the given {code converters}.
@@ -102,6 +103,7 @@ public abstract class EventRoutingComponentSpec<SPEC extends EventRoutingCompone
 	 */
 	public final SPEC consumerInvoker(ConsumerInvoker consumerInvoker) {
 		Assert.isNull(router, "Cannot set both a consumerInvoker and a router. Use one or the other.");
+		Assert.isTrue(!compiledEventRouting, "Cannot set both a consumerInvoker and compiled event routing. Use one or the other.");
 		this.consumerInvoker = consumerInvoker;
 		return (SPEC) this;
 	}
@@ -113,6 +115,7 @@ public abstract class EventRoutingComponentSpec<SPEC extends EventRoutingCompone
 	 */
 	public final SPEC eventRouter(Router router) {
 		Assert.isNull(eventFilter, "Cannot set both a filter and a router. Use one or the other.");
+		Assert.isTrue(!compiledEventRouting, "Cannot set both compiled event routing and a router. Use one or the other.");
 		Assert.isNull(consumerInvoker, "Cannot set both a consumerInvoker and a router. Use one or the other.");
 		this.router = router;
 		return (SPEC) this;
@@ -160,6 +163,19 @@ public abstract class EventRoutingComponentSpec<SPEC extends EventRoutingCompone
 		return (SPEC) this;
 	}
 
+	/**
+	 * Configures the component's EventRouter to compile the consumers matching each key into a chain of invokers,
+	 * resolving the argument each consumer accepts once instead of for every event
+	 * @return {@code this}
+	 * @see CompiledConsumerRouter
+	 */
+	public final SPEC compiledEventRouting() {
+		Assert.isNull(router, "Cannot set both compiled event routing and a router. Use one or the other.");
+		Assert.isNull(consumerInvoker, "Cannot set both a consumerInvoker and compiled event routing. Use one or the other.");
+		this.compiledEventRouting = true;
+		return (SPEC) this;
+	}
+
 	/**
 	 * Configures the component's error handler for any errors occurring during dispatch (e.g. Exceptions resulting from
 	 * calling a {@code Consumer#accept} method.
@@ -257,9 +273,14 @@ public abstract class EventRoutingComponentSpec<SPEC extends EventRoutingCompone
 	}
 
 	private Router createEventRouter() {
-		Router evr = new ConsumerFilteringRouter(
-				eventFilter != null ? eventFilter : createFilter(),
-				consumerInvoker != null ? consumerInvoker : new ArgumentConvertingConsumerInvoker(converter));
+		Router evr;
+		if (compiledEventRouting) {
+			evr = new CompiledConsumerRouter(eventFilter != null ? eventFilter : createFilter(), converter);
+		} else {
+			evr = new ConsumerFilteringRouter(
+					eventFilter != null ? eventFilter : createFilter(),
+					consumerInvoker != null ? consumerInvoker : new ArgumentConvertingConsumerInvoker(converter));
+		}
 		if (traceEventPath) {
 			return new TraceableDelegatingRouter(evr);
 		} else {
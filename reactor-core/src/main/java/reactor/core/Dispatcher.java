@@ -20,6 +20,7 @@ import reactor.core.dispatch.InsufficientCapacityException;
 import reactor.fn.Consumer;
 import reactor.fn.Resource;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
@@ -64,6 +65,22 @@ public interface Dispatcher extends Executor, Resource {
 	                  Consumer<E> eventConsumer,
 	                  Consumer<Throwable> errorConsumer) throws InsufficientCapacityException;
 
+	/**
+	 * Instruct the {@code Dispatcher} to dispatch each element of {@code data} in order. The event {@link Consumer}
+	 * will receive each event. Implementations backed by a sequenced buffer claim and publish the whole batch at once
+	 * instead of paying a claim and a publication per event.
+	 *
+	 * @param data               The events
+	 * @param eventConsumer      The consumer that is driven for each event if dispatch succeeds
+	 * @param errorConsumer      The consumer that is invoked if dispatch fails. May be {@code null}
+	 * @param <E>                type of the events
+	 * @throws IllegalStateException If the {@code Dispatcher} is not {@link Dispatcher#alive() alive}
+	 * @since 2.0
+	 */
+	<E> void dispatchBatch(List<E> data,
+	                       Consumer<E> eventConsumer,
+	                       Consumer<Throwable> errorConsumer);
+
 	/**
 	 * Block until all submitted tasks have completed, then do a normal {@link #shutdown()}.
 	 */
@@ -33,11 +33,22 @@ public final class DispatcherConfiguration {
 
 	private final Integer size;
 
+	private final int[] affinity;
+
+	private final boolean pinned;
+
 	public DispatcherConfiguration(String name, DispatcherType type, Integer backlog, Integer size) {
+		this(name, type, backlog, size, null, false);
+	}
+
+	public DispatcherConfiguration(String name, DispatcherType type, Integer backlog, Integer size, int[] affinity,
+	                               boolean pinned) {
 		this.name = name;
 		this.type = type;
 		this.backlog = backlog;
 		this.size = size;
+		this.affinity = affinity;
+		this.pinned = pinned;
 	}
 
 	/**
@@ -58,6 +69,25 @@ public final class DispatcherConfiguration {
 		return backlog;
 	}
 
+	/**
+	 * Returns the CPUs the dispatchers of a group are assigned to, or {@code null} if the affinity was not configured
+	 *
+	 * @return The CPUs
+	 */
+	public int[] getAffinity() {
+		return affinity;
+	}
+
+	/**
+	 * Returns whether the dispatchers of a group with an affinity pin their thread to their CPU, {@code false} unless
+	 * configured
+	 *
+	 * @return {@code true} if the dispatcher threads are pinned
+	 */
+	public boolean isPinned() {
+		return pinned;
+	}
+
 	/**
 	 * Returns the name of the Dispatcher. Never {@code null}.
 	 *
@@ -57,6 +57,11 @@ public enum DispatcherType {
 	/**
 	 * A {@link Dispatcher} which uses a multi-threaded {@literal RingBuffer} for dispatching
 	 */
-	WORK_QUEUE
+	WORK_QUEUE,
+
+	/**
+	 * A {@link Dispatcher} which uses a work-stealing {@link java.util.concurrent.ForkJoinPool} for dispatching
+	 */
+	WORK_STEALING
 
 }
@@ -38,10 +38,12 @@ public class PropertiesConfigurationReader implements ConfigurationReader {
 
 	private static final Pattern REACTOR_NAME_PATTERN = Pattern.compile("reactor\\.dispatchers\\.(.+?)\\.type");
 
-	private static final String FORMAT_DISPATCHER_BACKLOG = "reactor.dispatchers.%s.backlog";
-	private static final String FORMAT_DISPATCHER_SIZE    = "reactor.dispatchers.%s.size";
-	private static final String FORMAT_DISPATCHER_TYPE    = "reactor.dispatchers.%s.type";
-	private static final String FORMAT_RESOURCE_NAME      = "/META-INF/reactor/%s.properties";
+	private static final String FORMAT_DISPATCHER_AFFINITY = "reactor.dispatchers.%s.affinity";
+	private static final String FORMAT_DISPATCHER_BACKLOG  = "reactor.dispatchers.%s.backlog";
+	private static final String FORMAT_DISPATCHER_PIN      = "reactor.dispatchers.%s.pin";
+	private static final String FORMAT_DISPATCHER_SIZE     = "reactor.dispatchers.%s.size";
+	private static final String FORMAT_DISPATCHER_TYPE     = "reactor.dispatchers.%s.type";
+	private static final String FORMAT_RESOURCE_NAME       = "/META-INF/reactor/%s.properties";
 
 	private static final String PROPERTY_PREFIX_REACTOR = "reactor.";
 
@@ -124,7 +126,9 @@ public class PropertiesConfigurationReader implements ConfigurationReader {
 				                                                         type,
 				                                                         getBacklog(dispatcherName,
 				                                                                    configuration),
-				                                                         getSize(dispatcherName, configuration)));
+				                                                         getSize(dispatcherName, configuration),
+				                                                         getAffinity(dispatcherName, configuration),
+				                                                         isPinned(dispatcherName, configuration)));
 			}
 		}
 		return dispatcherConfigurations;
@@ -157,6 +161,8 @@ public class PropertiesConfigurationReader implements ConfigurationReader {
 			return DispatcherType.THREAD_POOL_EXECUTOR;
 		} else if("workQueue".equals(type)) {
 			return DispatcherType.WORK_QUEUE;
+		} else if("workStealing".equals(type)) {
+			return DispatcherType.WORK_STEALING;
 		} else {
 			logger.warn("The type '{}' of Dispatcher '{}' is not recognized", type, dispatcherName);
 			return null;
@@ -171,6 +177,50 @@ public class PropertiesConfigurationReader implements ConfigurationReader {
 		return getInteger(String.format(FORMAT_DISPATCHER_SIZE, dispatcherName), configuration);
 	}
 
+	private int[] getAffinity(String dispatcherName, Properties configuration) {
+		String property = configuration.getProperty(String.format(FORMAT_DISPATCHER_AFFINITY, dispatcherName));
+		if(property != null) {
+			return parseCpuList(property);
+		} else {
+			return null;
+		}
+	}
+
+	private boolean isPinned(String dispatcherName, Properties configuration) {
+		return Boolean.parseBoolean(configuration.getProperty(String.format(FORMAT_DISPATCHER_PIN, dispatcherName)));
+	}
+
+	/**
+	 * Parse a CPU list in the format used by {@code taskset} and {@code /proc}, E.g. {@code 0,2,4-7}.
+	 */
+	static int[] parseCpuList(String cpuList) {
+		List<Integer> cpus = new ArrayList<Integer>();
+		for (String range : cpuList.split(",")) {
+			range = range.trim();
+			if (range.isEmpty()) {
+				continue;
+			}
+			try {
+				int dash = range.indexOf('-');
+				if (dash < 0) {
+					cpus.add(Integer.parseInt(range));
+				} else {
+					int last = Integer.parseInt(range.substring(dash + 1).trim());
+					for (int cpu = Integer.parseInt(range.substring(0, dash).trim()); cpu <= last; cpu++) {
+						cpus.add(cpu);
+					}
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Malformed CPU list '" + cpuList + "'", e);
+			}
+		}
+		int[] result = new int[cpus.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = cpus.get(i);
+		}
+		return result;
+	}
+
 	private Integer getInteger(String propertyName, Properties configuration) {
 		String property = configuration.getProperty(propertyName);
 		if(property != null) {
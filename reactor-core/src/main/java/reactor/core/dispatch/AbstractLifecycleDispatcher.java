@@ -22,6 +22,7 @@ import reactor.core.alloc.Recyclable;
 import reactor.core.support.Assert;
 import reactor.fn.Consumer;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -122,6 +123,24 @@ public abstract class AbstractLifecycleDispatcher implements Dispatcher {
 		}
 	}
 
+	@Override
+	public final <E> void dispatchBatch(List<E> events,
+	                                    Consumer<E> eventConsumer,
+	                                    Consumer<Throwable> errorConsumer) {
+
+		Assert.isTrue(alive(), "This Dispatcher has been shut down.");
+		if (inContext()) {
+			for (int i = 0; i < events.size(); i++) {
+				allocateRecursiveTask()
+						.setData(events.get(i))
+						.setErrorConsumer(errorConsumer)
+						.setEventConsumer(eventConsumer);
+			}
+		} else {
+			executeBatch(events, eventConsumer, errorConsumer);
+		}
+	}
+
 	@Override
 	public void execute(final Runnable command) {
 		dispatch(null, new Consumer<Object>() {
@@ -142,6 +161,26 @@ public abstract class AbstractLifecycleDispatcher implements Dispatcher {
 
 	protected abstract void execute(Task task);
 
+	/**
+	 * Allocate and execute a task for each of the given events. Dispatchers backed by a sequenced buffer override this
+	 * to claim and publish a contiguous range of tasks at once.
+	 *
+	 * @param events        the events to execute
+	 * @param eventConsumer the consumer driven for each event
+	 * @param errorConsumer the consumer invoked if an event fails. May be {@code null}
+	 * @param <E>           type of the events
+	 */
+	protected <E> void executeBatch(List<E> events, Consumer<E> eventConsumer, Consumer<Throwable> errorConsumer) {
+		Task task;
+		for (int i = 0; i < events.size(); i++) {
+			task = allocateTask()
+					.setData(events.get(i))
+					.setErrorConsumer(errorConsumer)
+					.setEventConsumer(eventConsumer);
+			execute(task);
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	protected static void route(Task task) {
 		try {
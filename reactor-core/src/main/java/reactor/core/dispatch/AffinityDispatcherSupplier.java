@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Dispatcher;
+import reactor.core.DispatcherSupplier;
+import reactor.core.internal.PlatformDependent;
+import reactor.core.support.IoUtils;
+import reactor.fn.Consumer;
+import reactor.jarjar.com.lmax.disruptor.WaitStrategy;
+import reactor.jarjar.com.lmax.disruptor.dsl.ProducerType;
+
+import java.io.File;
+import java.io.InputStream;
+
+/**
+ * A {@link DispatcherSupplier} of single-threaded dispatchers, each one bound to a CPU of a configured set.
+ * <p>
+ * {@link #get()} hands the dispatchers out in a round robin fashion, like the pools created by {@link
+ * reactor.Environment#createDispatcherFactory}. {@link #get(Object)} always returns the same dispatcher for the same
+ * key. {@link reactor.rx.Stream#partition(AffinityDispatcherSupplier)} and {@link
+ * reactor.rx.Stream#groupBy(reactor.fn.Function, AffinityDispatcherSupplier)} use it to run each partition or group on
+ * the dispatcher of its key, so that it keeps running on the same core and keeps its caches warm, E.g.:
+ * {@code
+ * stream.partition(affinityDispatchers).consume(partition -> partition.map(work).consume())
+ * }
+ * <p>
+ * Pinning is disabled by default, the CPUs then only naming the dispatchers and setting their number. When it is
+ * enabled, each dispatcher thread binds itself to its CPU the first time the dispatcher is created, by running {@code
+ * taskset} against the thread id read from {@code /proc/thread-self}, which requires Linux 3.17 or later. Pinning is
+ * best effort: where it fails, a warning is logged and the dispatcher runs unbound.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public class AffinityDispatcherSupplier implements DispatcherSupplier {
+
+	private static final Logger log = LoggerFactory.getLogger(AffinityDispatcherSupplier.class);
+
+	private final String              name;
+	private final int[]               cpus;
+	private final boolean             pin;
+	private final int                 bufferSize;
+	private final Consumer<Throwable> errorHandler;
+	private final ProducerType        producerType;
+	private final WaitStrategy        waitStrategy;
+	private final Dispatcher[]        dispatchers;
+
+	private int     roundRobinIndex = -1;
+	private boolean terminated      = false;
+
+	/**
+	 * Create an {@code AffinityDispatcherSupplier} of one dispatcher per CPU in {@code cpus}.
+	 *
+	 * @param name         the name of the dispatchers and of their threads
+	 * @param cpus         the CPUs the dispatchers are bound to
+	 * @param pin          {@code true} to pin each dispatcher thread to its CPU
+	 * @param bufferSize   the backlog of each dispatcher
+	 * @param errorHandler the error handler of each dispatcher, may be {@code null}
+	 * @param producerType the producer type of each dispatcher
+	 * @param waitStrategy the wait strategy of each dispatcher
+	 */
+	public AffinityDispatcherSupplier(String name,
+	                                  int[] cpus,
+	                                  boolean pin,
+	                                  int bufferSize,
+	                                  Consumer<Throwable> errorHandler,
+	                                  ProducerType producerType,
+	                                  WaitStrategy waitStrategy) {
+		if (cpus.length == 0) {
+			throw new IllegalArgumentException("At least one CPU is required to create dispatchers '" + name + "'");
+		}
+		this.name = name;
+		this.cpus = cpus.clone();
+		this.pin = pin;
+		this.bufferSize = bufferSize;
+		this.errorHandler = errorHandler;
+		this.producerType = producerType;
+		this.waitStrategy = waitStrategy;
+		this.dispatchers = new Dispatcher[cpus.length];
+	}
+
+	/**
+	 * The CPUs the dispatchers of this supplier are bound to, in the order of their slots.
+	 *
+	 * @return the CPUs
+	 */
+	public int[] cpus() {
+		return cpus.clone();
+	}
+
+	@Override
+	public synchronized Dispatcher get() {
+		if (++roundRobinIndex == dispatchers.length) {
+			roundRobinIndex = 0;
+		}
+		return dispatcher(roundRobinIndex);
+	}
+
+	/**
+	 * Return the dispatcher assigned to the given key. The same key, or keys with the same hash code, are always
+	 * assigned to the same dispatcher.
+	 *
+	 * @param key the partition or group key
+	 * @return the dispatcher bound to the CPU of this key
+	 */
+	public synchronized Dispatcher get(Object key) {
+		int hash = key == null ? 0 : key.hashCode();
+		return dispatcher((hash & Integer.MAX_VALUE) % dispatchers.length);
+	}
+
+	@Override
+	public boolean alive() {
+		return !terminated;
+	}
+
+	@Override
+	public synchronized void shutdown() {
+		for (Dispatcher dispatcher : dispatchers) {
+			if (dispatcher != null) {
+				dispatcher.shutdown();
+			}
+		}
+		terminated = true;
+	}
+
+	@Override
+	public synchronized void forceShutdown() {
+		for (Dispatcher dispatcher : dispatchers) {
+			if (dispatcher != null) {
+				dispatcher.forceShutdown();
+			}
+		}
+		terminated = true;
+	}
+
+	private Dispatcher dispatcher(int slot) {
+		Dispatcher dispatcher = dispatchers[slot];
+		if (dispatcher == null) {
+			String dispatcherName = name + "-cpu" + cpus[slot];
+			if (PlatformDependent.hasUnsafe()) {
+				dispatcher = new RingBufferDispatcher(dispatcherName, bufferSize, errorHandler, producerType, waitStrategy);
+			} else {
+				dispatcher = new MpscDispatcher(dispatcherName, bufferSize);
+			}
+			if (pin) {
+				dispatcher.execute(new PinTask(cpus[slot]));
+			}
+			dispatchers[slot] = dispatcher;
+		}
+		return dispatcher;
+	}
+
+	private static final class PinTask implements Runnable {
+		private final int cpu;
+
+		PinTask(int cpu) {
+			this.cpu = cpu;
+		}
+
+		@Override
+		public void run() {
+			File threadSelf = new File("/proc/thread-self");
+			try {
+				if (!threadSelf.exists()) {
+					log.warn("Thread affinity is not supported on this platform, {} is not pinned to CPU {}",
+							Thread.currentThread().getName(), cpu);
+					return;
+				}
+				String tid = threadSelf.getCanonicalFile().getName();
+				Process taskset = new ProcessBuilder("taskset", "-p", "-c", String.valueOf(cpu), tid)
+						.redirectErrorStream(true)
+						.start();
+				InputStream output = taskset.getInputStream();
+				try {
+					while (output.read() != -1) {
+					}
+				} finally {
+					IoUtils.closeQuietly(output);
+				}
+				if (taskset.waitFor() != 0) {
+					log.warn("taskset failed to pin {} to CPU {}", Thread.currentThread().getName(), cpu);
+				}
+			} catch (Exception e) {
+				log.warn("Failed to pin " + Thread.currentThread().getName() + " to CPU " + cpu, e);
+			}
+		}
+	}
+}
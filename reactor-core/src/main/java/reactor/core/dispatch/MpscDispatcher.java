@@ -16,36 +16,50 @@
 
 package reactor.core.dispatch;
 
-import reactor.core.queue.internal.MpscLinkedQueue;
+import reactor.core.dispatch.wait.BackoffIdleStrategy;
+import reactor.core.dispatch.wait.IdleStrategy;
 import reactor.core.support.NamedDaemonThreadFactory;
 
-import java.util.Queue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.LockSupport;
 
 /**
- * Implementation of a {@link reactor.core.Dispatcher} that uses a {@link reactor.core.queue.internal.MpscLinkedQueue} to
- * queue tasks to execute.
+ * Implementation of a {@link reactor.core.Dispatcher} that uses a bounded multi-producer single-consumer array queue to
+ * pass tasks to its thread.
+ * <p>
+ * The queue is made of pooled tasks allocated chunk by chunk as the backlog grows, a producer claiming a free task with
+ * a single CAS and publishing it with a volatile write. When the backlog is full, {@code dispatch} waits for the
+ * consumer and {@code tryDispatch} fails with an {@link InsufficientCapacityException}. Once the queue is empty, the
+ * consumer waits according to an {@link IdleStrategy}: it spins, then yields, then blocks until a producer wakes it up,
+ * so that an idle dispatcher doesn't use any CPU.
  *
  * @author Stephane Maldini
  */
 public final class MpscDispatcher extends SingleThreadDispatcher {
 
 	private static final int DEFAULT_BUFFER_SIZE = 1024;
+	private static final int MAX_CHUNK_SIZE      = 1024;
 
-	//private final Logger log = LoggerFactory.getLogger(getClass());
-	private final ExecutorService executor;
-	private final Queue<Task>     workQueue;
-	private final int             capacity;
+	private final ExecutorService                   executor;
+	private final IdleStrategy                      idleStrategy;
+	private final int                               capacity;
+	private final int                               mask;
+	private final int                               chunkSize;
+	private final int                               chunkShift;
+	private final AtomicReferenceArray<MpscTask[]> chunks;
+	private final AtomicLong                        tail = new AtomicLong();
+
+	private volatile long    head    = 0l;
+	private volatile boolean waiting = false;
+	private volatile Thread  consumer;
 
 	/**
-	 * Creates a new {@code RingBufferDispatcher} with the given {@code name}. It will use a RingBuffer with 1024 slots,
-	 * configured with a producer type of {@link reactor.jarjar.com.lmax.disruptor.dsl.ProducerType#MULTI MULTI} and a
-	 * {@link reactor.jarjar.com.lmax.disruptor.BlockingWaitStrategy blocking
-	 * wait
-	 * strategy}.
+	 * Creates a new {@code MpscDispatcher} with the given {@code name}. It will use a backlog of 1024 tasks and a {@link
+	 * BackoffIdleStrategy}.
 	 *
 	 * @param name The name of the dispatcher.
 	 */
@@ -54,41 +68,42 @@ public final class MpscDispatcher extends SingleThreadDispatcher {
 	}
 
 	/**
-	 * Creates a new {@literal RingBufferDispatcher} with the given {@code name}. It will use a {@link reactor.jarjar
-	 * .com.lmax.disruptor.RingBuffer} with
-	 * {@code bufferSize} slots, configured with a producer type of {@link reactor.jarjar.com.lmax.disruptor.dsl
-	 * .ProducerType#MULTI MULTI}
-	 * and a {@link reactor.jarjar.com.lmax.disruptor.BlockingWaitStrategy blocking wait. A given @param
-	 * uncaughtExceptionHandler} will catch anything not
-	 * handled e.g. by the owning {@link reactor.bus.EventBus} or {@link reactor.rx.Stream}.
+	 * Creates a new {@code MpscDispatcher} with the given {@code name} and {@code bufferSize}. It will use a {@link
+	 * BackoffIdleStrategy}.
 	 *
 	 * @param name       The name of the dispatcher
-	 * @param bufferSize The size to configure the ring buffer with
+	 * @param bufferSize The number of tasks the dispatcher can queue, rounded up to the next power of 2
 	 */
-	@SuppressWarnings({"unchecked"})
 	public MpscDispatcher(String name,
 	                      int bufferSize) {
+		this(name, bufferSize, new BackoffIdleStrategy());
+	}
+
+	/**
+	 * Creates a new {@code MpscDispatcher} with the given {@code name}, {@code bufferSize} and {@code idleStrategy}.
+	 *
+	 * @param name         The name of the dispatcher
+	 * @param bufferSize   The number of tasks the dispatcher can queue, rounded up to the next power of 2
+	 * @param idleStrategy The strategy the dispatcher thread uses to wait for tasks
+	 */
+	public MpscDispatcher(String name,
+	                      int bufferSize,
+	                      IdleStrategy idleStrategy) {
 		super(bufferSize);
 
+		// a published task is at its free sequence + 1, which must not be the free sequence of its next lap
+		this.capacity = bufferSize <= 2 ? 2 : Integer.highestOneBit(bufferSize - 1) << 1;
+		this.mask = capacity - 1;
+		this.chunkSize = Math.min(capacity, MAX_CHUNK_SIZE);
+		this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+		this.chunks = new AtomicReferenceArray<MpscTask[]>(capacity / chunkSize);
+		this.idleStrategy = idleStrategy;
+
 		this.executor = Executors.newSingleThreadExecutor(new NamedDaemonThreadFactory(name, getContext()));
-		this.workQueue = MpscLinkedQueue.create();
-		this.capacity = bufferSize;
 		this.executor.execute(new Runnable() {
 			@Override
 			public void run() {
-				Task task;
-				try {
-					for (; ; ) {
-						task = workQueue.poll();
-						if (null != task) {
-							task.run();
-						} else {
-							LockSupport.parkNanos(1l); //TODO expose
-						}
-					}
-				}catch (EndException e){
-					//ignore
-				}
+				consume();
 			}
 		});
 	}
@@ -106,62 +121,129 @@ public final class MpscDispatcher extends SingleThreadDispatcher {
 
 	@Override
 	public void shutdown() {
-		workQueue.add(new EndMpscTask());
-		executor.shutdown();
 		super.shutdown();
+		executor.shutdown();
+		LockSupport.unpark(consumer);
 	}
 
 	@Override
 	public void forceShutdown() {
-		workQueue.add(new EndMpscTask());
-		executor.shutdownNow();
 		super.forceShutdown();
+		executor.shutdownNow();
 	}
 
 	@Override
 	public long remainingSlots() {
-		return workQueue.size();
+		return capacity - (tail.get() - head);
 	}
 
-
 	@Override
 	protected Task tryAllocateTask() throws InsufficientCapacityException {
-		if (workQueue.size() > capacity) {
+		MpscTask task = claim();
+		if (null == task) {
 			throw InsufficientCapacityException.INSTANCE;
-		} else {
-			return allocateTask();
 		}
+		return task;
 	}
 
 	@Override
 	protected Task allocateTask() {
-		return new SingleThreadTask();
+		MpscTask task;
+		while (null == (task = claim())) {
+			if (executor.isTerminated()) {
+				throw new IllegalStateException("This Dispatcher has been shut down.");
+			}
+			// sleep rather than yield, a producer preempted before publishing the oldest task may need the CPU
+			LockSupport.parkNanos(1l);
+		}
+		return task;
 	}
 
 	protected void execute(Task task) {
-		workQueue.add(task);
+		MpscTask mpscTask = (MpscTask) task;
+		mpscTask.sequence = mpscTask.claimed + 1l;
+		if (waiting) {
+			LockSupport.unpark(consumer);
+		}
 	}
 
-	private class EndMpscTask extends SingleThreadTask {
+	private MpscTask claim() {
+		long claimed;
+		MpscTask task;
+		for (; ; ) {
+			claimed = tail.get();
+			task = chunk((int) claimed & mask)[(int) claimed & (chunkSize - 1)];
+			long delta = task.sequence - claimed;
+			if (delta < 0l) {
+				return null;
+			}
+			if (delta == 0l && tail.compareAndSet(claimed, claimed + 1l)) {
+				task.claimed = claimed;
+				return task;
+			}
+		}
+	}
 
-		@Override
-		public void run() {
-			throw EndException.INSTANCE;
+	private MpscTask[] chunk(int index) {
+		int chunkIndex = index >> chunkShift;
+		MpscTask[] chunk = chunks.get(chunkIndex);
+		if (null == chunk) {
+			// a chunk is first used during the first lap of the queue, its tasks are free at their own index
+			chunk = new MpscTask[chunkSize];
+			for (int i = 0; i < chunkSize; i++) {
+				chunk[i] = new MpscTask(chunkIndex * chunkSize + i);
+			}
+			if (!chunks.compareAndSet(chunkIndex, null, chunk)) {
+				chunk = chunks.get(chunkIndex);
+			}
 		}
+		return chunk;
 	}
 
-	private static final class EndException extends IllegalStateException{
-		public static final EndException INSTANCE = new EndException();
+	private MpscTask poll(long sequence) {
+		int index = (int) sequence & mask;
+		MpscTask[] chunk = chunks.get(index >> chunkShift);
+		if (null == chunk) {
+			return null;
+		}
+		MpscTask task = chunk[index & (chunkSize - 1)];
+		return task.sequence == sequence + 1l ? task : null;
+	}
 
-		private EndException()
-		{
-			// Singleton
+	private void consume() {
+		consumer = Thread.currentThread();
+		int idleCount = 0;
+		long sequence = head;
+		MpscTask task;
+		for (; ; ) {
+			task = poll(sequence);
+			if (null != task) {
+				idleCount = 0;
+				try {
+					task.run();
+				} finally {
+					head = ++sequence;
+					task.sequence = sequence - 1l + capacity;
+				}
+			} else if (!alive() || Thread.currentThread().isInterrupted()) {
+				return;
+			} else if (!idleStrategy.idle(idleCount == Integer.MAX_VALUE ? idleCount : ++idleCount)) {
+				waiting = true;
+				if (null == poll(sequence) && alive()) {
+					LockSupport.park(this);
+				}
+				waiting = false;
+			}
 		}
+	}
+
+	private final class MpscTask extends SingleThreadTask {
+
+		volatile long sequence;
+		long          claimed;
 
-		@Override
-		public synchronized Throwable fillInStackTrace()
-		{
-			return this;
+		MpscTask(long sequence) {
+			this.sequence = sequence;
 		}
 	}
 
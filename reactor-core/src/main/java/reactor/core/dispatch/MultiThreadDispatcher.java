@@ -33,9 +33,19 @@ public abstract class MultiThreadDispatcher extends AbstractLifecycleDispatcher
 	private final BatchFactorySupplier<MultiThreadTask> taskFactory;
 
 	protected MultiThreadDispatcher(int numberThreads, int backlog) {
+		this(numberThreads, backlog, true);
+	}
+
+	/**
+	 * @param numberThreads the number of threads
+	 * @param backlog       the backlog size
+	 * @param preallocate   whether or not to warm up {@code backlog} tasks for {@link #allocateTask()}, subclasses
+	 *                      allocating their own tasks don't need them
+	 */
+	protected MultiThreadDispatcher(int numberThreads, int backlog, boolean preallocate) {
 		this.backlog = backlog;
 		this.numberThreads = numberThreads;
-		this.taskFactory = new BatchFactorySupplier<MultiThreadTask>(
+		this.taskFactory = !preallocate ? null : new BatchFactorySupplier<MultiThreadTask>(
 				backlog,
 				new Supplier<MultiThreadTask>() {
 					@Override
@@ -25,6 +25,7 @@ import reactor.jarjar.com.lmax.disruptor.*;
 import reactor.jarjar.com.lmax.disruptor.dsl.Disruptor;
 import reactor.jarjar.com.lmax.disruptor.dsl.ProducerType;
 
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -237,6 +238,25 @@ public final class RingBufferDispatcher extends SingleThreadDispatcher implement
 		ringBuffer.publish(((RingBufferTask) task).getSequenceId());
 	}
 
+	@Override
+	protected <E> void executeBatch(List<E> events, Consumer<E> eventConsumer, Consumer<Throwable> errorConsumer) {
+		int size = events.size();
+		int bufferSize = ringBuffer.getBufferSize();
+		int index = 0;
+		while (index < size) {
+			int n = Math.min(size - index, bufferSize);
+			long hi = ringBuffer.next(n);
+			long lo = hi - (n - 1);
+			for (long seqId = lo; seqId <= hi; seqId++) {
+				ringBuffer.get(seqId)
+						.setData(events.get(index++))
+						.setErrorConsumer(errorConsumer)
+						.setEventConsumer(eventConsumer);
+			}
+			ringBuffer.publish(lo, hi);
+		}
+	}
+
 	private class RingBufferTask extends SingleThreadTask {
 		private long sequenceId;
 
@@ -20,6 +20,7 @@ import reactor.Environment;
 import reactor.core.Dispatcher;
 import reactor.fn.Consumer;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -80,6 +81,15 @@ public final class SynchronousDispatcher implements Dispatcher {
 		}
 	}
 
+	@Override
+	public <E> void dispatchBatch(List<E> events,
+	                              Consumer<E> eventConsumer,
+	                              Consumer<Throwable> errorConsumer) {
+		for (int i = 0; i < events.size(); i++) {
+			dispatch(events.get(i), eventConsumer, errorConsumer);
+		}
+	}
+
 	@Override
 	public void execute(Runnable command) {
 		command.run();
@@ -22,6 +22,7 @@ import reactor.core.Dispatcher;
 import reactor.core.support.Assert;
 import reactor.fn.Consumer;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -95,6 +96,16 @@ public class TraceableDelegatingDispatcher implements Dispatcher {
 		delegate.dispatch(event, consumer, errorConsumer);
 	}
 
+	@Override
+	public <E> void dispatchBatch(List<E> events,
+	                              Consumer<E> consumer,
+	                              Consumer<Throwable> errorConsumer) {
+		if(log.isTraceEnabled()) {
+			log.trace("dispatchBatch({}, {}, {})", events, consumer, errorConsumer);
+		}
+		delegate.dispatchBatch(events, consumer, errorConsumer);
+	}
+
 	@Override
 	public void execute(Runnable command) {
 		delegate.execute(command);
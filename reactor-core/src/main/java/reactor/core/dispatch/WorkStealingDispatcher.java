@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.dispatch;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of a {@link reactor.core.Dispatcher} that uses a work-stealing {@link ForkJoinPool} to execute tasks.
+ * <p>
+ * Each worker thread has its own task deque: tasks dispatched from outside the pool are submitted to the pool queues,
+ * while tasks dispatched from a worker, E.g. by a consumer fanning work out, are forked to the deque of that worker.
+ * Idle workers steal tasks from the other deques, so bursty and recursive workloads spread over the workers without
+ * going through a single shared queue. Tasks are run in FIFO order from each deque, but like any multi-threaded
+ * dispatcher, the order in which tasks run across workers is not guaranteed.
+ * <p>
+ * Tasks are {@link ForkJoinTask ForkJoinTasks} reused by the worker which ran them for its next dispatches. Once
+ * {@code backlog} tasks are queued, a task dispatched from outside the pool is run in the calling thread, like the
+ * default policy of the {@link ThreadPoolExecutorDispatcher}, and {@code tryDispatch} fails.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public class WorkStealingDispatcher extends MultiThreadDispatcher {
+
+	private final ForkJoinPool pool;
+	private final int          cachedTasks;
+
+	/**
+	 * Creates a new {@literal WorkStealingDispatcher} with the given {@literal poolSize} and {@literal backlog}.
+	 *
+	 * @param poolSize the number of worker threads
+	 * @param backlog  the number of queued tasks after which tasks are run by the caller
+	 */
+	public WorkStealingDispatcher(int poolSize, int backlog) {
+		this(poolSize, backlog, "workStealingDispatcher");
+	}
+
+	/**
+	 * Creates a new {@literal WorkStealingDispatcher} with the given {@literal poolSize}, {@literal backlog} and thread
+	 * name prefix.
+	 *
+	 * @param poolSize   the number of worker threads
+	 * @param backlog    the number of queued tasks after which tasks are run by the caller
+	 * @param threadName the name prefix to use when creating threads
+	 */
+	public WorkStealingDispatcher(int poolSize, int backlog, final String threadName) {
+		super(poolSize, backlog, false);
+		final AtomicInteger counter = new AtomicInteger();
+		this.pool = new ForkJoinPool(
+				poolSize,
+				new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+					@Override
+					public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+						ForkJoinWorkerThread thread = new WorkStealingThread(pool);
+						thread.setName(threadName + "-" + counter.incrementAndGet());
+						thread.setContextClassLoader(getContext());
+						return thread;
+					}
+				},
+				null,
+				true
+		);
+		this.cachedTasks = Math.max(1, backlog / pool.getParallelism());
+	}
+	@Override
+	public boolean awaitAndShutdown(long timeout, TimeUnit timeUnit) {
+		shutdown();
+		try {
+			if (!pool.awaitTermination(timeout, timeUnit)) {
+				return false;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void shutdown() {
+		pool.shutdown();
+		super.shutdown();
+	}
+
+	@Override
+	public void forceShutdown() {
+		pool.shutdownNow();
+		super.forceShutdown();
+	}
+
+	@Override
+	public long remainingSlots() {
+		return Math.max(0l, backlogSize() - pool.getQueuedSubmissionCount() - pool.getQueuedTaskCount());
+	}
+
+	@Override
+	protected Task allocateTask() {
+		// tasks are not taken from a pool shared by the workers, which they would all contend on
+		Thread thread = Thread.currentThread();
+		if (thread instanceof WorkStealingThread && ((WorkStealingThread) thread).getPool() == pool) {
+			WorkStealingTask task = ((WorkStealingThread) thread).tasks.pollLast();
+			if (null != task) {
+				task.action.reinitialize();
+				return task;
+			}
+		}
+		return new WorkStealingTask();
+	}
+
+	@Override
+	protected Task tryAllocateTask() throws InsufficientCapacityException {
+		if (remainingSlots() == 0l) {
+			throw InsufficientCapacityException.INSTANCE;
+		}
+		return allocateTask();
+	}
+
+	@Override
+	protected void execute(Task task) {
+		ForkJoinTask<Void> action = ((WorkStealingTask) task).action;
+		if (inPool()) {
+			// ForkJoinPool.execute only pushes to the deque of the calling worker from JDK 9
+			action.fork();
+		} else if (remainingSlots() == 0l) {
+			task.run();
+		} else {
+			pool.execute(action);
+		}
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		if (inPool()) {
+			ForkJoinTask.adapt(command).fork();
+		} else {
+			pool.execute(command);
+		}
+	}
+
+	private boolean inPool() {
+		return ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == pool;
+	}
+
+	private final class WorkStealingTask extends MultiThreadTask {
+
+		final ForkJoinTask<Void> action = new RecursiveAction() {
+			@Override
+			protected void compute() {
+				WorkStealingTask.this.run();
+				((WorkStealingThread) Thread.currentThread()).recycle(WorkStealingTask.this);
+			}
+		};
+
+	}
+
+	private final class WorkStealingThread extends ForkJoinWorkerThread {
+
+		// only touched by this worker: the tasks it ran, reused by the tasks it dispatches
+		final ArrayDeque<WorkStealingTask> tasks = new ArrayDeque<WorkStealingTask>();
+
+		WorkStealingThread(ForkJoinPool pool) {
+			super(pool);
+		}
+
+		void recycle(WorkStealingTask task) {
+			if (tasks.size() < cachedTasks) {
+				tasks.offerLast(task);
+			}
+		}
+	}
+
+}
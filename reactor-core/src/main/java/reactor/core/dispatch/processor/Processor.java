@@ -48,9 +48,10 @@ import java.util.concurrent.Executors;
  * <p>
  * To operate on the {@code Processor} in batch mode, first set a {@link BatchConsumer} as the {@link Consumer} of
  * events. This interface provides two additional methods, {@link reactor.fn.batch.BatchConsumer#start()}, which
- * is invoked before the batch starts, and {@link reactor.fn.batch.BatchConsumer#end()}, which is invoked when
- * the
- * batch is submitted. The {@link BatchConsumer} will work for either single-operation mode or batch mode, but only a
+ * is invoked before the first event of a batch, and {@link reactor.fn.batch.BatchConsumer#end()}, which is invoked
+ * after its last event. A batch is the run of events the consumer thread finds available in the {@link RingBuffer} at
+ * once, so it holds at least the events published together but may hold several publications when the consumer
+ * falls behind. The {@link BatchConsumer} will work for either single-operation mode or batch mode, but only a
  * {@link BatchConsumer} will be able to recognize the start and end of a batch.
  *
  * @author Jon Brisbin
@@ -198,31 +199,47 @@ public class Processor<T> implements Supplier<Operation<T>> {
 	}
 
 	private static class ConsumerEventHandler<T> implements EventHandler<Operation<T>>, LifecycleAware {
-		final Consumer<T> consumer;
-		final boolean     isBatchConsumer;
+		final Consumer<T>      consumer;
+		final BatchConsumer<T> batchConsumer;
 
+		boolean inBatch = false;
+
+		@SuppressWarnings("unchecked")
 		private ConsumerEventHandler(Consumer<T> consumer) {
 			this.consumer = consumer;
-			this.isBatchConsumer = consumer instanceof BatchConsumer;
+			this.batchConsumer = consumer instanceof BatchConsumer ? (BatchConsumer<T>) consumer : null;
 		}
 
 		@Override
 		public void onStart() {
-			if (isBatchConsumer) {
-				((BatchConsumer) consumer).start();
-			}
 		}
 
 		@Override
 		public void onShutdown() {
-			if (isBatchConsumer) {
-				((BatchConsumer) consumer).end();
+			if (inBatch) {
+				inBatch = false;
+				batchConsumer.end();
 			}
 		}
 
 		@Override
 		public void onEvent(Operation<T> op, long sequence, boolean endOfBatch) throws Exception {
-			consumer.accept(op.get());
+			if (null == batchConsumer) {
+				consumer.accept(op.get());
+				return;
+			}
+			if (!inBatch) {
+				inBatch = true;
+				batchConsumer.start();
+			}
+			try {
+				consumer.accept(op.get());
+			} finally {
+				if (endOfBatch) {
+					inBatch = false;
+					batchConsumer.end();
+				}
+			}
 		}
 	}
 
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2011-2014 Pivotal Software, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package reactor.core.dispatch.wait;
+
+/**
+ * An {@link IdleStrategy} that busy spins for a number of polls, then yields the CPU for a number of polls before
+ * letting the consumer block. A consumer blocked this way uses no CPU until a producer wakes it up.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public class BackoffIdleStrategy implements IdleStrategy {
+
+	private final int maxSpins;
+	private final int maxYields;
+
+	/**
+	 * Create a {@code BackoffIdleStrategy} that spins 100 times and yields 10 times before blocking.
+	 */
+	public BackoffIdleStrategy() {
+		this(100, 10);
+	}
+
+	/**
+	 * Create a {@code BackoffIdleStrategy}.
+	 *
+	 * @param maxSpins  the number of polls to busy spin for, {@link Integer#MAX_VALUE} to never yield nor block
+	 * @param maxYields the number of polls to yield for once done spinning, {@link Integer#MAX_VALUE} to never block
+	 */
+	public BackoffIdleStrategy(int maxSpins, int maxYields) {
+		this.maxSpins = maxSpins;
+		this.maxYields = maxYields;
+	}
+
+	@Override
+	public boolean idle(int idleCount) {
+		if (idleCount <= maxSpins) {
+			return true;
+		}
+		if (idleCount - maxSpins <= maxYields) {
+			Thread.yield();
+			return true;
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2011-2014 Pivotal Software, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package reactor.core.dispatch.wait;
+
+/**
+ * How a consumer thread waits while its queue is empty. The strategy is asked what to do after each unsuccessful poll
+ * and can spin, yield or let the consumer block until a producer wakes it up.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public interface IdleStrategy {
+
+	/**
+	 * Wait after the given number of consecutive unsuccessful polls.
+	 *
+	 * @param idleCount the number of polls that found no work since the last one that did, starting at {@code 1}
+	 * @return {@code true} if the consumer should poll again, {@code false} if it should block until work is signalled
+	 */
+	boolean idle(int idleCount);
+
+}
@@ -15,6 +15,7 @@
  */
 package reactor.core.internal;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
@@ -48,6 +49,17 @@ public class PlatformDependent {
 		return HAS_UNSAFE;
 	}
 
+	/**
+	 * Try to deallocate the specified direct or memory-mapped {@link ByteBuffer} right away instead of waiting for it
+	 * to be collected. Nothing happens if the buffer is not direct or if the runtime doesn't expose its cleaner. The
+	 * buffer, and every view of it, must never be accessed again.
+	 */
+	public static void freeDirectBuffer(ByteBuffer buffer) {
+		if (!isAndroid() && buffer.isDirect()) {
+			PlatformDependent0.freeDirectBuffer(buffer);
+		}
+	}
+
 	private static boolean isAndroid() {
 		boolean android;
 		try {
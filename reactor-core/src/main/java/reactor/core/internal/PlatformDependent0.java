@@ -22,6 +22,7 @@ package reactor.core.internal;
 import sun.misc.Unsafe;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.security.AccessController;
@@ -37,7 +38,9 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 final class PlatformDependent0 {
 
 	private static final Unsafe UNSAFE;
-
+	private static final Object CLEANER_UNSAFE;
+	private static final Method INVOKE_CLEANER;
+	private static final Field  CLEANER_FIELD;
 
 	static {
 		ByteBuffer direct = ByteBuffer.allocateDirect(1);
@@ -87,6 +90,28 @@ final class PlatformDependent0 {
 		}
 
 		UNSAFE = unsafe;
+
+		// Java 9+ frees a direct buffer through Unsafe, older versions through its sun.misc.Cleaner
+		Object theUnsafe = null;
+		Method invokeCleaner = null;
+		Field cleanerField = null;
+		try {
+			Field unsafeField = Unsafe.class.getDeclaredField("theUnsafe");
+			unsafeField.setAccessible(true);
+			theUnsafe = unsafeField.get(null);
+			invokeCleaner = Unsafe.class.getMethod("invokeCleaner", ByteBuffer.class);
+		} catch (Throwable t) {
+			try {
+				cleanerField = direct.getClass().getDeclaredField("cleaner");
+				cleanerField.setAccessible(true);
+				cleanerField.get(direct).getClass().getMethod("clean");
+			} catch (Throwable cause) {
+				cleanerField = null;
+			}
+		}
+		CLEANER_UNSAFE = theUnsafe;
+		INVOKE_CLEANER = invokeCleaner;
+		CLEANER_FIELD = cleanerField;
 	}
 
 	static boolean hasUnsafe() {
@@ -99,6 +124,21 @@ final class PlatformDependent0 {
 		return new UnsafeAtomicReferenceFieldUpdater<U, W>(UNSAFE, tclass, fieldName);
 	}
 
+	static void freeDirectBuffer(ByteBuffer buffer) {
+		try {
+			if (INVOKE_CLEANER != null) {
+				INVOKE_CLEANER.invoke(CLEANER_UNSAFE, buffer);
+			} else if (CLEANER_FIELD != null) {
+				Object cleaner = CLEANER_FIELD.get(buffer);
+				if (cleaner != null) {
+					cleaner.getClass().getMethod("clean").invoke(cleaner);
+				}
+			}
+		} catch (Throwable t) {
+			// Nothing we can do here, the buffer will be freed when it is collected.
+		}
+	}
+
 	static ClassLoader getSystemClassLoader() {
 		if (System.getSecurityManager() == null) {
 			return ClassLoader.getSystemClassLoader();
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.queue;
+
+import reactor.core.support.Assert;
+import reactor.jarjar.com.lmax.disruptor.Sequence;
+import reactor.jarjar.com.lmax.disruptor.util.Util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free {@literal ArrayQueue} that supports a terminal state.
+ * <p>
+ * The queue is backed by an array whose length is the next power of two of the requested capacity. Producers claim
+ * a slot by moving a padded producer index forward, so {@link #offer(Object)} is safe from multiple threads and
+ * returns false when the queue is full. {@link #poll()} and {@link #peek()} must only be called by one consumer at a
+ * time, e.g. from a work-in-progress drain loop.
+ * <p>
+ * Null elements are not permitted, {@link #iterator()} returns a weakly consistent snapshot and removing arbitrary
+ * elements is not supported.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public final class CompletableArrayQueue<T> extends AbstractQueue<T> implements CompletableQueue<T> {
+
+	/**
+	 * The largest backing array a queue will allocate.
+	 */
+	public static final int MAX_CAPACITY = 1 << 30;
+
+	private final AtomicReferenceArray<T> buffer;
+	private final int                     mask;
+	private final Sequence                producerIndex = new Sequence(0l);
+	private final Sequence                consumerIndex = new Sequence(0l);
+
+	private volatile boolean terminated = false;
+
+	/**
+	 * Create a new queue holding at least {@code capacity} elements.
+	 *
+	 * @param capacity the minimum number of elements the queue can hold, clamped to {@link #MAX_CAPACITY}
+	 */
+	public CompletableArrayQueue(long capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be strictly positive");
+		int size = Util.ceilingNextPowerOfTwo((int) Math.min(capacity, MAX_CAPACITY));
+		this.buffer = new AtomicReferenceArray<T>(size);
+		this.mask = size - 1;
+	}
+
+	@Override
+	public boolean offer(T value) {
+		if (value == null) {
+			throw new NullPointerException("value");
+		}
+		long index;
+		do {
+			index = producerIndex.get();
+			if (index - consumerIndex.get() > mask) {
+				return false;
+			}
+		} while (!producerIndex.compareAndSet(index, index + 1l));
+
+		buffer.lazySet((int) index & mask, value);
+		return true;
+	}
+
+	@Override
+	public T poll() {
+		long index = consumerIndex.get();
+		int offset = (int) index & mask;
+		T value = slot(index, offset);
+		if (value == null) {
+			return null;
+		}
+		buffer.lazySet(offset, null);
+		consumerIndex.set(index + 1l);
+		return value;
+	}
+
+	@Override
+	public T peek() {
+		long index = consumerIndex.get();
+		return slot(index, (int) index & mask);
+	}
+
+	@Override
+	public int size() {
+		long consumed;
+		long produced;
+		do {
+			consumed = consumerIndex.get();
+			produced = producerIndex.get();
+		} while (consumed != consumerIndex.get());
+		return (int) (produced - consumed);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return consumerIndex.get() == producerIndex.get();
+	}
+
+	/**
+	 * @return the number of elements the queue can hold
+	 */
+	public int capacity() {
+		return mask + 1;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		long produced = producerIndex.get();
+		List<T> snapshot = new ArrayList<T>();
+		T value;
+		for (long index = consumerIndex.get(); index < produced; index++) {
+			value = buffer.get((int) index & mask);
+			if (value != null) {
+				snapshot.add(value);
+			}
+		}
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+
+	@Override
+	public void complete() {
+		terminated = true;
+	}
+
+	@Override
+	public boolean isComplete() {
+		return terminated;
+	}
+
+	private T slot(long index, int offset) {
+		T value = buffer.get(offset);
+		if (value == null && index != producerIndex.get()) {
+			// a producer claimed the slot but has not written it yet, the value is bound to show up
+			do {
+				value = buffer.get(offset);
+			} while (value == null);
+		}
+		return value;
+	}
+}
@@ -34,6 +34,14 @@ public abstract class UUIDUtils {
 	private static final ReentrantLock lock = new ReentrantLock();
 	private static long lastTime;
 
+	private static final ThreadLocal<long[]> sequences = new ThreadLocal<long[]>() {
+		@Override
+		protected long[] initialValue() {
+			// random, version 4 most significant bits followed by a counter
+			return new long[]{(random().getMostSignificantBits() & ~0xF000L) | 0x4000L, 0l};
+		}
+	};
+
 	static {
 		try {
 			IS_THREADLOCALRANDOM_AVAILABLE = null != UUIDUtils.class.getClassLoader().loadClass(
@@ -77,6 +85,17 @@ public abstract class UUIDUtils {
 		return new UUID(mostSigBits, leastSigBits);
 	}
 
+	/**
+	 * Create a new UUID from a sequence owned by the current thread, without any lock. The most significant bits are
+	 * drawn at random once per thread, the least significant bits count the UUIDs created by that thread.
+	 *
+	 * @return the new UUID
+	 */
+	public static UUID sequential() {
+		long[] sequence = sequences.get();
+		return new UUID(sequence[0], sequence[1]++);
+	}
+
 	/**
 	 * Create a new time-based UUID.
 	 *
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.fn;
+
+/**
+ * Implementations of this class incrementally aggregate values into a partial aggregate of type {@code A}, merge
+ * partial aggregates together and extract a result from the merged aggregate. It lets a windowed operator such as
+ * {@link reactor.rx.Stream#aggregate(long, long, java.util.concurrent.TimeUnit, Aggregator)} keep one partial
+ * aggregate per pane of a window instead of the values themselves.
+ *
+ * @param <T> The type of the aggregated values
+ * @param <A> The type of the partial aggregate
+ * @param <R> The type of the result
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public interface Aggregator<T, A, R> {
+
+	/**
+	 * Create an empty partial aggregate.
+	 *
+	 * @return a new partial aggregate
+	 */
+	A create();
+
+	/**
+	 * Add a value to a partial aggregate.
+	 *
+	 * @param aggregate the partial aggregate, which can be updated and returned
+	 * @param value     the value to add
+	 * @return the updated partial aggregate
+	 */
+	A accumulate(A aggregate, T value);
+
+	/**
+	 * Merge a partial aggregate into another one.
+	 *
+	 * @param aggregate the partial aggregate to merge into, which can be updated and returned
+	 * @param other     the partial aggregate to merge, which must not be updated
+	 * @return the merged partial aggregate
+	 */
+	A combine(A aggregate, A other);
+
+	/**
+	 * Extract the result of a merged aggregate.
+	 *
+	 * @param aggregate the merged aggregate
+	 * @return the result
+	 */
+	R result(A aggregate);
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.fn;
+
+/**
+ * Implementations of this class extract a primitive {@code double} from the given parameter, without boxing it.
+ *
+ * @param <T> The type of the input to the apply operation
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public interface ToDoubleFunction<T> {
+
+	/**
+	 * Execute the logic of the action, accepting the given parameter.
+	 *
+	 * @param t The parameter to pass to the action.
+	 *
+	 * @return the primitive result
+	 */
+	double applyAsDouble(T t);
+
+}
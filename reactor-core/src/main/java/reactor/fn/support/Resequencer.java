@@ -20,10 +20,9 @@ import reactor.core.support.Assert;
 import reactor.fn.Consumer;
 
 import javax.annotation.Nonnull;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * A {@code Resequencer} allows claimants to ensure proper ordering of replies by allocating {@code long} values from a
@@ -31,31 +30,50 @@ import java.util.concurrent.locks.ReentrantLock;
  * passing the slot number it claimed in addition to the value being published. The {@code Resequencer} will ensure
  * that out-of-order replies are re-ordered by the claimed slot number and later replies are queued and only passed to
  * the configured {@link reactor.fn.Consumer} once the earlier replies have been published.
+ * <p>
+ * Replies are stored without locking in a ring indexed by {@code slot % capacity}, so a reply can only be accepted
+ * for a slot less than {@code capacity} slots ahead of the next slot to publish. The ring is drained by a single
+ * claimant at a time: the one publishing the next slot, or the one that gets there first when several do, publishes
+ * every contiguous reply, including the replies accepted by the other claimants meanwhile.
  *
  * @author Jon Brisbin
+ * @author Stephane Maldini
  */
 public class Resequencer<T> {
 
-	private final ReentrantLock lock    = new ReentrantLock();
-	private final AtomicLong    slots   = new AtomicLong();
-	private final AtomicLong    claims  = new AtomicLong();
-	private final Map<Long, T>  results = new TreeMap<Long, T>();
-	private final Consumer<T> delegate;
-	private final long        maxBacklog;
+	/**
+	 * The default number of slots that can be accepted ahead of the next slot to publish.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private static final int    MAX_CAPACITY = 1 << 30;
+	private static final Object NULL         = new Object();
+
+	private static final AtomicIntegerFieldUpdater<Resequencer> WIP_UPDATER =
+			AtomicIntegerFieldUpdater.newUpdater(Resequencer.class, "wip");
+
+	private final AtomicLong                   slots = new AtomicLong();
+	private final AtomicReferenceArray<Object> ring;
+	private final int                          mask;
+	private final Consumer<T>                  delegate;
+
+	private volatile long claims = 0l;
+	private volatile int  wip    = 0;
 
 	/**
-	 * Create a {@code Resequencer} that delegates to the given {@link reactor.fn.Consumer}.
+	 * Create a {@code Resequencer} that delegates to the given {@link reactor.fn.Consumer}, accepting up to {@link
+	 * #DEFAULT_CAPACITY} slots ahead of the next slot to publish.
 	 *
 	 * @param delegate
 	 * 		the {@link reactor.fn.Consumer} to delegate values to.
 	 */
 	public Resequencer(@Nonnull Consumer<T> delegate) {
-		this(delegate, Integer.MAX_VALUE);
+		this(delegate, DEFAULT_CAPACITY);
 	}
 
 	/**
 	 * Create a {@code Resequencer} that delegates to the given {@link reactor.fn.Consumer}. Only queue {@code
-	 * maxBacklog} number of items before throwing an exception.
+	 * maxBacklog} number of items, rounded up to a power of 2, before throwing an exception.
 	 *
 	 * @param delegate
 	 * 		the {@link reactor.fn.Consumer} to delegate values to.
@@ -63,8 +81,12 @@ public class Resequencer<T> {
 	 * 		the maximum number of items to queue in the backlog waiting on an earlier reply.
 	 */
 	public Resequencer(@Nonnull Consumer<T> delegate, long maxBacklog) {
+		Assert.isTrue(maxBacklog > 0, "The backlog must be positive.");
+		int capacity = (int) Math.min(maxBacklog, MAX_CAPACITY);
+		capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
 		this.delegate = delegate;
-		this.maxBacklog = maxBacklog;
+		this.ring = new AtomicReferenceArray<Object>(capacity);
+		this.mask = capacity - 1;
 	}
 
 	/**
@@ -76,35 +98,61 @@ public class Resequencer<T> {
 	 * 		the value to publish.
 	 */
 	public void accept(long slot, T t) {
-		lock.lock();
-		try {
-			Assert.notNull(slot, "Slot cannot be null.");
-			Assert.isTrue(slot <= slots.get(),
-					"Cannot accept a value for slot " + slot + " when only " + slots.get() + " slots have been " +
-							"allocated.");
-
-			long next = claims.get() + 1;
-			if (slot == next) {
-				delegate.accept(t);
-				claims.incrementAndGet();
-				if (!results.isEmpty()) {
-					for (Map.Entry<Long, T> entry : results.entrySet()) {
-						delegate.accept(entry.getValue());
-						claims.incrementAndGet();
-					}
-					results.clear();
-				}
-			} else {
-				Assert.isTrue(slot - claims.get() < maxBacklog, "Cannot backlog more than " + maxBacklog + " items.");
-				results.put(slot, t);
-			}
-		} finally {
-			lock.unlock();
+		if (slot > slots.get()) {
+			throw new IllegalArgumentException("Cannot accept a value for slot " + slot + " when only " + slots.get() +
+					" slots have been allocated.");
+		}
+		if (slot - claims > ring.length()) {
+			throw new IllegalArgumentException("Cannot backlog more than " + ring.length() + " items.");
 		}
+
+		ring.lazySet((int) slot & mask, t == null ? NULL : t);
+		drain();
 	}
 
 	public long next() {
 		return slots.incrementAndGet();
 	}
 
+	/**
+	 * The number of slots that can be accepted ahead of the next slot to publish.
+	 *
+	 * @return the capacity of this {@code Resequencer}
+	 */
+	public int capacity() {
+		return ring.length();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void drain() {
+		if (WIP_UPDATER.getAndIncrement(this) != 0) {
+			return;
+		}
+		RuntimeException error = null;
+		int missed = 1;
+		long next = claims + 1;
+		Object value;
+		for (; ; ) {
+			while ((value = ring.get((int) next & mask)) != null) {
+				ring.lazySet((int) next & mask, null);
+				claims = next++;
+				try {
+					delegate.accept(value == NULL ? null : (T) value);
+				} catch (RuntimeException e) {
+					// keep publishing the replies claimants have handed over, then report the first failure
+					if (error == null) {
+						error = e;
+					}
+				}
+			}
+			missed = WIP_UPDATER.addAndGet(this, -missed);
+			if (missed == 0) {
+				break;
+			}
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
 }
@@ -0,0 +1,544 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.fn.timer;
+
+import reactor.bus.registry.Registration;
+import reactor.bus.selector.Selector;
+import reactor.core.support.Assert;
+import reactor.core.support.NamedDaemonThreadFactory;
+import reactor.fn.Consumer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Hierarchical Wheel Timer, as per the paper:
+ *
+ * Hashed and hierarchical timing wheels:
+ * http://www.cs.columbia.edu/~nahum/w6998/papers/ton97-timing-wheels.pdf
+ *
+ * The timer keeps {@link #LEVELS} wheels of {@code wheelSize} buckets, each bucket of a wheel spanning a whole
+ * revolution of the wheel below. A registration is stored in the lowest wheel that can hold its deadline, and moved
+ * down each time the lower wheel completes a revolution. A tick therefore only visits the registrations expiring on
+ * it, whatever the number of outstanding registrations.
+ * <p>
+ * Buckets are intrusive doubly-linked lists of registrations owned by the timer thread. Other threads push new and
+ * cancelled registrations onto lock-free stacks the timer thread drains in one batch per tick, cancelled
+ * registrations being unlinked in constant time.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public class HierarchicalWheelTimer implements Timer {
+
+	public static final  int    DEFAULT_WHEEL_SIZE = 64;
+	public static final  int    LEVELS             = 4;
+	public static final  int    MAX_WHEEL_SIZE     = 1 << 15;
+	private static final String DEFAULT_TIMER_NAME = "hierarchical-wheel-timer";
+
+	private static final AtomicReferenceFieldUpdater<HierarchicalWheelTimer, TimerRegistration> SCHEDULED_UPDATER =
+			AtomicReferenceFieldUpdater.newUpdater(HierarchicalWheelTimer.class, TimerRegistration.class, "scheduled");
+
+	private static final AtomicReferenceFieldUpdater<HierarchicalWheelTimer, TimerRegistration> CANCELLED_UPDATER =
+			AtomicReferenceFieldUpdater.newUpdater(HierarchicalWheelTimer.class, TimerRegistration.class, "cancelled");
+
+	private final Bucket[][]                  wheels;
+	private final int                         bits;
+	private final int                         mask;
+	private final int                         resolution;
+	private final Thread                      loop;
+	private final Executor                    executor;
+	private final HashWheelTimer.WaitStrategy waitStrategy;
+
+	//Registrations pushed by other threads, drained by the timer thread
+	private volatile TimerRegistration scheduled;
+	private volatile TimerRegistration cancelled;
+
+	//Only accessed by the timer thread
+	private long tick = 0l;
+
+	/**
+	 * Create a new {@code HierarchicalWheelTimer} using the given with default resolution of 100 milliseconds and
+	 * default wheel size.
+	 */
+	public HierarchicalWheelTimer() {
+		this(100, DEFAULT_WHEEL_SIZE, new HashWheelTimer.SleepWait());
+	}
+
+	/**
+	 * Create a new {@code HierarchicalWheelTimer} using the given timer resolution. All times will rounded up to the
+	 * closest multiple of this resolution.
+	 *
+	 * @param resolution
+	 * 		the resolution of this timer, in milliseconds
+	 */
+	public HierarchicalWheelTimer(int resolution) {
+		this(resolution, DEFAULT_WHEEL_SIZE, new HashWheelTimer.SleepWait());
+	}
+
+	/**
+	 * Create a new {@code HierarchicalWheelTimer} using the given timer {@param res} and {@param wheelSize}. All times
+	 * will rounded up to the closest multiple of this resolution.
+	 *
+	 * @param res
+	 * 		resolution of this timer in milliseconds
+	 * @param wheelSize
+	 * 		number of buckets of each wheel, must be a power of 2 up to {@link #MAX_WHEEL_SIZE}. The timer covers
+	 * 		{@code wheelSize} to the power of {@link #LEVELS} ticks before delaying the registrations further away.
+	 * 		Sane default is 64.
+	 * @param waitStrategy
+	 * 		strategy for waiting for the next tick
+	 */
+	public HierarchicalWheelTimer(int res, int wheelSize, HashWheelTimer.WaitStrategy waitStrategy) {
+		this(DEFAULT_TIMER_NAME, res, wheelSize, waitStrategy, Executors.newFixedThreadPool(1));
+	}
+
+	/**
+	 * Create a new {@code HierarchicalWheelTimer} using the given timer {@param res} and {@param wheelSize}. All times
+	 * will rounded up to the closest multiple of this resolution.
+	 *
+	 * @param name
+	 * 		name for daemon thread factory to be displayed
+	 * @param res
+	 * 		resolution of this timer in milliseconds
+	 * @param wheelSize
+	 * 		number of buckets of each wheel, must be a power of 2 up to {@link #MAX_WHEEL_SIZE}. Sane default is 64.
+	 * @param strategy
+	 * 		strategy for waiting for the next tick
+	 * @param exec
+	 * 		Executor instance to submit tasks to
+	 */
+	public HierarchicalWheelTimer(String name,
+	                              int res,
+	                              int wheelSize,
+	                              HashWheelTimer.WaitStrategy strategy,
+	                              Executor exec) {
+		Assert.isTrue(wheelSize > 1 && wheelSize <= MAX_WHEEL_SIZE && Integer.bitCount(wheelSize) == 1,
+		              "wheelSize must be a power of 2 no greater than " + MAX_WHEEL_SIZE);
+
+		this.waitStrategy = strategy;
+		this.resolution = res;
+		this.executor = exec;
+		this.bits = Integer.numberOfTrailingZeros(wheelSize);
+		this.mask = wheelSize - 1;
+
+		this.wheels = new Bucket[LEVELS][wheelSize];
+		for (Bucket[] wheel : wheels) {
+			for (int i = 0; i < wheelSize; i++) {
+				wheel[i] = new Bucket();
+			}
+		}
+
+		this.loop = new NamedDaemonThreadFactory(name).newThread(new Runnable() {
+			@Override
+			public void run() {
+				long deadline = System.currentTimeMillis();
+
+				while (true) {
+					drainCancelled();
+					drainScheduled();
+					expire();
+
+					tick++;
+					deadline += resolution;
+
+					try {
+						waitStrategy.waitUntil(deadline);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+		});
+
+		this.start();
+	}
+
+	@Override
+	public long getResolution() {
+		return resolution;
+	}
+
+	@Override
+	public TimerRegistration<? extends Consumer<Long>> schedule(Consumer<Long> consumer,
+	                                                            long period,
+	                                                            TimeUnit timeUnit,
+	                                                            long delayInMilliseconds) {
+		return schedule(TimeUnit.MILLISECONDS.convert(period, timeUnit), delayInMilliseconds, consumer);
+	}
+
+	@Override
+	public TimerRegistration<? extends Consumer<Long>> schedule(Consumer<Long> consumer,
+	                                                            long period,
+	                                                            TimeUnit timeUnit) {
+		return schedule(TimeUnit.MILLISECONDS.convert(period, timeUnit), 0, consumer);
+	}
+
+	@Override
+	public TimerRegistration<? extends Consumer<Long>> submit(Consumer<Long> consumer,
+	                                                          long delay,
+	                                                          TimeUnit timeUnit) {
+		long ms = TimeUnit.MILLISECONDS.convert(delay, timeUnit);
+		return schedule(ms, ms, consumer).cancelAfterUse();
+	}
+
+	@Override
+	public TimerRegistration<? extends Consumer<Long>> submit(Consumer<Long> consumer) {
+		return submit(consumer, resolution, TimeUnit.MILLISECONDS);
+	}
+
+	private TimerRegistration<Consumer<Long>> schedule(long recurringTimeout,
+	                                                   long firstDelay,
+	                                                   Consumer<Long> consumer) {
+		Assert.isTrue(!loop.isInterrupted(), "Cannot submit tasks to this timer as it has been cancelled.");
+		Assert.isTrue(recurringTimeout >= resolution,
+		              "Cannot schedule tasks for amount of time less than timer precision.");
+
+		TimerRegistration<Consumer<Long>> r = new TimerRegistration<Consumer<Long>>(
+				this,
+				consumer,
+				(firstDelay + resolution - 1) / resolution,
+				(recurringTimeout + resolution - 1) / resolution
+		);
+
+		TimerRegistration head;
+		do {
+			head = scheduled;
+			r.nextScheduled = head;
+		} while (!SCHEDULED_UPDATER.compareAndSet(this, head, r));
+
+		return r;
+	}
+
+	private void cancel(TimerRegistration<?> registration) {
+		TimerRegistration head;
+		do {
+			head = cancelled;
+			registration.nextCancelled = head;
+		} while (!CANCELLED_UPDATER.compareAndSet(this, head, registration));
+	}
+
+	/**
+	 * Start the Timer
+	 */
+	public void start() {
+		this.loop.start();
+	}
+
+	/**
+	 * Cancel current Timer
+	 */
+	public void cancel() {
+		this.loop.interrupt();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void drainScheduled() {
+		TimerRegistration<?> r = SCHEDULED_UPDATER.getAndSet(this, null);
+
+		//the stack is LIFO, reverse it so registrations scheduled together expire in order
+		TimerRegistration<?> fifo = null;
+		TimerRegistration<?> next;
+		while (r != null) {
+			next = r.nextScheduled;
+			r.nextScheduled = fifo;
+			fifo = r;
+			r = next;
+		}
+
+		while (fifo != null) {
+			next = fifo.nextScheduled;
+			fifo.nextScheduled = null;
+			if (!fifo.isCancelled()) {
+				fifo.deadline = tick + fifo.delay;
+				insert(fifo);
+			}
+			fifo = next;
+		}
+	}
+
+	private void drainCancelled() {
+		TimerRegistration<?> r = CANCELLED_UPDATER.getAndSet(this, null);
+		TimerRegistration<?> next;
+		while (r != null) {
+			next = r.nextCancelled;
+			r.nextCancelled = null;
+			if (r.bucket != null) {
+				r.bucket.remove(r);
+			}
+			r = next;
+		}
+	}
+
+	private void expire() {
+		int index = (int) (tick & mask);
+
+		//a lower wheel completed its revolution, move the registrations of the next bucket above down
+		if (index == 0) {
+			int bucket;
+			for (int level = 1; level < LEVELS; level++) {
+				bucket = (int) ((tick >>> (bits * level)) & mask);
+				reinsert(wheels[level][bucket].clear());
+				if (bucket != 0) {
+					break;
+				}
+			}
+		}
+
+		TimerRegistration<?> r = wheels[0][index].clear();
+		TimerRegistration<?> next;
+		while (r != null) {
+			next = r.next;
+			r.next = null;
+			if (r.isCancelled()) {
+				r = next;
+				continue;
+			}
+			if (r.deadline > tick) {
+				insert(r);
+			} else if (r.isPaused()) {
+				r.deadline = tick + r.period;
+				insert(r);
+			} else {
+				executor.execute(r);
+				if (!r.isCancelAfterUse()) {
+					r.deadline = tick + r.period;
+					insert(r);
+				}
+			}
+			r = next;
+		}
+	}
+
+	private void reinsert(TimerRegistration<?> r) {
+		TimerRegistration<?> next;
+		while (r != null) {
+			next = r.next;
+			r.next = null;
+			if (!r.isCancelled()) {
+				insert(r);
+			}
+			r = next;
+		}
+	}
+
+	private void insert(TimerRegistration<?> r) {
+		//a late registration expires on the current tick
+		long deadline = Math.max(r.deadline, tick);
+		long delta = deadline - tick;
+
+		int level = 0;
+		while (level < LEVELS - 1 && (delta >>> (bits * (level + 1))) != 0l) {
+			level++;
+		}
+
+		int index;
+		if ((delta >>> (bits * (level + 1))) != 0l) {
+			//beyond the last wheel, park it in its furthest bucket until it moves down again
+			index = (int) (((tick >>> (bits * level)) + mask) & mask);
+		} else {
+			index = (int) ((deadline >>> (bits * level)) & mask);
+		}
+		wheels[level][index].add(r);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("HierarchicalWheelTimer { Wheel Size: %d, Levels: %d, Resolution: %d }",
+		                     mask + 1,
+		                     LEVELS,
+		                     resolution);
+	}
+
+	/**
+	 * An intrusive doubly-linked list of {@link TimerRegistration}, only accessed by the timer thread.
+	 */
+	private static final class Bucket {
+		TimerRegistration<?> head;
+		TimerRegistration<?> tail;
+
+		void add(TimerRegistration<?> r) {
+			r.bucket = this;
+			r.prev = tail;
+			r.next = null;
+			if (tail == null) {
+				head = r;
+			} else {
+				tail.next = r;
+			}
+			tail = r;
+		}
+
+		void remove(TimerRegistration<?> r) {
+			if (r.prev == null) {
+				head = r.next;
+			} else {
+				r.prev.next = r.next;
+			}
+			if (r.next == null) {
+				tail = r.prev;
+			} else {
+				r.next.prev = r.prev;
+			}
+			r.prev = null;
+			r.next = null;
+			r.bucket = null;
+		}
+
+		/**
+		 * Detach every registration, still linked from the returned head through their next reference.
+		 */
+		TimerRegistration<?> clear() {
+			TimerRegistration<?> r = head;
+			for (TimerRegistration<?> it = r; it != null; it = it.next) {
+				it.prev = null;
+				it.bucket = null;
+			}
+			head = null;
+			tail = null;
+			return r;
+		}
+	}
+
+	/**
+	 * Timer Registration
+	 *
+	 * @param <T>
+	 * 		type of the Timer Registration Consumer
+	 */
+	public static class TimerRegistration<T extends Consumer<Long>> implements Runnable, Registration<T> {
+
+		public static final int STATUS_PAUSED    = 1;
+		public static final int STATUS_CANCELLED = -1;
+		public static final int STATUS_READY     = 0;
+
+		private static final AtomicIntegerFieldUpdater<TimerRegistration> STATUS_UPDATER =
+				AtomicIntegerFieldUpdater.newUpdater(TimerRegistration.class, "status");
+
+		private final HierarchicalWheelTimer timer;
+		private final T                      delegate;
+		private final long                   delay;
+		private final long                   period;
+
+		private volatile int     status         = STATUS_READY;
+		private volatile boolean cancelAfterUse = false;
+
+		//Only accessed by the timer thread
+		private long                 deadline;
+		private Bucket               bucket;
+		private TimerRegistration<?> prev;
+		private TimerRegistration<?> next;
+
+		//Written before being pushed onto the timer stacks
+		private TimerRegistration<?> nextScheduled;
+		private TimerRegistration<?> nextCancelled;
+
+		TimerRegistration(HierarchicalWheelTimer timer, T delegate, long delay, long period) {
+			this.timer = timer;
+			this.delegate = delegate;
+			this.delay = delay;
+			this.period = period;
+		}
+
+		/**
+		 * Run the delegate of the current Registration
+		 */
+		@Override
+		public void run() {
+			delegate.accept(TimeUtils.approxCurrentTimeMillis());
+		}
+
+		/**
+		 * Cancel the registration, the timer unlinking it at its next tick.
+		 *
+		 * @return current Registration
+		 */
+		@Override
+		public TimerRegistration<T> cancel() {
+			int s;
+			do {
+				s = status;
+				if (s == STATUS_CANCELLED) {
+					return this;
+				}
+			} while (!STATUS_UPDATER.compareAndSet(this, s, STATUS_CANCELLED));
+			timer.cancel(this);
+			return this;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return status == STATUS_CANCELLED;
+		}
+
+		/**
+		 * Pause the current Registration, its expirations being skipped until resumed.
+		 *
+		 * @return current Registration
+		 */
+		@Override
+		public TimerRegistration<T> pause() {
+			STATUS_UPDATER.compareAndSet(this, STATUS_READY, STATUS_PAUSED);
+			return this;
+		}
+
+		@Override
+		public boolean isPaused() {
+			return status == STATUS_PAUSED;
+		}
+
+		@Override
+		public TimerRegistration<T> resume() {
+			STATUS_UPDATER.compareAndSet(this, STATUS_PAUSED, STATUS_READY);
+			return this;
+		}
+
+		@Override
+		public Selector getSelector() {
+			return null;
+		}
+
+		@Override
+		public T getObject() {
+			return delegate;
+		}
+
+		/**
+		 * Cancel this {@link HierarchicalWheelTimer.TimerRegistration} after it has been selected and used.
+		 *
+		 * @return {@literal this}
+		 */
+		@Override
+		public TimerRegistration<T> cancelAfterUse() {
+			cancelAfterUse = true;
+			return this;
+		}
+
+		@Override
+		public boolean isCancelAfterUse() {
+			return cancelAfterUse;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("HierarchicalWheelTimer { Delay: %d, Period: %d, Status: %d }", delay, period, status);
+		}
+	}
+
+}
@@ -128,6 +128,20 @@ public class Buffer implements Recyclable,
 		this.buffer = bufferToStartWith;
 	}
 
+	/**
+	 * Create a {@literal Buffer} using the given {@link ByteBuffer} as the inital source and optionally make this buffer
+	 * fixed-length.
+	 *
+	 * @param bufferToStartWith
+	 * 		The {@link ByteBuffer} to start with.
+	 * @param fixed
+	 * 		{@literal true} to make this buffer fixed-length, {@literal false} otherwise.
+	 */
+	public Buffer(ByteBuffer bufferToStartWith, boolean fixed) {
+		this.dynamic = !fixed;
+		this.buffer = bufferToStartWith;
+	}
+
 	/**
 	 * Convenience method to create a new, fixed-length {@literal Buffer} and putting the given byte array into the
 	 * buffer.
@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.io.buffer;
+
+import reactor.core.alloc.Allocator;
+import reactor.core.alloc.Reference;
+import reactor.fn.timer.TimeUtils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * An {@link reactor.core.alloc.Allocator} of fixed-length {@link Buffer Buffers} carved out of large memory slabs.
+ * <p>
+ * Requested sizes are rounded up to a power of two size class, from {@link #MIN_CHUNK_SIZE} bytes to the larger of
+ * 64 KB and the default buffer size. Each size class slices {@link #SLAB_SIZE} slabs, direct by default, into chunks
+ * once and for all. Released buffers go back to a bounded cache owned by the releasing thread, which spills half of
+ * its content to the size class when it is full, and refills from it when it is empty. Most allocations are therefore
+ * served without any lock or memory allocation. Larger requests get an unpooled heap buffer.
+ * <p>
+ * A {@link Reference} is leased with a reference count of 1 and its buffer goes back to the pool when the count drops
+ * to 0. The buffer must not be used after that. {@link #release(Buffer)} releases a buffer allocated from any pool
+ * without holding on to its reference, which lets codecs hand pooled buffers to their caller.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public class PooledBufferAllocator implements Allocator<Buffer> {
+
+	/**
+	 * The size, in bytes, of the smallest size class.
+	 */
+	public static final int MIN_CHUNK_SIZE = 256;
+
+	/**
+	 * The size, in bytes, of a slab sliced by a size class. Size classes larger than a slab slice a single chunk.
+	 */
+	public static final int SLAB_SIZE = 1024 * 1024;
+
+	private static final int DEFAULT_MAX_CHUNK_SIZE = 64 * 1024;
+	private static final int DEFAULT_CACHE_SIZE     = 64;
+
+	private static final AtomicIntegerFieldUpdater<PooledReference> REF_CNT_UPDATER =
+			AtomicIntegerFieldUpdater.newUpdater(PooledReference.class, "refCnt");
+
+	/**
+	 * A pool to share between codecs encoding into pooled frames: direct slabs, {@link Buffer#SMALL_BUFFER_SIZE} default buffers and 64 buffers
+	 * cached per thread and size class.
+	 */
+	public static final PooledBufferAllocator DEFAULT = new PooledBufferAllocator();
+
+	private final SizeClass[] sizeClasses;
+	private final int         defaultSize;
+	private final boolean     direct;
+	private final int         cacheSize;
+
+	private final ThreadLocal<ThreadCache> caches = new ThreadLocal<ThreadCache>() {
+		@Override
+		protected ThreadCache initialValue() {
+			return new ThreadCache(sizeClasses.length, cacheSize);
+		}
+	};
+
+	/**
+	 * Create a {@code PooledBufferAllocator} of direct buffers with defaultSize=Buffer.SMALL_BUFFER_SIZE and
+	 * cacheSize=64.
+	 */
+	public PooledBufferAllocator() {
+		this(Buffer.SMALL_BUFFER_SIZE, true, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Create a {@code PooledBufferAllocator}.
+	 *
+	 * @param defaultSize
+	 * 		The minimum size of the buffers returned by {@link #allocate()}.
+	 * @param direct
+	 * 		Whether or not to slice direct slabs.
+	 * @param cacheSize
+	 * 		The number of released buffers each thread keeps on hand, per size class.
+	 */
+	public PooledBufferAllocator(int defaultSize, boolean direct, int cacheSize) {
+		if (defaultSize < 1 || cacheSize < 2) {
+			throw new IllegalArgumentException("defaultSize must be positive and cacheSize at least 2");
+		}
+		this.defaultSize = defaultSize;
+		this.direct = direct;
+		this.cacheSize = cacheSize;
+
+		int maxChunkSize = Math.max(DEFAULT_MAX_CHUNK_SIZE, defaultSize);
+		this.sizeClasses = new SizeClass[sizeClassOf(maxChunkSize) + 1];
+		for (int i = 0; i < sizeClasses.length; i++) {
+			sizeClasses[i] = new SizeClass(MIN_CHUNK_SIZE << i);
+		}
+	}
+
+	/**
+	 * Whether or not the given {@link Buffer} has been allocated by a {@code PooledBufferAllocator}.
+	 *
+	 * @param buffer
+	 * 		The buffer to test, may be {@literal null}.
+	 *
+	 * @return {@literal true} if the buffer is pooled, {@literal false} otherwise.
+	 */
+	public static boolean isPooled(Buffer buffer) {
+		return buffer instanceof PooledBuffer;
+	}
+
+	/**
+	 * Release the given {@link Buffer} if it has been allocated by a {@code PooledBufferAllocator}.
+	 *
+	 * @param buffer
+	 * 		The buffer to release, may be {@literal null}.
+	 *
+	 * @return {@literal true} if the buffer was pooled, {@literal false} otherwise.
+	 */
+	public static boolean release(Buffer buffer) {
+		if (buffer instanceof PooledBuffer) {
+			((PooledBuffer) buffer).reference.release();
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public Reference<Buffer> allocate() {
+		return allocate(defaultSize);
+	}
+
+	/**
+	 * Allocate a fixed-length {@link Buffer} of at least the given size.
+	 *
+	 * @param atLeast
+	 * 		The minimum capacity of the buffer.
+	 *
+	 * @return A {@link Reference} to the buffer, with a reference count of 1.
+	 */
+	public Reference<Buffer> allocate(int atLeast) {
+		PooledReference ref;
+		if (atLeast > sizeClasses[sizeClasses.length - 1].chunkSize) {
+			ref = new PooledReference(null, ByteBuffer.allocate(atLeast));
+		} else {
+			int index = sizeClassOf(atLeast);
+			ThreadCache cache = caches.get();
+			ref = cache.poll(index);
+			if (null == ref) {
+				ref = sizeClasses[index].lease(cache, index);
+			}
+		}
+		ref.lease();
+		return ref;
+	}
+
+	/**
+	 * Allocate a fixed-length {@link Buffer} of at least the given size. It goes back to the pool once passed to {@link
+	 * #release(Buffer)}.
+	 *
+	 * @param atLeast
+	 * 		The minimum capacity of the buffer.
+	 *
+	 * @return The buffer.
+	 */
+	public Buffer buffer(int atLeast) {
+		return allocate(atLeast).get();
+	}
+
+	@Override
+	public List<Reference<Buffer>> allocateBatch(int size) {
+		List<Reference<Buffer>> refs = new ArrayList<Reference<Buffer>>(size);
+		for (int i = 0; i < size; i++) {
+			refs.add(allocate());
+		}
+		return refs;
+	}
+
+	@Override
+	public void release(List<Reference<Buffer>> batch) {
+		if (null != batch && !batch.isEmpty()) {
+			for (Reference<Buffer> ref : batch) {
+				ref.release();
+			}
+		}
+	}
+
+	/**
+	 * Whether or not this allocator slices direct slabs.
+	 *
+	 * @return {@literal true} if the buffers are direct, {@literal false} otherwise.
+	 */
+	public boolean isDirect() {
+		return direct;
+	}
+
+	@Override
+	public String toString() {
+		return "PooledBufferAllocator{" +
+				"defaultSize=" + defaultSize +
+				", direct=" + direct +
+				", cacheSize=" + cacheSize +
+				", sizeClasses=" + sizeClasses.length +
+				'}';
+	}
+
+	private void recycle(PooledReference ref) {
+		ThreadCache cache = caches.get();
+		int index = ref.sizeClass.index;
+		if (!cache.offer(index, ref)) {
+			ref.sizeClass.spill(cache, index);
+			cache.offer(index, ref);
+		}
+	}
+
+	private static int sizeClassOf(int size) {
+		if (size <= MIN_CHUNK_SIZE) {
+			return 0;
+		}
+		return 32 - Integer.numberOfLeadingZeros(size - 1) - 8;
+	}
+
+	/**
+	 * The chunks of a given size not cached by any thread. Only touched when a thread cache overflows or runs dry, by
+	 * half a cache at a time.
+	 */
+	private final class SizeClass {
+		final int chunkSize;
+		final int index;
+
+		private PooledReference[] free = new PooledReference[0];
+		private int               size = 0;
+
+		SizeClass(int chunkSize) {
+			this.chunkSize = chunkSize;
+			this.index = sizeClassOf(chunkSize);
+		}
+
+		synchronized PooledReference lease(ThreadCache cache, int index) {
+			if (size == 0) {
+				slice();
+			}
+			int batch = Math.min(size - 1, cacheSize / 2);
+			for (int i = 0; i < batch; i++) {
+				cache.offer(index, free[--size]);
+				free[size] = null;
+			}
+			PooledReference ref = free[--size];
+			free[size] = null;
+			return ref;
+		}
+
+		synchronized void spill(ThreadCache cache, int index) {
+			int batch = cacheSize / 2;
+			ensureFree(size + batch);
+			for (int i = 0; i < batch; i++) {
+				free[size++] = cache.poll(index);
+			}
+		}
+
+		private void slice() {
+			int chunks = Math.max(1, SLAB_SIZE / chunkSize);
+			ByteBuffer slab = direct ? ByteBuffer.allocateDirect(chunks * chunkSize) : ByteBuffer.allocate(chunks * chunkSize);
+			ensureFree(chunks);
+			for (int i = 0; i < chunks; i++) {
+				slab.limit((i + 1) * chunkSize).position(i * chunkSize);
+				free[size++] = new PooledReference(this, slab.slice());
+			}
+		}
+
+		private void ensureFree(int capacity) {
+			if (free.length < capacity) {
+				PooledReference[] newFree = new PooledReference[Math.max(capacity, free.length * 2)];
+				System.arraycopy(free, 0, newFree, 0, size);
+				free = newFree;
+			}
+		}
+	}
+
+	/**
+	 * Bounded stacks of released chunks, one per size class, only used by their owning thread.
+	 */
+	private static final class ThreadCache {
+		final PooledReference[][] stacks;
+		final int[]               sizes;
+
+		ThreadCache(int sizeClasses, int cacheSize) {
+			this.stacks = new PooledReference[sizeClasses][cacheSize];
+			this.sizes = new int[sizeClasses];
+		}
+
+		PooledReference poll(int index) {
+			int size = sizes[index];
+			if (size == 0) {
+				return null;
+			}
+			PooledReference ref = stacks[index][--size];
+			stacks[index][size] = null;
+			sizes[index] = size;
+			return ref;
+		}
+
+		boolean offer(int index, PooledReference ref) {
+			int size = sizes[index];
+			if (size == stacks[index].length) {
+				return false;
+			}
+			stacks[index][size] = ref;
+			sizes[index] = size + 1;
+			return true;
+		}
+	}
+
+	private static final class PooledBuffer extends Buffer {
+		final PooledReference reference;
+
+		PooledBuffer(PooledReference reference, ByteBuffer chunk) {
+			super(chunk, true);
+			this.reference = reference;
+		}
+	}
+
+	private final class PooledReference implements Reference<Buffer> {
+		final SizeClass    sizeClass;
+		final PooledBuffer buffer;
+
+		volatile int refCnt = 0;
+
+		private long inception = 0L;
+
+		PooledReference(SizeClass sizeClass, ByteBuffer chunk) {
+			this.sizeClass = sizeClass;
+			this.buffer = new PooledBuffer(this, chunk);
+		}
+
+		void lease() {
+			inception = TimeUtils.approxCurrentTimeMillis();
+			refCnt = 1;
+		}
+
+		@Override
+		public long getAge() {
+			return TimeUtils.approxCurrentTimeMillis() - inception;
+		}
+
+		@Override
+		public int getReferenceCount() {
+			return refCnt;
+		}
+
+		@Override
+		public void retain() {
+			retain(1);
+		}
+
+		@Override
+		public void retain(int incr) {
+			REF_CNT_UPDATER.addAndGet(this, incr);
+		}
+
+		@Override
+		public void release() {
+			release(1);
+		}
+
+		@Override
+		public void release(int decr) {
+			int cnt;
+			do {
+				cnt = refCnt;
+				if (cnt < 1) {
+					return;
+				}
+			} while (!REF_CNT_UPDATER.compareAndSet(this, cnt, Math.max(0, cnt - decr)));
+
+			if (cnt - decr < 1) {
+				buffer.recycle();
+				if (null != sizeClass) {
+					recycle(this);
+				}
+			}
+		}
+
+		@Override
+		public Buffer get() {
+			return buffer;
+		}
+
+		@Override
+		public String toString() {
+			return "PooledReference{" +
+					"refCnt=" + refCnt +
+					", inception=" + inception +
+					", buffer=" + buffer +
+					'}';
+		}
+	}
+
+}
@@ -19,8 +19,11 @@ package reactor.io.codec;
 import reactor.fn.Consumer;
 import reactor.fn.Function;
 import reactor.io.buffer.Buffer;
+import reactor.io.buffer.PooledBufferAllocator;
 import reactor.io.buffer.Buffer.View;
 
+import java.nio.ByteBuffer;
+
 /**
  * An implementation of {@link Codec} that decodes by splitting a {@link Buffer} into segments
  * based on a delimiter and encodes by appending its delimiter to each piece of output.
@@ -37,6 +40,7 @@ public class DelimitedCodec<IN, OUT> implements Codec<Buffer, IN, OUT> {
 	private final Codec<Buffer, IN, OUT> delegate;
 	private final byte                   delimiter;
 	private final boolean                stripDelimiter;
+	private final PooledBufferAllocator  frameAllocator;
 
 	/**
 	 * Create a line-feed-delimited codec, using the given {@code Codec} as a delegate.
@@ -70,9 +74,28 @@ public class DelimitedCodec<IN, OUT> implements Codec<Buffer, IN, OUT> {
 	 * @param delegate       The delegate {@link Codec}.
 	 */
 	public DelimitedCodec(byte delimiter, boolean stripDelimiter, Codec<Buffer, IN, OUT> delegate) {
+		this(delimiter, stripDelimiter, delegate, null);
+	}
+
+	/**
+	 * Create a delimited codec using the given delimiter and using the given {@code Codec}
+	 * as a delegate, encoding each frame into a buffer leased from the given allocator. The
+	 * caller of the encoder then owns each frame and must give it back with {@link
+	 * PooledBufferAllocator#release(Buffer)} once written.
+	 *
+	 * @param delimiter      The delimiter to use.
+	 * @param stripDelimiter Flag to indicate whether the delimiter should be stripped from the
+	 *                       chunk or not during decoding.
+	 * @param delegate       The delegate {@link Codec}.
+	 * @param frameAllocator The allocator of the encoded frames, or {@code null} to encode into
+	 *                       new heap buffers.
+	 */
+	public DelimitedCodec(byte delimiter, boolean stripDelimiter, Codec<Buffer, IN, OUT> delegate,
+	                      PooledBufferAllocator frameAllocator) {
 		this.delimiter = delimiter;
 		this.stripDelimiter = stripDelimiter;
 		this.delegate = delegate;
+		this.frameAllocator = frameAllocator;
 	}
 
 	@Override
@@ -121,11 +144,13 @@ public class DelimitedCodec<IN, OUT> implements Codec<Buffer, IN, OUT> {
 		@Override
 		@SuppressWarnings("resource")
 		public Buffer apply(OUT out) {
-			Buffer buffer = new Buffer();
 			Buffer encoded = encoder.apply(out);
-			if (null != encoded && encoded.remaining() > 0) {
-				buffer.append(encoded).append(delimiter);
+			if (null == encoded || encoded.remaining() == 0) {
+				return new Buffer().flip();
 			}
+			int len = encoded.remaining() + 1;
+			Buffer buffer = null != frameAllocator ? frameAllocator.buffer(len) : new Buffer(ByteBuffer.allocate(len));
+			buffer.append(encoded).append(delimiter);
 			return buffer.flip();
 		}
 	}
@@ -20,6 +20,7 @@ import reactor.core.support.Assert;
 import reactor.fn.Consumer;
 import reactor.fn.Function;
 import reactor.io.buffer.Buffer;
+import reactor.io.buffer.PooledBufferAllocator;
 
 import java.nio.ByteBuffer;
 
@@ -40,6 +41,7 @@ public class LengthFieldCodec<IN, OUT> implements Codec<Buffer, IN, OUT> {
 
 	private final int                    lengthFieldLength;
 	private final Codec<Buffer, IN, OUT> delegate;
+	private final PooledBufferAllocator  frameAllocator;
 
 	/**
 	 * Create a length-field codec that reads the first integer as the length of the
@@ -62,10 +64,30 @@ public class LengthFieldCodec<IN, OUT> implements Codec<Buffer, IN, OUT> {
 	 * 		The delegate {@link Codec}.
 	 */
 	public LengthFieldCodec(int lengthFieldLength, Codec<Buffer, IN, OUT> delegate) {
+		this(lengthFieldLength, delegate, null);
+	}
+
+	/**
+	 * Create a length-field codec that reads the first short, integer, or long as the
+	 * length of the remaining message, and prepends a short, integer, long to its output,
+	 * encoded into a buffer leased from the given allocator. The caller of the encoder then
+	 * owns each frame and must give it back with {@link PooledBufferAllocator#release(Buffer)}
+	 * once written.
+	 *
+	 * @param lengthFieldLength
+	 * 		The size of the length field. Valid values are 4 (int) or 8 (long).
+	 * @param delegate
+	 * 		The delegate {@link Codec}.
+	 * @param frameAllocator
+	 * 		The allocator of the encoded frames, or {@code null} to encode into new heap buffers.
+	 */
+	public LengthFieldCodec(int lengthFieldLength, Codec<Buffer, IN, OUT> delegate,
+	                        PooledBufferAllocator frameAllocator) {
 		Assert.state(lengthFieldLength == 2 || lengthFieldLength == 4 || lengthFieldLength == 8,
 		             "lengthFieldLength should be 2 (short), 4 (int), or 8 (long).");
 		this.lengthFieldLength = lengthFieldLength;
 		this.delegate = delegate;
+		this.frameAllocator = frameAllocator;
 	}
 
 	@Override
@@ -143,24 +165,22 @@ public class LengthFieldCodec<IN, OUT> implements Codec<Buffer, IN, OUT> {
 			Buffer encoded = encoder.apply(out);
 			if(null != encoded && encoded.remaining() > 0) {
 				int len = encoded.remaining();
-				ByteBuffer bb = null;
+				Buffer buffer = frame(len + lengthFieldLength);
 				if(lengthFieldLength == 4) {
-					bb = ByteBuffer.allocate(len + 4);
-					bb.putInt(len);
+					buffer.append(len);
 				} else if(lengthFieldLength == 2) {
-					bb = ByteBuffer.allocate(len + 2);
-					bb.putShort((short)len);
-				} else if(lengthFieldLength == 8) {
-					bb = ByteBuffer.allocate(len + 8);
-					bb.putLong((long)len);
-				}
-				if(null != bb) {
-					bb.put(encoded.byteBuffer()).flip();
-					return new Buffer(bb);
+					buffer.append((short)len);
+				} else {
+					buffer.append((long)len);
 				}
+				return buffer.append(encoded).flip();
 			}
 			return encoded;
 		}
+
+		private Buffer frame(int len) {
+			return null != frameAllocator ? frameAllocator.buffer(len) : new Buffer(ByteBuffer.allocate(len));
+		}
 	}
 
 }
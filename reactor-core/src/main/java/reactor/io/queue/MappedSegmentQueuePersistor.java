@@ -0,0 +1,556 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.io.queue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.Environment;
+import reactor.bus.registry.Registration;
+import reactor.core.internal.PlatformDependent;
+import reactor.fn.Consumer;
+import reactor.fn.timer.TimeUtils;
+import reactor.fn.timer.Timer;
+import reactor.io.buffer.Buffer;
+import reactor.io.codec.Codec;
+import reactor.io.codec.JavaSerializationCodec;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link QueuePersistor} implementation that appends items to rolling memory-mapped segment files.
+ * <p>
+ * Each segment file starts with an index of the offsets of its items, followed by the items themselves, each one
+ * prefixed with its length. A segment is named after the id of its first item and a new one is created when the
+ * current segment is full. Items are decoded straight from the mapped region, so a decoder must not keep the buffer
+ * it is given: a segment is unmapped and its file deleted once all of its items have been removed.
+ * <p>
+ * The ids of the next item to write and of the next item to read are kept in a small mapped {@literal checkpoint}
+ * file, so that reopening a queue only lists its segment files and never scans the items.
+ * <p>
+ * Writes go to the page cache. They are forced to the disk every {@code syncEveryMessages} items, every {@code
+ * syncEveryMillis} milliseconds by a {@link Timer} if anything changed since the previous sync, and when the persistor
+ * is closed. When both are {@code 0}, syncing is left to the operating system: the items survive a crash of the
+ * process but not of the host.
+ * The read cursor is forced with the writes, so items removed since the last sync are returned again after a crash.
+ * <p>
+ * Offers are serialized on one monitor and removes on another one, so that producers and the consumer don't contend.
+ *
+ * @author Stephane Maldini
+ */
+public class MappedSegmentQueuePersistor<T> implements QueuePersistor<T> {
+
+	/**
+	 * The default size of a segment file, in bytes.
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	private static final Logger LOG = LoggerFactory.getLogger(MappedSegmentQueuePersistor.class);
+
+	private static final String SEGMENT_SUFFIX  = ".segment";
+	private static final String CHECKPOINT_NAME = "checkpoint";
+	private static final int    WRITE_ID        = 0;
+	private static final int    READ_ID         = 8;
+
+	private final Object writeMonitor = new Object();
+	private final Object readMonitor  = new Object();
+
+	private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<Long, Segment>();
+
+	private final File                directory;
+	private final Codec<Buffer, T, T> codec;
+	private final boolean             deleteOnExit;
+	private final int                 segmentSize;
+	private final int                 syncEveryMessages;
+	private final long                syncEveryMillis;
+	private final MappedByteBuffer    checkpoint;
+
+	private final Registration<? extends Consumer<Long>> syncTask;
+
+	private volatile long writeId;
+	private volatile long readId;
+	private volatile boolean closed = false;
+
+	private Segment writeSegment;
+	private int     writePosition;
+	private int     unsynced;
+	private long    syncedReadId;
+
+	private Segment readSegment;
+
+	/**
+	 * Create a {@link MappedSegmentQueuePersistor} in the given directory, using Java serialization, segments of {@link
+	 * #DEFAULT_SEGMENT_SIZE} bytes and leaving the syncing of the files to the operating system.
+	 *
+	 * @param basePath Directory in which to create the segment files.
+	 * @throws IOException
+	 */
+	public MappedSegmentQueuePersistor(@Nonnull String basePath) throws IOException {
+		this(basePath, new JavaSerializationCodec<T>(), false, false, DEFAULT_SEGMENT_SIZE, 0, 0l);
+	}
+
+	/**
+	 * Create a {@link MappedSegmentQueuePersistor} in the given directory.
+	 *
+	 * @param basePath          Directory in which to create the segment files.
+	 * @param codec             Codec to turn objects into {@link reactor.io.buffer.Buffer Buffers} and visa-versa.
+	 * @param clearOnStart      Whether or not to delete the existing items on start.
+	 * @param deleteOnExit      Whether or not to delete the queue directory when the persistor is closed.
+	 * @param segmentSize       The size of a segment file in bytes, including its index.
+	 * @param syncEveryMessages The number of offers after which the files are forced to the disk, {@code 0} to disable.
+	 * @param syncEveryMillis   The period at which the files are forced to the disk, {@code 0} to disable. The sync is
+	 *                          scheduled on the {@link Environment#timer()} if there is one, on the shared {@link
+	 *                          TimeUtils#getTimer()} otherwise.
+	 * @throws IOException
+	 */
+	public MappedSegmentQueuePersistor(@Nonnull String basePath,
+	                                   @Nonnull Codec<Buffer, T, T> codec,
+	                                   boolean clearOnStart,
+	                                   boolean deleteOnExit,
+	                                   int segmentSize,
+	                                   int syncEveryMessages,
+	                                   long syncEveryMillis) throws IOException {
+		this(basePath, codec, clearOnStart, deleteOnExit, segmentSize, syncEveryMessages, syncEveryMillis, null);
+	}
+
+	/**
+	 * Create a {@link MappedSegmentQueuePersistor} in the given directory.
+	 *
+	 * @param basePath          Directory in which to create the segment files.
+	 * @param codec             Codec to turn objects into {@link reactor.io.buffer.Buffer Buffers} and visa-versa.
+	 * @param clearOnStart      Whether or not to delete the existing items on start.
+	 * @param deleteOnExit      Whether or not to delete the queue directory when the persistor is closed.
+	 * @param segmentSize       The size of a segment file in bytes, including its index.
+	 * @param syncEveryMessages The number of offers after which the files are forced to the disk, {@code 0} to disable.
+	 * @param syncEveryMillis   The period at which the files are forced to the disk, {@code 0} to disable.
+	 * @param timer             The timer to schedule the periodic sync on, {@code null} to use the default one.
+	 * @throws IOException
+	 */
+	public MappedSegmentQueuePersistor(@Nonnull String basePath,
+	                                   @Nonnull Codec<Buffer, T, T> codec,
+	                                   boolean clearOnStart,
+	                                   boolean deleteOnExit,
+	                                   int segmentSize,
+	                                   int syncEveryMessages,
+	                                   long syncEveryMillis,
+	                                   Timer timer) throws IOException {
+		if (segmentSize < 1024) {
+			throw new IllegalArgumentException("A segment must be at least 1024 bytes, not " + segmentSize);
+		}
+		if (syncEveryMessages < 0 || syncEveryMillis < 0) {
+			throw new IllegalArgumentException("Sync intervals must be positive or 0");
+		}
+		this.directory = new File(basePath);
+		this.codec = codec;
+		this.deleteOnExit = deleteOnExit;
+		this.segmentSize = segmentSize;
+		this.syncEveryMessages = syncEveryMessages;
+		this.syncEveryMillis = syncEveryMillis;
+
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Cannot create the queue directory " + directory);
+		}
+		if (clearOnStart) {
+			for (File file : files()) {
+				delete(file);
+			}
+			delete(new File(directory, CHECKPOINT_NAME));
+		}
+
+		this.checkpoint = map(new File(directory, CHECKPOINT_NAME), 16);
+		this.writeId = checkpoint.getLong(WRITE_ID);
+		this.readId = checkpoint.getLong(READ_ID);
+		this.syncedReadId = readId;
+		recover();
+
+		if (syncEveryMillis > 0) {
+			if (null == timer) {
+				timer = Environment.alive() ? Environment.timer() : TimeUtils.getTimer();
+			}
+			this.syncTask = timer.schedule(new Consumer<Long>() {
+				@Override
+				public void accept(Long now) {
+					syncIfChanged();
+				}
+			}, syncEveryMillis, TimeUnit.MILLISECONDS);
+		} else {
+			this.syncTask = null;
+		}
+	}
+
+	/**
+	 * The size of the segment files of this persistor.
+	 *
+	 * @return the size of a segment file, in bytes
+	 */
+	public int segmentSize() {
+		return segmentSize;
+	}
+
+	/**
+	 * The number of segment files currently holding items.
+	 *
+	 * @return the number of segment files
+	 */
+	public int segments() {
+		return segments.size();
+	}
+
+	/**
+	 * Force the pending writes and the read cursor to the disk.
+	 */
+	public void sync() {
+		synchronized (writeMonitor) {
+			if (!closed) {
+				doSync();
+			}
+		}
+	}
+
+	/**
+	 * Sync and unmap the segment files, and delete them and their directory if this persistor was created with {@code
+	 * deleteOnExit}.
+	 */
+	@Override
+	public void close() {
+		if (null != syncTask) {
+			syncTask.cancel();
+		}
+		synchronized (writeMonitor) {
+			synchronized (readMonitor) {
+				if (closed) {
+					return;
+				}
+				closed = true;
+				doSync();
+				for (Segment segment : segments.values()) {
+					PlatformDependent.freeDirectBuffer(segment.buffer);
+				}
+				PlatformDependent.freeDirectBuffer(checkpoint);
+				if (deleteOnExit) {
+					for (File file : files()) {
+						delete(file);
+					}
+					delete(new File(directory, CHECKPOINT_NAME));
+					delete(directory);
+				}
+				segments.clear();
+				writeSegment = null;
+				readSegment = null;
+			}
+		}
+	}
+
+	@Override
+	public long lastId() {
+		return writeId - 1;
+	}
+
+	@Override
+	public long size() {
+		return writeId - readId;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return readId < writeId;
+	}
+
+	@Override
+	public Long offer(@Nonnull T t) {
+		// the encoded buffer belongs to the codec, it is only copied
+		ByteBuffer bytes = codec.encoder().apply(t).byteBuffer().duplicate();
+		int len = bytes.remaining();
+		long id;
+
+		synchronized (writeMonitor) {
+			if (closed) {
+				throw new IllegalStateException("This persistor is closed");
+			}
+			id = writeId;
+			Segment segment = writeSegment;
+			if (id - segment.startId >= segment.indexEntries || writePosition + 4 + len > segmentSize) {
+				if (segment.dataStart + 4 + len > segmentSize) {
+					throw new IllegalArgumentException("An item of " + len + " bytes doesn't fit in a segment of " +
+							segmentSize + " bytes");
+				}
+				segment = roll(id);
+			}
+
+			int position = writePosition;
+			segment.buffer.putInt(position, len);
+			segment.writeView.position(position + 4);
+			segment.writeView.put(bytes);
+			segment.buffer.putInt((int) (id - segment.startId) << 2, position);
+			writePosition = position + 4 + len;
+
+			checkpoint.putLong(WRITE_ID, id + 1);
+			writeId = id + 1;
+
+			if (++unsynced >= syncEveryMessages && syncEveryMessages > 0) {
+				doSync();
+			}
+		}
+
+		if (LOG.isTraceEnabled()) {
+			LOG.trace("Offered {} to segment queue at index {}, size {}", t, id, size());
+		}
+
+		return id;
+	}
+
+	@Override
+	public T get(Long id) {
+		if (null == id) {
+			return null;
+		}
+		// consumed segments are unmapped under the read monitor
+		synchronized (readMonitor) {
+			if (closed || id < readId || id >= writeId) {
+				return null;
+			}
+			Map.Entry<Long, Segment> entry = segments.floorEntry(id);
+			if (null == entry || !entry.getValue().holds(id)) {
+				return null;
+			}
+			return read(entry.getValue(), id);
+		}
+	}
+
+	@Override
+	public T remove() {
+		synchronized (readMonitor) {
+			long id = readId;
+			if (closed || id >= writeId) {
+				return null;
+			}
+
+			Segment segment = readSegment;
+			if (null == segment || !segment.holds(id)) {
+				segment = segments.floorEntry(id).getValue();
+				releaseBefore(segment);
+				readSegment = segment;
+			}
+
+			T obj = read(segment, id);
+			checkpoint.putLong(READ_ID, id + 1);
+			readId = id + 1;
+			return obj;
+		}
+	}
+
+	/**
+	 * Iterate over the items not removed yet, without removing them.
+	 *
+	 * @return an iterator over the items of this persistor
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			long cursor = readId;
+
+			@Override
+			public boolean hasNext() {
+				cursor = Math.max(cursor, readId);
+				return cursor < writeId;
+			}
+
+			@Override
+			public T next() {
+				while (hasNext()) {
+					T obj = get(cursor++);
+					if (null != obj) {
+						return obj;
+					}
+				}
+				throw new NoSuchElementException();
+			}
+
+			@Override
+			public void remove() {
+				throw new IllegalStateException("This Iterator is read-only.");
+			}
+		};
+	}
+
+	private T read(Segment segment, long id) {
+		int offset = segment.buffer.getInt((int) (id - segment.startId) << 2);
+		ByteBuffer view = segment.buffer.duplicate();
+		view.position(offset + 4);
+		view.limit(offset + 4 + segment.buffer.getInt(offset));
+		return codec.decoder(null).apply(new Buffer(view, true));
+	}
+
+	private Segment roll(long startId) {
+		if (syncEveryMessages > 0 || syncEveryMillis > 0) {
+			writeSegment.buffer.force();
+		}
+		// the durable write cursor must reach the new segment before its file exists, see recover()
+		checkpoint.force();
+		try {
+			Segment segment = new Segment(startId);
+			writeSegment.nextId = startId;
+			segments.put(startId, segment);
+			writeSegment = segment;
+			writePosition = segment.dataStart;
+			return segment;
+		} catch (IOException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+
+	private void releaseBefore(Segment segment) {
+		ConcurrentNavigableMap<Long, Segment> consumed = segments.headMap(segment.startId);
+		for (Segment old : consumed.values()) {
+			// unmap before deleting, the file is otherwise kept on disk until the buffer is collected
+			PlatformDependent.freeDirectBuffer(old.buffer);
+			delete(old.file);
+		}
+		consumed.clear();
+	}
+
+	private void syncIfChanged() {
+		synchronized (writeMonitor) {
+			if (!closed && (unsynced > 0 || syncedReadId != readId)) {
+				doSync();
+			}
+		}
+	}
+
+	private void doSync() {
+		long read = readId;
+		if (null != writeSegment) {
+			writeSegment.buffer.force();
+		}
+		checkpoint.force();
+		unsynced = 0;
+		syncedReadId = read;
+	}
+
+	private void recover() throws IOException {
+		List<File> files = files();
+		Segment previous = null;
+		for (File file : files) {
+			String name = file.getName();
+			long startId = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+			if (startId > writeId) {
+				// rolled after the last durable write cursor, none of its items were committed
+				delete(file);
+				continue;
+			}
+			Segment segment = new Segment(startId);
+			if (null != previous) {
+				previous.nextId = segment.startId;
+			}
+			segments.put(segment.startId, segment);
+			previous = segment;
+		}
+
+		Map.Entry<Long, Segment> last = segments.floorEntry(writeId);
+		Segment segment;
+		if (null == last) {
+			segment = new Segment(writeId);
+			segments.put(writeId, segment);
+		} else {
+			segment = last.getValue();
+		}
+		writeSegment = segment;
+		if (writeId > segment.startId) {
+			int offset = segment.buffer.getInt((int) (writeId - 1 - segment.startId) << 2);
+			writePosition = offset + 4 + segment.buffer.getInt(offset);
+		} else {
+			writePosition = segment.dataStart;
+		}
+
+		Map.Entry<Long, Segment> first = segments.floorEntry(readId);
+		if (null != first) {
+			releaseBefore(first.getValue());
+		}
+	}
+
+	private List<File> files() {
+		List<File> files = new ArrayList<File>();
+		File[] all = directory.listFiles();
+		if (null != all) {
+			for (File file : all) {
+				if (file.getName().endsWith(SEGMENT_SUFFIX)) {
+					files.add(file);
+				}
+			}
+		}
+		// segment names are zero-padded, so they sort by id
+		Collections.sort(files);
+		return files;
+	}
+
+	private static MappedByteBuffer map(File file, int size) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			if (raf.length() < size) {
+				raf.setLength(size);
+			}
+			return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+		} finally {
+			raf.close();
+		}
+	}
+
+	private static void delete(File file) {
+		if (file.exists() && !file.delete()) {
+			LOG.warn("Cannot delete {}", file);
+		}
+	}
+
+	private final class Segment {
+		final long             startId;
+		final File             file;
+		final MappedByteBuffer buffer;
+		final ByteBuffer       writeView;
+		final int              indexEntries;
+		final int              dataStart;
+
+		volatile long nextId = Long.MAX_VALUE;
+
+		Segment(long startId) throws IOException {
+			this.startId = startId;
+			this.file = new File(directory, String.format("%019d", startId) + SEGMENT_SUFFIX);
+			this.buffer = map(file, segmentSize);
+			this.writeView = buffer.duplicate();
+			this.indexEntries = Math.max(64, segmentSize >> 6);
+			this.dataStart = indexEntries << 2;
+		}
+
+		boolean holds(long id) {
+			return id >= startId && id < nextId;
+		}
+	}
+
+}
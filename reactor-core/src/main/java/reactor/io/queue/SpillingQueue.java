@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.io.queue;
+
+import reactor.core.queue.CompletableArrayQueue;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link PersistentQueue} that keeps its first items in a bounded in-memory ring and spills the others to its
+ * {@link QueuePersistor}, typically a {@link MappedSegmentQueuePersistor}, to buffer bursts that don't fit in the heap.
+ * <p>
+ * Once an item has been spilled, the next items are spilled too until the persistor has been drained, so that items are
+ * polled in the order they were offered. Items can be offered from several threads but must be polled by one consumer
+ * at a time, e.g. from a {@link reactor.rx.subscription.ReactiveSubscription} drain loop.
+ * <p>
+ * The queue closes its persistor, deleting its files if it was created with {@code deleteOnExit}, once it has been
+ * completed and drained, or when it is closed by a cancelled subscription. Values offered after it has been closed
+ * are dropped.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public class SpillingQueue<T> extends PersistentQueue<T> implements Closeable {
+
+	private final CompletableArrayQueue<T> memory;
+	private final QueuePersistor<T>        persistor;
+
+	private volatile boolean closed;
+
+	/**
+	 * Create a {@literal SpillingQueue} keeping up to {@code memoryCapacity} items in memory, rounded up to the next
+	 * power of 2, and spilling the others to the given {@link QueuePersistor}.
+	 *
+	 * @param memoryCapacity the number of items to keep in memory
+	 * @param persistor      the persistor to spill the overflow to
+	 */
+	public SpillingQueue(int memoryCapacity, @Nonnull QueuePersistor<T> persistor) {
+		super(persistor);
+		this.memory = new CompletableArrayQueue<T>(memoryCapacity);
+		this.persistor = persistor;
+	}
+
+	/**
+	 * The number of items this queue keeps in memory before spilling to its persistor.
+	 *
+	 * @return the in-memory capacity
+	 */
+	public int memoryCapacity() {
+		return memory.capacity();
+	}
+
+	/**
+	 * The number of items currently spilled to the persistor.
+	 *
+	 * @return the number of spilled items
+	 */
+	public long spilled() {
+		return persistor.size();
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<T> iterator() {
+		final Iterator<T> memoryIterator = memory.iterator();
+		final Iterator<T> persistorIterator = persistor.iterator();
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return memoryIterator.hasNext() || persistorIterator.hasNext();
+			}
+
+			@Override
+			public T next() {
+				if (memoryIterator.hasNext()) {
+					return memoryIterator.next();
+				}
+				if (persistorIterator.hasNext()) {
+					return persistorIterator.next();
+				}
+				throw new NoSuchElementException();
+			}
+
+			@Override
+			public void remove() {
+				throw new IllegalStateException("This Iterator is read-only.");
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		if (closed) {
+			return 0;
+		}
+		return (int) Math.min(Integer.MAX_VALUE, memory.size() + persistor.size());
+	}
+
+	@Override
+	public boolean offer(T obj) {
+		if (closed) {
+			return true;
+		}
+		if (persistor.size() == 0 && memory.offer(obj)) {
+			return true;
+		}
+		return null != persistor.offer(obj);
+	}
+
+	@Override
+	public T poll() {
+		if (closed) {
+			return null;
+		}
+		T obj = memory.poll();
+		if (null == obj && persistor.size() != 0) {
+			obj = persistor.remove();
+		}
+		if (null == obj && isComplete()) {
+			close();
+		}
+		return obj;
+	}
+
+	@Override
+	public T peek() {
+		if (closed) {
+			return null;
+		}
+		T obj = memory.peek();
+		if (null != obj || persistor.size() == 0) {
+			return obj;
+		}
+		Iterator<T> spilled = persistor.iterator();
+		return spilled.hasNext() ? spilled.next() : null;
+	}
+
+	@Override
+	public void complete() {
+		super.complete();
+		if (isEmpty()) {
+			close();
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		memory.clear();
+		super.close();
+	}
+
+}
@@ -20,10 +20,15 @@ import net.openhft.chronicle.ChronicleConfig;
 import reactor.fn.Supplier;
 import reactor.io.buffer.Buffer;
 import reactor.io.codec.Codec;
+import reactor.io.codec.JavaSerializationCodec;
 import reactor.io.queue.IndexedChronicleQueuePersistor;
+import reactor.io.queue.MappedSegmentQueuePersistor;
 import reactor.io.queue.PersistentQueue;
+import reactor.io.queue.SpillingQueue;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.UUID;
 
 /**
  * Helper spec to create a {@link PersistentQueue} instance.
@@ -37,6 +42,10 @@ public class PersistentQueueSpec<T> implements Supplier<PersistentQueue<T>> {
 	private boolean deleteOnExit = false;
 	private Codec<Buffer, T, T> codec;
 	private ChronicleConfig config = ChronicleConfig.DEFAULT.clone();
+	private int  segmentSize       = 0;
+	private int  syncEveryMessages = 0;
+	private long syncEveryMillis   = 0l;
+	private int  memoryCapacity    = 0;
 
 	public PersistentQueueSpec<T> codec(Codec<Buffer, T, T> codec) {
 		this.codec = codec;
@@ -88,9 +97,48 @@ public class PersistentQueueSpec<T> implements Supplier<PersistentQueue<T>> {
 		return this;
 	}
 
+	/**
+	 * Persist the queue in rolling memory-mapped segment files instead of a Chronicle.
+	 *
+	 * @param segmentSize       the size of a segment file in bytes
+	 * @param syncEveryMessages the number of offers after which the files are forced to the disk, {@code 0} to disable
+	 * @param syncEveryMillis   the period at which a timer forces the files to the disk, {@code 0} to disable
+	 * @return {@literal this}
+	 * @see MappedSegmentQueuePersistor
+	 */
+	public PersistentQueueSpec<T> mappedSegments(int segmentSize, int syncEveryMessages, long syncEveryMillis) {
+		this.segmentSize = segmentSize;
+		this.syncEveryMessages = syncEveryMessages;
+		this.syncEveryMillis = syncEveryMillis;
+		return this;
+	}
+
+	/**
+	 * Keep up to {@code memoryCapacity} items in memory and only spill the others to rolling memory-mapped segment
+	 * files, using the {@link #mappedSegments} settings or their defaults. The spec can then be passed to {@link
+	 * reactor.rx.Stream#onOverflowBuffer(Supplier)} to buffer bursts larger than the heap. Each queue it supplies
+	 * spills to its own directory under the {@link #basePath}, deleted once the queue has been completed and drained
+	 * or its subscription cancelled.
+	 *
+	 * @param memoryCapacity the number of items to keep in memory, rounded up to the next power of 2
+	 * @return {@literal this}
+	 * @see SpillingQueue
+	 */
+	public PersistentQueueSpec<T> memoryCapacity(int memoryCapacity) {
+		this.memoryCapacity = memoryCapacity;
+		return this;
+	}
+
 	@Override
 	public PersistentQueue<T> get() {
 		try {
+			if (memoryCapacity > 0) {
+				return new SpillingQueue<T>(memoryCapacity,
+						mappedSegmentPersistor(basePath + File.separator + UUID.randomUUID(), true, true));
+			}
+			if (segmentSize > 0) {
+				return new PersistentQueue<T>(mappedSegmentPersistor(basePath, clearOnStart, deleteOnExit));
+			}
 			return new PersistentQueue<T>(new IndexedChronicleQueuePersistor<T>(basePath,
 																																					codec,
 																																					clearOnStart,
@@ -101,4 +149,15 @@ public class PersistentQueueSpec<T> implements Supplier<PersistentQueue<T>> {
 		}
 	}
 
+	private MappedSegmentQueuePersistor<T> mappedSegmentPersistor(String path, boolean clearOnStart,
+	                                                              boolean deleteOnExit) throws IOException {
+		return new MappedSegmentQueuePersistor<T>(path,
+				codec != null ? codec : new JavaSerializationCodec<T>(),
+				clearOnStart,
+				deleteOnExit,
+				segmentSize > 0 ? segmentSize : MappedSegmentQueuePersistor.DEFAULT_SEGMENT_SIZE,
+				syncEveryMessages,
+				syncEveryMillis);
+	}
+
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx;
+
+import java.io.Serializable;
+
+/**
+ * The count, sum, minimum and maximum of a batch of primitive {@code double} values, as emitted by {@link
+ * Stream#summarizeDouble(reactor.fn.ToDoubleFunction)}.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public final class DoubleSummary implements Serializable {
+
+	private final long   count;
+	private final double sum;
+	private final double min;
+	private final double max;
+
+	public DoubleSummary(long count, double sum, double min, double max) {
+		this.count = count;
+		this.sum = sum;
+		this.min = min;
+		this.max = max;
+	}
+
+	/**
+	 * @return the number of summarized values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the sum of the summarized values
+	 */
+	public double getSum() {
+		return sum;
+	}
+
+	/**
+	 * @return the smallest summarized value, or {@link Double#POSITIVE_INFINITY} if there is none
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * @return the largest summarized value, or {@link Double#NEGATIVE_INFINITY} if there is none
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * @return the arithmetic mean of the summarized values, or {@code 0} if there is none
+	 */
+	public double getAverage() {
+		return count > 0 ? sum / count : 0d;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		DoubleSummary that = (DoubleSummary) o;
+
+		return count == that.count &&
+				Double.compare(that.sum, sum) == 0 &&
+				Double.compare(that.min, min) == 0 &&
+				Double.compare(that.max, max) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = (int) (count ^ (count >>> 32));
+		long bits = Double.doubleToLongBits(sum);
+		result = 31 * result + (int) (bits ^ (bits >>> 32));
+		bits = Double.doubleToLongBits(min);
+		result = 31 * result + (int) (bits ^ (bits >>> 32));
+		bits = Double.doubleToLongBits(max);
+		result = 31 * result + (int) (bits ^ (bits >>> 32));
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "DoubleSummary{count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + ", average=" +
+				getAverage() + "}";
+	}
+}
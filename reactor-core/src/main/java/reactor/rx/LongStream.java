@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx;
+
+import reactor.fn.Consumer;
+import reactor.fn.Function;
+import reactor.fn.LongConsumer;
+import reactor.fn.LongFunction;
+import reactor.fn.ToLongFunction;
+import reactor.fn.timer.Timer;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The primitive {@code long} values extracted from the values of a {@link Stream}, as returned by {@link
+ * Stream#mapToLong(ToLongFunction)}.
+ * <p>
+ * Reactive Streams signals are objects, so a {@code LongStream} is not a {@link org.reactivestreams.Publisher}: its
+ * operators are fused with the extraction of each value and run in the stage they end, which passes them the primitive
+ * value without boxing it. Use {@link #boxed()} or {@link #mapToObj(LongFunction)} to get back to a {@link Stream}.
+ *
+ * @param <O> the type of the values of the source stream
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public final class LongStream<O> {
+
+	private final Stream<O>                 source;
+	private final ToLongFunction<? super O> mapper;
+
+	LongStream(Stream<O> source, ToLongFunction<? super O> mapper) {
+		this.source = source;
+		this.mapper = mapper;
+	}
+
+	/**
+	 * Summarize the values into a {@link LongSummary} pushed on completion.
+	 *
+	 * @return a new {@link Stream} whose only value is the summary of all values
+	 * @see Stream#summarizeLong(ToLongFunction)
+	 */
+	public Stream<LongSummary> summarize() {
+		return source.summarizeLong(mapper);
+	}
+
+	/**
+	 * Summarize the values into a {@link LongSummary} pushed every maxSize values and on completion.
+	 *
+	 * @param maxSize the number of values to summarize in each batch
+	 * @return a new {@link Stream} whose values are the summaries of each batch
+	 * @see Stream#summarizeLong(ToLongFunction, int)
+	 */
+	public Stream<LongSummary> summarize(int maxSize) {
+		return source.summarizeLong(mapper, maxSize);
+	}
+
+	/**
+	 * Summarize the values into a {@link LongSummary} pushed every timespan.
+	 *
+	 * @param timespan the period in unit to use to release a summary
+	 * @param unit     the time unit
+	 * @return a new {@link Stream} whose values are the summaries of each batch
+	 * @see Stream#summarizeLong(ToLongFunction, long, TimeUnit)
+	 */
+	public Stream<LongSummary> summarize(long timespan, TimeUnit unit) {
+		return source.summarizeLong(mapper, timespan, unit);
+	}
+
+	/**
+	 * Summarize the values into a {@link LongSummary} pushed every timespan OR maxSize values.
+	 *
+	 * @param maxSize  the max number of values to summarize in each batch
+	 * @param timespan the period in unit to use to release a summary
+	 * @param unit     the time unit
+	 * @param timer    the Timer to run on
+	 * @return a new {@link Stream} whose values are the summaries of each batch
+	 * @see Stream#summarizeLong(ToLongFunction, int, long, TimeUnit, Timer)
+	 */
+	public Stream<LongSummary> summarize(int maxSize, long timespan, TimeUnit unit, Timer timer) {
+		return source.summarizeLong(mapper, maxSize, timespan, unit, timer);
+	}
+
+	/**
+	 * Transform each primitive value into a {@code V}, the only allocation being the result of the function.
+	 *
+	 * @param fn  the transformation function
+	 * @param <V> the type of the return value of the transformation function
+	 * @return a new {@link Stream} containing the transformed values
+	 */
+	public <V> Stream<V> mapToObj(@Nonnull final LongFunction<? extends V> fn) {
+		final ToLongFunction<? super O> mapper = this.mapper;
+		return source.map(new Function<O, V>() {
+			@Override
+			public V apply(O o) {
+				return fn.apply(mapper.applyAsLong(o));
+			}
+		});
+	}
+
+	/**
+	 * Box each primitive value into a {@link Long}.
+	 *
+	 * @return a new {@link Stream} containing the boxed values
+	 */
+	public Stream<Long> boxed() {
+		return mapToObj(new LongFunction<Long>() {
+			@Override
+			public Long apply(long value) {
+				return value;
+			}
+		});
+	}
+
+	/**
+	 * Attach a {@link LongConsumer} invoked with each primitive value, without boxing it.
+	 *
+	 * @param consumer the consumer to invoke on each value
+	 * @return a new {@link Controls} interface to operate on the materialized upstream
+	 * @see Stream#consume(Consumer)
+	 */
+	public Controls consume(@Nonnull final LongConsumer consumer) {
+		final ToLongFunction<? super O> mapper = this.mapper;
+		return source.consume(new Consumer<O>() {
+			@Override
+			public void accept(O o) {
+				consumer.accept(mapper.applyAsLong(o));
+			}
+		});
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx;
+
+import java.io.Serializable;
+
+/**
+ * The count, sum, minimum and maximum of a batch of primitive {@code long} values, as emitted by {@link
+ * Stream#summarizeLong(reactor.fn.ToLongFunction)}.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public final class LongSummary implements Serializable {
+
+	private final long count;
+	private final long sum;
+	private final long min;
+	private final long max;
+
+	public LongSummary(long count, long sum, long min, long max) {
+		this.count = count;
+		this.sum = sum;
+		this.min = min;
+		this.max = max;
+	}
+
+	/**
+	 * @return the number of summarized values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the sum of the summarized values
+	 */
+	public long getSum() {
+		return sum;
+	}
+
+	/**
+	 * @return the smallest summarized value, or {@link Long#MAX_VALUE} if there is none
+	 */
+	public long getMin() {
+		return min;
+	}
+
+	/**
+	 * @return the largest summarized value, or {@link Long#MIN_VALUE} if there is none
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * @return the arithmetic mean of the summarized values, or {@code 0} if there is none
+	 */
+	public double getAverage() {
+		return count > 0 ? (double) sum / count : 0d;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		LongSummary that = (LongSummary) o;
+
+		return count == that.count && sum == that.sum && min == that.min && max == that.max;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = (int) (count ^ (count >>> 32));
+		result = 31 * result + (int) (sum ^ (sum >>> 32));
+		result = 31 * result + (int) (min ^ (min >>> 32));
+		result = 31 * result + (int) (max ^ (max >>> 32));
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "LongSummary{count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + ", average=" +
+				getAverage() + "}";
+	}
+}
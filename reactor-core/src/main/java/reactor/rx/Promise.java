@@ -33,8 +33,9 @@ import reactor.rx.subscription.PushSubscription;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * A {@code Promise} is a stateful event container that accepts a single value or error. In addition to {@link #get()
@@ -45,6 +46,9 @@ import java.util.concurrent.locks.ReentrantLock;
  * A promise also provides methods for composing actions with the future value much like a {@link reactor.rx.Stream}.
  * However, where
  * a {@link reactor.rx.Stream} can process many values, a {@code Promise} processes only one value or error.
+ * <p>
+ * A {@code Promise} is completed without locking: the first value or error claims it with a compare-and-set, and the
+ * threads blocked in {@link #await()} wait on a lock-free stack from which they are unparked once it completes.
  *
  * @param <O> the type of the value that will be made available
  * @author Jon Brisbin
@@ -53,23 +57,39 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, NonBlocking {
 
-	private final ReentrantLock lock = new ReentrantLock();
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<Promise> CLAIMED =
+			AtomicIntegerFieldUpdater.newUpdater(Promise.class, "claimed");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<Promise> DELIVERED =
+			AtomicIntegerFieldUpdater.newUpdater(Promise.class, "delivered");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Promise, Action> OUTBOUND =
+			AtomicReferenceFieldUpdater.newUpdater(Promise.class, Action.class, "outboundStream");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Promise, Waiter> WAITERS =
+			AtomicReferenceFieldUpdater.newUpdater(Promise.class, Waiter.class, "waiters");
 
 	private final long        defaultTimeout;
-	private final Condition   pendingCondition;
 	private final Dispatcher  dispatcher;
 	private final Environment environment;
-	Action<O, O> outboundStream;
+	volatile Action<O, O> outboundStream;
 
 	public static enum FinalState {
 		ERROR,
 		COMPLETE
 	}
 
-	FinalState finalState = null;
+	volatile FinalState finalState = null;
 	private O         value;
 	private Throwable error;
-	private boolean hasBlockers = false;
+
+	private volatile int       claimed   = 0;
+	private volatile int       delivered = 0;
+	private volatile Waiter<O> waiters;
 
 	protected Subscription subscription;
 
@@ -101,7 +121,6 @@ public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, No
 		this.dispatcher = dispatcher;
 		this.environment = env;
 		this.defaultTimeout = env != null ? env.getProperty("reactor.await.defaultTimeout", Long.class, 30000L) : 30000L;
-		this.pendingCondition = lock.newCondition();
 	}
 
 	/**
@@ -117,8 +136,9 @@ public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, No
 	public Promise(O value, Dispatcher dispatcher,
 	               @Nullable Environment env) {
 		this(dispatcher, env);
-		finalState = FinalState.COMPLETE;
+		this.claimed = 1;
 		this.value = value;
+		this.finalState = FinalState.COMPLETE;
 	}
 
 	/**
@@ -135,8 +155,9 @@ public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, No
 	public Promise(Throwable error, Dispatcher dispatcher,
 	               @Nullable Environment env) {
 		this(dispatcher, env);
-		finalState = FinalState.ERROR;
+		this.claimed = 1;
 		this.error = error;
+		this.finalState = FinalState.ERROR;
 	}
 
 	/**
@@ -201,12 +222,7 @@ public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, No
 	 * @see #isPending()
 	 */
 	public boolean isComplete() {
-		lock.lock();
-		try {
-			return finalState != null;
-		} finally {
-			lock.unlock();
-		}
+		return finalState != null;
 	}
 
 	/**
@@ -216,12 +232,7 @@ public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, No
 	 * @see #isComplete()
 	 */
 	public boolean isPending() {
-		lock.lock();
-		try {
-			return finalState == null;
-		} finally {
-			lock.unlock();
-		}
+		return finalState == null;
 	}
 
 	/**
@@ -230,12 +241,7 @@ public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, No
 	 * @return {@code true} if this {@code Promise} is successful, {@code false} otherwise.
 	 */
 	public boolean isSuccess() {
-		lock.lock();
-		try {
-			return finalState == FinalState.COMPLETE;
-		} finally {
-			lock.unlock();
-		}
+		return finalState == FinalState.COMPLETE;
 	}
 
 	/**
@@ -244,12 +250,7 @@ public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, No
 	 * @return {@code true} if this {@code Promise} was completed with an error, {@code false} otherwise.
 	 */
 	public boolean isError() {
-		lock.lock();
-		try {
-			return finalState == FinalState.ERROR;
-		} finally {
-			lock.unlock();
-		}
+		return finalState == FinalState.ERROR;
 	}
 
 	/**
@@ -281,27 +282,33 @@ public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, No
 	 * @throws InterruptedException if the thread is interruped while awaiting completion
 	 */
 	public O await(long timeout, TimeUnit unit) throws InterruptedException {
-		if (!isPending()) {
+		if (finalState != null) {
 			return get();
 		}
 
-		lock.lock();
+		long deadline = timeout >= 0 ? System.nanoTime() + unit.toNanos(timeout) : 0l;
+		Waiter<O> waiter = new Waiter<O>(Thread.currentThread(), null);
+		push(waiter);
 		try {
-			hasBlockers = true;
-			if (timeout >= 0) {
-				long msTimeout = TimeUnit.MILLISECONDS.convert(timeout, unit);
-				long endTime = System.currentTimeMillis() + msTimeout;
-				while (finalState == null && (System.currentTimeMillis()) < endTime) {
-					this.pendingCondition.await(200, TimeUnit.MILLISECONDS);
+			while (finalState == null) {
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
 				}
-			} else {
-				while (finalState == null) {
-					this.pendingCondition.await(200, TimeUnit.MILLISECONDS);
+				if (timeout >= 0) {
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0l) {
+						break;
+					}
+					LockSupport.parkNanos(this, remaining);
+				} else {
+					LockSupport.park(this);
 				}
 			}
 		} finally {
-			hasBlockers = false;
-			lock.unlock();
+			waiter.thread = null;
+			if (waiters != null) {
+				removeWaiters();
+			}
 		}
 
 		return get();
@@ -351,21 +358,17 @@ public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, No
 	 */
 	@Override
 	public O get() {
-		lock.lock();
-		try {
-			if (finalState == FinalState.COMPLETE) {
-				return value;
-			} else if (finalState == FinalState.ERROR) {
-				if (RuntimeException.class.isInstance(error)) {
-					throw (RuntimeException) error;
-				} else {
-					throw new RuntimeException(error);
-				}
+		FinalState state = finalState;
+		if (state == FinalState.COMPLETE) {
+			return value;
+		} else if (state == FinalState.ERROR) {
+			if (RuntimeException.class.isInstance(error)) {
+				throw (RuntimeException) error;
 			} else {
-				return null;
+				throw new RuntimeException(error);
 			}
-		} finally {
-			lock.unlock();
+		} else {
+			return null;
 		}
 	}
 
@@ -378,36 +381,35 @@ public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, No
 	 * @return the error (if any)
 	 */
 	public Throwable reason() {
-		lock.lock();
-		try {
-			return error;
-		} finally {
-			lock.unlock();
-		}
+		return finalState == FinalState.ERROR ? error : null;
 	}
 
+	@SuppressWarnings("unchecked")
 	public Stream<O> stream() {
-		lock.lock();
-		try {
-			if (outboundStream == null) {
-				if (isSuccess()) {
-					return Streams.just(value);
-				} else if (isError()) {
-					return Streams.create(new Publisher<O>() {
-						@Override
-						public void subscribe(Subscriber<? super O> s) {
-							s.onError(error);
-						}
-					}).dispatchOn(environment, dispatcher);
-				} else {
-					outboundStream = Streams.<O>broadcast(environment, dispatcher).capacity(1);
+		Action<O, O> outbound = outboundStream;
+		if (outbound != null) {
+			return outbound;
+		}
+		if (isSuccess()) {
+			return Streams.just(value);
+		} else if (isError()) {
+			return Streams.create(new Publisher<O>() {
+				@Override
+				public void subscribe(Subscriber<? super O> s) {
+					s.onError(error);
 				}
-			}
+			}).dispatchOn(environment, dispatcher);
+		}
 
-		} finally {
-			lock.unlock();
+		outbound = Streams.<O>broadcast(environment, dispatcher).capacity(1);
+		if (!OUTBOUND.compareAndSet(this, null, outbound)) {
+			return outboundStream;
 		}
-		return outboundStream;
+		// the promise may have completed before the stream was published, in which case it may not have seen it
+		if (finalState != null) {
+			deliver(outbound);
+		}
+		return outbound;
 	}
 
 	@Override
@@ -474,81 +476,126 @@ public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, No
 
 
 	protected void errorAccepted(Throwable error) {
-		lock.lock();
-		try {
-			if (!isPending()){
-				if (isSuccess())
-					throw new IllegalStateException(finalState.toString()+" : "+value, error);
-				else
-					throw new IllegalStateException(finalState.toString(), error);
-			}
+		if (!complete(null, error)) {
+			if (isSuccess())
+				throw new IllegalStateException(finalState.toString()+" : "+value, error);
+			else
+				throw new IllegalStateException(String.valueOf(finalState), error);
+		}
+	}
 
-			this.error = error;
-			this.finalState = FinalState.ERROR;
+	protected void valueAccepted(O value) {
+		if (!complete(value, null)) {
+			if (isError())
+				throw new IllegalStateException(value+" >> "+finalState.toString(), error);
+			else if (isSuccess())
+				throw new IllegalStateException(value+" >> "+finalState.toString()+" : "+value);
+			else
+				throw new IllegalStateException(value+" >> "+finalState);
+		}
+	}
 
-			if (subscription != null) {
-				subscription.cancel();
-			}
+	protected void completeAccepted() {
+		complete(null, null);
 
-			if (outboundStream != null) {
-				outboundStream.onError(error);
-			}
+		Subscription subscription = this.subscription;
+		if (subscription != null) {
+			subscription.cancel();
+			this.subscription = null;
+		}
+	}
 
-			if (hasBlockers) {
-				pendingCondition.signalAll();
-				hasBlockers = false;
+	/**
+	 * Run the given callback on the thread completing this {@code Promise}, or on the calling thread if it is already
+	 * complete. Unlike {@link #onComplete(Consumer)}, no {@link Stream} is created.
+	 *
+	 * @param callback the callback to run once
+	 */
+	void whenComplete(Consumer<Promise<O>> callback) {
+		Waiter<O> waiter = new Waiter<O>(null, callback);
+		if (finalState == null) {
+			push(waiter);
+			if (finalState == null) {
+				return;
 			}
-		} finally {
-			lock.unlock();
 		}
+		waiter.fire(this);
 	}
 
-	protected void valueAccepted(O value) {
-		lock.lock();
-		try {
-			if (!isPending()) {
-				if (isError())
-					throw new IllegalStateException(value+" >> "+finalState.toString(), error);
-				else if (isSuccess())
-					throw new IllegalStateException(value+" >> "+finalState.toString()+" : "+value);
-				else
-					throw new IllegalStateException(value+" >> "+finalState.toString());
-			}
+	/**
+	 * Complete this {@code Promise} with the given value, or the given error if not {@code null}, unless it has already
+	 * been completed.
+	 *
+	 * @param value the value
+	 * @param error the error, or {@code null} for a value
+	 * @return {@code true} if this call completed the promise
+	 */
+	@SuppressWarnings("unchecked")
+	boolean complete(O value, Throwable error) {
+		if (claimed != 0 || !CLAIMED.compareAndSet(this, 0, 1)) {
+			return false;
+		}
+		if (error != null) {
+			this.error = error;
+			this.finalState = FinalState.ERROR;
+		} else {
 			this.value = value;
 			this.finalState = FinalState.COMPLETE;
+		}
 
+		Subscription subscription = this.subscription;
+		if (subscription != null) {
+			subscription.cancel();
+		}
 
-			if (subscription != null) {
-				subscription.cancel();
-			}
-
-			if (outboundStream != null) {
-				outboundStream.onNext(value);
-				outboundStream.onComplete();
-			}
+		Action<O, O> outbound = outboundStream;
+		if (outbound != null) {
+			deliver(outbound);
+		}
 
-			if (hasBlockers) {
-				pendingCondition.signalAll();
-				hasBlockers = false;
-			}
-		} finally {
-			lock.unlock();
+		for (Waiter<O> waiter = WAITERS.getAndSet(this, null); waiter != null; waiter = waiter.next) {
+			waiter.fire(this);
 		}
+		return true;
 	}
 
-	protected void completeAccepted() {
-		lock.lock();
-		try {
-			if (isPending()) {
-				valueAccepted(null);
-			}
+	private void deliver(Action<O, O> outbound) {
+		if (delivered != 0 || !DELIVERED.compareAndSet(this, 0, 1)) {
+			return;
+		}
+		if (finalState == FinalState.ERROR) {
+			outbound.onError(error);
+		} else {
+			outbound.onNext(value);
+			outbound.onComplete();
+		}
+	}
 
-			if (subscription != null) {
-				subscription.cancel();
-				subscription = null;
+	private void push(Waiter<O> waiter) {
+		Waiter<O> head;
+		do {
+			head = waiters;
+			waiter.next = head;
+		} while (!WAITERS.compareAndSet(this, head, waiter));
+	}
+
+	private void removeWaiters() {
+		retry:
+		for (; ; ) {
+			Waiter<O> previous = null;
+			Waiter<O> current = waiters;
+			while (current != null) {
+				Waiter<O> next = current.next;
+				if (current.thread != null || current.callback != null) {
+					previous = current;
+				} else if (previous != null) {
+					previous.next = next;
+				} else if (!WAITERS.compareAndSet(this, current, next)) {
+					continue retry;
+				}
+				current = next;
 			}
-		} finally {
-			lock.unlock();
+			return;
 		}
 	}
 
@@ -564,15 +611,45 @@ public class Promise<O> implements Supplier<O>, Processor<O, O>, Consumer<O>, No
 
 	@Override
 	public String toString() {
-		lock.lock();
-		try {
-			return "Promise{" +
-					"value=" + value +
-					(finalState != null ? ", state=" + finalState : "") +
-					", error=" + error +
-					'}';
-		} finally {
-			lock.unlock();
+		FinalState state = finalState;
+		return "Promise{" +
+				"value=" + value +
+				(state != null ? ", state=" + state : "") +
+				", error=" + error +
+				'}';
+	}
+
+	/**
+	 * A thread blocked in {@link #await()} or a callback, stacked until the promise completes.
+	 */
+	private static final class Waiter<O> {
+		@SuppressWarnings("rawtypes")
+		private static final AtomicIntegerFieldUpdater<Waiter> FIRED =
+				AtomicIntegerFieldUpdater.newUpdater(Waiter.class, "fired");
+
+		final Consumer<Promise<O>> callback;
+
+		volatile Thread    thread;
+		volatile Waiter<O> next;
+		volatile int       fired = 0;
+
+		Waiter(Thread thread, Consumer<Promise<O>> callback) {
+			this.thread = thread;
+			this.callback = callback;
+		}
+
+		void fire(Promise<O> promise) {
+			if (callback != null) {
+				if (FIRED.compareAndSet(this, 0, 1)) {
+					callback.accept(promise);
+				}
+				return;
+			}
+			Thread thread = this.thread;
+			if (thread != null) {
+				this.thread = null;
+				LockSupport.unpark(thread);
+			}
 		}
 	}
 
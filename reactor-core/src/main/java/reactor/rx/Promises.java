@@ -20,14 +20,15 @@ import reactor.Environment;
 import reactor.core.Dispatcher;
 import reactor.core.dispatch.SynchronousDispatcher;
 import reactor.core.support.Assert;
+import reactor.fn.Consumer;
 import reactor.fn.Function;
 import reactor.fn.Supplier;
 import reactor.fn.tuple.*;
-import reactor.rx.action.MergeAction;
 import reactor.rx.stream.SupplierStream;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Helper methods for creating {@link reactor.rx.Promise} instances.
@@ -203,12 +204,12 @@ public final class Promises {
 	 */
 	@SuppressWarnings("unchecked")
 	public static <T1, T2> Promise<Tuple2<T1, T2>> when(Promise<T1> p1, Promise<T2> p2) {
-		return multiWhen(new Promise[]{p1, p2}).stream().map(new Function<List<Object>, Tuple2<T1, T2>>() {
+		return multiWhen(Arrays.<Promise<?>>asList(p1, p2), new Function<Object[], Tuple2<T1, T2>>() {
 			@Override
-			public Tuple2<T1, T2> apply(List<Object> objects) {
-				return Tuple.of((T1) objects.get(0), (T2) objects.get(1));
+			public Tuple2<T1, T2> apply(Object[] values) {
+				return Tuple.of((T1) values[0], (T2) values[1]);
 			}
-		}).next();
+		});
 	}
 
 	/**
@@ -223,12 +224,12 @@ public final class Promises {
 	 */
 	@SuppressWarnings("unchecked")
 	public static <T1, T2, T3> Promise<Tuple3<T1, T2, T3>> when(Promise<T1> p1, Promise<T2> p2, Promise<T3> p3) {
-		return multiWhen(new Promise[]{p1, p2, p3}).stream().map(new Function<List<Object>, Tuple3<T1, T2, T3>>() {
+		return multiWhen(Arrays.<Promise<?>>asList(p1, p2, p3), new Function<Object[], Tuple3<T1, T2, T3>>() {
 			@Override
-			public Tuple3<T1, T2, T3> apply(List<Object> objects) {
-				return Tuple.of((T1) objects.get(0), (T2) objects.get(1), (T3) objects.get(2));
+			public Tuple3<T1, T2, T3> apply(Object[] values) {
+				return Tuple.of((T1) values[0], (T2) values[1], (T3) values[2]);
 			}
-		}).next();
+		});
 	}
 
 	/**
@@ -244,12 +245,12 @@ public final class Promises {
 	@SuppressWarnings("unchecked")
 	public static <T1, T2, T3, T4> Promise<Tuple4<T1, T2, T3, T4>> when(Promise<T1> p1, Promise<T2> p2, Promise<T3> p3,
 	                                                                    Promise<T4> p4) {
-		return multiWhen(new Promise[]{p1, p2, p3, p4}).stream().map(new Function<List<Object>, Tuple4<T1, T2, T3, T4>>() {
+		return multiWhen(Arrays.<Promise<?>>asList(p1, p2, p3, p4), new Function<Object[], Tuple4<T1, T2, T3, T4>>() {
 			@Override
-			public Tuple4<T1, T2, T3, T4> apply(List<Object> objects) {
-				return Tuple.of((T1) objects.get(0), (T2) objects.get(1), (T3) objects.get(2), (T4) objects.get(3));
+			public Tuple4<T1, T2, T3, T4> apply(Object[] values) {
+				return Tuple.of((T1) values[0], (T2) values[1], (T3) values[2], (T4) values[3]);
 			}
-		}).next();
+		});
 	}
 
 	/**
@@ -266,14 +267,14 @@ public final class Promises {
 	public static <T1, T2, T3, T4, T5> Promise<Tuple5<T1, T2, T3, T4, T5>> when(Promise<T1> p1, Promise<T2> p2,
 	                                                                            Promise<T3> p3, Promise<T4> p4,
 	                                                                            Promise<T5> p5) {
-		return multiWhen(new Promise[]{p1, p2, p3, p4, p5}).stream().map(new Function<List<Object>, Tuple5<T1, T2, T3, T4,
+		return multiWhen(Arrays.<Promise<?>>asList(p1, p2, p3, p4, p5), new Function<Object[], Tuple5<T1, T2, T3, T4,
 				T5>>() {
 			@Override
-			public Tuple5<T1, T2, T3, T4, T5> apply(List<Object> objects) {
-				return Tuple.of((T1) objects.get(0), (T2) objects.get(1), (T3) objects.get(2), (T4) objects.get(3),
-						(T5) objects.get(4));
+			public Tuple5<T1, T2, T3, T4, T5> apply(Object[] values) {
+				return Tuple.of((T1) values[0], (T2) values[1], (T3) values[2], (T4) values[3],
+						(T5) values[4]);
 			}
-		}).next();
+		});
 	}
 
 	/**
@@ -290,14 +291,14 @@ public final class Promises {
 	public static <T1, T2, T3, T4, T5, T6> Promise<Tuple6<T1, T2, T3, T4, T5, T6>> when(Promise<T1> p1, Promise<T2> p2,
 	                                                                                    Promise<T3> p3, Promise<T4> p4,
 	                                                                                    Promise<T5> p5, Promise<T6> p6) {
-		return multiWhen(new Promise[]{p1, p2, p3, p4, p5, p6}).stream().map(new Function<List<Object>, Tuple6<T1, T2, T3,
+		return multiWhen(Arrays.<Promise<?>>asList(p1, p2, p3, p4, p5, p6), new Function<Object[], Tuple6<T1, T2, T3,
 				T4, T5, T6>>() {
 			@Override
-			public Tuple6<T1, T2, T3, T4, T5, T6> apply(List<Object> objects) {
-				return Tuple.of((T1) objects.get(0), (T2) objects.get(1), (T3) objects.get(2), (T4) objects.get(3),
-						(T5) objects.get(4), (T6) objects.get(5));
+			public Tuple6<T1, T2, T3, T4, T5, T6> apply(Object[] values) {
+				return Tuple.of((T1) values[0], (T2) values[1], (T3) values[2], (T4) values[3],
+						(T5) values[4], (T6) values[5]);
 			}
-		}).next();
+		});
 	}
 
 	/**
@@ -318,14 +319,14 @@ public final class Promises {
 	                                                                                            Promise<T5> p5,
 	                                                                                            Promise<T6> p6,
 	                                                                                            Promise<T7> p7) {
-		return multiWhen(new Promise[]{p1, p2, p3, p4, p5, p6, p7}).stream().map(new Function<List<Object>, Tuple7<T1, T2,
+		return multiWhen(Arrays.<Promise<?>>asList(p1, p2, p3, p4, p5, p6, p7), new Function<Object[], Tuple7<T1, T2,
 				T3, T4, T5, T6, T7>>() {
 			@Override
-			public Tuple7<T1, T2, T3, T4, T5, T6, T7> apply(List<Object> objects) {
-				return Tuple.of((T1) objects.get(0), (T2) objects.get(1), (T3) objects.get(2), (T4) objects.get(3),
-						(T5) objects.get(4), (T6) objects.get(5), (T7) objects.get(6));
+			public Tuple7<T1, T2, T3, T4, T5, T6, T7> apply(Object[] values) {
+				return Tuple.of((T1) values[0], (T2) values[1], (T3) values[2], (T4) values[3],
+						(T5) values[4], (T6) values[5], (T7) values[6]);
 			}
-		}).next();
+		});
 	}
 
 	/**
@@ -347,14 +348,14 @@ public final class Promises {
 	                                                                                                    Promise<T6> p6,
 	                                                                                                    Promise<T7> p7,
 	                                                                                                    Promise<T8> p8) {
-		return multiWhen(new Promise[]{p1, p2, p3, p4, p5, p6, p7, p8}).stream().map(new Function<List<Object>, Tuple8<T1,
+		return multiWhen(Arrays.<Promise<?>>asList(p1, p2, p3, p4, p5, p6, p7, p8), new Function<Object[], Tuple8<T1,
 				T2, T3, T4, T5, T6, T7, T8>>() {
 			@Override
-			public Tuple8<T1, T2, T3, T4, T5, T6, T7, T8> apply(List<Object> objects) {
-				return Tuple.of((T1) objects.get(0), (T2) objects.get(1), (T3) objects.get(2), (T4) objects.get(3),
-						(T5) objects.get(4), (T6) objects.get(5), (T7) objects.get(6), (T8) objects.get(7));
+			public Tuple8<T1, T2, T3, T4, T5, T6, T7, T8> apply(Object[] values) {
+				return Tuple.of((T1) values[0], (T2) values[1], (T3) values[2], (T4) values[3],
+						(T5) values[4], (T6) values[5], (T7) values[6], (T8) values[7]);
 			}
-		}).next();
+		});
 	}
 
 	/**
@@ -366,15 +367,15 @@ public final class Promises {
 	 * @return a {@link Promise}.
 	 */
 	public static <T> Promise<List<T>> when(final List<? extends Promise<T>> promises) {
-		Assert.isTrue(promises.size() > 0, "Must aggregate at least one promise");
-
-		return new MergeAction<T>(SynchronousDispatcher.INSTANCE, promises)
-				.env(promises.get(0).getEnvironment())
-				.buffer(promises.size())
-				.next();
+		return multiWhen(promises, new Function<Object[], List<T>>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public List<T> apply(Object[] values) {
+				return (List<T>) Arrays.asList(values);
+			}
+		});
 	}
 
-
 	/**
 	 * Pick the first result coming from any of the given promises and populate a new {@literal Promise}.
 	 *
@@ -386,7 +387,6 @@ public final class Promises {
 		return any(Arrays.asList(promises));
 	}
 
-
 	/**
 	 * Pick the first result coming from any of the given promises and populate a new {@literal Promise}.
 	 *
@@ -394,27 +394,68 @@ public final class Promises {
 	 * @param <T>      The type of the function result.
 	 * @return a {@link Promise}.
 	 */
-	@SuppressWarnings("unchecked")
 	public static <T> Promise<T> any(List<? extends Promise<T>> promises) {
 		Assert.isTrue(promises.size() > 0, "Must aggregate at least one promise");
 
-		MergeAction<T> mergeAction = new MergeAction<T>(SynchronousDispatcher.INSTANCE, promises);
-		mergeAction.env(promises.get(0).getEnvironment());
-
-		return mergeAction.next();
+		final Promise<T> result = new Promise<T>(SynchronousDispatcher.INSTANCE, promises.get(0).getEnvironment());
+		Consumer<Promise<T>> first = new Consumer<Promise<T>>() {
+			@Override
+			public void accept(Promise<T> promise) {
+				if (promise.isError()) {
+					result.complete(null, promise.reason());
+				} else {
+					result.complete(promise.get(), null);
+				}
+			}
+		};
+		for (Promise<T> promise : promises) {
+			promise.whenComplete(first);
+		}
+		return result;
 	}
 
 
-    /**
-     * Aggregate given promises into a new a {@literal Promise} that will be fulfilled when all of the given {@literal
-     * Promise Promises} have been fulfilled.
-     *
-     * @param promises The promises to use.
-     * @param <T>      The type of the function result.
-     * @return a {@link Promise}.
-     */
-    private static <T> Promise<List<T>> multiWhen(Promise<T>... promises) {
-        return when(Arrays.asList(promises));
-    }
+	/**
+	 * Aggregate given promises into a new a {@literal Promise} that will be fulfilled when all of the given {@literal
+	 * Promise Promises} have been fulfilled, with their values combined by the given function, or rejected with the
+	 * first error. The promises are observed with completion callbacks instead of a merged {@link Stream}.
+	 *
+	 * @param promises   The promises to use.
+	 * @param combinator The function combining the values of the promises, in order.
+	 * @param <R>        The type of the function result.
+	 * @return a {@link Promise}.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <R> Promise<R> multiWhen(List<? extends Promise<?>> promises, final Function<Object[], R> combinator) {
+		Assert.isTrue(promises.size() > 0, "Must aggregate at least one promise");
+
+		final Promise<R> result = new Promise<R>(SynchronousDispatcher.INSTANCE, promises.get(0).getEnvironment());
+		final Object[] values = new Object[promises.size()];
+		final AtomicInteger remaining = new AtomicInteger(values.length);
+		for (int i = 0; i < values.length; i++) {
+			final int index = i;
+			((Promise<Object>) promises.get(i)).whenComplete(new Consumer<Promise<Object>>() {
+				@Override
+				public void accept(Promise<Object> promise) {
+					if (promise.isError()) {
+						result.complete(null, promise.reason());
+						return;
+					}
+					values[index] = promise.get();
+					if (remaining.decrementAndGet() == 0) {
+						R combined;
+						try {
+							combined = combinator.apply(values);
+						} catch (Throwable t) {
+							result.complete(null, t);
+							return;
+						}
+						result.complete(combined, null);
+					}
+				}
+			});
+		}
+		return result;
+	}
 
 }
@@ -23,6 +23,7 @@ import reactor.bus.Observable;
 import reactor.bus.selector.ClassSelector;
 import reactor.bus.selector.Selectors;
 import reactor.core.Dispatcher;
+import reactor.core.dispatch.AffinityDispatcherSupplier;
 import reactor.core.dispatch.SynchronousDispatcher;
 import reactor.core.queue.CompletableBlockingQueue;
 import reactor.core.queue.CompletableLinkedQueue;
@@ -39,6 +40,7 @@ import reactor.rx.action.support.TapAndControls;
 import reactor.rx.stream.Broadcaster;
 import reactor.rx.stream.GroupedStream;
 import reactor.rx.stream.LiftStream;
+import reactor.rx.stream.ParallelStream;
 import reactor.rx.subscription.PushSubscription;
 
 import javax.annotation.Nonnull;
@@ -607,7 +609,63 @@ public abstract class Stream<O> implements Publisher<O>, NonBlocking {
 	 * @since 2.0
 	 */
 	public final Stream<O> cache() {
-		Action<O, O> cacheAction = new CacheAction<O>(getDispatcher(), Integer.MAX_VALUE);
+		return cache(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Cache the last {@code maxSize} values and the terminal signal of this {@code Stream} and release them on request
+	 * to any later subscriber, before the values it will accept next.
+	 *
+	 * @param maxSize the maximum number of values to replay
+	 * @return {@literal new Stream}
+	 * @since 2.0
+	 */
+	public final Stream<O> cache(int maxSize) {
+		Action<O, O> cacheAction = new CacheAction<O>(getDispatcher(), maxSize);
+		subscribe(cacheAction);
+		return cacheAction;
+	}
+
+	/**
+	 * Cache the values accepted by this {@code Stream} during the last {@code timespan} and its terminal signal and
+	 * release them on request to any later subscriber, before the values it will accept next.
+	 *
+	 * @param timespan the period in unit after which a value is no longer replayed
+	 * @param unit     the time unit
+	 * @return {@literal new Stream}
+	 * @since 2.0
+	 */
+	public final Stream<O> cache(long timespan, TimeUnit unit) {
+		return cache(Integer.MAX_VALUE, timespan, unit, getTimer());
+	}
+
+	/**
+	 * Cache the last {@code maxSize} values accepted by this {@code Stream} during the last {@code timespan} and its
+	 * terminal signal and release them on request to any later subscriber, before the values it will accept next.
+	 *
+	 * @param maxSize  the maximum number of values to replay
+	 * @param timespan the period in unit after which a value is no longer replayed
+	 * @param unit     the time unit
+	 * @return {@literal new Stream}
+	 * @since 2.0
+	 */
+	public final Stream<O> cache(int maxSize, long timespan, TimeUnit unit) {
+		return cache(maxSize, timespan, unit, getTimer());
+	}
+
+	/**
+	 * Cache the last {@code maxSize} values accepted by this {@code Stream} during the last {@code timespan} and its
+	 * terminal signal and release them on request to any later subscriber, before the values it will accept next.
+	 *
+	 * @param maxSize  the maximum number of values to replay
+	 * @param timespan the period in unit after which a value is no longer replayed
+	 * @param unit     the time unit
+	 * @param timer    the Timer to evict expired values on
+	 * @return {@literal new Stream}
+	 * @since 2.0
+	 */
+	public final Stream<O> cache(int maxSize, long timespan, TimeUnit unit, Timer timer) {
+		Action<O, O> cacheAction = new CacheAction<O>(getDispatcher(), maxSize, timespan, unit, timer);
 		subscribe(cacheAction);
 		return cacheAction;
 	}
@@ -754,12 +812,7 @@ public abstract class Stream<O> implements Publisher<O>, NonBlocking {
 	 * @return a new {@link Stream} containing the transformed values
 	 */
 	public final <V> Stream<V> map(@Nonnull final Function<? super O, V> fn) {
-		return lift(new Function<Dispatcher, Action<? super O, ? extends V>>() {
-			@Override
-			public Action<? super O, ? extends V> apply(Dispatcher dispatcher) {
-				return new MapAction<O, V>(fn, dispatcher);
-			}
-		});
+		return lift(FusedAction.<O, V>liftMap(fn));
 	}
 
 	/**
@@ -1010,8 +1063,8 @@ public abstract class Stream<O> implements Publisher<O>, NonBlocking {
 	 * ready to be polled when the action fire the pending requests.
 	 * - The following pairs of Action->Action will synchronously pass data
 	 * - Any pair of Stream->Subscriber or Action->Subscriber will behave as with the root Stream->Action pair rule.
-	 * - {@link this#onOverflowBuffer()} force this staging behavior, with a possibilty to pass a {@link reactor.queue
-	 * .PersistentQueue}
+	 * - {@link this#onOverflowBuffer()} force this staging behavior, with a possibilty to pass a {@link
+	 * reactor.io.queue.PersistentQueue}
 	 *
 	 * @param elements maximum number of in-flight data
 	 * @return a backpressure capable stream
@@ -1042,6 +1095,11 @@ public abstract class Stream<O> implements Publisher<O>, NonBlocking {
 	 * downstream. A buffering capable stream will prevent underlying dispatcher to be saturated (and sometimes
 	 * blocking).
 	 *
+	 * <p>
+	 * A {@link reactor.io.queue.spec.PersistentQueueSpec} with a {@link
+	 * reactor.io.queue.spec.PersistentQueueSpec#memoryCapacity(int) memory capacity} supplies a queue that keeps a
+	 * bounded number of values in memory and spills the others to disk.
+	 *
 	 * @param queueSupplier A completable queue {@link reactor.fn.Supplier} to provide support for overflow
 	 * @return a buffered stream
 	 * @since 2.0
@@ -1075,12 +1133,7 @@ public abstract class Stream<O> implements Publisher<O>, NonBlocking {
 	 * @return a new {@link Stream} containing only values that pass the predicate test
 	 */
 	public final Stream<O> filter(final Predicate<? super O> p) {
-		return lift(new Function<Dispatcher, Action<? super O, ? extends O>>() {
-			@Override
-			public Action<? super O, ? extends O> apply(Dispatcher dispatcher) {
-				return new FilterAction<O>(p, dispatcher);
-			}
-		});
+		return lift(FusedAction.<O>liftFilter(p));
 	}
 
 	/**
@@ -2035,6 +2088,108 @@ public abstract class Stream<O> implements Publisher<O>, NonBlocking {
 		});
 	}
 
+	/**
+	 * Aggregate incoming values with the given {@link Aggregator} and push its result every {@code size} values.
+	 * Unlike {@link #window(int)}, no {@link Stream} is created for each window.
+	 *
+	 * @param size       the number of values in a window
+	 * @param aggregator the aggregator to apply to each window
+	 * @param <A>        the type of the partial aggregates
+	 * @param <R>        the type of the results
+	 * @return a new {@link Stream} whose values are the results of each window
+	 * @since 2.0
+	 */
+	public final <A, R> Stream<R> aggregate(int size, @Nonnull Aggregator<? super O, A, ? extends R> aggregator) {
+		return aggregate(size, size, aggregator);
+	}
+
+	/**
+	 * Aggregate incoming values with the given {@link Aggregator} over windows of {@code size} values starting every
+	 * {@code skip} values, and push the result of each window when it ends. Each window is made of panes whose partial
+	 * aggregates are combined on emit, so that overlapping windows share the aggregation of their common values.
+	 *
+	 * @param size       the number of values in a window
+	 * @param skip       the number of values between the start of two windows
+	 * @param aggregator the aggregator to apply to each window
+	 * @param <A>        the type of the partial aggregates
+	 * @param <R>        the type of the results
+	 * @return a new {@link Stream} whose values are the results of each window
+	 * @since 2.0
+	 */
+	public final <A, R> Stream<R> aggregate(final int size, final int skip,
+	                                        @Nonnull final Aggregator<? super O, A, ? extends R> aggregator) {
+		return lift(new Function<Dispatcher, Action<? super O, ? extends R>>() {
+			@Override
+			public Action<? super O, ? extends R> apply(Dispatcher dispatcher) {
+				return new AggregateAction<O, A, R>(dispatcher, aggregator, size, skip);
+			}
+		});
+	}
+
+	/**
+	 * Aggregate incoming values with the given {@link Aggregator} and push its result every timespan. Unlike {@link
+	 * #window(long, TimeUnit)}, no {@link Stream} is created for each window.
+	 *
+	 * @param timespan   the period in unit of a window
+	 * @param unit       the time unit
+	 * @param aggregator the aggregator to apply to each window
+	 * @param <A>        the type of the partial aggregates
+	 * @param <R>        the type of the results
+	 * @return a new {@link Stream} whose values are the results of each window
+	 * @since 2.0
+	 */
+	public final <A, R> Stream<R> aggregate(long timespan, TimeUnit unit,
+	                                        @Nonnull Aggregator<? super O, A, ? extends R> aggregator) {
+		return aggregate(timespan, timespan, unit, getTimer(), aggregator);
+	}
+
+	/**
+	 * Aggregate incoming values with the given {@link Aggregator} over windows of {@code timespan} starting every
+	 * {@code timeshift}, and push the result of each window when it ends. Each window is made of panes whose partial
+	 * aggregates are combined on emit, so that overlapping windows share the aggregation of their common values.
+	 * Complete signal will push the result of the current window.
+	 *
+	 * @param timespan   the period in unit of a window
+	 * @param timeshift  the period in unit between the start of two windows
+	 * @param unit       the time unit
+	 * @param aggregator the aggregator to apply to each window
+	 * @param <A>        the type of the partial aggregates
+	 * @param <R>        the type of the results
+	 * @return a new {@link Stream} whose values are the results of each window
+	 * @since 2.0
+	 */
+	public final <A, R> Stream<R> aggregate(long timespan, long timeshift, TimeUnit unit,
+	                                        @Nonnull Aggregator<? super O, A, ? extends R> aggregator) {
+		return aggregate(timespan, timeshift, unit, getTimer(), aggregator);
+	}
+
+	/**
+	 * Aggregate incoming values with the given {@link Aggregator} over windows of {@code timespan} starting every
+	 * {@code timeshift}, and push the result of each window when it ends. Each window is made of panes whose partial
+	 * aggregates are combined on emit, so that overlapping windows share the aggregation of their common values.
+	 * Complete signal will push the result of the current window.
+	 *
+	 * @param timespan   the period in unit of a window
+	 * @param timeshift  the period in unit between the start of two windows
+	 * @param unit       the time unit
+	 * @param timer      the Timer to run on
+	 * @param aggregator the aggregator to apply to each window
+	 * @param <A>        the type of the partial aggregates
+	 * @param <R>        the type of the results
+	 * @return a new {@link Stream} whose values are the results of each window
+	 * @since 2.0
+	 */
+	public final <A, R> Stream<R> aggregate(final long timespan, final long timeshift, final TimeUnit unit,
+	                                        final Timer timer,
+	                                        @Nonnull final Aggregator<? super O, A, ? extends R> aggregator) {
+		return lift(new Function<Dispatcher, Action<? super O, ? extends R>>() {
+			@Override
+			public Action<? super O, ? extends R> apply(Dispatcher dispatcher) {
+				return new AggregateAction<O, A, R>(dispatcher, aggregator, timespan, timeshift, unit, timer);
+			}
+		});
+	}
+
 
 	/**
 	 * Re-route incoming values into a dynamically created {@link Stream} for each unique key evaluated by the
@@ -2053,6 +2208,27 @@ public abstract class Stream<O> implements Publisher<O>, NonBlocking {
 		});
 	}
 
+	/**
+	 * Re-route incoming values into a dynamically created {@link Stream} for each unique key evaluated by the
+	 * {param keyMapper}, each one running on the dispatcher {@link AffinityDispatcherSupplier#get(Object)} assigns
+	 * to its key, so that the same key always runs on the same CPU.
+	 *
+	 * @param keyMapper   the key mapping function that evaluates an incoming data and returns a key.
+	 * @param dispatchers the dispatchers to assign to the keys
+	 * @return a new {@link Stream} whose values are a {@link Stream} of all values with the same key, running on the
+	 * dispatcher of that key
+	 * @since 2.0
+	 */
+	public final <K> Stream<GroupedStream<K, O>> groupBy(final Function<? super O, ? extends K> keyMapper,
+	                                                     final AffinityDispatcherSupplier dispatchers) {
+		return this.<K>groupBy(keyMapper).map(new Function<GroupedStream<K, O>, GroupedStream<K, O>>() {
+			@Override
+			public GroupedStream<K, O> apply(GroupedStream<K, O> group) {
+				return new DispatchedGroupedStream<K, O>(group.key(), group.dispatchOn(dispatchers.get(group.key())));
+			}
+		});
+	}
+
 	/**
 	 * Re-route incoming values into a dynamically created {@link Stream} for each unique key evaluated by the
 	 * {param keyMapper}. The hashcode of the incoming data will be used for partitioning over {@link
@@ -2079,7 +2255,26 @@ public abstract class Stream<O> implements Publisher<O>, NonBlocking {
 	 * @since 2.0
 	 */
 	public final Stream<GroupedStream<Integer, O>> partition(final int buckets) {
-		return groupBy(new Function<O, Integer>() {
+		return groupBy(partitionKey(buckets));
+	}
+
+	/**
+	 * Re-route incoming values into a dynamically created {@link Stream} for each of the CPUs of the given {@link
+	 * AffinityDispatcherSupplier}, each partition running on the dispatcher {@link
+	 * AffinityDispatcherSupplier#get(Object)} assigns to its key. The hashcode of the incoming data will be used for
+	 * partitioning.
+	 *
+	 * @param dispatchers the dispatchers to run the partitions on
+	 * @return a new {@link Stream} whose values are a {@link Stream} of all values routed to this partition, running
+	 * on the dispatcher of this partition
+	 * @since 2.0
+	 */
+	public final Stream<GroupedStream<Integer, O>> partition(final AffinityDispatcherSupplier dispatchers) {
+		return groupBy(partitionKey(dispatchers.cpus().length), dispatchers);
+	}
+
+	private Function<O, Integer> partitionKey(final int buckets) {
+		return new Function<O, Integer>() {
 			//volatile int cursor = -1;
 			@Override
 			public Integer apply(O o) {
@@ -2090,7 +2285,36 @@ public abstract class Stream<O> implements Publisher<O>, NonBlocking {
 				}
 				return key;*/
 			}
-		});
+		};
+	}
+
+	/**
+	 * Split the values of this {@code Stream} over {@link Environment#PROCESSORS} rails.
+	 *
+	 * @return a new {@link ParallelStream} of {@link Environment#PROCESSORS} rails
+	 * @see #parallel(int)
+	 * @since 2.0
+	 */
+	public final ParallelStream<O> parallel() {
+		return parallel(Environment.PROCESSORS);
+	}
+
+	/**
+	 * Split the values of this {@code Stream} over the given number of rails, assigned in a round robin fashion. Unlike
+	 * {@link #partition(int)}, the rails are not streams of their own: each rail runs the fused map and filter stages of
+	 * the returned {@link ParallelStream} on the dispatcher it has been assigned by {@link
+	 * ParallelStream#runOn(reactor.core.DispatcherSupplier)}, and the rails are merged back into a single {@link Stream},
+	 * E.g.:
+	 * {@code
+	 * stream.parallel(4).runOn(Environment.newCachedDispatchers(4)).map(enrich).ordered().consume()
+	 * }
+	 *
+	 * @param rails the number of rails
+	 * @return a new {@link ParallelStream} of {@code rails} rails
+	 * @since 2.0
+	 */
+	public final ParallelStream<O> parallel(int rails) {
+		return new ParallelStream<O>(this, rails);
 	}
 
 	/**
@@ -2183,6 +2407,156 @@ public abstract class Stream<O> implements Publisher<O>, NonBlocking {
 		});
 	}
 
+	/**
+	 * Extract a primitive {@code long} from each accepted value. The returned {@link LongStream} fuses its operators
+	 * with the extraction, so the values are summarized, consumed or transformed without being boxed.
+	 *
+	 * @param mapper the function extracting a {@code long} from a value
+	 * @return a new {@link LongStream} of the extracted values
+	 * @since 2.0
+	 */
+	public final LongStream<O> mapToLong(@Nonnull ToLongFunction<? super O> mapper) {
+		return new LongStream<O>(this, mapper);
+	}
+
+	/**
+	 * Summarize the primitive {@code long} extracted from each accepted value into a {@link LongSummary} of their
+	 * count, sum, minimum, maximum and average, pushed on completion. The values are accumulated without boxing.
+	 *
+	 * @param mapper the function extracting the {@code long} to summarize from a value
+	 * @return a new {@link Stream} whose only value is the summary of all values
+	 * @since 2.0
+	 */
+	public final Stream<LongSummary> summarizeLong(@Nonnull ToLongFunction<? super O> mapper) {
+		return summarizeLong(mapper, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Summarize the primitive {@code long} extracted from each accepted value into a {@link LongSummary} pushed
+	 * every maxSize values and on completion. The values are accumulated without boxing.
+	 *
+	 * @param mapper  the function extracting the {@code long} to summarize from a value
+	 * @param maxSize the number of values to summarize in each batch
+	 * @return a new {@link Stream} whose values are the summaries of each batch
+	 * @since 2.0
+	 */
+	public final Stream<LongSummary> summarizeLong(@Nonnull final ToLongFunction<? super O> mapper,
+	                                                 final int maxSize) {
+		return lift(new Function<Dispatcher, Action<? super O, ? extends LongSummary>>() {
+			@Override
+			public Action<? super O, ? extends LongSummary> apply(Dispatcher dispatcher) {
+				return new LongSummaryAction<O>(dispatcher, mapper, maxSize);
+			}
+		});
+	}
+
+	/**
+	 * Summarize the primitive {@code long} extracted from each accepted value into a {@link LongSummary} pushed
+	 * every timespan. The values are accumulated without boxing.
+	 *
+	 * @param mapper   the function extracting the {@code long} to summarize from a value
+	 * @param timespan the period in unit to use to release a summary
+	 * @param unit     the time unit
+	 * @return a new {@link Stream} whose values are the summaries of each batch
+	 * @since 2.0
+	 */
+	public final Stream<LongSummary> summarizeLong(@Nonnull ToLongFunction<? super O> mapper, long timespan,
+	                                                 TimeUnit unit) {
+		return summarizeLong(mapper, Integer.MAX_VALUE, timespan, unit, getTimer());
+	}
+
+	/**
+	 * Summarize the primitive {@code long} extracted from each accepted value into a {@link LongSummary} pushed
+	 * every timespan OR maxSize values. The values are accumulated without boxing.
+	 *
+	 * @param mapper   the function extracting the {@code long} to summarize from a value
+	 * @param maxSize  the max number of values to summarize in each batch
+	 * @param timespan the period in unit to use to release a summary
+	 * @param unit     the time unit
+	 * @param timer    the Timer to run on
+	 * @return a new {@link Stream} whose values are the summaries of each batch
+	 * @since 2.0
+	 */
+	public final Stream<LongSummary> summarizeLong(@Nonnull final ToLongFunction<? super O> mapper,
+	                                                 final int maxSize, final long timespan,
+	                                                 final TimeUnit unit, final Timer timer) {
+		return lift(new Function<Dispatcher, Action<? super O, ? extends LongSummary>>() {
+			@Override
+			public Action<? super O, ? extends LongSummary> apply(Dispatcher dispatcher) {
+				return new LongSummaryAction<O>(dispatcher, mapper, maxSize, timespan, unit, timer);
+			}
+		});
+	}
+
+	/**
+	 * Summarize the primitive {@code double} extracted from each accepted value into a {@link DoubleSummary} of their
+	 * count, sum, minimum, maximum and average, pushed on completion. The values are accumulated without boxing.
+	 *
+	 * @param mapper the function extracting the {@code double} to summarize from a value
+	 * @return a new {@link Stream} whose only value is the summary of all values
+	 * @since 2.0
+	 */
+	public final Stream<DoubleSummary> summarizeDouble(@Nonnull ToDoubleFunction<? super O> mapper) {
+		return summarizeDouble(mapper, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Summarize the primitive {@code double} extracted from each accepted value into a {@link DoubleSummary} pushed
+	 * every maxSize values and on completion. The values are accumulated without boxing.
+	 *
+	 * @param mapper  the function extracting the {@code double} to summarize from a value
+	 * @param maxSize the number of values to summarize in each batch
+	 * @return a new {@link Stream} whose values are the summaries of each batch
+	 * @since 2.0
+	 */
+	public final Stream<DoubleSummary> summarizeDouble(@Nonnull final ToDoubleFunction<? super O> mapper,
+	                                                   final int maxSize) {
+		return lift(new Function<Dispatcher, Action<? super O, ? extends DoubleSummary>>() {
+			@Override
+			public Action<? super O, ? extends DoubleSummary> apply(Dispatcher dispatcher) {
+				return new DoubleSummaryAction<O>(dispatcher, mapper, maxSize);
+			}
+		});
+	}
+
+	/**
+	 * Summarize the primitive {@code double} extracted from each accepted value into a {@link DoubleSummary} pushed
+	 * every timespan. The values are accumulated without boxing.
+	 *
+	 * @param mapper   the function extracting the {@code double} to summarize from a value
+	 * @param timespan the period in unit to use to release a summary
+	 * @param unit     the time unit
+	 * @return a new {@link Stream} whose values are the summaries of each batch
+	 * @since 2.0
+	 */
+	public final Stream<DoubleSummary> summarizeDouble(@Nonnull ToDoubleFunction<? super O> mapper, long timespan,
+	                                                   TimeUnit unit) {
+		return summarizeDouble(mapper, Integer.MAX_VALUE, timespan, unit, getTimer());
+	}
+
+	/**
+	 * Summarize the primitive {@code double} extracted from each accepted value into a {@link DoubleSummary} pushed
+	 * every timespan OR maxSize values. The values are accumulated without boxing.
+	 *
+	 * @param mapper   the function extracting the {@code double} to summarize from a value
+	 * @param maxSize  the max number of values to summarize in each batch
+	 * @param timespan the period in unit to use to release a summary
+	 * @param unit     the time unit
+	 * @param timer    the Timer to run on
+	 * @return a new {@link Stream} whose values are the summaries of each batch
+	 * @since 2.0
+	 */
+	public final Stream<DoubleSummary> summarizeDouble(@Nonnull final ToDoubleFunction<? super O> mapper,
+	                                                   final int maxSize, final long timespan,
+	                                                   final TimeUnit unit, final Timer timer) {
+		return lift(new Function<Dispatcher, Action<? super O, ? extends DoubleSummary>>() {
+			@Override
+			public Action<? super O, ? extends DoubleSummary> apply(Dispatcher dispatcher) {
+				return new DoubleSummaryAction<O>(dispatcher, mapper, maxSize, timespan, unit, timer);
+			}
+		});
+	}
+
 	/**
 	 * Request once the parent stream every {@param period} milliseconds. Timeout is run on the environment root timer.
 	 *
@@ -2522,4 +2896,30 @@ public abstract class Stream<O> implements Publisher<O>, NonBlocking {
 		return getClass().getSimpleName();
 	}
 
+	/**
+	 * A {@link GroupedStream} running on the dispatcher of its key.
+	 */
+	private static final class DispatchedGroupedStream<K, O> extends GroupedStream<K, O> {
+		private final Stream<O> dispatched;
+
+		DispatchedGroupedStream(K key, Stream<O> dispatched) {
+			super(key);
+			this.dispatched = dispatched;
+		}
+
+		@Override
+		public void subscribe(Subscriber<? super O> s) {
+			dispatched.subscribe(s);
+		}
+
+		@Override
+		public Dispatcher getDispatcher() {
+			return dispatched.getDispatcher();
+		}
+
+		@Override
+		public long getCapacity() {
+			return dispatched.getCapacity();
+		}
+	}
 }
@@ -23,6 +23,7 @@ import reactor.Environment;
 import reactor.core.Dispatcher;
 import reactor.core.alloc.Recyclable;
 import reactor.core.dispatch.SynchronousDispatcher;
+import reactor.core.queue.CompletableArrayQueue;
 import reactor.core.queue.CompletableLinkedQueue;
 import reactor.core.queue.CompletableQueue;
 import reactor.fn.Consumer;
@@ -36,6 +37,7 @@ import reactor.rx.StreamUtils;
 import reactor.rx.action.support.NonBlocking;
 import reactor.rx.action.support.SpecificationExceptions;
 import reactor.rx.stream.Broadcaster;
+import reactor.rx.subscription.DrainSubscription;
 import reactor.rx.subscription.DropSubscription;
 import reactor.rx.subscription.FanOutSubscription;
 import reactor.rx.subscription.PushSubscription;
@@ -89,6 +91,18 @@ public abstract class Action<I, O> extends Stream<O>
 
 	public static final int NO_CAPACITY = -1;
 
+	/**
+	 * The largest subscriber capacity buffered into a bounded {@link CompletableArrayQueue}, larger capacities such as
+	 * the synchronous dispatcher one being buffered into a linked queue.
+	 */
+	public static final int MAX_ARRAY_BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The system property that must be set to {@literal true} for reactive-pull subscriptions to be buffered into a
+	 * bounded {@link CompletableArrayQueue} drained by a {@link DrainSubscription}, disabled by default.
+	 */
+	public static final String DRAIN_SUBSCRIPTIONS_PROPERTY = "reactor.rx.drainSubscriptions";
+
 	/**
 	 * The upstream request tracker to avoid dispatcher overrun, based on the current {@link this#capacity}
 	 */
@@ -597,11 +611,45 @@ public abstract class Action<I, O> extends Stream<O>
 	}
 
 	protected PushSubscription<O> createSubscription(final Subscriber<? super O> subscriber, boolean reactivePull) {
-		return createSubscription(subscriber, reactivePull ? new CompletableLinkedQueue<O>() : null);
+		return createSubscription(subscriber, reactivePull ? createBuffer(subscriber) : null);
+	}
+
+	/**
+	 * Create the buffer of a new reactive-pull subscription. When the {@link #DRAIN_SUBSCRIPTIONS_PROPERTY} system
+	 * property is {@literal true}, a {@link NonBlocking} subscriber with a capacity up to {@link
+	 * #MAX_ARRAY_BUFFER_SIZE}, usually running on another dispatcher, gets a {@link CompletableArrayQueue} of that
+	 * capacity drained without locking by a {@link DrainSubscription}. Any other subscriber gets an unbounded {@link
+	 * CompletableLinkedQueue}.
+	 *
+	 * @param subscriber the subscriber to buffer signals for
+	 * @return a new buffer
+	 */
+	protected CompletableQueue<O> createBuffer(final Subscriber<? super O> subscriber) {
+		if (Boolean.getBoolean(DRAIN_SUBSCRIPTIONS_PROPERTY) &&
+				NonBlocking.class.isAssignableFrom(subscriber.getClass())) {
+			long subscriberCapacity = ((NonBlocking) subscriber).getCapacity();
+			if (subscriberCapacity > 0l && subscriberCapacity <= MAX_ARRAY_BUFFER_SIZE) {
+				return new CompletableArrayQueue<O>(subscriberCapacity);
+			}
+		}
+		return new CompletableLinkedQueue<O>();
 	}
 
 	protected PushSubscription<O> createSubscription(final Subscriber<? super O> subscriber, CompletableQueue<O> queue) {
-		if (queue != null) {
+		if (queue instanceof CompletableArrayQueue) {
+			return new DrainSubscription<O>(this, subscriber, (CompletableArrayQueue<O>) queue) {
+
+				@Override
+				protected void onRequest(long elements) {
+					if (upstreamSubscription == null) {
+						updatePendingRequests(elements);
+					} else {
+						super.onRequest(elements);
+						requestUpstream(capacity, buffer.isComplete(), elements);
+					}
+				}
+			};
+		} else if (queue != null) {
 			return new ReactiveSubscription<O>(this, subscriber, queue) {
 
 				@Override
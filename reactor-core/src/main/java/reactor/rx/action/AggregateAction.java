@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx.action;
+
+import org.reactivestreams.Subscription;
+import reactor.bus.registry.Registration;
+import reactor.core.Dispatcher;
+import reactor.fn.Aggregator;
+import reactor.fn.Consumer;
+import reactor.fn.timer.Timer;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AggregateAction pushes the result of an {@link Aggregator} over tumbling or sliding windows of {@code size} values
+ * starting every {@code skip} values, or of {@code timespan} starting every {@code timeshift}.
+ * <p>
+ * The windows are cut into panes of the greatest common divisor of their length and their shift, and only the partial
+ * aggregate of each of the panes covered by a window is kept in a ring. When a window ends, the partial aggregates of
+ * its panes are combined into its result, so that a sliding window costs one accumulation per value and one
+ * combination per pane, without creating a stream per window nor keeping its values.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public class AggregateAction<T, A, R> extends Action<T, R> {
+
+	private final Aggregator<? super T, A, ? extends R>  aggregator;
+	private final Object[]                               panes;
+	private final int                                    shiftPanes;
+	private final long                                   paneSize;
+	private final long                                   valuesPerWindow;
+	private final Registration<? extends Consumer<Long>> paneRegistration;
+
+	private long    closedPanes;
+	private long    paneValues;
+	private boolean dirty;
+	private boolean terminated;
+
+	public AggregateAction(Dispatcher dispatcher, Aggregator<? super T, A, ? extends R> aggregator, int size,
+	                       int skip) {
+		super(dispatcher);
+		if (size < 1 || skip < 1) {
+			throw new IllegalArgumentException("Window size and skip must be strictly positive");
+		}
+		this.aggregator = aggregator;
+		this.paneSize = gcd(size, skip);
+		this.panes = new Object[(int) (size / paneSize)];
+		this.shiftPanes = (int) (skip / paneSize);
+		this.valuesPerWindow = Math.max(size, skip);
+		this.paneRegistration = null;
+	}
+
+	public AggregateAction(Dispatcher dispatcher, Aggregator<? super T, A, ? extends R> aggregator, long timespan,
+	                       long timeshift, TimeUnit unit, Timer timer) {
+		super(dispatcher);
+		if (timespan < 1 || timeshift < 1) {
+			throw new IllegalArgumentException("Window timespan and timeshift must be strictly positive");
+		}
+		TimeUnit targetUnit = unit != null ? unit : TimeUnit.SECONDS;
+		long span = TimeUnit.MILLISECONDS.convert(timespan, targetUnit);
+		long shift = TimeUnit.MILLISECONDS.convert(timeshift, targetUnit);
+		long pane = gcd(Math.max(1l, span), Math.max(1l, shift));
+
+		this.aggregator = aggregator;
+		this.paneSize = -1l;
+		this.panes = new Object[(int) Math.max(1l, span / pane)];
+		this.shiftPanes = (int) Math.max(1l, shift / pane);
+		this.valuesPerWindow = Long.MAX_VALUE;
+
+		final Consumer<Void> closePaneTask = new Consumer<Void>() {
+			@Override
+			public void accept(Void aVoid) {
+				closePane();
+			}
+		};
+		this.paneRegistration = timer.schedule(new Consumer<Long>() {
+			@Override
+			public void accept(Long aLong) {
+				dispatch(closePaneTask);
+			}
+		}, pane, TimeUnit.MILLISECONDS);
+		this.paneRegistration.pause();
+	}
+
+	@Override
+	protected void doSubscribe(Subscription subscription) {
+		super.doSubscribe(subscription);
+		if (paneRegistration != null) paneRegistration.resume();
+	}
+
+	@Override
+	protected void requestUpstream(long capacity, boolean terminated, long elements) {
+		long values = elements;
+		if (elements != Long.MAX_VALUE) {
+			values = elements > Long.MAX_VALUE / valuesPerWindow ? Long.MAX_VALUE : elements * valuesPerWindow;
+		}
+		super.requestUpstream(capacity, terminated, values);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected void doNext(T value) {
+		if (terminated) {
+			return;
+		}
+		if (closedPanes % shiftPanes < panes.length) {
+			int current = (int) (closedPanes % panes.length);
+			A pane = (A) panes[current];
+			panes[current] = aggregator.accumulate(pane != null ? pane : aggregator.create(), value);
+			dirty = true;
+		}
+
+		if (paneSize > 0 && ++paneValues == paneSize) {
+			closePane();
+		}
+	}
+
+	@Override
+	protected void doComplete() {
+		if (terminated) {
+			return;
+		}
+		if (dirty) {
+			emit(closedPanes + 1);
+		}
+		terminate();
+		super.doComplete();
+	}
+
+	@Override
+	protected void doError(Throwable ev) {
+		if (!terminated) {
+			terminate();
+		}
+		super.doError(ev);
+	}
+
+	@Override
+	public void cancel() {
+		if (paneRegistration != null) paneRegistration.cancel();
+		super.cancel();
+	}
+
+	private void terminate() {
+		terminated = true;
+		dirty = false;
+		if (paneRegistration != null) paneRegistration.cancel();
+		Arrays.fill(panes, null);
+	}
+
+	/**
+	 * Close the current pane, pushing the window it ends if any. Panes falling between two windows, when they start
+	 * more than one window apart, are never accumulated.
+	 */
+	private void closePane() {
+		if (terminated) {
+			return;
+		}
+		paneValues = 0l;
+		long closed = ++closedPanes;
+		if (closed >= panes.length && (closed - panes.length) % shiftPanes == 0) {
+			emit(closed);
+		}
+		panes[(int) (closed % panes.length)] = null;
+	}
+
+	/**
+	 * Combine the panes of the ring from the oldest one, stored at the given pane index.
+	 */
+	@SuppressWarnings("unchecked")
+	private void emit(long oldestPane) {
+		dirty = false;
+		A merged = null;
+		for (int i = 0; i < panes.length; i++) {
+			A pane = (A) panes[(int) ((oldestPane + i) % panes.length)];
+			if (pane != null) {
+				merged = aggregator.combine(merged != null ? merged : aggregator.create(), pane);
+			}
+		}
+		if (merged != null) {
+			broadcastNext(aggregator.result(merged));
+		}
+	}
+
+	private static long gcd(long a, long b) {
+		while (b != 0l) {
+			long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "{panes=" + panes.length + ",shift=" + shiftPanes +
+				(paneSize > 0 ? ",paneSize=" + paneSize : ",timed!") + "}";
+	}
+}
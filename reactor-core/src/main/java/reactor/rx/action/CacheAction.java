@@ -16,115 +16,262 @@
 package reactor.rx.action;
 
 import org.reactivestreams.Subscriber;
+import reactor.bus.registry.Registration;
 import reactor.core.Dispatcher;
 import reactor.core.queue.CompletableQueue;
 import reactor.fn.Consumer;
 import reactor.fn.timer.Timer;
-import reactor.rx.Signal;
 import reactor.rx.subscription.PushSubscription;
 import reactor.rx.subscription.ReactiveSubscription;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * Replay the values and the terminal signal received by this action to any later subscriber, on request.
+ * <p>
+ * Values are kept as is in a ring growing up to {@code maxSize} slots, the oldest value being overwritten by a new one
+ * once it is full. With a {@code timespan}, values older than the timespan are evicted as well, on write, on replay and
+ * periodically on the given {@link Timer}, so that the cache memory stays bounded while the stream is idle. Each
+ * subscription replays the values that were cached when it was created from its own cursor into the ring, without
+ * copying them, then receives the next values as they are broadcast.
+ *
  * @author Stephane Maldini
  * @since 2.0
  */
 public class CacheAction<T> extends Action<T, T> {
 
-	private final List<Signal<T>> values = new ArrayList<>();
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int                                    maxSize;
+	private final long                                   timespan;
+	private final Registration<? extends Consumer<Long>> timespanRegistration;
+
+	private Object[] values;
+	private long[]   timestamps;
+	private long     head;
+	private long     tail;
 
-	public CacheAction(Dispatcher dispatcher, int batchsize) {
-		this(dispatcher, batchsize, -1, null, null);
+	private boolean   terminated;
+	private Throwable error;
+
+	public CacheAction(Dispatcher dispatcher, int maxSize) {
+		this(dispatcher, maxSize, -1l, null, null);
 	}
 
 	public CacheAction(Dispatcher dispatcher, int maxSize, long timespan, TimeUnit unit, Timer timer) {
 		super(dispatcher);
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Cache size must be strictly positive");
+		}
+		this.maxSize = maxSize;
+		this.values = new Object[Math.min(maxSize, INITIAL_CAPACITY)];
 
+		if (timespan > 0) {
+			TimeUnit targetUnit = unit != null ? unit : TimeUnit.SECONDS;
+			this.timespan = TimeUnit.MILLISECONDS.convert(timespan, targetUnit);
+			this.timestamps = new long[values.length];
+			if (timer != null) {
+				this.timespanRegistration = timer.schedule(new Consumer<Long>() {
+					@Override
+					public void accept(Long tick) {
+						synchronized (CacheAction.this) {
+							evictExpired(System.currentTimeMillis());
+						}
+					}
+				}, this.timespan, TimeUnit.MILLISECONDS, this.timespan);
+			} else {
+				this.timespanRegistration = null;
+			}
+		} else {
+			this.timespan = -1l;
+			this.timespanRegistration = null;
+		}
 	}
 
 	@Override
 	protected PushSubscription<T> createSubscription(final Subscriber<? super T> subscriber, CompletableQueue<T> queue) {
-		final Consumer<Long> requestConsumer = new Consumer<Long>() {
-			int cursor = 0;
-
-			@Override
-			public void accept(Long elem) {
-				if (values.isEmpty()) {
-					if(upstreamSubscription != null) {
-						upstreamSubscription.accept(elem);
-					}
-					return;
-				}
-
-				long toRequest = elem;
-				if(cursor < values.size()) {
-					List<Signal<T>> toSend = elem == Long.MAX_VALUE ? new ArrayList<>(values) :
-							values.subList(cursor, Math.max(cursor + elem.intValue(), values.size()));
-
-					for (Signal<T> signal : toSend) {
-						cursor++;
-						if (signal.isOnNext()) {
-							subscriber.onNext(signal.get());
-						} else if (signal.isOnComplete()) {
-							subscriber.onComplete();
-							break;
-						} else if (signal.isOnError()) {
-							subscriber.onError(signal.getThrowable());
-							break;
-						}
-					}
-					toRequest = elem == Long.MAX_VALUE ? elem : elem - toSend.size();
-				}
-
-
-				if (toRequest > 0 && upstreamSubscription != null) {
-						upstreamSubscription.accept(toRequest);
-					}
-			}
-		};
+		final Replay replay;
+		synchronized (this) {
+			replay = new Replay(subscriber, head, tail, terminated);
+		}
 
 		if (queue != null) {
 			return new ReactiveSubscription<T>(this, subscriber, queue) {
 
 				@Override
 				protected void onRequest(long elements) {
-					requestConsumer.accept(elements);
-					if (upstreamSubscription == null) {
-						updatePendingRequests(elements);
+					long replayed = replay.replay(this, elements);
+					if (replayed > 0 && pendingRequestSignals != Long.MAX_VALUE) {
+						CAPACITY_UPDATER.addAndGet(this, -replayed);
 					}
+					requestUpstream(this, elements == Long.MAX_VALUE ? elements : elements - replayed);
 				}
 			};
 		} else {
 			return new PushSubscription<T>(this, subscriber) {
 				@Override
 				protected void onRequest(long elements) {
-					requestConsumer.accept(elements);
-					if (upstreamSubscription == null) {
-						updatePendingRequests(elements);
-					}
+					long replayed = replay.replay(this, elements);
+					requestUpstream(this, elements == Long.MAX_VALUE ? elements : elements - replayed);
 				}
 			};
 		}
 	}
 
+	@Override
+	public void doNext(T value) {
+		synchronized (this) {
+			long now = timestamps != null ? System.currentTimeMillis() : 0l;
+			if (timestamps != null) {
+				evictExpired(now);
+			}
+			if (tail - head == values.length) {
+				if (values.length < maxSize) {
+					grow();
+				} else {
+					values[index(head++)] = null;
+				}
+			}
+			int index = index(tail);
+			values[index] = value;
+			if (timestamps != null) {
+				timestamps[index] = now;
+			}
+			tail++;
+		}
+		broadcastNext(value);
+	}
+
 	@Override
 	protected void doComplete() {
-		values.add(Signal.<T>complete());
+		synchronized (this) {
+			terminated = true;
+		}
 		super.doComplete();
 	}
 
 	@Override
 	protected void doError(Throwable ev) {
-		values.add(Signal.<T>error(ev));
+		synchronized (this) {
+			terminated = true;
+			error = ev;
+		}
 		super.doError(ev);
 	}
 
 	@Override
-	public void doNext(T value) {
-		values.add(Signal.next(value));
-		broadcastNext(value);
+	public void cancel() {
+		if (timespanRegistration != null) timespanRegistration.cancel();
+		super.cancel();
+	}
+
+	/**
+	 * The number of values currently cached.
+	 *
+	 * @return the number of cached values
+	 */
+	public synchronized int size() {
+		return (int) (tail - head);
+	}
+
+	private void requestUpstream(PushSubscription<T> subscription, long elements) {
+		if (elements <= 0 || subscription.isComplete()) {
+			return;
+		}
+		if (upstreamSubscription != null) {
+			upstreamSubscription.accept(elements);
+		} else {
+			subscription.updatePendingRequests(elements);
+		}
+	}
+
+	private int index(long sequence) {
+		return (int) (sequence % values.length);
+	}
+
+	private void grow() {
+		int capacity = (int) Math.min(maxSize, values.length * 2l);
+		Object[] newValues = new Object[capacity];
+		long[] newTimestamps = timestamps != null ? new long[capacity] : null;
+		for (long sequence = head; sequence < tail; sequence++) {
+			int from = index(sequence);
+			int to = (int) (sequence % capacity);
+			newValues[to] = values[from];
+			if (newTimestamps != null) {
+				newTimestamps[to] = timestamps[from];
+			}
+		}
+		values = newValues;
+		timestamps = newTimestamps;
+	}
+
+	private void evictExpired(long now) {
+		long expiry = now - timespan;
+		int index;
+		while (head < tail && timestamps[index = index(head)] <= expiry) {
+			values[index] = null;
+			head++;
+		}
+	}
+
+	/**
+	 * Read the values one at a time under the cache monitor, so that they are never passed to the subscriber while
+	 * holding it.
+	 */
+	private final class Replay {
+		final Subscriber<? super T> subscriber;
+		final long                  limit;
+		final boolean               replayTerminal;
+
+		long cursor;
+
+		Replay(Subscriber<? super T> subscriber, long cursor, long limit, boolean replayTerminal) {
+			this.subscriber = subscriber;
+			this.cursor = cursor;
+			this.limit = limit;
+			this.replayTerminal = replayTerminal;
+		}
+
+		long replay(PushSubscription<T> subscription, long elements) {
+			long replayed = 0l;
+			Object value;
+			while (replayed < elements) {
+				synchronized (CacheAction.this) {
+					if (timestamps != null) {
+						evictExpired(System.currentTimeMillis());
+					}
+					if (cursor < head) {
+						cursor = head;
+					}
+					if (cursor >= limit) {
+						break;
+					}
+					value = values[index(cursor++)];
+				}
+				replayed++;
+				@SuppressWarnings("unchecked")
+				T next = (T) value;
+				subscriber.onNext(next);
+			}
+
+			if (replayTerminal && cursor >= limit) {
+				Throwable error;
+				synchronized (CacheAction.this) {
+					error = CacheAction.this.error;
+				}
+				if (error != null) {
+					subscription.onError(error);
+				} else {
+					subscription.onComplete();
+				}
+			}
+			return replayed;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "{cached=" + size() + "/" + (maxSize == Integer.MAX_VALUE ? "unbounded" : maxSize) +
+				(timespan > 0 ? ",timespan=" + timespan + "ms" : "") + "}";
 	}
 }
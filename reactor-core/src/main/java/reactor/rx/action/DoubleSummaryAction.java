@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx.action;
+
+import reactor.core.Dispatcher;
+import reactor.fn.ToDoubleFunction;
+import reactor.fn.timer.Timer;
+import reactor.rx.DoubleSummary;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summarize the primitive {@code double} extracted from each value into a {@link DoubleSummary} pushed every {@code
+ * maxSize} values, every {@code timespan} and on completion.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public class DoubleSummaryAction<T> extends SummaryAction<T, DoubleSummary> {
+
+	private final ToDoubleFunction<? super T> mapper;
+
+	private double sum;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	public DoubleSummaryAction(Dispatcher dispatcher, ToDoubleFunction<? super T> mapper, int maxSize) {
+		super(dispatcher, maxSize);
+		this.mapper = mapper;
+	}
+
+	public DoubleSummaryAction(Dispatcher dispatcher, ToDoubleFunction<? super T> mapper, int maxSize, long timespan,
+	                           TimeUnit unit, Timer timer) {
+		super(dispatcher, maxSize, timespan, unit, timer);
+		this.mapper = mapper;
+	}
+
+	@Override
+	protected void accumulate(T value) {
+		double v = mapper.applyAsDouble(value);
+		sum += v;
+		if (v < min) {
+			min = v;
+		}
+		if (v > max) {
+			max = v;
+		}
+	}
+
+	@Override
+	protected DoubleSummary summarize(long count) {
+		return new DoubleSummary(count, sum, min, max);
+	}
+
+	@Override
+	protected void reset() {
+		sum = 0d;
+		min = Double.POSITIVE_INFINITY;
+		max = Double.NEGATIVE_INFINITY;
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx.action;
+
+import reactor.core.Dispatcher;
+import reactor.core.support.Assert;
+import reactor.fn.Function;
+import reactor.fn.Predicate;
+
+import java.util.Arrays;
+
+/**
+ * An {@link Action} running a sequence of map and filter stages in a single {@link #doNext(Object)} call.
+ * <p>
+ * Consecutive {@link MapAction} and {@link FilterAction} lifted on the synchronous dispatcher are merged into one
+ * {@link Lift} by {@link reactor.rx.stream.LiftStream#lift(Function)}, so the whole chain owns a single upstream
+ * subscription and a single downstream subscription instead of one pair per stage. A value dropped by a filter stage
+ * is replenished with a {@link #requestMore(long)} of one, as {@link FilterAction} does.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public final class FusedAction<I, O> extends Action<I, O> {
+
+	static final Object DROPPED = new Object();
+
+	private final Stage[] stages;
+
+	FusedAction(Stage[] stages, Dispatcher dispatcher) {
+		super(dispatcher);
+		this.stages = stages;
+	}
+
+	/**
+	 * Create a fusable lift function producing a {@link MapAction} when it is not merged with any other stage.
+	 *
+	 * @param fn  the transformation function
+	 * @param <T> the input type
+	 * @param <V> the output type
+	 * @return a new fusable lift function
+	 */
+	public static <T, V> Lift<T, V> liftMap(Function<? super T, ? extends V> fn) {
+		Assert.notNull(fn, "Map function cannot be null.");
+		return new Lift<T, V>(new Stage[]{new MapStage(fn)});
+	}
+
+	/**
+	 * Create a fusable lift function producing a {@link FilterAction} when it is not merged with any other stage.
+	 *
+	 * @param p   the predicate to test values against
+	 * @param <T> the input type
+	 * @return a new fusable lift function
+	 */
+	public static <T> Lift<T, T> liftFilter(Predicate<? super T> p) {
+		return new Lift<T, T>(new Stage[]{new FilterStage(p)});
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected void doNext(I ev) {
+		Object value = ev;
+		for (int i = 0; i < stages.length; i++) {
+			value = stages[i].apply(value);
+			if (value == DROPPED) {
+				requestMore(1);
+				return;
+			}
+		}
+		broadcastNext((O) value);
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "{stages=" + stages.length + "}";
+	}
+
+	/**
+	 * The lift function of a sequence of fused stages.
+	 *
+	 * @param <I> the input type of the first stage
+	 * @param <O> the output type of the last stage
+	 */
+	public static final class Lift<I, O> implements Function<Dispatcher, Action<I, O>> {
+
+		private final Stage[] stages;
+
+		Lift(Stage[] stages) {
+			this.stages = stages;
+		}
+
+		/**
+		 * Append the stages of the given lift function to a copy of this one.
+		 *
+		 * @param next the downstream stages
+		 * @param <V>  the output type of the downstream stages
+		 * @return a new lift function running this and the next stages
+		 */
+		public <V> Lift<I, V> fuse(Lift<? super O, V> next) {
+			Stage[] fused = Arrays.copyOf(stages, stages.length + next.stages.length);
+			System.arraycopy(next.stages, 0, fused, stages.length, next.stages.length);
+			return new Lift<I, V>(fused);
+		}
+
+		/**
+		 * Run the stages on the given value outside of any action.
+		 *
+		 * @param value the input of the first stage
+		 * @return the output of the last stage or {@link #DROPPED} if a filter stage dropped the value
+		 */
+		Object run(Object value) {
+			for (int i = 0; i < stages.length && value != DROPPED; i++) {
+				value = stages[i].apply(value);
+			}
+			return value;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Action<I, O> apply(Dispatcher dispatcher) {
+			if (stages.length == 1) {
+				return (Action<I, O>) stages[0].create(dispatcher);
+			}
+			return new FusedAction<I, O>(stages, dispatcher);
+		}
+	}
+
+	static abstract class Stage {
+
+		/**
+		 * @return the stage output or {@link #DROPPED} if the value must not go further
+		 */
+		abstract Object apply(Object value);
+
+		/**
+		 * @return the standalone action equivalent to this stage
+		 */
+		abstract Action<?, ?> create(Dispatcher dispatcher);
+	}
+
+	@SuppressWarnings("unchecked")
+	static final class MapStage extends Stage {
+		private final Function fn;
+
+		MapStage(Function<?, ?> fn) {
+			this.fn = fn;
+		}
+
+		@Override
+		Object apply(Object value) {
+			return fn.apply(value);
+		}
+
+		@Override
+		Action<?, ?> create(Dispatcher dispatcher) {
+			return new MapAction<Object, Object>(fn, dispatcher);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	static final class FilterStage extends Stage {
+		private final Predicate p;
+
+		FilterStage(Predicate<?> p) {
+			this.p = p;
+		}
+
+		@Override
+		Object apply(Object value) {
+			return p.test(value) ? value : DROPPED;
+		}
+
+		@Override
+		Action<?, ?> create(Dispatcher dispatcher) {
+			return new FilterAction<Object>((Predicate<Object>) p, dispatcher);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx.action;
+
+import reactor.core.Dispatcher;
+import reactor.fn.ToLongFunction;
+import reactor.fn.timer.Timer;
+import reactor.rx.LongSummary;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summarize the primitive {@code long} extracted from each value into a {@link LongSummary} pushed every {@code
+ * maxSize} values, every {@code timespan} and on completion.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public class LongSummaryAction<T> extends SummaryAction<T, LongSummary> {
+
+	private final ToLongFunction<? super T> mapper;
+
+	private long sum;
+	private long min = Long.MAX_VALUE;
+	private long max = Long.MIN_VALUE;
+
+	public LongSummaryAction(Dispatcher dispatcher, ToLongFunction<? super T> mapper, int maxSize) {
+		super(dispatcher, maxSize);
+		this.mapper = mapper;
+	}
+
+	public LongSummaryAction(Dispatcher dispatcher, ToLongFunction<? super T> mapper, int maxSize, long timespan,
+	                         TimeUnit unit, Timer timer) {
+		super(dispatcher, maxSize, timespan, unit, timer);
+		this.mapper = mapper;
+	}
+
+	@Override
+	protected void accumulate(T value) {
+		long v = mapper.applyAsLong(value);
+		sum += v;
+		if (v < min) {
+			min = v;
+		}
+		if (v > max) {
+			max = v;
+		}
+	}
+
+	@Override
+	protected LongSummary summarize(long count) {
+		return new LongSummary(count, sum, min, max);
+	}
+
+	@Override
+	protected void reset() {
+		sum = 0l;
+		min = Long.MAX_VALUE;
+		max = Long.MIN_VALUE;
+	}
+}
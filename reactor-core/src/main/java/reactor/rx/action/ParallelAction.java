@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx.action;
+
+import reactor.core.Dispatcher;
+import reactor.core.queue.internal.MpscLinkedQueue;
+import reactor.fn.BiFunction;
+import reactor.fn.Consumer;
+import reactor.fn.support.Resequencer;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * An {@link Action} splitting values over a number of rails, each one running on its own {@link Dispatcher}, and
+ * merging the rail results back into a single sequence.
+ * <p>
+ * Values are assigned to the rails in a round robin fashion. Each rail runs the fused map and filter stages of a
+ * {@link reactor.rx.stream.ParallelStream} and, if any, reduces its values into its own accumulator. Rail results are
+ * merged through a lock-free queue drained by whichever rail thread gets there first, so that the downstream subscriber
+ * always receives serialized signals. When the merge is ordered, every value is tagged with a sequence number and the
+ * results are resequenced before being merged. As the {@link Resequencer} can only hold a bounded backlog, the ordered
+ * merge requests upstream no more values than the backlog has room for, and requests more once a quarter of the backlog
+ * has been published.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public final class ParallelAction<I, O> extends Action<I, O> {
+
+	private static final Object COMPLETE = new Object();
+	private static final Object ERROR    = new Object();
+	private static final Object EMPTY    = new Object();
+
+	private static final AtomicIntegerFieldUpdater<ParallelAction> WIP_UPDATER        =
+			AtomicIntegerFieldUpdater.newUpdater(ParallelAction.class, "wip");
+	private static final AtomicIntegerFieldUpdater<ParallelAction> TERMINATED_UPDATER =
+			AtomicIntegerFieldUpdater.newUpdater(ParallelAction.class, "terminated");
+	private static final AtomicLongFieldUpdater<ParallelAction>    PENDING_UPDATER    =
+			AtomicLongFieldUpdater.newUpdater(ParallelAction.class, "pending");
+	private static final AtomicIntegerFieldUpdater<ParallelAction> REQUESTING_UPDATER =
+			AtomicIntegerFieldUpdater.newUpdater(ParallelAction.class, "requesting");
+	private static final AtomicLongFieldUpdater<ParallelAction>    DEMAND_UPDATER     =
+			AtomicLongFieldUpdater.newUpdater(ParallelAction.class, "demand");
+	private static final AtomicLongFieldUpdater<ParallelAction>    CREDITS_UPDATER    =
+			AtomicLongFieldUpdater.newUpdater(ParallelAction.class, "credits");
+
+	private final Dispatcher[]           dispatchers;
+	private final Rail[]                 rails;
+	private final FusedAction.Lift<I, O> stages;
+	private final BiFunction<O, O, O>    reducer;
+	private final Resequencer<Object>    resequencer;
+	private final long                   replenish;
+	private final Queue<Object>          results = MpscLinkedQueue.create();
+
+	private final Consumer<Throwable> railErrorConsumer = new Consumer<Throwable>() {
+		@Override
+		public void accept(Throwable throwable) {
+			terminate(throwable);
+		}
+	};
+
+	private int rail = -1;
+
+	private volatile int       wip        = 0;
+	private volatile int       terminated = 0;
+	private volatile long      pending    = 0l;
+	private volatile boolean   upstreamComplete;
+	private volatile Throwable error;
+
+	private volatile int  requesting = 0;
+	private volatile long demand     = 0l;
+	private volatile long credits    = 0l;
+
+	/**
+	 * Create a {@code ParallelAction}.
+	 *
+	 * @param dispatcher  the dispatcher receiving the upstream signals
+	 * @param dispatchers the dispatcher of each rail, supporting ordering so that each rail runs one value at a time
+	 * @param stages      the fused stages run by each rail, {@code null} to pass values as is
+	 * @param backlog     the number of values the rails can run ahead of the oldest value not yet merged to merge the
+	 *                    rail results in the order of the upstream values, {@code 0} to merge them as they come
+	 * @param reducer     the function reducing the values of each rail and then the rail results together, {@code
+	 *                    null} to merge every value
+	 */
+	@SuppressWarnings("unchecked")
+	public ParallelAction(Dispatcher dispatcher,
+	                      Dispatcher[] dispatchers,
+	                      FusedAction.Lift<I, O> stages,
+	                      int backlog,
+	                      BiFunction<O, O, O> reducer) {
+		super(dispatcher);
+		this.dispatchers = dispatchers;
+		this.stages = stages;
+		this.reducer = reducer;
+		this.rails = (Rail[]) new ParallelAction.Rail[dispatchers.length];
+		for (int i = 0; i < rails.length; i++) {
+			rails[i] = new Rail();
+		}
+		if (backlog > 0 && reducer == null) {
+			this.resequencer = new Resequencer<Object>(new Consumer<Object>() {
+				@Override
+				public void accept(Object result) {
+					if (result != FusedAction.DROPPED) {
+						results.add(result);
+					} else {
+						// the dropped value used a request from downstream: give it back to be requested again
+						addDemand(1l);
+					}
+					CREDITS_UPDATER.incrementAndGet(ParallelAction.this);
+				}
+			}, backlog);
+			this.credits = resequencer.capacity();
+			this.replenish = Math.max(1, resequencer.capacity() / 4);
+		} else {
+			this.resequencer = null;
+			this.replenish = 0l;
+		}
+	}
+
+	@Override
+	protected void doStart(long pending) {
+		if (resequencer == null) {
+			super.doStart(pending);
+		} else {
+			requestMore(pending);
+		}
+	}
+
+	@Override
+	public void requestMore(long n) {
+		if (resequencer == null) {
+			super.requestMore(n);
+			return;
+		}
+		checkRequest(n);
+		addDemand(n);
+		requestWithinBacklog();
+	}
+
+	@Override
+	protected void doNext(I ev) {
+		if (++rail == rails.length) {
+			rail = 0;
+		}
+		PENDING_UPDATER.incrementAndGet(this);
+		Object data = resequencer != null ? new Slot(resequencer.next(), ev) : ev;
+		if (dispatchers[rail].inContext()) {
+			// requested from this rail thread: run the value now rather than piling it up behind the running task
+			try {
+				rails[rail].accept(data);
+			} catch (Throwable throwable) {
+				terminate(throwable);
+			}
+		} else {
+			dispatchers[rail].dispatch(data, rails[rail], railErrorConsumer);
+		}
+	}
+
+	@Override
+	protected void doComplete() {
+		upstreamComplete = true;
+		if (pending == 0l) {
+			complete();
+		}
+	}
+
+	@Override
+	protected void doError(Throwable ev) {
+		terminate(ev);
+	}
+
+	private void addDemand(long n) {
+		for (; ; ) {
+			long current = demand;
+			if (current == Long.MAX_VALUE) {
+				return;
+			}
+			long next = current + n;
+			if (next < 0l) {
+				next = Long.MAX_VALUE;
+			}
+			if (DEMAND_UPDATER.compareAndSet(this, current, next)) {
+				return;
+			}
+		}
+	}
+
+	private void requestWithinBacklog() {
+		if (REQUESTING_UPDATER.getAndIncrement(this) != 0) {
+			return;
+		}
+		int missed = 1;
+		for (; ; ) {
+			long currentDemand = demand;
+			long currentCredits = credits;
+			long n = Math.min(currentDemand, currentCredits);
+			if (n > 0l && currentCredits >= replenish && upstreamSubscription != null) {
+				if (currentDemand != Long.MAX_VALUE) {
+					DEMAND_UPDATER.addAndGet(this, -n);
+				}
+				CREDITS_UPDATER.addAndGet(this, -n);
+				super.requestMore(n);
+			}
+			missed = REQUESTING_UPDATER.addAndGet(this, -missed);
+			if (missed == 0) {
+				return;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void complete() {
+		if (!TERMINATED_UPDATER.compareAndSet(this, 0, 1)) {
+			return;
+		}
+		if (reducer != null) {
+			Object result = EMPTY;
+			for (Rail each : rails) {
+				if (each.accumulator != EMPTY) {
+					result = result == EMPTY ? each.accumulator : reducer.apply((O) result, (O) each.accumulator);
+				}
+			}
+			if (result != EMPTY) {
+				results.add(result);
+			}
+		}
+		results.add(COMPLETE);
+		drain();
+	}
+
+	private void terminate(Throwable throwable) {
+		if (!TERMINATED_UPDATER.compareAndSet(this, 0, 1)) {
+			return;
+		}
+		cancel();
+		error = throwable;
+		results.add(ERROR);
+		drain();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void drain() {
+		if (WIP_UPDATER.getAndIncrement(this) != 0) {
+			return;
+		}
+		int missed = 1;
+		Object result;
+		for (; ; ) {
+			while ((result = results.poll()) != null) {
+				if (result == COMPLETE) {
+					super.doComplete();
+				} else if (result == ERROR) {
+					super.doError(error);
+				} else {
+					broadcastNext((O) result);
+				}
+			}
+			missed = WIP_UPDATER.addAndGet(this, -missed);
+			if (missed == 0) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "{rails=" + Arrays.toString(dispatchers) + ", ordered=" + (resequencer != null) + "}";
+	}
+
+	private final class Rail implements Consumer<Object> {
+
+		private Object accumulator = EMPTY;
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void accept(Object data) {
+			Object value = resequencer != null ? ((Slot) data).value : data;
+			Object result = stages != null ? stages.run(value) : value;
+
+			if (reducer != null) {
+				if (result != FusedAction.DROPPED) {
+					accumulator = accumulator == EMPTY ? result : reducer.apply((O) accumulator, (O) result);
+				}
+			} else if (resequencer != null) {
+				resequencer.accept(((Slot) data).slot, result);
+				drain();
+				if (credits >= replenish && demand > 0l) {
+					requestWithinBacklog();
+				}
+			} else if (result != FusedAction.DROPPED) {
+				results.add(result);
+				drain();
+			} else {
+				// the dropped value used a request from downstream: replace it as FilterAction does
+				requestMore(1);
+			}
+
+			if (PENDING_UPDATER.decrementAndGet(ParallelAction.this) == 0l && upstreamComplete) {
+				complete();
+			}
+		}
+	}
+
+	private static final class Slot {
+		final long   slot;
+		final Object value;
+
+		Slot(long slot, Object value) {
+			this.slot = slot;
+			this.value = value;
+		}
+	}
+
+}
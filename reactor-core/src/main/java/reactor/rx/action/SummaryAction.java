@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx.action;
+
+import reactor.core.Dispatcher;
+import reactor.fn.timer.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class of the actions summarizing the primitive values extracted from each value into a summary pushed every
+ * {@code maxSize} values, every {@code timespan} and on completion. Subclasses accumulate their values in primitive
+ * fields, so the only allocation is the summary of each non-empty batch.
+ *
+ * @param <T> the type of the summarized values
+ * @param <S> the type of the summary
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public abstract class SummaryAction<T, S> extends BatchAction<T, S> {
+
+	private long count;
+
+	protected SummaryAction(Dispatcher dispatcher, int maxSize) {
+		super(dispatcher, maxSize, true, false, true);
+	}
+
+	protected SummaryAction(Dispatcher dispatcher, int maxSize, long timespan, TimeUnit unit, Timer timer) {
+		super(dispatcher, maxSize, true, false, true, timespan, unit, timer);
+	}
+
+	@Override
+	protected void doError(Throwable ev) {
+		count = 0l;
+		reset();
+		super.doError(ev);
+	}
+
+	@Override
+	public final void nextCallback(T value) {
+		accumulate(value);
+		count++;
+	}
+
+	@Override
+	public final void flushCallback(T ev) {
+		if (count == 0l) {
+			return;
+		}
+		S summary = summarize(count);
+		count = 0l;
+		reset();
+		broadcastNext(summary);
+	}
+
+	/**
+	 * Add the primitive value extracted from the given value to the current batch.
+	 *
+	 * @param value the value to summarize
+	 */
+	protected abstract void accumulate(T value);
+
+	/**
+	 * Create the summary of the current batch.
+	 *
+	 * @param count the number of values accumulated in the batch, at least 1
+	 * @return the summary of the batch
+	 */
+	protected abstract S summarize(long count);
+
+	/**
+	 * Clear the accumulated values before the next batch.
+	 */
+	protected abstract void reset();
+}
@@ -59,7 +59,9 @@ public class ThrottleRequestAction<T> extends Action<T, T> {
 
 	@Override
 	public void requestMore(long n) {
-		timeoutRegistration = timer.submit(periodTask, period, TimeUnit.MILLISECONDS);
+		if (timeoutRegistration == null) {
+			timeoutRegistration = timer.schedule(periodTask, period, TimeUnit.MILLISECONDS, period);
+		}
 	}
 
 	@Override
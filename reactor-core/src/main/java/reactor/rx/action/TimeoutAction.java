@@ -23,78 +23,164 @@ import reactor.core.support.Assert;
 import reactor.fn.Consumer;
 import reactor.fn.timer.Timer;
 
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
+ * Signal a {@link TimeoutException}, or switch to a fallback, when no data has been received for a given time.
+ * <p>
+ * Each data only records the time it was received. The timeouts are not registered with the {@link Timer} one by one:
+ * the actions sharing a timer are checked by a single periodic sweep, scheduled at the resolution of the timer while at
+ * least one of them is active. A timeout may therefore fire up to one timer resolution after its deadline. The sweeps
+ * are only looked up weakly, each one being kept by the registration on its timer, so that a cancelled timer is
+ * collected with its sweep and the actions it was checking.
+ *
  * @author Stephane Maldini
  * @since 1.1
  */
 public final class TimeoutAction<T> extends FallbackAction<T> {
 
-	private final Timer timer;
-	private final long  timeout;
+	private static final int ACTIVE  = 0;
+	private static final int PENDING = 1;
+	private static final int DONE    = 2;
 
+	@SuppressWarnings("rawtypes")
+	private static final AtomicLongFieldUpdater<TimeoutAction> LAST_SEEN =
+			AtomicLongFieldUpdater.newUpdater(TimeoutAction.class, "lastSeen");
 
-	private final Consumer<Long> timeoutTask = new Consumer<Long>() {
-		@Override
-		public void accept(Long aLong) {
-			if (timeoutRegistration.getObject() == this)
-				dispatch(timeoutRequest);
-		}
-	};
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<TimeoutAction> STATE =
+			AtomicIntegerFieldUpdater.newUpdater(TimeoutAction.class, "state");
+
+	private static final Map<Timer, WeakReference<Sweeper>> SWEEPERS = new WeakHashMap<Timer, WeakReference<Sweeper>>();
+
+	private final Timer timer;
+	private final long  timeout;
+	private final long  timeoutNanos;
 
 	private final Consumer<Void> timeoutRequest = new Consumer<Void>() {
 		@Override
 		public void accept(Void aVoid) {
-			if (!timeoutRegistration.isCancelled()) {
-				if (fallback != null) {
-					doSwitch();
-				} else {
-					doError(new TimeoutException("No data signaled for " + timeout + "ms"));
-				}
+			if (state != PENDING) {
+				return;
+			}
+			if (System.nanoTime() - lastSeen < timeoutNanos) {
+				STATE.compareAndSet(TimeoutAction.this, PENDING, ACTIVE);
+				return;
+			}
+			if (!STATE.compareAndSet(TimeoutAction.this, PENDING, DONE)) {
+				return;
+			}
+			if (fallback != null) {
+				doSwitch();
+			} else {
+				doError(new TimeoutException("No data signaled for " + timeout + "ms"));
 			}
 		}
 	};
 
-	private volatile Registration<? extends Consumer<Long>> timeoutRegistration;
+	private volatile long lastSeen;
+	private volatile int  state = DONE;
 
 	public TimeoutAction(Dispatcher dispatcher, Publisher<? extends T> fallback, Timer timer, long timeout) {
 		super(dispatcher, fallback);
 		Assert.state(timer != null, "Timer must be supplied");
 		this.timer = timer;
 		this.timeout = timeout;
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
 	}
 
 	@Override
 	protected void doSubscribe(Subscription subscription) {
 		super.doSubscribe(subscription);
-		timeoutRegistration = timer.submit(timeoutTask, timeout, TimeUnit.MILLISECONDS);
+		lastSeen = System.nanoTime();
+		state = ACTIVE;
+		Sweeper.register(timer, this);
 	}
 
-
 	@Override
 	protected void doNormalNext(T ev) {
-		timeoutRegistration.cancel();
 		broadcastNext(ev);
-		timeoutRegistration = timer.submit(timeoutTask, timeout, TimeUnit.MILLISECONDS);
+		LAST_SEEN.lazySet(this, System.nanoTime());
 	}
 
 	@Override
 	public void cancel() {
-		if (timeoutRegistration != null) {
-			timeoutRegistration.cancel();
-			timeoutRegistration = null;
-		}
+		state = DONE;
 		super.cancel();
 	}
 
 	@Override
 	public void doComplete() {
-		if (timeoutRegistration != null) {
-			timeoutRegistration.cancel();
-			timeoutRegistration = null;
-		}
+		state = DONE;
 		super.doComplete();
 	}
+
+	/**
+	 * Check the timeouts of the actions sharing a {@link Timer}. Actions are dropped lazily by the sweep once they are
+	 * done, and the sweep is cancelled when no action is left.
+	 */
+	private static final class Sweeper implements Consumer<Long> {
+
+		private final Queue<TimeoutAction<?>> actions = new ConcurrentLinkedQueue<TimeoutAction<?>>();
+		private final Timer timer;
+
+		private Registration<? extends Consumer<Long>> registration;
+
+		private Sweeper(Timer timer) {
+			this.timer = timer;
+		}
+
+		static void register(Timer timer, TimeoutAction<?> action) {
+			synchronized (SWEEPERS) {
+				Sweeper sweeper = get(timer);
+				if (sweeper == null) {
+					sweeper = new Sweeper(timer);
+					long period = Math.max(1l, timer.getResolution());
+					sweeper.registration = timer.schedule(sweeper, period, TimeUnit.MILLISECONDS, period);
+					SWEEPERS.put(timer, new WeakReference<Sweeper>(sweeper));
+				}
+				sweeper.actions.add(action);
+			}
+		}
+
+		private static Sweeper get(Timer timer) {
+			WeakReference<Sweeper> reference = SWEEPERS.get(timer);
+			return reference != null ? reference.get() : null;
+		}
+
+		@Override
+		public void accept(Long ignored) {
+			long now = System.nanoTime();
+			Iterator<TimeoutAction<?>> iterator = actions.iterator();
+			while (iterator.hasNext()) {
+				TimeoutAction<?> action = iterator.next();
+				int state = action.state;
+				if (state == DONE) {
+					iterator.remove();
+				} else if (state == ACTIVE &&
+						now - action.lastSeen >= action.timeoutNanos &&
+						STATE.compareAndSet(action, ACTIVE, PENDING)) {
+					action.dispatch(action.timeoutRequest);
+				}
+			}
+
+			if (actions.isEmpty()) {
+				synchronized (SWEEPERS) {
+					if (actions.isEmpty() && get(timer) == this) {
+						SWEEPERS.remove(timer);
+						registration.cancel();
+					}
+				}
+			}
+		}
+	}
 }
@@ -19,8 +19,11 @@ import org.reactivestreams.Subscriber;
 import reactor.Environment;
 import reactor.core.Dispatcher;
 import reactor.core.dispatch.SynchronousDispatcher;
+import reactor.core.queue.CompletableArrayQueue;
 import reactor.core.queue.CompletableQueue;
 import reactor.rx.action.Action;
+import reactor.rx.subscription.DrainSubscription;
+import reactor.rx.subscription.FanOutSubscription;
 import reactor.rx.subscription.PushSubscription;
 import reactor.rx.subscription.ReactiveSubscription;
 
@@ -31,6 +34,9 @@ public class Broadcaster<O> extends Action<O, O> {
 	private Throwable error;
 	private boolean keepAlive = false;
 
+	private FanOutSubscription.SlowSubscriberPolicy slowSubscriberPolicy = null;
+	private long                                    maxBacklog           = Long.MAX_VALUE;
+
 	public Broadcaster(Dispatcher dispatcher, long capacity) {
 		super(dispatcher, capacity);
 	}
@@ -65,7 +71,18 @@ public class Broadcaster<O> extends Action<O, O> {
 
 	@Override
 	protected PushSubscription<O> createSubscription(Subscriber<? super O> subscriber, CompletableQueue<O> queue) {
-		if (queue != null) {
+		if (queue instanceof CompletableArrayQueue) {
+			return new DrainSubscription<O>(this, subscriber, (CompletableArrayQueue<O>) queue) {
+
+				@Override
+				protected void onRequest(long elements) {
+					if (upstreamSubscription != null) {
+						super.onRequest(elements);
+						requestUpstream(capacity, buffer.isComplete(), elements);
+					}
+				}
+			};
+		} else if (queue != null) {
 			return new ReactiveSubscription<O>(this, subscriber, queue) {
 
 				@Override
@@ -81,6 +98,15 @@ public class Broadcaster<O> extends Action<O, O> {
 		}
 	}
 
+	@Override
+	protected boolean addSubscription(PushSubscription<O> subscription) {
+		boolean added = super.addSubscription(subscription);
+		if (added && slowSubscriberPolicy != null && FanOutSubscription.class.isInstance(downstreamSubscription)) {
+			((FanOutSubscription<O>) downstreamSubscription).slowSubscribers(slowSubscriberPolicy, maxBacklog);
+		}
+		return added;
+	}
+
 	@Override
 	public void subscribe(Subscriber<? super O> subscriber) {
 		if (error == null) {
@@ -118,6 +144,24 @@ public class Broadcaster<O> extends Action<O, O> {
 		return this;
 	}
 
+	/**
+	 * Protect the subscribers of this {@code Broadcaster} from each other: once more than one subscriber is attached,
+	 * apply the given policy to a subscriber without demand whose buffer holds {@code maxBacklog} signals.
+	 *
+	 * @param policy     the {@link FanOutSubscription.SlowSubscriberPolicy} to apply to slow subscribers
+	 * @param maxBacklog the number of signals a slow subscriber can buffer
+	 * @return this
+	 */
+	public Broadcaster<O> slowSubscribers(FanOutSubscription.SlowSubscriberPolicy policy, long maxBacklog) {
+		this.slowSubscriberPolicy = policy;
+		this.maxBacklog = maxBacklog;
+		PushSubscription<O> downstreamSubscription = this.downstreamSubscription;
+		if (FanOutSubscription.class.isInstance(downstreamSubscription)) {
+			((FanOutSubscription<O>) downstreamSubscription).slowSubscribers(policy, maxBacklog);
+		}
+		return this;
+	}
+
 	@Override
 	public Broadcaster<O> keepAlive() {
 		this.keepAlive(true);
@@ -18,10 +18,12 @@ package reactor.rx.stream;
 import org.reactivestreams.Subscriber;
 import reactor.Environment;
 import reactor.core.Dispatcher;
+import reactor.core.dispatch.SynchronousDispatcher;
 import reactor.fn.Function;
 import reactor.rx.Stream;
 import reactor.rx.action.Action;
 import reactor.rx.action.CombineAction;
+import reactor.rx.action.FusedAction;
 
 import javax.annotation.Nonnull;
 
@@ -73,6 +75,27 @@ public class LiftStream<O, V> extends Stream<V> {
 		}
 	}
 
+	/**
+	 * Merge a fusable lift into the lifted action of this stream when both run on the {@link SynchronousDispatcher},
+	 * the returned stream subscribing a single fused action to the producer instead of a chain of actions.
+	 *
+	 * @param action the function to map a provided dispatcher to a fresh Action to subscribe.
+	 * @param <X>    the {@link reactor.rx.action.Action} output type
+	 * @return a new stream running the lifted action
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <X> Stream<X> lift(@Nonnull Function<? super Dispatcher, ? extends Action<? super V, ? extends X>> action) {
+		if (FusedAction.Lift.class == action.getClass() &&
+				FusedAction.Lift.class == child.getClass() &&
+				LiftStream.class == getClass() &&
+				SynchronousDispatcher.INSTANCE == getDispatcher()) {
+			return new LiftStream<O, X>(producer,
+					((FusedAction.Lift<O, V>) child).fuse((FusedAction.Lift<V, X>) action));
+		}
+		return super.lift(action);
+	}
+
 	@Override
 	public long getCapacity() {
 		return producer.getCapacity();
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx.stream;
+
+import reactor.core.Dispatcher;
+import reactor.core.DispatcherSupplier;
+import reactor.core.dispatch.SynchronousDispatcher;
+import reactor.core.support.Assert;
+import reactor.fn.BiFunction;
+import reactor.fn.Function;
+import reactor.fn.Predicate;
+import reactor.fn.support.Resequencer;
+import reactor.rx.Stream;
+import reactor.rx.action.Action;
+import reactor.rx.action.FusedAction;
+import reactor.rx.action.ParallelAction;
+
+/**
+ * A {@link Stream} split into a fixed number of rails, each one running on its own {@link Dispatcher}.
+ * <p>
+ * The map and filter stages of a {@code ParallelStream} are fused and run by each rail on the values it has been
+ * assigned. The rails are merged back into a single {@link Stream} with {@link #sequential()}, in the order in which
+ * rails produce results, or {@link #ordered()}, in the order of the source values. Create such stream with {@link
+ * Stream#parallel(int)}, E.g.:
+ * {@code
+ * stream.parallel(4).runOn(Environment.newCachedDispatchers(4)).map(enrich).filter(valid).sequential().consume()
+ * }
+ * <p>
+ * Without {@link #runOn(DispatcherSupplier)}, the rails run on the thread of the source.
+ *
+ * @param <O> the type of the values produced by the rails
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public final class ParallelStream<O> {
+
+	private final Stream<Object>               source;
+	private final int                          rails;
+	private final DispatcherSupplier           dispatchers;
+	private final FusedAction.Lift<Object, O> stages;
+
+	@SuppressWarnings("unchecked")
+	public ParallelStream(Stream<? extends O> source, int rails) {
+		this((Stream<Object>) source, rails, null, null);
+	}
+
+	private ParallelStream(Stream<Object> source,
+	                       int rails,
+	                       DispatcherSupplier dispatchers,
+	                       FusedAction.Lift<Object, O> stages) {
+		Assert.isTrue(rails > 0, "A parallel stream requires at least one rail.");
+		this.source = source;
+		this.rails = rails;
+		this.dispatchers = dispatchers;
+		this.stages = stages;
+	}
+
+	/**
+	 * @return the number of rails
+	 */
+	public int rails() {
+		return rails;
+	}
+
+	/**
+	 * Run each rail on a dispatcher taken from the given {@link DispatcherSupplier} when the merged stream is
+	 * subscribed. The dispatchers must support ordering, so that each rail runs one value at a time.
+	 *
+	 * @param dispatchers the supplier of the rail dispatchers, E.g. {@link reactor.Environment#newCachedDispatchers(int)}
+	 * @return a new {@link ParallelStream} running its rails on the supplied dispatchers
+	 */
+	public ParallelStream<O> runOn(DispatcherSupplier dispatchers) {
+		Assert.notNull(dispatchers, "Rail dispatchers cannot be null.");
+		return new ParallelStream<O>(source, rails, dispatchers, stages);
+	}
+
+	/**
+	 * Transform the values of each rail with the given {@link Function}.
+	 *
+	 * @param fn  the transformation function
+	 * @param <V> the type of the return value of the transformation function
+	 * @return a new {@link ParallelStream} whose rails produce the transformed values
+	 */
+	public <V> ParallelStream<V> map(Function<? super O, V> fn) {
+		return new ParallelStream<V>(source, rails, dispatchers, fuse(FusedAction.<O, V>liftMap(fn)));
+	}
+
+	/**
+	 * Drop the values of each rail not matching the given {@link Predicate}.
+	 *
+	 * @param p the predicate to test values against
+	 * @return a new {@link ParallelStream} whose rails only produce the matching values
+	 */
+	public ParallelStream<O> filter(Predicate<? super O> p) {
+		return new ParallelStream<O>(source, rails, dispatchers, fuse(FusedAction.<O>liftFilter(p)));
+	}
+
+	/**
+	 * Reduce the values of each rail into a result on that rail, then reduce the rail results together once the source
+	 * completes. As the rails are assigned values in a round robin fashion, the function must be associative and
+	 * commutative.
+	 *
+	 * @param fn the reduce function
+	 * @return a new {@link Stream} whose only value is the reduced value, if any
+	 */
+	public Stream<O> reduce(BiFunction<O, O, O> fn) {
+		Assert.notNull(fn, "Reduce function cannot be null.");
+		return merge(0, fn);
+	}
+
+	/**
+	 * Merge the rails into a {@link Stream} producing the rail results as soon as they are available.
+	 *
+	 * @return a new {@link Stream} of the rail results
+	 */
+	public Stream<O> sequential() {
+		return merge(0, null);
+	}
+
+	/**
+	 * Merge the rails into a {@link Stream} producing the rail results in the order of the source values. The rails
+	 * run at most {@link Resequencer#DEFAULT_CAPACITY} values ahead of the oldest value not yet merged.
+	 *
+	 * @return a new {@link Stream} of the rail results, in the order of the source values
+	 */
+	public Stream<O> ordered() {
+		return ordered(Resequencer.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Merge the rails into a {@link Stream} producing the rail results in the order of the source values. The source is
+	 * requested no more values than the rails can run ahead of the oldest value not yet merged.
+	 *
+	 * @param backlog the number of values the rails can run ahead of the oldest value not yet merged, rounded up to a
+	 *                power of 2
+	 * @return a new {@link Stream} of the rail results, in the order of the source values
+	 */
+	public Stream<O> ordered(int backlog) {
+		Assert.isTrue(backlog > 0, "The backlog must be positive.");
+		return merge(backlog, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <V> FusedAction.Lift<Object, V> fuse(FusedAction.Lift<? super O, V> next) {
+		if (stages == null) {
+			return (FusedAction.Lift<Object, V>) next;
+		}
+		return stages.fuse(next);
+	}
+
+	private Stream<O> merge(final int backlog, final BiFunction<O, O, O> reducer) {
+		return source.lift(new Function<Dispatcher, Action<Object, O>>() {
+			@Override
+			public Action<Object, O> apply(Dispatcher dispatcher) {
+				Dispatcher[] railDispatchers = new Dispatcher[rails];
+				for (int i = 0; i < rails; i++) {
+					railDispatchers[i] = dispatchers != null ? dispatchers.get() : SynchronousDispatcher.INSTANCE;
+					Assert.state(railDispatchers[i].supportsOrdering(), "Dispatcher provided for rail " + i +
+							" doesn't support event ordering.");
+				}
+				return new ParallelAction<Object, O>(dispatcher, railDispatchers, stages, backlog, reducer);
+			}
+		});
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "{rails=" + rails + "}";
+	}
+}
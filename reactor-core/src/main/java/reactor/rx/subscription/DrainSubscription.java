@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.rx.subscription;
+
+import org.reactivestreams.Subscriber;
+import reactor.core.queue.CompletableArrayQueue;
+import reactor.core.queue.CompletableLinkedQueue;
+import reactor.core.queue.CompletableQueue;
+import reactor.rx.Stream;
+import reactor.rx.action.Action;
+import reactor.rx.action.support.SpecificationExceptions;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A {@link ReactiveSubscription} buffering into a bounded {@link CompletableArrayQueue} without any lock.
+ * <p>
+ * Every request, buffered next signal, completion and error increments a work-in-progress counter and only the thread
+ * moving it from 0 drains the buffer, the other threads leaving their signal to that drain loop. An error is passed
+ * to the subscriber by the drain loop as soon as it is noticed, dropping the values still buffered. Requests received while
+ * draining are accumulated and applied at the next iteration of the loop. When the downstream capacity allows it
+ * and nothing is buffered, a next signal is pushed directly to the subscriber.
+ * <p>
+ * The array buffer is sized from the subscriber capacity. If a publisher ignores the demand and fills it up,
+ * the remaining signals are kept in an unbounded {@link CompletableLinkedQueue} drained after the array buffer, as
+ * the lock-based {@link ReactiveSubscription} would do. Actions only create this subscription when the {@link
+ * Action#DRAIN_SUBSCRIPTIONS_PROPERTY} system property is set.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public class DrainSubscription<O> extends ReactiveSubscription<O> {
+
+	//Shared between subscriber and publisher
+	protected volatile int wip = 0;
+
+	protected static final AtomicIntegerFieldUpdater<DrainSubscription> WIP_UPDATER = AtomicIntegerFieldUpdater
+			.newUpdater(DrainSubscription.class, "wip");
+
+	//Requests not yet applied by the drain loop
+	protected volatile long requested = 0l;
+
+	protected static final AtomicLongFieldUpdater<DrainSubscription> REQUESTED_UPDATER = AtomicLongFieldUpdater
+			.newUpdater(DrainSubscription.class, "requested");
+
+	//Error waiting for the drain loop
+	private volatile Throwable error;
+
+	private static final AtomicReferenceFieldUpdater<DrainSubscription, Throwable> ERROR_UPDATER =
+			AtomicReferenceFieldUpdater.newUpdater(DrainSubscription.class, Throwable.class, "error");
+
+	//Created the first time the buffer is full
+	private volatile CompletableQueue<O> overflow;
+
+	private static final AtomicReferenceFieldUpdater<DrainSubscription, CompletableQueue> OVERFLOW_UPDATER =
+			AtomicReferenceFieldUpdater.newUpdater(DrainSubscription.class, CompletableQueue.class, "overflow");
+
+	public DrainSubscription(Stream<O> publisher, Subscriber<? super O> subscriber, long bufferSize) {
+		this(publisher, subscriber, new CompletableArrayQueue<O>(bufferSize));
+	}
+
+	public DrainSubscription(Stream<O> publisher, Subscriber<? super O> subscriber, CompletableArrayQueue<O> buffer) {
+		super(publisher, subscriber, buffer, null);
+	}
+
+	@Override
+	public void request(long elements) {
+		try {
+			Action.checkRequest(elements);
+
+			//If unbounded request, set and drain
+			if (elements == Long.MAX_VALUE) {
+				if (!PENDING_UPDATER.compareAndSet(this, 0l, Long.MAX_VALUE)) {
+					CAPACITY_UPDATER.set(this, maxCapacity);
+					drain();
+					return;
+				}
+			} else {
+				long previous = pendingRequestSignals;
+				if (previous != Long.MAX_VALUE && PENDING_UPDATER.addAndGet(this, elements) < 0l) {
+					onError(SpecificationExceptions.spec_3_17_exception(publisher, subscriber, previous, elements));
+					return;
+				}
+			}
+
+			long r;
+			long u;
+			do {
+				r = requested;
+				u = r + elements;
+				if (u < 0l) {
+					u = Long.MAX_VALUE;
+				}
+			} while (!REQUESTED_UPDATER.compareAndSet(this, r, u));
+
+			drain();
+		} catch (Exception e) {
+			onError(e);
+		}
+	}
+
+	@Override
+	public void onNext(O ev) {
+		if (terminated == 1 || error != null) {
+			return;
+		}
+		if (wip == 0 && WIP_UPDATER.compareAndSet(this, 0, 1)) {
+			if (isBufferEmpty() &&
+					(pendingRequestSignals == Long.MAX_VALUE || CAPACITY_UPDATER.getAndDecrement(this) > 0l)) {
+				subscriber.onNext(ev);
+				if (WIP_UPDATER.decrementAndGet(this) == 0) {
+					return;
+				}
+			} else {
+				if (pendingRequestSignals != Long.MAX_VALUE && capacity < 0l) {
+					// we just decremented below 0 so increment back one
+					CAPACITY_UPDATER.incrementAndGet(this);
+				}
+				offer(ev);
+			}
+		} else {
+			offer(ev);
+			if (WIP_UPDATER.getAndIncrement(this) != 0) {
+				return;
+			}
+		}
+		drainLoop();
+	}
+
+	@Override
+	public void onComplete() {
+		if (terminated == 1) {
+			return;
+		}
+		buffer.complete();
+		drain();
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		if (terminated == 1 || !ERROR_UPDATER.compareAndSet(this, null, throwable)) {
+			return;
+		}
+		drain();
+	}
+
+	@Override
+	public long getBufferSize() {
+		CompletableQueue<O> overflow = this.overflow;
+		return buffer.size() + (overflow != null ? overflow.size() : 0);
+	}
+
+	protected final void drain() {
+		if (WIP_UPDATER.getAndIncrement(this) == 0) {
+			drainLoop();
+		}
+	}
+
+	private void drainLoop() {
+		int missed = 1;
+		try {
+			for (; ; ) {
+				if (error != null) {
+					drainError();
+					return;
+				}
+
+				long r = REQUESTED_UPDATER.getAndSet(this, 0l);
+				if (r != 0l) {
+					drainRequest(r);
+				}
+
+				O element;
+				while (error == null && (pendingRequestSignals == Long.MAX_VALUE || capacity > 0l) &&
+						(element = poll()) != null) {
+					if (pendingRequestSignals != Long.MAX_VALUE) {
+						CAPACITY_UPDATER.decrementAndGet(this);
+					}
+					subscriber.onNext(element);
+				}
+
+				if (error != null) {
+					drainError();
+					return;
+				}
+
+				if (buffer.isComplete() && isBufferEmpty() &&
+						TERMINAL_UPDATER.compareAndSet(this, 0, 1) && subscriber != null) {
+					subscriber.onComplete();
+				}
+
+				missed = WIP_UPDATER.addAndGet(this, -missed);
+				if (missed == 0) {
+					return;
+				}
+			}
+		} catch (Exception e) {
+			//this thread still owns the loop, fail right away
+			ERROR_UPDATER.compareAndSet(this, null, e);
+			drainError();
+		}
+	}
+
+	/**
+	 * Drop the buffered values and pass the error to the subscriber, leaving the work-in-progress counter taken so
+	 * that nothing is drained anymore.
+	 */
+	private void drainError() {
+		buffer.clear();
+		CompletableQueue<O> overflow = this.overflow;
+		if (overflow != null) {
+			overflow.clear();
+		}
+		super.onError(error);
+	}
+
+	private void drainRequest(long elements) {
+		//Subscription terminated, Buffer done, return immediately
+		if (buffer.isComplete() && isBufferEmpty()) {
+			return;
+		}
+
+		long toRequest = Math.min(elements, maxCapacity);
+		int i;
+		O element;
+
+		do {
+			i = 0;
+			currentNextSignals = 0;
+
+			consumePendingRequests(toRequest);
+
+			while (i < toRequest && error == null && (element = poll()) != null) {
+				subscriber.onNext(element);
+				i++;
+			}
+
+			if (pendingRequestSignals != Long.MAX_VALUE) {
+				long overflow = maxCapacity - CAPACITY_UPDATER.addAndGet(this, toRequest - i);
+				if (overflow < 0l) {
+					CAPACITY_UPDATER.set(this, maxCapacity);
+					if (PENDING_UPDATER.addAndGet(this, -overflow) < 0) {
+						onError(SpecificationExceptions.spec_3_17_exception(publisher, subscriber, pendingRequestSignals,
+								elements));
+					}
+				}
+			}
+
+			onRequest(pendingRequestSignals == Long.MAX_VALUE ? Long.MAX_VALUE : toRequest);
+
+			toRequest = Math.min(pendingRequestSignals, maxCapacity);
+		} while (toRequest > 0 && error == null && !isBufferEmpty());
+	}
+
+	/**
+	 * Take the given number of requests out of the pending ones, racing with the requests added by {@link
+	 * #request(long)}.
+	 */
+	private void consumePendingRequests(long toRequest) {
+		long pending;
+		do {
+			pending = pendingRequestSignals;
+			if (pending == Long.MAX_VALUE) {
+				return;
+			}
+		} while (!PENDING_UPDATER.compareAndSet(this, pending, toRequest > pending ? 0l : pending - toRequest));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void offer(O ev) {
+		if (ev == null) {
+			return;
+		}
+		CompletableQueue<O> overflow = this.overflow;
+		if (overflow == null || overflow.isEmpty()) {
+			if (buffer.offer(ev)) {
+				return;
+			}
+			if (overflow == null) {
+				OVERFLOW_UPDATER.compareAndSet(this, null, new CompletableLinkedQueue<O>());
+				overflow = this.overflow;
+			}
+		}
+		overflow.add(ev);
+	}
+
+	private O poll() {
+		O element = buffer.poll();
+		if (element == null) {
+			CompletableQueue<O> overflow = this.overflow;
+			if (overflow != null) {
+				element = overflow.poll();
+			}
+		}
+		return element;
+	}
+
+	private boolean isBufferEmpty() {
+		CompletableQueue<O> overflow = this.overflow;
+		return buffer.isEmpty() && (overflow == null || overflow.isEmpty());
+	}
+}
@@ -18,142 +18,214 @@ package reactor.rx.subscription;
 import reactor.fn.Consumer;
 import reactor.rx.Stream;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * A composite subscription used to achieve pub/sub pattern. When more than 1 subscriber is attached to a Stream,
  * in particular an Action, the previous subscription is replaced by a composite fanOutSubscription delegating to
  * both the previous and the new subscriptions.
+ * <p>
+ * Subscriptions are kept in a copy-on-write array: adding or removing a subscription swaps the array without
+ * locking and signals are broadcast over the array read when they start, so a subscription can be cancelled while a
+ * signal is delivered.
+ * <p>
+ * A {@link SlowSubscriberPolicy} prevents a subscriber without demand from buffering an ever growing backlog.
  *
  * @author Stephane Maldini
  * @since 2.0
  */
 public class FanOutSubscription<O> extends PushSubscription<O> {
 
-	private final List<PushSubscription<O>>  subscriptions = new ArrayList<PushSubscription<O>>(2);
-	private final Queue<PushSubscription<O>> deleteQueue   = new LinkedTransferQueue<>();
+	/**
+	 * What to do with a signal when a {@link ReactiveSubscription} has no demand left and has already buffered the
+	 * maximum backlog.
+	 */
+	public enum SlowSubscriberPolicy {
+		/**
+		 * Buffer signals up to the maximum backlog, then drop them.
+		 */
+		BUFFER,
+
+		/**
+		 * Drop signals as soon as there is no demand.
+		 */
+		DROP,
+
+		/**
+		 * Buffer signals up to the maximum backlog, then remove the subscription and signal an error to its subscriber.
+		 */
+		DISCONNECT
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static final PushSubscription[] EMPTY = new PushSubscription[0];
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<FanOutSubscription, PushSubscription[]> SUBSCRIPTIONS_UPDATER =
+			AtomicReferenceFieldUpdater.newUpdater(FanOutSubscription.class, PushSubscription[].class, "subscriptions");
+
+	private volatile PushSubscription<O>[] subscriptions;
 
+	private volatile SlowSubscriberPolicy slowSubscriberPolicy = SlowSubscriberPolicy.BUFFER;
+	private volatile long                 maxBacklog           = Long.MAX_VALUE;
+
+	@SuppressWarnings("unchecked")
 	public FanOutSubscription(Stream<O> publisher, PushSubscription<O> reactiveSubscriptionA,
 	                          PushSubscription<O> reactiveSubscriptionB) {
 		super(publisher, null);
-		subscriptions.add(reactiveSubscriptionA);
-		subscriptions.add(reactiveSubscriptionB);
+		this.subscriptions = new PushSubscription[]{reactiveSubscriptionA, reactiveSubscriptionB};
+	}
+
+	/**
+	 * Apply the given policy to the subscriptions without demand.
+	 *
+	 * @param policy     the policy to apply
+	 * @param maxBacklog the number of signals a subscription can buffer before the policy applies, ignored by {@link
+	 *                   SlowSubscriberPolicy#DROP}
+	 * @return this
+	 */
+	public FanOutSubscription<O> slowSubscribers(SlowSubscriberPolicy policy, long maxBacklog) {
+		this.maxBacklog = policy == SlowSubscriberPolicy.DROP ? 0l : maxBacklog;
+		this.slowSubscriberPolicy = policy;
+		return this;
 	}
 
 	@Override
 	public void onComplete() {
-		forEach(new Consumer<PushSubscription<O>>() {
-			@Override
-			public void accept(PushSubscription<O> subscription) {
-				try {
-					subscription.onComplete();
-				} catch (Throwable throwable) {
-					subscription.onError(throwable);
-				}
+		for (PushSubscription<O> subscription : subscriptions) {
+			try {
+				subscription.onComplete();
+			} catch (Throwable throwable) {
+				subscription.onError(throwable);
 			}
-		});
+		}
 	}
 
 	@Override
 	public void onNext(final O ev) {
-		forEach(new Consumer<PushSubscription<O>>() {
-			@Override
-			public void accept(PushSubscription<O> subscription) {
-				try {
-					subscription.onNext(ev);
-				} catch (Throwable throwable) {
-					subscription.onError(throwable);
+		long maxBacklog = this.maxBacklog;
+		for (PushSubscription<O> subscription : subscriptions) {
+			try {
+				if (maxBacklog != Long.MAX_VALUE && isSlow(subscription, maxBacklog)) {
+					if (slowSubscriberPolicy == SlowSubscriberPolicy.DISCONNECT && disconnect(subscription)) {
+						subscription.onError(new IllegalStateException("Slow subscriber disconnected after buffering " +
+								maxBacklog + " signals: " + subscription.getSubscriber()));
+					}
+					continue;
 				}
+				subscription.onNext(ev);
+			} catch (Throwable throwable) {
+				subscription.onError(throwable);
 			}
-		});
+		}
+	}
 
-		drainErrors();
+	private boolean disconnect(PushSubscription<O> subscription) {
+		if (!contains(subscription)) {
+			return false;
+		}
+		// let the owner shut down, and cancel its own subscription, once its last subscriber is gone
+		if (publisher != null) {
+			publisher.cleanSubscriptionReference(subscription);
+		} else {
+			remove(subscription);
+		}
+		return true;
 	}
 
-	private void drainErrors(){
-		PushSubscription<O> deleteSubscription;
-		synchronized (deleteQueue) {
-			synchronized (subscriptions) {
-				while ((deleteSubscription = deleteQueue.poll()) != null) {
-					subscriptions.remove(deleteSubscription);
-				}
-			}
+	private static boolean isSlow(PushSubscription<?> subscription, long maxBacklog) {
+		if (!ReactiveSubscription.class.isInstance(subscription)) {
+			return false;
 		}
+		ReactiveSubscription<?> reactiveSubscription = (ReactiveSubscription<?>) subscription;
+		return reactiveSubscription.capacity() <= 0l && reactiveSubscription.getBufferSize() >= maxBacklog;
 	}
 
 	@Override
 	public void cancel() {
-		forEach(new Consumer<PushSubscription<O>>() {
-			@Override
-			public void accept(PushSubscription<O> oPushSubscription) {
-				oPushSubscription.cancel();
-			}
-		});
+		for (PushSubscription<O> subscription : subscriptions) {
+			subscription.cancel();
+		}
 		super.cancel();
 	}
 
 	@Override
 	public void onError(final Throwable ev) {
-		forEach(new Consumer<PushSubscription<O>>() {
-			@Override
-			public void accept(PushSubscription<O> oPushSubscription) {
-				oPushSubscription.onError(ev);
-			}
-		});
+		for (PushSubscription<O> subscription : subscriptions) {
+			subscription.onError(ev);
+		}
 	}
 
 	@Override
 	public boolean isComplete() {
 		boolean isComplete = false;
-		synchronized (subscriptions) {
-			for (PushSubscription<O> subscription : subscriptions) {
-				isComplete = subscription.isComplete();
-				if (!isComplete) break;
-			}
-			return isComplete;
+		for (PushSubscription<O> subscription : subscriptions) {
+			isComplete = subscription.isComplete();
+			if (!isComplete) break;
 		}
+		return isComplete;
 	}
 
 	public void forEach(Consumer<PushSubscription<O>> consumer) {
-		synchronized (subscriptions) {
-			for (PushSubscription<O> subscription : subscriptions) {
-				if (subscription != null) {
-					consumer.accept(subscription);
-				}
-			}
+		for (PushSubscription<O> subscription : subscriptions) {
+			consumer.accept(subscription);
 		}
 	}
 
 	public List<PushSubscription<O>> getSubscriptions() {
-		return Collections.unmodifiableList(subscriptions);
+		return Collections.unmodifiableList(Arrays.asList(subscriptions));
 	}
 
 	public boolean isEmpty() {
-		synchronized (subscriptions) {
-			return subscriptions.isEmpty();
-		}
+		return subscriptions.length == 0;
 	}
 
+	@SuppressWarnings("unchecked")
 	public boolean remove(PushSubscription<O> subscription) {
-		synchronized (deleteQueue) {
-			return deleteQueue.add(subscription);
+		for (; ; ) {
+			PushSubscription<O>[] current = subscriptions;
+			int index = indexOf(current, subscription);
+			if (index < 0) {
+				return false;
+			}
+			PushSubscription<O>[] next;
+			if (current.length == 1) {
+				next = EMPTY;
+			} else {
+				next = new PushSubscription[current.length - 1];
+				System.arraycopy(current, 0, next, 0, index);
+				System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+			}
+			if (SUBSCRIPTIONS_UPDATER.compareAndSet(this, current, next)) {
+				return true;
+			}
 		}
 	}
 
-
 	public boolean add(PushSubscription<O> subscription) {
-		synchronized (subscriptions) {
-		return subscriptions.add(subscription);
+		for (; ; ) {
+			PushSubscription<O>[] current = subscriptions;
+			PushSubscription<O>[] next = Arrays.copyOf(current, current.length + 1);
+			next[current.length] = subscription;
+			if (SUBSCRIPTIONS_UPDATER.compareAndSet(this, current, next)) {
+				return true;
+			}
 		}
 	}
 
 	public boolean contains(PushSubscription<O> subscription) {
-		synchronized (subscriptions) {
-			return subscriptions.contains(subscription);
+		return indexOf(subscriptions, subscription) >= 0;
+	}
+
+	private static int indexOf(PushSubscription<?>[] subscriptions, PushSubscription<?> subscription) {
+		for (int i = 0; i < subscriptions.length; i++) {
+			if (subscriptions[i].equals(subscription)) {
+				return i;
+			}
 		}
+		return -1;
 	}
 }
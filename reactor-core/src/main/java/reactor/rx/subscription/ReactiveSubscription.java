@@ -22,6 +22,8 @@ import reactor.rx.Stream;
 import reactor.rx.action.Action;
 import reactor.rx.action.support.SpecificationExceptions;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -65,13 +67,14 @@ public class ReactiveSubscription<O> extends PushSubscription<O> {
 	}
 
 	public ReactiveSubscription(Stream<O> publisher, Subscriber<? super O> subscriber, CompletableQueue<O> buffer) {
+		this(publisher, subscriber, buffer, buffer != null ? new ReentrantLock() : null);
+	}
+
+	protected ReactiveSubscription(Stream<O> publisher, Subscriber<? super O> subscriber, CompletableQueue<O> buffer,
+	                               ReentrantLock bufferLock) {
 		super(publisher, subscriber);
 		this.buffer = buffer;
-		if (buffer != null) {
-			bufferLock = new ReentrantLock();
-		} else {
-			bufferLock = null;
-		}
+		this.bufferLock = bufferLock;
 	}
 
 	@Override
@@ -201,6 +204,25 @@ public class ReactiveSubscription<O> extends PushSubscription<O> {
 		}
 	}
 
+	/**
+	 * Cancel this subscription and close its buffer if it holds resources of its own, e.g. the files of a {@link
+	 * reactor.io.queue.SpillingQueue}, as the buffered values will never be requested.
+	 */
+	@Override
+	public void cancel() {
+		super.cancel();
+		if (buffer instanceof Closeable) {
+			bufferLock.lock();
+			try {
+				((Closeable) buffer).close();
+			} catch (IOException e) {
+				//IGNORE, the subscriber is gone
+			} finally {
+				bufferLock.unlock();
+			}
+		}
+	}
+
 	@Override
 	public final void incrementCurrentNextSignals() {
 		currentNextSignals++;
@@ -226,7 +248,7 @@ public class ReactiveSubscription<O> extends PushSubscription<O> {
 		this.maxCapacity = maxCapacity;
 	}
 
-	public final long getBufferSize() {
+	public long getBufferSize() {
 		return buffer != null ? buffer.size() : -1l;
 	}
 
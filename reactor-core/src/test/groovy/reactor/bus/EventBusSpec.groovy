@@ -18,7 +18,9 @@
 package reactor.bus
 
 import reactor.Environment
+import reactor.bus.alloc.EventAllocator
 import reactor.bus.filter.RoundRobinFilter
+import reactor.bus.routing.CompiledConsumerRouter
 import reactor.bus.routing.ConsumerFilteringRouter
 import reactor.core.dispatch.SynchronousDispatcher
 import reactor.fn.Consumer
@@ -107,6 +109,60 @@ class EventBusSpec extends Specification {
 			!data
 	}
 
+	def "A Reactor recycles pooled events once routed"() {
+
+		given:
+			"a plain Reactor, an event allocator and a consumer on \$('test')"
+			def reactor = EventBus.config().synchronousDispatcher().get()
+			def allocator = EventAllocator.defaultEventAllocator()
+			def data = []
+			def events = []
+			reactor.on($("test"), { ev ->
+				data << ev.data
+				events << ev
+			} as Consumer<Event<String>>
+			)
+
+		when:
+			"pooled events are notified on 'test'"
+			2.times {
+				def ref = allocator.get(String)
+				ref.get().setData("Hello World $it!".toString())
+				reactor.notifyPooled("test", ref)
+			}
+
+		then:
+			"the consumer received them and the same event has been recycled for reuse"
+			data == ["Hello World 0!", "Hello World 1!"]
+			events[0].is(events[1])
+			events[0].data == null
+	}
+
+	def "A Reactor leaves pooled events notified as plain suppliers to their owner"() {
+
+		given:
+			"a plain Reactor, an event allocator and a consumer on \$('test')"
+			def reactor = EventBus.config().synchronousDispatcher().get()
+			def allocator = EventAllocator.defaultEventAllocator()
+			def data = []
+			reactor.on($("test"), { ev -> data << ev.data } as Consumer<Event<String>>)
+
+		when:
+			"a pooled event is notified on 'test' through notify(key, Supplier)"
+			def ref = allocator.get(String)
+			ref.get().setData("Hello World!")
+			reactor.notify("test", ref)
+
+		then:
+			"the consumer received it and the reference has not been released"
+			data == ["Hello World!"]
+			ref.referenceCount == 1
+			ref.get().data == "Hello World!"
+
+		cleanup:
+			ref?.release()
+	}
+
 	def "A Registration is pausable and cancellable"() {
 
 		given:
@@ -312,6 +368,50 @@ class EventBusSpec extends Specification {
 			d1 && d2
 	}
 
+	def "A Reactor with compiled event routing invokes the consumers compiled for each key"() {
+
+		given:
+			"a synchronous Reactor compiling its event routing, with a consumer of events and a consumer of data"
+			def r = EventBus.config().synchronousDispatcher().compiledEventRouting().get()
+			def events = []
+			def data = []
+			r.on($('test'), consumer { Event ev -> events << ev.data })
+			r.on($('test'), new Consumer<String>() {
+				@Override
+				void accept(String s) {
+					data << s
+				}
+			})
+
+		when:
+			"the key is notified twice"
+			r.notify 'test', Event.wrap('a')
+			def chain = r.consumerRegistry.select('test').attachment
+			r.notify 'test', Event.wrap('b')
+
+		then:
+			"each consumer receives the argument it accepts from the same compiled chain"
+			r.router instanceof CompiledConsumerRouter
+			events == ['a', 'b']
+			data == ['a', 'b']
+			chain != null
+			r.consumerRegistry.select('test').attachment.is(chain)
+
+		when:
+			"a consumer is added, then paused"
+			def late = []
+			def reg = r.on($('test'), consumer { Event ev -> late << ev.data })
+			r.notify 'test', Event.wrap('c')
+			reg.pause()
+			r.notify 'test', Event.wrap('d')
+
+		then:
+			"the chain is compiled again and skips the paused consumer"
+			!r.consumerRegistry.select('test').attachment.is(chain)
+			events == ['a', 'b', 'c', 'd']
+			late == ['c']
+	}
+
 	def "A Reactor can support single-use Consumers"() {
 
 		given:
@@ -144,4 +144,36 @@ class HeadersSpec extends Specification {
 		!headers.contains('b')
 	}
 
+	def 'Headers can grow and shrink'() {
+		given: 'A Headers instance containing many headers'
+		Event.Headers headers = new Event.Headers()
+		(0..<100).each { headers.set("header-$it".toString(), it) }
+
+		when: 'Every other header is removed'
+		(0..<100).step(2) { headers.set("HEADER-$it".toString(), null) }
+
+		then: 'The remaining headers can still be retrieved'
+		(0..<100).every { headers.get("Header-$it".toString()) == (it % 2 ? it : null) }
+		headers.asMap().size() == 50
+	}
+
+	def 'Headers can be serialized'() {
+		given: 'A Headers instance containing some headers'
+		Event.Headers headers = new Event.Headers()
+		headers.set('a', 'alpha')
+		headers.set('b', 'bravo')
+
+		when: 'The headers are serialized and deserialized'
+		def bytes = new ByteArrayOutputStream()
+		def out = new ObjectOutputStream(bytes)
+		out.writeObject(headers)
+		out.close()
+		Event.Headers copy = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject()
+
+		then: 'The copy contains the same headers'
+		'alpha' == copy.get('A')
+		'bravo' == copy.get('b')
+		copy.asMap().size() == 2
+	}
+
 }
@@ -40,6 +40,32 @@ class PropertiesConfigurationReaderSpec extends Specification {
 			matchesExpectedDefaultConfiguration(dispatchers.threadPoolExecutor, DispatcherType.THREAD_POOL_EXECUTOR, 0, 2048)
 	}
 
+	def "CPU lists are parsed"() {
+		expect:
+			'CPUs and ranges of CPUs to be listed'
+			PropertiesConfigurationReader.parseCpuList(list) == cpus as int[]
+
+		where:
+			list          | cpus
+			'0'           | [0]
+			'0,2'         | [0, 2]
+			'1-3'         | [1, 2, 3]
+			' 0, 4-5 ,7 ' | [0, 4, 5, 7]
+	}
+
+	def "Dispatcher groups with an affinity are only pinned when configured so"() {
+		given: "a configuration reader"
+			def reader = new PropertiesConfigurationReader("affinity")
+
+		when: "the configuration of a pinned dispatcher group is read"
+			def dispatchers = toMapByName reader.read().dispatcherConfigurations
+
+		then: "its affinity and pinning are read, pinning being disabled by default"
+			dispatchers.pinned.affinity == [0] as int[]
+			dispatchers.pinned.pinned
+			!new DispatcherConfiguration('group', DispatcherType.DISPATCHER_GROUP, null, null).pinned
+	}
+
 	def "Custom default configuration can be read"() {
 		given: "a configuration reader"
 			def reader = new PropertiesConfigurationReader()
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.dispatch
+
+import reactor.Environment
+import reactor.core.config.PropertiesConfigurationReader
+import reactor.core.dispatch.wait.AgileWaitingStrategy
+import reactor.jarjar.com.lmax.disruptor.dsl.ProducerType
+import reactor.rx.Streams
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * @author Stephane Maldini
+ */
+class AffinityDispatcherSupplierSpec extends Specification {
+
+	def "The same key is always assigned the same dispatcher"() {
+		given:
+			'a supplier of 4 unpinned dispatchers'
+			def supplier = new AffinityDispatcherSupplier('affinity', [0, 1, 2, 3] as int[], false, 128, null,
+					ProducerType.MULTI, new AgileWaitingStrategy())
+
+		when:
+			'dispatchers are requested by key and in a round robin fashion'
+			def byKey = (0..7).collect { supplier.get(it) }
+			def roundRobin = (0..3).collect { supplier.get() }
+
+		then:
+			'partition keys are spread over the dispatchers, always the same one for the same key'
+			byKey[0..3].unique(false).size() == 4
+			byKey[0..3] == byKey[4..7]
+			supplier.get(-1).is(supplier.get(-1))
+			supplier.get('key').is(supplier.get('key'))
+			roundRobin as Set == byKey as Set
+
+		cleanup:
+			supplier.shutdown()
+	}
+
+	def "Partitions of a Stream keep running on the same dispatcher"() {
+		given:
+			'a supplier of 2 dispatchers'
+			def supplier = new AffinityDispatcherSupplier('affinity', [0, 0] as int[], false, 128, null,
+					ProducerType.MULTI, new AgileWaitingStrategy())
+			def threads = new ConcurrentHashMap<Integer, Set<String>>()
+			def latch = new CountDownLatch(100)
+
+		when:
+			'values are partitioned over the dispatchers'
+			def env = new Environment()
+			def stream = Streams.<Integer> broadcast(env)
+			stream.partition(supplier).consume { partition ->
+				partition.map {
+					threads.putIfAbsent(partition.key(), Collections.newSetFromMap(new ConcurrentHashMap()))
+					threads[partition.key()] << Thread.currentThread().name
+					it
+				}.consume {
+					latch.countDown()
+				}
+			}
+			(0..<100).each { stream.broadcastNext(it) }
+
+		then:
+			'each partition ran on a single thread of its own'
+			latch.await(5, TimeUnit.SECONDS)
+			threads.size() == 2
+			threads.values()*.size() == [1, 1]
+			threads[0] != threads[1]
+
+		cleanup:
+			supplier.shutdown()
+			env.shutdown()
+	}
+
+	def "A dispatcher group with an affinity is pinned to its CPUs"() {
+		given:
+			'an Environment configured with a dispatcher group pinned to CPU 0'
+			def env = new Environment(new PropertiesConfigurationReader('affinity'))
+
+		when:
+			'the dispatcher group is used'
+			def supplier = env.getCachedDispatchers('pinned')
+			def allowed = null
+			def latch = new CountDownLatch(1)
+			supplier.get().execute {
+				def status = new File('/proc/thread-self/status')
+				allowed = status.exists() ? status.readLines().find { it.startsWith('Cpus_allowed_list') } : null
+				latch.countDown()
+			}
+
+		then:
+			'its dispatcher thread only runs on CPU 0'
+			supplier instanceof AffinityDispatcherSupplier
+			supplier.cpus() == [0] as int[]
+			latch.await(5, TimeUnit.SECONDS)
+			!allowed || allowed.split(':')[1].trim() == '0'
+
+		cleanup:
+			env.shutdown()
+	}
+
+}
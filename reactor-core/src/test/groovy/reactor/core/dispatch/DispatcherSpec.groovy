@@ -21,6 +21,7 @@ import reactor.Environment
 import reactor.bus.Event
 import reactor.bus.EventBus
 import reactor.core.Dispatcher
+import reactor.core.dispatch.wait.BackoffIdleStrategy
 import reactor.fn.Consumer
 import reactor.jarjar.com.lmax.disruptor.BlockingWaitStrategy
 import reactor.jarjar.com.lmax.disruptor.dsl.ProducerType
@@ -29,6 +30,7 @@ import spock.lang.Shared
 import spock.lang.Specification
 
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ForkJoinTask
 import java.util.concurrent.TimeUnit
 
 import static reactor.GroovyTestUtils.$
@@ -196,6 +198,72 @@ class DispatcherSpec extends Specification {
 
 	}
 
+	def "WorkStealingDispatcher forks tasks dispatched from its own threads to their deque"() {
+
+		given:
+			def dispatcher = new WorkStealingDispatcher(1, 128, "ws")
+			def threads = [].asSynchronized()
+			def latch = new CountDownLatch(20)
+			def forked = []
+
+		when:
+			"a task fans out 10 tasks from a worker thread, twice"
+			2.times {
+				dispatcher.dispatch(10, consumer { int count ->
+					count.times {
+						dispatcher.dispatch(it, consumer {
+							threads << Thread.currentThread().name
+							latch.countDown()
+						}, null)
+					}
+					forked << ForkJoinTask.queuedTaskCount
+				}, null)
+			}
+
+		then:
+			"all of them are queued to the deque of the worker and run by it"
+			latch.await(5, TimeUnit.SECONDS)
+			forked.every { it >= 10 }
+			threads.size() == 20
+			threads.every { it.startsWith('ws-') }
+
+		cleanup:
+			dispatcher.shutdown()
+	}
+
+	def "WorkStealingDispatcher runs tasks in the caller once its backlog is full"() {
+
+		given:
+			def dispatcher = new WorkStealingDispatcher(1, 4, "ws")
+			def release = new CountDownLatch(1)
+			def started = new CountDownLatch(1)
+			def callers = [].asSynchronized()
+
+		when:
+			"the worker is blocked and more tasks than the backlog are dispatched"
+			dispatcher.dispatch(null, consumer { started.countDown(); release.await() }, null)
+			started.await(5, TimeUnit.SECONDS)
+			8.times {
+				dispatcher.dispatch(it, consumer { callers << Thread.currentThread().name }, null)
+			}
+
+		then:
+			"the tasks past the backlog are run by the caller"
+			callers.count(Thread.currentThread().name) == 4
+
+		when:
+			"a task is tried while the backlog is full"
+			dispatcher.tryDispatch(null, consumer {}, null)
+
+		then:
+			"it is rejected"
+			thrown(InsufficientCapacityException)
+
+		cleanup:
+			release.countDown()
+			dispatcher.shutdown()
+	}
+
 	def "MultiThreadDispatchers support ping pong dispatching"(Dispatcher d) {
 
 		given:
@@ -236,4 +304,95 @@ class DispatcherSpec extends Specification {
 
 	}
 
+	def "Dispatchers can dispatch a batch larger than their backlog"(Dispatcher d) {
+
+		given:
+			def batch = (1..100).toList()
+			def received = [].asSynchronized()
+			def latch = new CountDownLatch(batch.size())
+
+		when:
+			d.dispatchBatch(batch, consumer {
+				received << it
+				latch.countDown()
+			}, null)
+
+		then:
+			latch.await(5, TimeUnit.SECONDS)
+			received.size() == batch.size()
+			!d.supportsOrdering() || received == batch
+
+		cleanup:
+			d.shutdown()
+
+		where:
+			d << [
+					new SynchronousDispatcher(),
+					new RingBufferDispatcher("batch", 8),
+					new MpscDispatcher("batch", 8),
+					new WorkQueueDispatcher("batch", 4, 8, null),
+					new ThreadPoolExecutorDispatcher(4, 8),
+					new WorkStealingDispatcher(4, 8)
+			]
+
+	}
+
+	def "MpscDispatcher is bounded and blocks its thread when idle"() {
+
+		given:
+			def release = new CountDownLatch(1)
+			def started = new CountDownLatch(1)
+			def dispatcher = new MpscDispatcher("mpsc", 4, new BackoffIdleStrategy(10, 1))
+			def thread = null
+
+		when:
+			"a task blocks the dispatcher thread and fills the backlog with the tasks queued after it"
+			dispatcher.dispatch(null, consumer {
+				thread = Thread.currentThread()
+				started.countDown()
+				release.await(5, TimeUnit.SECONDS)
+			}, null)
+			started.await(5, TimeUnit.SECONDS)
+			3.times { dispatcher.tryDispatch(it, consumer {}, null) }
+
+		then:
+			"no slot remains"
+			dispatcher.remainingSlots() == 0
+
+		when:
+			"one more task is dispatched"
+			dispatcher.tryDispatch(3, consumer {}, null)
+
+		then:
+			"the dispatcher is out of capacity"
+			thrown(InsufficientCapacityException)
+
+		when:
+			"the tasks are run"
+			release.countDown()
+			def deadline = System.currentTimeMillis() + 5000
+			while ((dispatcher.remainingSlots() < 4 || thread.state != Thread.State.WAITING) &&
+					System.currentTimeMillis() < deadline) {
+				Thread.sleep(10)
+			}
+
+		then:
+			"the backlog is free again and the idle thread waits for work"
+			dispatcher.remainingSlots() == 4
+			thread.state == Thread.State.WAITING
+
+		when:
+			"a new task is dispatched"
+			def latch = new CountDownLatch(1)
+			dispatcher.dispatch(null, consumer { latch.countDown() }, null)
+
+		then:
+			"the thread is woken up to run it"
+			latch.await(5, TimeUnit.SECONDS)
+
+		cleanup:
+			release.countDown()
+			dispatcher.shutdown()
+	}
+
 }
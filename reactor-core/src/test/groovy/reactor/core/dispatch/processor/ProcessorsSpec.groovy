@@ -3,6 +3,7 @@ package reactor.core.dispatch.processor
 import reactor.core.dispatch.processor.spec.ProcessorSpec
 import reactor.fn.Consumer
 import reactor.fn.Supplier
+import reactor.fn.batch.BatchConsumer
 import spock.lang.Specification
 
 import java.util.concurrent.CountDownLatch
@@ -94,6 +95,47 @@ class ProcessorsSpec extends Specification {
 
 	}
 
+	def "Processor notifies a BatchConsumer of the start and end of each batch"() {
+
+		given: 'a Processor for events with a BatchConsumer'
+		def latch = new CountDownLatch(1)
+		def starts = 0
+		def events = 0
+		def ends = 0
+		def batched = 0
+		def consumer = new BatchConsumer<Data>() {
+			void start() { starts++ }
+
+			void accept(Data d) { events++ }
+
+			void end() {
+				ends++
+				batched = events
+				if (batched == 300) {
+					latch.countDown()
+				}
+			}
+		}
+		def processor = new ProcessorSpec<Data>().
+				dataBufferSize(128).
+				dataSupplier({ new Data() } as Supplier<Data>).
+				consume(consumer).
+				get()
+
+		when: 'a batch larger than the backlog is published'
+		processor.batch(300, { Data d -> d.type = "test" } as Consumer<Data>)
+
+		then: 'every event was consumed between the start and the end of a batch'
+		latch.await(5, TimeUnit.SECONDS)
+		batched == 300
+		starts == ends
+		ends >= 3
+
+		cleanup:
+		processor.shutdown()
+
+	}
+
 }
 
 class Data {
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.queue
+
+import reactor.Environment
+import reactor.core.dispatch.RingBufferDispatcher
+import reactor.rx.action.Action
+import reactor.rx.Streams
+import reactor.rx.subscription.DrainSubscription
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * @author Stephane Maldini
+ */
+class CompletableArrayQueueSpec extends Specification {
+
+	def "A CompletableArrayQueue is bounded to the next power of two of its capacity"() {
+		given:
+			'a queue for 5 elements'
+			def queue = new CompletableArrayQueue<Integer>(5)
+
+		when:
+			'more elements than its capacity are offered'
+			def offered = (1..10).collect { queue.offer(it) }
+
+		then:
+			'only 8 elements are accepted, in order'
+			queue.capacity() == 8
+			offered.count { it } == 8
+			queue.size() == 8
+			queue.peek() == 1
+			(1..8).collect { queue.poll() } == (1..8).toList()
+			queue.poll() == null
+			queue.isEmpty()
+
+		when:
+			'the queue is completed'
+			queue.offer(9)
+			queue.complete()
+
+		then:
+			'it still delivers its remaining elements'
+			queue.isComplete()
+			queue.poll() == 9
+	}
+
+	def "A CompletableArrayQueue accepts concurrent producers"() {
+		given:
+			'a queue large enough for 4 producers of 10000 elements'
+			def queue = new CompletableArrayQueue<Integer>(40000)
+			def latch = new CountDownLatch(4)
+
+		when:
+			'4 threads offer their elements concurrently'
+			(0..3).each { p ->
+				Thread.start {
+					(0..9999).each { queue.offer(p * 10000 + it) }
+					latch.countDown()
+				}
+			}
+			latch.await(5, TimeUnit.SECONDS)
+			def polled = []
+			def value
+			while ((value = queue.poll()) != null) {
+				polled << value
+			}
+
+		then:
+			'every element is polled once and each producer order is preserved'
+			polled.size() == 40000
+			polled.toSet().size() == 40000
+			(0..3).every { p ->
+				def own = polled.findAll { it.intdiv(10000) == p }
+				own == own.sort(false)
+			}
+	}
+
+	def "A Stream dispatched on a bounded dispatcher drains its buffer without losing values"() {
+		given:
+			'drain subscriptions enabled and a hot source feeding a slower bounded action on a dispatcher with a small backlog'
+			System.setProperty(Action.DRAIN_SUBSCRIPTIONS_PROPERTY, 'true')
+			def env = new Environment()
+			def dispatcher = new RingBufferDispatcher('drain', 16)
+			def source = Streams.<Integer> broadcast(env)
+			def latch = new CountDownLatch(2000)
+			def values = []
+			source.dispatchOn(env, dispatcher).map { it }.consume {
+				values << it
+				latch.countDown()
+			}
+
+		when:
+			'the source publishes more values than the subscriber capacity'
+			(1..2000).each { source.onNext(it) }
+
+		then:
+			'all values are drained in order'
+			latch.await(10, TimeUnit.SECONDS)
+			values == (1..2000).toList()
+			source.downstreamSubscription() instanceof DrainSubscription
+
+		cleanup:
+			System.clearProperty(Action.DRAIN_SUBSCRIPTIONS_PROPERTY)
+			dispatcher.shutdown()
+			env.shutdown()
+	}
+
+	def "A Stream only drains its buffer without locking when drain subscriptions are enabled"() {
+		given:
+			'a hot source dispatched on a dispatcher with a small backlog'
+			def env = new Environment()
+			def dispatcher = new RingBufferDispatcher('locking', 16)
+			def source = Streams.<Integer> broadcast(env)
+			source.dispatchOn(env, dispatcher).consume()
+
+		expect:
+			'the subscription is the lock-based one'
+			!(source.downstreamSubscription() instanceof DrainSubscription)
+
+		cleanup:
+			dispatcher.shutdown()
+			env.shutdown()
+	}
+
+	def "A DrainSubscription passes an error from its drain loop and drops the values still buffered"() {
+		given:
+			'a drain subscription with a subscriber requesting 2 values'
+			def values = []
+			def errors = []
+			def subscriber = new org.reactivestreams.Subscriber<Integer>() {
+				void onSubscribe(org.reactivestreams.Subscription s) {}
+
+				void onNext(Integer integer) { values << integer }
+
+				void onError(Throwable throwable) { errors << throwable }
+
+				void onComplete() {}
+			}
+			def subscription = new DrainSubscription<Integer>(null, subscriber, 8)
+			subscription.request(2)
+
+		when:
+			'more values than requested are buffered, then an error is signalled'
+			(1..5).each { subscription.onNext(it) }
+			subscription.onError(new Exception('test'))
+			subscription.onNext(6)
+			subscription.request(10)
+
+		then:
+			'the requested values and the error are passed, the other values are dropped'
+			values == [1, 2]
+			errors*.message == ['test']
+			subscription.bufferSize == 0
+	}
+}
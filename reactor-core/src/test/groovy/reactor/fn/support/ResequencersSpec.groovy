@@ -31,4 +31,40 @@ class ResequencersSpec extends Specification {
 
 	}
 
+	def "publishes queued events once the missing slot arrives and bounds its backlog"() {
+		given:
+			"a Resequencer of 4 slots"
+			def nums = []
+			def seq = new Resequencer<Long>({ l -> nums << l } as Consumer<Long>, 4)
+			8.times { seq.next() }
+
+		when:
+			"slots 2 and 3 arrive before slot 1"
+			seq.accept(3, 3)
+			seq.accept(2, 2)
+			def beforeFirst = nums.clone()
+			seq.accept(1, 1)
+
+		then:
+			"nothing is published until slot 1 arrives"
+			beforeFirst == []
+			nums == [1, 2, 3]
+
+		when:
+			"a slot beyond the backlog arrives"
+			seq.accept(8, 8)
+
+		then:
+			"it is rejected"
+			thrown(IllegalArgumentException)
+
+		when:
+			"the remaining slots arrive"
+			[5, 7, 4, 6].each { seq.accept(it, it) }
+
+		then:
+			"they are published in order"
+			nums == [1, 2, 3, 4, 5, 6, 7]
+	}
+
 }
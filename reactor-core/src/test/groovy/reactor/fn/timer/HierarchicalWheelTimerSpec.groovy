@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.fn.timer
+
+import reactor.fn.Consumer
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * @author Stephane Maldini
+ */
+class HierarchicalWheelTimerSpec extends Specification {
+
+	def "HierarchicalWheelTimer can schedule recurring tasks"() {
+		given:
+			'a new timer'
+			def timer = new HierarchicalWheelTimer(10)
+			def latch = new CountDownLatch(10)
+
+		when:
+			'a task is scheduled'
+			timer.schedule({ Long now -> latch.countDown() } as Consumer<Long>, 50, TimeUnit.MILLISECONDS, 50)
+
+		then:
+			'the latch was counted down'
+			latch.await(1, TimeUnit.SECONDS)
+
+		cleanup:
+			timer.cancel()
+	}
+
+	def "HierarchicalWheelTimer runs submitted tasks once, moving far away deadlines down the wheels"() {
+		given:
+			'a timer whose wheels of 4 buckets cover 1280 milliseconds'
+			def timer = new HierarchicalWheelTimer('test', 5, 4, new HashWheelTimer.SleepWait(), { it.run() })
+			def delays = [10, 50, 200, 1500]
+			def latch = new CountDownLatch(delays.size())
+			def elapsed = new ConcurrentHashMap<Integer, Long>()
+			def runs = new AtomicInteger()
+			def start = System.currentTimeMillis()
+
+		when:
+			'tasks are submitted on every wheel and beyond'
+			delays.each { delay ->
+				timer.submit({ Long now ->
+					elapsed[delay] = System.currentTimeMillis() - start
+					runs.incrementAndGet()
+					latch.countDown()
+				} as Consumer<Long>, delay, TimeUnit.MILLISECONDS)
+			}
+
+		then:
+			'each task ran once after its delay'
+			latch.await(3, TimeUnit.SECONDS)
+			delays.every { elapsed[it] >= it && elapsed[it] < it + 500 }
+			Thread.sleep(100)
+			runs.get() == delays.size()
+
+		cleanup:
+			timer.cancel()
+	}
+
+	def "HierarchicalWheelTimer rounds first delays up to its resolution"() {
+		given:
+			'a timer with a resolution of 200 milliseconds, running its tasks on its own thread'
+			def timer = new HierarchicalWheelTimer('test', 200, 8, new HashWheelTimer.SleepWait(), { it.run() })
+			def latch = new CountDownLatch(1)
+			def elapsed = 0l
+
+		when:
+			'a task first delayed by 1 millisecond is scheduled right after a tick'
+			timer.submit({ Long now ->
+				def start = System.currentTimeMillis()
+				timer.schedule({ Long then ->
+					if (latch.count) {
+						elapsed = System.currentTimeMillis() - start
+						latch.countDown()
+					}
+				} as Consumer<Long>, 200, TimeUnit.MILLISECONDS, 1)
+			} as Consumer<Long>)
+
+		then:
+			'it waits for a whole tick after the one picking it up instead of running on that one'
+			latch.await(3, TimeUnit.SECONDS)
+			elapsed >= 300
+
+		cleanup:
+			timer.cancel()
+	}
+
+	def "HierarchicalWheelTimer skips cancelled and paused registrations"() {
+		given:
+			'a new timer'
+			def timer = new HierarchicalWheelTimer(10)
+			def cancelledRuns = new AtomicInteger()
+			def pausedRuns = new AtomicInteger()
+			def latch = new CountDownLatch(1)
+
+		when:
+			'many registrations are cancelled and a recurring one is paused'
+			(1..10000).collect {
+				timer.submit({ Long now -> cancelledRuns.incrementAndGet() } as Consumer<Long>, 300, TimeUnit.MILLISECONDS)
+			}*.cancel()
+			def paused = timer.schedule({ Long now ->
+				pausedRuns.incrementAndGet()
+				latch.countDown()
+			} as Consumer<Long>, 20, TimeUnit.MILLISECONDS, 100).pause()
+			Thread.sleep(500)
+
+		then:
+			'none of them ran'
+			cancelledRuns.get() == 0
+			pausedRuns.get() == 0
+			paused.isPaused()
+
+		when:
+			'the paused registration is resumed'
+			paused.resume()
+
+		then:
+			'it runs again'
+			latch.await(1, TimeUnit.SECONDS)
+
+		cleanup:
+			timer.cancel()
+	}
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.io.buffer
+
+import reactor.io.codec.LengthFieldCodec
+import reactor.io.codec.StandardCodecs
+import spock.lang.Specification
+
+import java.nio.BufferOverflowException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * @author Stephane Maldini
+ */
+class PooledBufferAllocatorSpec extends Specification {
+
+	def "A PooledBufferAllocator rounds requests up to fixed-length direct buffers"() {
+		given:
+			'a pool of direct buffers'
+			def allocator = new PooledBufferAllocator()
+
+		when:
+			'buffers of various sizes are allocated'
+			def small = allocator.allocate(10)
+			def medium = allocator.allocate(1000)
+			def large = allocator.allocate(100000)
+
+		then:
+			'they are rounded up to their size class and only large requests are unpooled'
+			small.get().capacity() == 256
+			medium.get().capacity() == 1024
+			large.get().capacity() == 100000
+			small.get().byteBuffer().isDirect()
+			!large.get().byteBuffer().isDirect()
+			!small.get().isDynamic()
+			small.referenceCount == 1
+
+		when:
+			'a buffer is filled past its capacity'
+			small.get().append(new byte[257])
+
+		then:
+			'it does not expand'
+			thrown(BufferOverflowException)
+	}
+
+	def "A PooledBufferAllocator reuses released buffers"() {
+		given:
+			'a pool and a retained buffer'
+			def allocator = new PooledBufferAllocator(1024, false, 4)
+			def ref = allocator.allocate()
+			ref.get().append('Hello World!')
+			ref.retain()
+
+		when:
+			'the buffer is released once'
+			ref.release()
+
+		then:
+			'it is still in use'
+			ref.referenceCount == 1
+			!allocator.allocate().get().is(ref.get())
+
+		when:
+			'the buffer is released again'
+			ref.release()
+			def next = allocator.allocate()
+
+		then:
+			'it is recycled and allocated again'
+			ref.referenceCount == 1
+			next.get().is(ref.get())
+			next.get().position() == 0
+			next.get().remaining() == 1024
+
+		when:
+			'more buffers than a thread cache holds are released'
+			def refs = allocator.allocateBatch(16)
+			allocator.release(refs)
+			def buffers = allocator.allocateBatch(16)*.get()
+
+		then:
+			'they all go back to the pool'
+			refs*.get().every { b -> buffers.any { it.is(b) } }
+	}
+
+	def "A PooledBufferAllocator hands out distinct buffers to concurrent threads"() {
+		given:
+			'a pool shared by 4 threads'
+			def allocator = new PooledBufferAllocator(256, true, 8)
+			def leased = new ConcurrentHashMap<Buffer, Boolean>()
+			def duplicates = new AtomicInteger()
+			def latch = new CountDownLatch(4)
+
+		when:
+			'each thread leases buffers, releasing them from another thread'
+			(1..4).each {
+				Thread.start {
+					(1..250).each {
+						def buffer = allocator.buffer(256)
+						if (null != leased.putIfAbsent(buffer, true)) {
+							duplicates.incrementAndGet()
+						}
+						Thread.start {
+							leased.remove(buffer)
+							PooledBufferAllocator.release(buffer)
+						}.join()
+					}
+					latch.countDown()
+				}
+			}
+
+		then:
+			'a buffer is never leased twice at the same time'
+			latch.await(30, TimeUnit.SECONDS)
+			duplicates.get() == 0
+	}
+
+	def "A LengthFieldCodec only encodes into pooled buffers when given an allocator"() {
+		given:
+			'a length-field codec given an allocator and one not given any'
+			def codec = new LengthFieldCodec(4, StandardCodecs.STRING_CODEC, PooledBufferAllocator.DEFAULT)
+			def heapCodec = new LengthFieldCodec(StandardCodecs.STRING_CODEC)
+
+		when:
+			'a String is encoded'
+			def encoded = codec.encoder().apply('Hello World!')
+			def heapEncoded = heapCodec.encoder().apply('Hello World!')
+
+		then:
+			'the frame is written to a pooled buffer only by the codec given an allocator'
+			encoded.readInt() == 12
+			encoded.asString() == 'Hello World!'
+			heapEncoded.readInt() == 12
+			heapEncoded.asString() == 'Hello World!'
+			!PooledBufferAllocator.isPooled(heapEncoded)
+			PooledBufferAllocator.release(encoded)
+	}
+
+}
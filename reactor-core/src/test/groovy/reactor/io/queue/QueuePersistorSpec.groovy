@@ -17,10 +17,18 @@
 package reactor.io.queue
 
 import net.openhft.chronicle.ChronicleConfig
+import reactor.bus.registry.Registration
+import reactor.fn.Consumer
+import reactor.fn.Function
+import reactor.fn.timer.Timer
+import reactor.io.buffer.PooledBufferAllocator
+import reactor.io.codec.Codec
 import reactor.io.codec.StandardCodecs
 import reactor.rx.Streams
 import spock.lang.Specification
 
+import java.util.concurrent.TimeUnit
+
 /**
  * @author Jon Brisbin
  * @author Stephane Maldini
@@ -93,6 +101,221 @@ class QueuePersistorSpec extends Specification {
 
 	}
 
+	def "MappedSegmentQueuePersistor persists objects and recovers its cursors on restart"() {
+
+		given:
+			"a MappedSegmentQueuePersistor"
+			def dir = System.getProperty("java.io.tmpdir") + "/mapped-queue-" + System.nanoTime()
+			def persistor = new MappedSegmentQueuePersistor<String>(dir, StandardCodecs.STRING_CODEC, true, false, 4096, 1, 0)
+
+		when:
+			"objects are persisted and one is removed"
+			def ids = ["a", "b", "c"].collect { persistor.offer(it) }
+			def removed = persistor.remove()
+
+		then:
+			"the objects were persisted"
+			ids == [0l, 1l, 2l]
+			removed == "a"
+			persistor.get(1l) == "b"
+			persistor.get(0l) == null
+			persistor.size() == 2
+			persistor.hasNext()
+
+		when:
+			"the persistor is reopened"
+			persistor.close()
+			persistor = new MappedSegmentQueuePersistor<String>(dir, StandardCodecs.STRING_CODEC, false, true, 4096, 1, 0)
+
+		then:
+			"the remaining objects and the cursors are recovered"
+			persistor.size() == 2
+			persistor.lastId() == 2l
+			persistor.iterator().collect() == ["b", "c"]
+			persistor.offer("d") == 3l
+			persistor.remove() == "b"
+			persistor.remove() == "c"
+			persistor.remove() == "d"
+			persistor.remove() == null
+			persistor.size() == 0
+
+		cleanup:
+			persistor.close()
+
+	}
+
+	def "MappedSegmentQueuePersistor rolls its segments and deletes the consumed ones"() {
+
+		given:
+			"a MappedSegmentQueuePersistor with small segments"
+			def dir = System.getProperty("java.io.tmpdir") + "/mapped-queue-" + System.nanoTime()
+			def persistor = new MappedSegmentQueuePersistor<String>(dir, StandardCodecs.STRING_CODEC, true, true, 1024, 0, 0)
+
+		when:
+			"more objects than a segment can hold are persisted"
+			(0..<200).each { persistor.offer("item-" + it) }
+
+		then:
+			"they span several segments"
+			persistor.segments() > 1
+			persistor.get(150l) == "item-150"
+
+		when:
+			"all the objects are removed"
+			def removed = (0..<200).collect { persistor.remove() }
+
+		then:
+			"they are removed in order and only the last segment is kept"
+			removed == (0..<200).collect { "item-" + it }
+			persistor.segments() == 1
+			new File(dir).list().length == 2
+
+		cleanup:
+			persistor.close()
+
+	}
+
+	def "MappedSegmentQueuePersistor recovers from a checkpoint lagging behind a rolled segment"() {
+
+		given:
+			"a MappedSegmentQueuePersistor which rolled to a second segment"
+			def dir = System.getProperty("java.io.tmpdir") + "/mapped-queue-" + System.nanoTime()
+			def persistor = new MappedSegmentQueuePersistor<String>(dir, StandardCodecs.STRING_CODEC, true, false, 1024, 0, 0)
+			(0..<70).each { persistor.offer("item-" + it) }
+			def rolled = persistor.segments()
+			persistor.close()
+
+		when:
+			"the durable write cursor is behind the second segment, as after a host crash, and the persistor is reopened"
+			def checkpoint = new RandomAccessFile(new File(dir, "checkpoint"), "rw")
+			checkpoint.writeLong(60l)
+			checkpoint.close()
+			persistor = new MappedSegmentQueuePersistor<String>(dir, StandardCodecs.STRING_CODEC, false, true, 1024, 0, 0)
+
+		then:
+			"the uncommitted segment is dropped and writes resume after the last committed item"
+			rolled == 2
+			persistor.segments() == 1
+			persistor.size() == 60
+			persistor.offer("new-60") == 60l
+
+		when:
+			"the persistor rolls again and is drained"
+			(61..<70).each { persistor.offer("new-" + it) }
+			def removed = (0..<70).collect { persistor.remove() }
+
+		then:
+			"the committed and the new items are read back in order"
+			persistor.segments() == 1
+			removed == (0..<60).collect { "item-" + it } + (60..<70).collect { "new-" + it }
+
+		cleanup:
+			persistor.close()
+
+	}
+
+	def "MappedSegmentQueuePersistor unmaps the segments it deletes"() {
+
+		given:
+			"a MappedSegmentQueuePersistor with small segments"
+			def dir = System.getProperty("java.io.tmpdir") + "/mapped-queue-" + System.nanoTime()
+			def persistor = new MappedSegmentQueuePersistor<String>(dir, StandardCodecs.STRING_CODEC, true, true, 1024, 0, 0)
+			def maps = new File("/proc/self/maps")
+			def mapped = { maps.readLines().findAll { it.contains(dir) && it.endsWith(".segment (deleted)") } }
+
+		when:
+			"several segments are filled and consumed"
+			(0..<200).each { persistor.offer("item-" + it) }
+			(0..<200).each { persistor.remove() }
+
+		then:
+			"the deleted segments are no longer mapped"
+			persistor.segments() == 1
+			!maps.exists() || mapped().empty
+
+		cleanup:
+			persistor.close()
+
+	}
+
+	def "MappedSegmentQueuePersistor syncs periodically on a timer until it is closed"() {
+
+		given:
+			"a MappedSegmentQueuePersistor syncing every 50 milliseconds"
+			def dir = System.getProperty("java.io.tmpdir") + "/mapped-queue-" + System.nanoTime()
+			def timer = Mock(Timer)
+			def registration = Mock(Registration)
+			Consumer<Long> task = null
+
+		when:
+			"it is created"
+			def persistor = new MappedSegmentQueuePersistor<String>(dir, StandardCodecs.STRING_CODEC, true, true, 4096,
+					0, 50, timer)
+
+		then:
+			"the sync is scheduled on the timer"
+			1 * timer.schedule(_, 50, TimeUnit.MILLISECONDS) >> { args -> task = args[0]; registration }
+
+		when:
+			"the timer fires after an offer and after a remove"
+			persistor.offer("a")
+			task.accept(System.currentTimeMillis())
+			persistor.remove()
+			task.accept(System.currentTimeMillis())
+
+		then:
+			"nothing is lost"
+			persistor.size() == 0
+			persistor.lastId() == 0l
+
+		when:
+			"it is closed"
+			persistor.close()
+			task.accept(System.currentTimeMillis())
+
+		then:
+			"the sync is cancelled and a late tick is ignored"
+			1 * registration.cancel()
+			notThrown(Exception)
+
+	}
+
+	def "MappedSegmentQueuePersistor never releases the buffers its codec encodes"() {
+
+		given:
+			"a codec encoding into pooled buffers"
+			def dir = System.getProperty("java.io.tmpdir") + "/mapped-queue-" + System.nanoTime()
+			def allocator = new PooledBufferAllocator(64, false, 4)
+			def encoded = []
+			def codec = [
+					decoder: { next -> StandardCodecs.STRING_CODEC.decoder(null) },
+					encoder: {
+						{ String s ->
+							def buffer = allocator.buffer(64).append(s).flip()
+							encoded << buffer
+							buffer
+						} as Function
+					}
+			] as Codec
+			def persistor = new MappedSegmentQueuePersistor<String>(dir, codec, true, true, 4096, 0, 0)
+
+		when:
+			"objects are persisted"
+			persistor.offer("a")
+			persistor.offer("b")
+
+		then:
+			"the encoded buffers are left untouched and are not handed out again by the pool"
+			encoded*.remaining() == [1, 1]
+			(0..<4).collect { allocator.buffer(64) }.every { b -> !encoded.any { it.is(b) } }
+			persistor.remove() == "a"
+			persistor.remove() == "b"
+
+		cleanup:
+			persistor.close()
+
+	}
+
 	def "Stream can use persistent queues"() {
 
 		given:
@@ -134,4 +357,145 @@ class QueuePersistorSpec extends Specification {
 
 	}
 
+	def "Stream can use mapped segment persistent queues"() {
+
+		given:
+			"a persistent queue specification using mapped segments and a Stream"
+			def persistentQueue = new reactor.io.queue.spec.PersistentQueueSpec()
+					.codec(StandardCodecs.STRING_CODEC)
+					.basePath(System.getProperty("java.io.tmpdir") + "/mapped-queue-" + System.nanoTime())
+					.clearOnStart(true)
+					.deleteOnExit(true)
+					.mappedSegments(4096, 0, 100)
+					.get()
+
+			def stream = Streams.<String> broadcast()
+			def result = null
+
+			def bufferedStream = stream.onOverflowBuffer{persistentQueue}.observe{
+				result = it
+			}.consume(0)
+
+		when:
+			"an object is persisted"
+			stream.onNext("test!")
+
+		then:
+			"the object was persisted"
+			persistentQueue.size() == 1
+
+		when:
+			"the object is read"
+			bufferedStream.requestMore(1)
+
+		then:
+			"the object was removed"
+			result == "test!"
+			persistentQueue.size() == 0
+
+		cleanup:
+			persistentQueue.close()
+
+	}
+
+	def "Stream can spill its overflow buffer to disk"() {
+
+		given:
+			"a persistent queue specification keeping 16 values in memory and a Stream"
+			def spec = new reactor.io.queue.spec.PersistentQueueSpec<String>()
+					.codec(StandardCodecs.STRING_CODEC)
+					.basePath(System.getProperty("java.io.tmpdir") + "/spilling-queue-" + System.nanoTime())
+					.clearOnStart(true)
+					.deleteOnExit(true)
+					.mappedSegments(4096, 0, 0)
+					.memoryCapacity(16)
+			def queue = null
+			def stream = Streams.<String> broadcast()
+			def result = []
+
+			def bufferedStream = stream.onOverflowBuffer {
+				queue = spec.get()
+			}.observe {
+				result << it
+			}.consume(0)
+
+		when:
+			"more values than the memory capacity are buffered"
+			(0..<1000).each { stream.onNext("value-" + it) }
+
+		then:
+			"the overflow was spilled to disk"
+			queue instanceof SpillingQueue
+			queue.size() == 1000
+			queue.spilled() == 1000 - 16
+			queue.peek() == "value-0"
+
+		when:
+			"the values are requested"
+			bufferedStream.requestMore(500)
+			stream.onNext("value-1000")
+			bufferedStream.requestMore(501)
+
+		then:
+			"they are all read back in order"
+			result == (0..1000).collect { "value-" + it }
+			queue.size() == 0
+			queue.spilled() == 0
+
+		cleanup:
+			queue?.close()
+
+	}
+
+	def "Spilling queues supplied by the same spec use their own directory until they are drained"() {
+
+		given:
+			"a persistent queue specification keeping 1 value in memory"
+			def basePath = new File(System.getProperty("java.io.tmpdir"), "spilling-queues-" + System.nanoTime())
+			def spec = new reactor.io.queue.spec.PersistentQueueSpec<String>()
+					.codec(StandardCodecs.STRING_CODEC)
+					.basePath(basePath.path)
+					.mappedSegments(4096, 0, 0)
+					.memoryCapacity(1)
+
+		when:
+			"two queues are supplied and spill values"
+			def first = spec.get()
+			def second = spec.get()
+			(0..<4).each {
+				first.offer("first-" + it)
+				second.offer("second-" + it)
+			}
+
+		then:
+			"each queue spills to its own directory"
+			basePath.listFiles().length == 2
+			(0..<4).collect { first.poll() } == (0..<4).collect { "first-" + it }
+
+		when:
+			"the second queue is completed and drained"
+			second.complete()
+			def drained = (0..<4).collect { second.poll() }
+
+		then:
+			"its directory is deleted while the first one is left untouched"
+			drained == (0..<4).collect { "second-" + it }
+			second.poll() == null
+			basePath.listFiles().length == 1
+
+		when:
+			"the first queue is completed while already drained"
+			first.complete()
+
+		then:
+			"its directory is deleted too"
+			basePath.listFiles().length == 0
+
+		cleanup:
+			first?.close()
+			second?.close()
+			basePath.delete()
+
+	}
+
 }
@@ -574,6 +574,56 @@ class PromisesSpec extends Specification {
 			combined.get() == 1
 	}
 
+	def "A combined promise through 'any' is fulfilled with the first component to complete"() {
+		given:
+			"three unfulfilled promises"
+			def promise1 = Promises.<Integer> prepare()
+			def promise2 = Promises.<Integer> prepare()
+			def promise3 = Promises.<Integer> prepare()
+
+		when:
+			"a combined promise is first created"
+			def combined = Promises.any(promise1, promise2, promise3)
+
+		then:
+			"it is pending"
+			combined.pending
+
+		when:
+			"the second promise is fulfilled, then the first one is rejected"
+			promise2.onNext 2
+			promise1.onError new Exception()
+
+		then:
+			"the combined promise is fulfilled with the second value"
+			combined.success
+			combined.get() == 2
+	}
+
+	def "A thread awaiting a promise is woken up as soon as it is fulfilled"() {
+		given:
+			"an unfulfilled promise and a thread awaiting it"
+			def promise = Promises.<String> prepare()
+			def awaited = new CountDownLatch(1)
+			def value = null
+			Thread.start {
+				value = promise.await(5, TimeUnit.SECONDS)
+				awaited.countDown()
+			}
+			sleep(50)
+
+		when:
+			"the promise is fulfilled from another thread"
+			long start = System.nanoTime()
+			Thread.start { promise.onNext 'done' }
+
+		then:
+			"the awaiting thread gets the value without polling"
+			awaited.await(5, TimeUnit.SECONDS)
+			TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 150
+			value == 'done'
+	}
+
 	def "A combined promise is immediately rejected if its component promises are already rejected"() {
 		given:
 			"two rejected promises"
@@ -16,14 +16,26 @@
 package reactor.rx
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import org.reactivestreams.Subscriber
 import org.reactivestreams.Subscription
 import reactor.Environment
 import reactor.bus.Event
 import reactor.bus.EventBus
 import reactor.bus.Observable
+import reactor.bus.registry.Registration
 import reactor.bus.selector.Selectors
 import reactor.core.dispatch.SynchronousDispatcher
+import reactor.fn.Aggregator
 import reactor.fn.BiFunction
+import reactor.fn.Consumer
+import reactor.fn.LongConsumer
+import reactor.fn.LongFunction
+import reactor.fn.ToDoubleFunction
+import reactor.fn.ToLongFunction
+import reactor.fn.timer.SimpleHashWheelTimer
+import reactor.fn.timer.Timer
+import reactor.rx.action.FusedAction
+import reactor.rx.subscription.FanOutSubscription
 import spock.lang.Specification
 
 import java.util.concurrent.*
@@ -539,6 +551,51 @@ class StreamsSpec extends Specification {
 			value.get() == 2
 	}
 
+	def "Consecutive synchronous map and filter are fused into a single action"() {
+		given:
+			'a source composable with a map, filter and map chain'
+			def source = Streams.<Integer> broadcast()
+			def combined = source.map { it + 1 }.filter { it % 2 == 0 }.map { it * 10 }.combine()
+
+		when:
+			'the source accepts values'
+			def values = []
+			combined.consume { values << it }
+			(1..5).each { source.onNext(it) }
+
+		then:
+			'the chain runs as one fused action and the filtered values are mapped'
+			combined.output() instanceof FusedAction
+			values == [20, 40, 60]
+
+		when:
+			'a bounded demand is requested from a fused chain dropping values'
+			values = []
+			Streams.range(1, 10).map { it * 2 }.filter { it > 10 }.map { it - 1 }.subscribe(new Subscriber<Integer>() {
+				@Override
+				void onSubscribe(Subscription subscription) {
+					subscription.request(2)
+				}
+
+				@Override
+				void onNext(Integer value) {
+					values << value
+				}
+
+				@Override
+				void onError(Throwable throwable) {
+				}
+
+				@Override
+				void onComplete() {
+				}
+			})
+
+		then:
+			'dropped values are replenished so the demand is fulfilled'
+			values == [11, 13]
+	}
+
 	def "Stream's values can be exploded"() {
 		given:
 			'a source composable with a mapMany function'
@@ -1421,6 +1478,109 @@ class StreamsSpec extends Specification {
 			]
 	}
 
+	def 'Parallel rails run on their own dispatchers and merge back into a single stream'() {
+		given:
+			'a source split over 4 rails mapping and filtering values on their own dispatchers'
+			def dispatchers = Environment.newCachedDispatchers(4, 'rails')
+			def threads = [].asSynchronized()
+			def parallel = Streams.range(1, 100).parallel(4).runOn(dispatchers).map {
+				threads << Thread.currentThread().name
+				it * 2
+			}.filter { it % 3 != 0 }
+			def expected = (1..100).collect { it * 2 }.findAll { it % 3 != 0 }
+
+		when:
+			'the rails are merged in order, as they come and reduced'
+			def ordered = parallel.ordered().toList().await(5, TimeUnit.SECONDS)
+			def unordered = parallel.sequential().toList().await(5, TimeUnit.SECONDS)
+			def sum = parallel.reduce { a, b -> a + b }.next().await(5, TimeUnit.SECONDS)
+
+		then:
+			'every value has been processed by the rails'
+			ordered == expected
+			unordered.sort() == expected
+			sum == expected.sum()
+			threads.size() == 300
+			threads.every { it.startsWith('rails') }
+
+		cleanup:
+			dispatchers.shutdown()
+	}
+
+	def 'Parallel rails filtering values keep serving a subscriber requesting a bounded number of values'() {
+		given:
+			'a subscriber requesting 2 values, then 1 more value for each value received'
+			def dispatchers = Environment.newCachedDispatchers(2, 'rails')
+			def boundedSubscriber = { List values, CountDownLatch latch ->
+				new Subscriber<Integer>() {
+					Subscription subscription
+
+					void onSubscribe(Subscription s) {
+						subscription = s
+						s.request(2)
+					}
+
+					void onNext(Integer value) {
+						values << value
+						subscription.request(1)
+					}
+
+					void onError(Throwable t) {
+					}
+
+					void onComplete() {
+						latch.countDown()
+					}
+				}
+			}
+			def sequentialValues = [].asSynchronized()
+			def orderedValues = [].asSynchronized()
+			def latch = new CountDownLatch(2)
+
+		when:
+			'even values are filtered on 2 rails and merged as they come or in order'
+			Streams.from(0..19).parallel(2).runOn(dispatchers).filter { it % 2 == 0 }.sequential().
+					subscribe(boundedSubscriber(sequentialValues, latch))
+			Streams.from(0..19).parallel(2).runOn(dispatchers).filter { it % 2 == 0 }.ordered(4).
+					subscribe(boundedSubscriber(orderedValues, latch))
+
+		then:
+			'every even value is received and both streams complete'
+			latch.await(5, TimeUnit.SECONDS)
+			sequentialValues.sort() == (0..19).findAll { it % 2 == 0 }
+			orderedValues == (0..19).findAll { it % 2 == 0 }
+
+		cleanup:
+			dispatchers.shutdown()
+	}
+
+	def 'Ordered parallel rails request no more values than their backlog can hold'() {
+		given:
+			'a source split over 4 rails merged in order with a backlog of 4 values'
+			def dispatchers = Environment.newCachedDispatchers(4, 'rails')
+			def started = new AtomicInteger()
+			def merged = new AtomicInteger()
+			def maxAhead = new AtomicInteger()
+			def stream = Streams.range(1, 1000).parallel(4).runOn(dispatchers).map {
+				def ahead = started.incrementAndGet() - merged.get()
+				while (ahead > maxAhead.get() && !maxAhead.compareAndSet(maxAhead.get(), ahead)) {
+				}
+				it
+			}.ordered(4)
+
+		when:
+			'the rails are merged'
+			def values = stream.observe { merged.incrementAndGet() }.toList().await(5, TimeUnit.SECONDS)
+
+		then:
+			'every value is merged in order and the rails never run further ahead than the backlog and the values being merged'
+			values == (1..1000).toList()
+			maxAhead.get() <= 8
+
+		cleanup:
+			dispatchers.shutdown()
+	}
+
 	def 'StreamUtils will parse a Stream to a Map'() {
 		given:
 			'a source and a grouped by ID stream'
@@ -1687,6 +1847,186 @@ class StreamsSpec extends Specification {
 			!errors
 	}
 
+	def 'Summarizing primitive values'() {
+		given:
+			'a broadcaster summarizing the length of its values as long and their half as double'
+			def source = Streams.<String> broadcast()
+			def longs = source.summarizeLong({ String s -> (long) s.length() } as ToLongFunction<String>).toList()
+			def doubles = source.summarizeDouble({ String s -> s.length() / 2d } as ToDoubleFunction<String>, 2).toList()
+
+		when:
+			'3 values are accepted and the broadcaster is completed'
+			source.onNext 'a'
+			source.onNext 'abc'
+			source.onNext 'ab'
+			source.onComplete()
+
+		then:
+			'the long summary covers all values'
+			def summary = longs.await(1, TimeUnit.SECONDS)
+			summary == [new LongSummary(3, 6, 1, 3)]
+			summary[0].average == 2d
+
+		and:
+			'a double summary is pushed for each batch of 2 values and on completion'
+			doubles.await(1, TimeUnit.SECONDS) == [new DoubleSummary(2, 2d, 0.5d, 1.5d), new DoubleSummary(1, 1d, 1d, 1d)]
+	}
+
+	def 'Mapping values to primitive longs'() {
+		given:
+			'a broadcaster mapping the length of its values to longs'
+			def source = Streams.<String> broadcast()
+			def lengths = source.mapToLong({ String s -> (long) s.length() } as ToLongFunction<String>)
+			def summaries = lengths.summarize(2).toList()
+			def labels = lengths.mapToObj({ long l -> 'length-' + l } as LongFunction<String>).toList()
+			def boxed = lengths.boxed().toList()
+			def consumed = []
+			lengths.consume({ long l -> consumed << l } as LongConsumer)
+
+		when:
+			'3 values are accepted and the broadcaster is completed'
+			source.onNext 'a'
+			source.onNext 'abc'
+			source.onNext 'ab'
+			source.onComplete()
+
+		then:
+			'the primitive values are summarized, transformed, boxed and consumed'
+			summaries.await(1, TimeUnit.SECONDS) == [new LongSummary(2, 4, 1, 3), new LongSummary(1, 2, 2, 2)]
+			labels.await(1, TimeUnit.SECONDS) == ['length-1', 'length-3', 'length-2']
+			boxed.await(1, TimeUnit.SECONDS) == [1l, 3l, 2l]
+			consumed == [1l, 3l, 2l]
+	}
+
+	def 'Aggregating sliding windows of values'() {
+		given:
+			'a broadcaster aggregating windows of 4 values starting every 2 values into lists'
+			def source = Streams.<Integer> broadcast()
+			def panes = 0
+			def aggregator = [
+					create    : { panes++; [] },
+					accumulate: { List a, Integer v -> a << v; a },
+					combine   : { List a, List other -> a.addAll(other); a },
+					result    : { List a -> a.sum() + ':' + a }
+			] as Aggregator<Integer, List, String>
+			def windows = source.aggregate(4, 2, aggregator).toList()
+
+		when:
+			'7 values are accepted and the broadcaster is completed'
+			(1..7).each { source.onNext it }
+			source.onComplete()
+
+		then:
+			'each full window is pushed in order, then the remaining values'
+			windows.await(1, TimeUnit.SECONDS) == ['10:[1, 2, 3, 4]', '18:[3, 4, 5, 6]', '18:[5, 6, 7]']
+
+		and:
+			'a partial aggregate is created per pane of 2 values and per pushed window'
+			panes == 4 + 3
+
+		when:
+			'windows of 2 values start every 4 values and the broadcaster completes between two windows'
+			source = Streams.<Integer> broadcast()
+			windows = source.aggregate(2, 4, aggregator).toList()
+			(1..3).each { source.onNext it }
+			source.onComplete()
+
+		then:
+			'the values between two windows are not aggregated'
+			windows.await(1, TimeUnit.SECONDS) == ['3:[1, 2]']
+	}
+
+	def 'Aggregating time windows of values'() {
+		given:
+			'a broadcaster summing its values every 200 milliseconds'
+			def source = Streams.<Integer> broadcast()
+			def aggregator = [
+					create    : { [0] as long[] },
+					accumulate: { long[] a, Integer v -> a[0] += v; a },
+					combine   : { long[] a, long[] other -> a[0] += other[0]; a },
+					result    : { long[] a -> a[0] }
+			] as Aggregator<Integer, long[], Long>
+			def sums = source.aggregate(200, TimeUnit.MILLISECONDS, aggregator).toList()
+
+		when:
+			'values are accepted, then others in a later window'
+			source.onNext 1
+			source.onNext 2
+			sleep(300)
+			source.onNext 3
+			source.onComplete()
+
+		then:
+			'a sum is pushed for each window'
+			sums.await(1, TimeUnit.SECONDS) == [3l, 3l]
+
+		when:
+			'values are accepted in sliding windows of 200 milliseconds every 100 milliseconds, then it completes'
+			source = Streams.<Integer> broadcast()
+			def signals = []
+			source.aggregate(200, 100, TimeUnit.MILLISECONDS, aggregator).consume(
+					{ signals << it },
+					{ signals << it },
+					{ signals << 'complete' }
+			)
+			source.onNext 1
+			source.onNext 2
+			source.onComplete()
+			sleep(400)
+
+		then:
+			'nothing is pushed after the completion'
+			signals == [3l, 'complete']
+	}
+
+	def 'Caching a bounded number of values'() {
+		given:
+			'a broadcaster caching its last 3 values'
+			def source = Streams.<Integer> broadcast()
+			def cached = source.cache(3)
+
+		when:
+			'5 values are accepted, then a late subscriber consumes the cache'
+			(1..5).each { source.onNext it }
+			def nexts = []
+			cached.consume { nexts << it }
+
+		then:
+			'only the last 3 values are replayed'
+			nexts == [3, 4, 5]
+
+		when:
+			'a new value and the completion are accepted'
+			source.onNext 6
+			source.onComplete()
+			def late = cached.toList()
+
+		then:
+			'the live subscriber receives it and the cache still replays the last 3 values and the completion'
+			nexts == [3, 4, 5, 6]
+			late.await(1, TimeUnit.SECONDS) == [4, 5, 6]
+	}
+
+	def 'Caching the values of a timespan'() {
+		given:
+			'a broadcaster caching its values of the last 200 milliseconds'
+			def source = Streams.<Integer> broadcast()
+			def cached = source.cache(200, TimeUnit.MILLISECONDS)
+
+		when:
+			'2 values are accepted, then another one later'
+			source.onNext 1
+			source.onNext 2
+			sleep(400)
+			source.onNext 3
+			def nexts = []
+			cached.consume { nexts << it }
+
+		then:
+			'only the recent value is replayed'
+			nexts == [3]
+	}
+
 	def 'Creating Streams from future'() {
 		given:
 			'a source stream pre-completed'
@@ -1892,6 +2232,90 @@ class StreamsSpec extends Specification {
 			value.get() == 10
 	}
 
+	def 'Timeouts of streams sharing a timer are checked by a single sweep'() {
+		given:
+			'a timer counting its registrations and 10 streams timing out after 300ms'
+			def wheel = new SimpleHashWheelTimer(10)
+			def registrations = new AtomicInteger()
+			def timer = new Timer() {
+				long getResolution() { wheel.resolution }
+
+				Registration<? extends Consumer<Long>> schedule(Consumer<Long> consumer, long period, TimeUnit unit,
+				                                                long delay) {
+					registrations.incrementAndGet()
+					wheel.schedule(consumer, period, unit, delay)
+				}
+
+				Registration<? extends Consumer<Long>> schedule(Consumer<Long> consumer, long period, TimeUnit unit) {
+					registrations.incrementAndGet()
+					wheel.schedule(consumer, period, unit)
+				}
+
+				Registration<? extends Consumer<Long>> submit(Consumer<Long> consumer, long delay, TimeUnit unit) {
+					registrations.incrementAndGet()
+					wheel.submit(consumer, delay, unit)
+				}
+
+				Registration<? extends Consumer<Long>> submit(Consumer<Long> consumer) {
+					registrations.incrementAndGet()
+					wheel.submit(consumer)
+				}
+
+				void cancel() { wheel.cancel() }
+			}
+			def sources = (1..10).collect { Streams.<Integer> broadcast() }
+			def errors = new CountDownLatch(10)
+			sources.each { source ->
+				source.timeout(300, TimeUnit.MILLISECONDS, null, timer).when(TimeoutException) {
+					errors.countDown()
+				}.consume()
+			}
+
+		when:
+			'each stream receives data for 400ms'
+			def start = System.currentTimeMillis()
+			while (System.currentTimeMillis() - start < 400) {
+				sources.each { it.onNext(1) }
+				sleep(1)
+			}
+			def timedOutEarly = errors.count < 10
+
+		then:
+			'no stream timed out while receiving data, then they all time out and the timer was registered once'
+			!timedOutEarly
+			errors.await(5, TimeUnit.SECONDS)
+			registrations.get() == 1
+
+		cleanup:
+			wheel.cancel()
+	}
+
+	def 'A cancelled timer is not kept alive by the timeouts it was checking'() {
+		given:
+			'a stream still waiting for its timeout on a timer that gets cancelled'
+			def timer = timeoutOnCancelledTimer()
+
+		when:
+			'the timer is no longer referenced and the garbage collector runs'
+			for (int i = 0; i < 50 && timer.get() != null; i++) {
+				System.gc()
+				sleep(20)
+			}
+
+		then:
+			'the timer has been collected'
+			timer.get() == null
+	}
+
+	private static java.lang.ref.WeakReference<Timer> timeoutOnCancelledTimer() {
+		def timer = new SimpleHashWheelTimer(10)
+		def source = Streams.<Integer> broadcast()
+		source.timeout(10, TimeUnit.SECONDS, null, timer).consume()
+		source.onNext(1)
+		timer.cancel()
+		new java.lang.ref.WeakReference<Timer>(timer)
+	}
+
 	def 'Errors can have a fallback'() {
 		when:
 			'A source stream emits next signals followed by an error'
@@ -2646,6 +3070,110 @@ class StreamsSpec extends Specification {
 			notThrown(Exception)
 	}
 
+	def 'A Broadcaster applies its slow subscriber policy to subscribers without demand'() {
+		given:
+			'a Broadcaster with a fast and a slow subscriber'
+			def source = Streams.<Integer> broadcast().slowSubscribers(policy, 2)
+			def fast = []
+			def slow = []
+			def errors = []
+			def subscriber = { List values, long demand ->
+				new Subscriber<Integer>() {
+					Subscription subscription
+
+					void onSubscribe(Subscription s) {
+						subscription = s
+						s.request(demand)
+					}
+
+					void onNext(Integer i) { values << i }
+
+					void onError(Throwable t) { errors << t }
+
+					void onComplete() {}
+				}
+			}
+			source.subscribe(subscriber(fast, Long.MAX_VALUE))
+			def slowSubscriber = subscriber(slow, 1)
+			source.subscribe(slowSubscriber)
+
+		when:
+			'values are broadcast and the slow subscriber catches up'
+			(1..5).each { source.onNext(it) }
+			slowSubscriber.subscription.request(10)
+
+		then:
+			'the fast subscriber is not affected'
+			fast == [1, 2, 3, 4, 5]
+			slow == slowValues
+			errors.size() == disconnected
+
+		where:
+			policy                                            | slowValues | disconnected
+			FanOutSubscription.SlowSubscriberPolicy.BUFFER     | [1, 2, 3]  | 0
+			FanOutSubscription.SlowSubscriberPolicy.DROP       | [1]        | 0
+			FanOutSubscription.SlowSubscriberPolicy.DISCONNECT | [1, 2, 3]  | 1
+	}
+
+	def 'A Broadcaster cancels its upstream once its last slow subscriber is disconnected'() {
+		given:
+			'a Broadcaster disconnecting slow subscribers, fed by an upstream Broadcaster'
+			def upstream = Streams.<Integer> broadcast()
+			def cancelled = false
+			def source = Streams.<Integer> broadcast().keepAlive(false)
+					.slowSubscribers(FanOutSubscription.SlowSubscriberPolicy.DISCONNECT, 2)
+			upstream.observeCancel { cancelled = true }.subscribe(source)
+			def errors = []
+			def slowSubscription = null
+			def fast = source.consume()
+			source.subscribe(new Subscriber<Integer>() {
+				void onSubscribe(Subscription s) {
+					slowSubscription = s
+					s.request(1)
+				}
+
+				void onNext(Integer i) {}
+
+				void onError(Throwable t) { errors << t }
+
+				void onComplete() {}
+			})
+
+		when:
+			'the fast subscriber cancels and the slow one, now alone, falls behind'
+			fast.cancel()
+			(1..5).each { upstream.onNext(it) }
+
+		then:
+			'the slow subscriber is disconnected and the upstream is cancelled'
+			errors.size() == 1
+			cancelled
+	}
+
+	def 'A Broadcaster subscriber can cancel while values are broadcast'() {
+		given:
+			'a Broadcaster with 3 subscribers, the first one cancelling on its second value'
+			def source = Streams.<Integer> broadcast()
+			def received = [[], [], []]
+			def controls = []
+			controls << source.consume {
+				received[0] << it
+				if (it == 2) {
+					controls[0].cancel()
+				}
+			}
+			controls << source.consume { received[1] << it }
+			controls << source.consume { received[2] << it }
+
+		when:
+			'values are broadcast'
+			(1..3).each { source.onNext(it) }
+
+		then:
+			'the other subscribers receive all the values'
+			received == [[1, 2], [1, 2, 3], [1, 2, 3]]
+	}
+
 	static class SimplePojo {
 		int id
 		String title
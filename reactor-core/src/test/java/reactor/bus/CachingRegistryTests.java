@@ -132,6 +132,86 @@ public final class CachingRegistryTests {
 	}
 
 
+	@Test
+	public void registrationsFromDifferentSelectorTypesAreOrderedByInsertionOrder() {
+		this.cachingRegistry.register(Selectors.regex("/t.*"), "alpha");
+		this.cachingRegistry.register(Selectors.$("/test"), "bravo");
+		this.cachingRegistry.register(Selectors.uri("/{path}"), "charlie");
+		this.cachingRegistry.register(Selectors.T(CharSequence.class), "delta");
+		this.cachingRegistry.register(Selectors.$("/other"), "echo");
+
+		List<Object> objects = new ArrayList<Object>();
+		for (Registration<? extends Object> registration : this.cachingRegistry.select("/test")) {
+			objects.add(registration.getObject());
+		}
+
+		assertEquals(Arrays.asList("alpha", "bravo", "charlie", "delta"), objects);
+	}
+
+	@Test
+	public void uriPathSelectorsAreSelectedByTheirLiteralPrefix() {
+		this.cachingRegistry.register(Selectors.uri("/api/{id}/items"), "alpha");
+		this.cachingRegistry.register(Selectors.uri("/api/**"), "bravo");
+		this.cachingRegistry.register(Selectors.uri("/api/1/items"), "charlie");
+		this.cachingRegistry.register(Selectors.uri("/other/{id}/items"), "delta");
+		this.cachingRegistry.register(Selectors.uri("/api/1.items"), "echo");
+
+		assertEquals(4, this.cachingRegistry.select("/api/1/items").size());
+		assertEquals(1, this.cachingRegistry.select("/api/").size());
+		assertEquals(2, this.cachingRegistry.select("/api/1.items").size());
+		assertEquals(2, this.cachingRegistry.select("/api/1xitems").size());
+		assertEquals(0, this.cachingRegistry.select("/other/1").size());
+	}
+
+	@Test
+	public void typeSelectorsMatchTheTypeHierarchyOfTheKey() {
+		this.cachingRegistry.register(Selectors.T(RuntimeException.class), "alpha");
+		this.cachingRegistry.register(Selectors.T(Throwable.class), "bravo");
+		this.cachingRegistry.register(Selectors.T(java.io.Serializable.class), "charlie");
+		this.cachingRegistry.register(Selectors.T(Error.class), "delta");
+
+		assertEquals(3, this.cachingRegistry.select(new IllegalStateException()).size());
+		assertEquals(3, this.cachingRegistry.select(IllegalArgumentException.class).size());
+		assertEquals(1, this.cachingRegistry.select(String.class).size());
+	}
+
+	@Test
+	public void cacheIsOnlyRefreshedForTheKeysMatchedByANewRegistration() {
+		this.cachingRegistry.register(Selectors.$("selector"), "alpha");
+
+		this.cachingRegistry.select("selector");
+		this.cachingRegistry.select("selector");
+
+		this.cachingRegistry.register(Selectors.$("selector2"), "bravo");
+		this.cachingRegistry.register(Selectors.uri("/{path}"), "charlie");
+
+		this.cachingRegistry.select("selector");
+
+		assertEquals(1, this.cacheMisses.get());
+
+		this.cachingRegistry.register(Selectors.regex("sel.*"), "delta");
+
+		assertEquals(2, this.cachingRegistry.select("selector").size());
+		assertEquals(2, this.cacheMisses.get());
+	}
+
+	@Test
+	public void cancelledRegistrationsAreNoLongerSelected() {
+		Selector anonymous = Selectors.anonymous();
+		Registration<?> anonymousReg = this.cachingRegistry.register(anonymous, "alpha");
+		Registration<?> uriReg = this.cachingRegistry.register(Selectors.uri("/test/{id}"), "bravo");
+
+		assertEquals(1, this.cachingRegistry.select(anonymous.getObject()).size());
+		assertEquals(1, this.cachingRegistry.select("/test/1").size());
+
+		anonymousReg.cancel();
+		uriReg.cancel();
+
+		assertEquals(0, this.cachingRegistry.select(anonymous.getObject()).size());
+		assertEquals(0, this.cachingRegistry.select("/test/1").size());
+		assertEquals(false, this.cachingRegistry.iterator().hasNext());
+	}
+
 	//Issue : https://github.com/eventBus/eventBus/issues/237
 	@Test
 	public void invokeConsumersWithCustomSelector() {
@@ -26,6 +26,7 @@ import reactor.core.dispatch.processor.Processor;
 import reactor.core.dispatch.processor.spec.ProcessorSpec;
 import reactor.fn.Consumer;
 import reactor.fn.Supplier;
+import reactor.fn.batch.BatchConsumer;
 
 import java.util.Iterator;
 import java.util.List;
@@ -120,11 +121,20 @@ public class AsyncAppender
 						addError(throwable.getMessage(), throwable);
 					}
 				})
-				.consume(new Consumer<LogEvent>() {
+				.consume(new BatchConsumer<LogEvent>() {
+					@Override
+					public void start() {
+					}
+
 					@Override
 					public void accept(LogEvent evt) {
 						loggingEventDequeued(evt.event);
 					}
+
+					@Override
+					public void end() {
+						loggingEventBatchDequeued();
+					}
 				})
 				.get();
 
@@ -233,16 +243,31 @@ public class AsyncAppender
 
 	protected void queueLoggingEvent(ILoggingEvent evt) {
 		if (null != delegate.get()) {
-			Operation<LogEvent> op = processor.prepare();
-			op.get().event = evt;
-			op.commit();
+			publishLoggingEvent(evt);
 		}
 	}
 
+	/**
+	 * Publish the given event to the ring buffer, to be handed to {@link #loggingEventDequeued} by the writer thread.
+	 *
+	 * @param evt the event to publish
+	 */
+	protected final void publishLoggingEvent(ILoggingEvent evt) {
+		Operation<LogEvent> op = processor.prepare();
+		op.get().event = evt;
+		op.commit();
+	}
+
 	protected void loggingEventDequeued(ILoggingEvent evt) {
 		aai.appendLoopOnAppenders(evt);
 	}
 
+	/**
+	 * Called by the writer thread once it has dequeued all the events available in the ring buffer.
+	 */
+	protected void loggingEventBatchDequeued() {
+	}
+
 	private static class LogEvent {
 		ILoggingEvent event;
 	}
@@ -27,19 +27,29 @@ import net.openhft.chronicle.tools.ChronicleTools;
 import java.io.IOException;
 
 /**
- * An {@literal AsyncAppender} subclass that first writes a log event to a durable {@literal Chronicle} using Java
- * Chronicle before allowing the event to be queued.
+ * An {@literal AsyncAppender} subclass that writes log events to a durable {@literal Chronicle} using Java Chronicle.
+ * <p>
+ * Application threads only publish the events to the ring buffer. The writer thread appends each event to the journal
+ * before handing it to the delegate appender, and flushes the journal once it has drained the events available in the
+ * ring buffer, so that a burst of events is flushed once. The flush policy is configured with {@code
+ * flushOnEndOfBatch}, {@code flushIntervalMillis} to flush at most once per interval at the end of a batch, and {@code
+ * flushEveryEvents} to also flush within long batches. The journal is always flushed when the appender stops.
  *
  * @author Jon Brisbin
  */
 public class DurableAsyncAppender extends AsyncAppender {
 
-	private final Object writeMonitor = new Object();
-
 	private String basePath = "log";
 
-	private Chronicle       chronicle;
-	private ExcerptAppender appender;
+	private boolean flushOnEndOfBatch   = true;
+	private long    flushIntervalMillis = 0;
+	private int     flushEveryEvents    = 0;
+
+	private          Chronicle       chronicle;
+	private volatile ExcerptAppender appender;
+
+	private int  unflushed;
+	private long lastFlush;
 
 	public DurableAsyncAppender() {
 	}
@@ -52,6 +62,46 @@ public class DurableAsyncAppender extends AsyncAppender {
 		this.basePath = chronicle;
 	}
 
+	public boolean isFlushOnEndOfBatch() {
+		return flushOnEndOfBatch;
+	}
+
+	/**
+	 * Whether to flush the journal once the writer thread has drained the ring buffer. Defaults to {@code true}.
+	 *
+	 * @param flushOnEndOfBatch {@code true} to flush at the end of each batch
+	 */
+	public void setFlushOnEndOfBatch(boolean flushOnEndOfBatch) {
+		this.flushOnEndOfBatch = flushOnEndOfBatch;
+	}
+
+	public long getFlushIntervalMillis() {
+		return flushIntervalMillis;
+	}
+
+	/**
+	 * The minimum delay between two flushes at the end of a batch. Defaults to {@code 0}, which flushes every batch.
+	 *
+	 * @param flushIntervalMillis the minimum delay between two flushes, in milliseconds
+	 */
+	public void setFlushIntervalMillis(long flushIntervalMillis) {
+		this.flushIntervalMillis = flushIntervalMillis;
+	}
+
+	public int getFlushEveryEvents() {
+		return flushEveryEvents;
+	}
+
+	/**
+	 * The number of events after which the journal is flushed, even in the middle of a batch. Defaults to {@code 0},
+	 * which only flushes at the end of a batch.
+	 *
+	 * @param flushEveryEvents the number of events between two flushes
+	 */
+	public void setFlushEveryEvents(int flushEveryEvents) {
+		this.flushEveryEvents = flushEveryEvents;
+	}
+
 	@Override
 	protected void doStart() {
 		ChronicleTools.warmup();
@@ -79,10 +129,38 @@ public class DurableAsyncAppender extends AsyncAppender {
 
 	@Override
 	protected void queueLoggingEvent(ILoggingEvent evt) {
-		synchronized (writeMonitor) {
+		publishLoggingEvent(evt);
+	}
+
+	@Override
+	protected void loggingEventDequeued(ILoggingEvent evt) {
+		ExcerptAppender appender = this.appender;
+		if (null != appender) {
 			LoggingEventRecord.write(appender, (LoggingEvent) evt, isIncludeCallerData(), 1);
+			if (++unflushed == flushEveryEvents) {
+				flush(appender);
+			}
+		}
+		super.loggingEventDequeued(evt);
+	}
+
+	@Override
+	protected void loggingEventBatchDequeued() {
+		ExcerptAppender appender = this.appender;
+		if (null == appender || unflushed == 0 || !flushOnEndOfBatch) {
+			return;
+		}
+		if (flushIntervalMillis <= 0 || System.currentTimeMillis() - lastFlush >= flushIntervalMillis) {
+			flush(appender);
+		}
+	}
+
+	private void flush(ExcerptAppender appender) {
+		appender.flush();
+		unflushed = 0;
+		if (flushIntervalMillis > 0) {
+			lastFlush = System.currentTimeMillis();
 		}
-		super.queueLoggingEvent(evt);
 	}
 
 }
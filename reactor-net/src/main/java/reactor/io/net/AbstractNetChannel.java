@@ -32,6 +32,7 @@ import reactor.fn.Consumer;
 import reactor.fn.Function;
 import reactor.fn.batch.BatchConsumer;
 import reactor.io.buffer.Buffer;
+import reactor.io.buffer.PooledBufferAllocator;
 import reactor.io.codec.Codec;
 import reactor.rx.Promise;
 import reactor.rx.Promises;
@@ -67,6 +68,7 @@ public abstract class AbstractNetChannel<IN, OUT> implements NetChannel<IN, OUT>
 	private final Function<Buffer, IN>   decoder;
 	private final Function<OUT, Buffer>  encoder;
 	private final Queue<Object>          replyToKeys;
+	private final WriteConsumer          writeConsumer = new WriteConsumer(null);
 
 	protected AbstractNetChannel(@Nonnull Environment env,
 	                             @Nullable Codec<Buffer, IN, OUT> codec,
@@ -165,10 +167,11 @@ public abstract class AbstractNetChannel<IN, OUT> implements NetChannel<IN, OUT>
 
 	@Override
 	public NetChannel<IN, OUT> send(Stream<OUT> data) {
+		final BatchConsumer<OUT> out = out();
 		data.consume(new Consumer<OUT>() {
 			@Override
-			public void accept(OUT out) {
-				send(out, null);
+			public void accept(OUT o) {
+				ioReactor.schedule(out, o);
 			}
 		});
 		return this;
@@ -215,7 +218,7 @@ public abstract class AbstractNetChannel<IN, OUT> implements NetChannel<IN, OUT>
 	 * 		The callback to invoke when the write is complete.
 	 */
 	protected void send(OUT data, final Promise<Void> onComplete) {
-		ioReactor.schedule(new WriteConsumer(onComplete), data);
+		ioReactor.schedule(null != onComplete ? new WriteConsumer(onComplete) : writeConsumer, data);
 	}
 
 	/**
@@ -258,7 +261,28 @@ public abstract class AbstractNetChannel<IN, OUT> implements NetChannel<IN, OUT>
 	}
 
 	/**
-	 * Subclasses must implement this method to perform the actual IO of writing data to the connection.
+	 * Write a frame the codec of this channel has just encoded. The channel owns it, unlike the buffers it is given,
+	 * so a frame allocated from a {@link PooledBufferAllocator} goes back to its pool once written. Subclasses may
+	 * override this method to write pooled frames without copying them.
+	 *
+	 * @param frame
+	 * 		The encoded frame to write.
+	 * @param onComplete
+	 * 		The callback to invoke when the write is complete.
+	 * @param flush
+	 * 		whether to flush the underlying IO channel
+	 */
+	protected void writeFrame(Buffer frame, Promise<Void> onComplete, boolean flush) {
+		try {
+			write(frame.byteBuffer(), onComplete, flush);
+		} finally {
+			PooledBufferAllocator.release(frame);
+		}
+	}
+
+	/**
+	 * Subclasses must implement this method to perform the actual IO of writing data to the connection. The data must
+	 * be consumed before returning, as pooled frames go back to their pool right after.
 	 *
 	 * @param data
 	 * 		The data to write.
@@ -322,8 +346,15 @@ public abstract class AbstractNetChannel<IN, OUT> implements NetChannel<IN, OUT>
 			try {
 				if (null != encoder) {
 					Buffer bytes = encoder.apply(data);
-					if (bytes.remaining() > 0) {
-						write(bytes, onComplete, autoflush);
+					if (bytes == data) {
+						// passed through as is, the buffer still belongs to the caller
+						if (bytes.remaining() > 0) {
+							write(bytes, onComplete, autoflush);
+						}
+					} else if (bytes.remaining() > 0) {
+						writeFrame(bytes, onComplete, autoflush);
+					} else {
+						PooledBufferAllocator.release(bytes);
 					}
 				} else {
 					if (Buffer.class.isInstance(data)) {
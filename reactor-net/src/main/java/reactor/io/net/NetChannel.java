@@ -46,7 +46,9 @@ public interface NetChannel<IN, OUT> {
 	Stream<IN> in();
 
 	/**
-	 * {@link reactor.fn.batch.BatchConsumer} for efficiently data to the peer.
+	 * {@link reactor.fn.batch.BatchConsumer} for efficiently data to the peer. Data written between {@link
+	 * reactor.fn.batch.BatchConsumer#start()} and {@link reactor.fn.batch.BatchConsumer#end()} is flushed once the batch
+	 * ends, other data is flushed according to the flush options of the socket.
 	 *
 	 * @return output {@link reactor.fn.batch.BatchConsumer}
 	 */
@@ -87,7 +89,8 @@ public interface NetChannel<IN, OUT> {
 	NetChannel<IN, OUT> receive(Function<IN, OUT> fn);
 
 	/**
-	 * Send data to the peer that passes through the given {@link reactor.rx.Stream}.
+	 * Send data to the peer that passes through the given {@link reactor.rx.Stream}, through a single {@link #out()}
+	 * consumer.
 	 *
 	 * @param data
 	 * 		the {@link reactor.rx.Stream} of data to monitor
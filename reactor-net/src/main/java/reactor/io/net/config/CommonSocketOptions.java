@@ -35,6 +35,10 @@ public abstract class CommonSocketOptions<SO extends CommonSocketOptions<? super
 	private int     rcvbuf     = Buffer.SMALL_BUFFER_SIZE;
 	private int     sndbuf     = Buffer.SMALL_BUFFER_SIZE;
 
+	private int  flushAfterMessages = 1;
+	private int  flushAfterBytes    = 0;
+	private long flushDelay         = 0;
+
 	/**
 	 * Gets the {@code SO_TIMEOUT} value
 	 *
@@ -162,4 +166,70 @@ public abstract class CommonSocketOptions<SO extends CommonSocketOptions<? super
 		return (SO) this;
 	}
 
+	/**
+	 * Gets the number of written messages after which the socket is flushed
+	 *
+	 * @return the number of messages, {@code 1} to flush every message, {@code 0} for no limit
+	 */
+	public int flushAfterMessages() {
+		return flushAfterMessages;
+	}
+
+	/**
+	 * Sets the number of written messages after which the socket is flushed. Any other value than {@code 1} coalesces
+	 * the writes of a connection: they are flushed together once this many messages, or {@link #flushAfterBytes()}
+	 * bytes, are pending, or after the {@link #flushDelay()}.
+	 *
+	 * @param flushAfterMessages The number of messages, {@code 1} to flush every message, {@code 0} for no limit
+	 *
+	 * @return {@code this}
+	 */
+	public SO flushAfterMessages(int flushAfterMessages) {
+		this.flushAfterMessages = flushAfterMessages;
+		return (SO) this;
+	}
+
+	/**
+	 * Gets the number of written bytes after which coalesced writes are flushed
+	 *
+	 * @return the number of bytes, {@code 0} for no limit
+	 */
+	public int flushAfterBytes() {
+		return flushAfterBytes;
+	}
+
+	/**
+	 * Sets the number of written bytes after which coalesced writes are flushed
+	 *
+	 * @param flushAfterBytes The number of bytes, {@code 0} for no limit
+	 *
+	 * @return {@code this}
+	 */
+	public SO flushAfterBytes(int flushAfterBytes) {
+		this.flushAfterBytes = flushAfterBytes;
+		return (SO) this;
+	}
+
+	/**
+	 * Gets the maximum delay, in milliseconds, before coalesced writes are flushed
+	 *
+	 * @return the delay, {@code 0} to flush once the writes already submitted to the connection have been performed
+	 */
+	public long flushDelay() {
+		return flushDelay;
+	}
+
+	/**
+	 * Sets the maximum delay, in milliseconds, before coalesced writes are flushed
+	 *
+	 * @param flushDelay The delay, {@code 0} to flush once the writes already submitted to the connection have been
+	 *                   performed
+	 *
+	 * @return {@code this}
+	 */
+	public SO flushDelay(long flushDelay) {
+		this.flushDelay = flushDelay;
+		return (SO) this;
+	}
+
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.io.net.netty;
+
+import io.netty.buffer.ByteBuf;
+import reactor.io.buffer.Buffer;
+
+/**
+ * A {@link Buffer} over the readable bytes of a Netty {@link ByteBuf}, sharing its memory when the {@link ByteBuf} is
+ * made of a single component, like the buffers Netty reads into. A {@link io.netty.buffer.CompositeByteBuf} of
+ * several components is merged into a single copy.
+ * <p>
+ * The {@link ByteBuf} backing the {@link Buffer} passed to a decoder is reused as soon as the decoder returns. A
+ * consumer holding on to that buffer must {@link #retain()} it, then {@link #release()} it once done.
+ *
+ * @author Stephane Maldini
+ * @since 2.0
+ */
+public class NettyBuffer extends Buffer {
+
+	private final ByteBuf byteBuf;
+
+	/**
+	 * Create a {@literal NettyBuffer} over the readable bytes of the given {@link ByteBuf}. Reading from this buffer
+	 * does not move the reader index of the {@link ByteBuf}.
+	 *
+	 * @param byteBuf
+	 * 		The {@link ByteBuf} to read from.
+	 */
+	public NettyBuffer(ByteBuf byteBuf) {
+		super(byteBuf.nioBuffer());
+		this.byteBuf = byteBuf;
+	}
+
+	/**
+	 * The {@link ByteBuf} backing this buffer.
+	 *
+	 * @return The {@link ByteBuf}.
+	 */
+	public ByteBuf byteBuf() {
+		return byteBuf;
+	}
+
+	/**
+	 * Prevent the backing {@link ByteBuf} from being reused until {@link #release()} is called.
+	 *
+	 * @return {@literal this}
+	 */
+	public NettyBuffer retain() {
+		byteBuf.retain();
+		return this;
+	}
+
+	/**
+	 * Release the backing {@link ByteBuf}.
+	 *
+	 * @return {@literal true} if the {@link ByteBuf} has been deallocated, {@literal false} otherwise.
+	 */
+	public boolean release() {
+		return byteBuf.release();
+	}
+
+}
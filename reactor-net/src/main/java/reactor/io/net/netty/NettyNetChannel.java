@@ -17,6 +17,7 @@
 package reactor.io.net.netty;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
@@ -28,6 +29,7 @@ import reactor.core.Dispatcher;
 import reactor.fn.Consumer;
 import reactor.fn.tuple.Tuple;
 import reactor.io.buffer.Buffer;
+import reactor.io.buffer.PooledBufferAllocator;
 import reactor.io.codec.Codec;
 import reactor.io.net.AbstractNetChannel;
 import reactor.rx.Promise;
@@ -92,6 +94,19 @@ public class NettyNetChannel<IN, OUT> extends AbstractNetChannel<IN, OUT> {
 		return new NettyConsumerSpec();
 	}
 
+	/**
+	 * Direct pooled frames are handed to Netty as they are and only go back to their pool once written.
+	 */
+	@Override
+	protected void writeFrame(Buffer frame, Promise<Void> onComplete, boolean flush) {
+		ByteBuffer bytes = frame.byteBuffer();
+		if (PooledBufferAllocator.isPooled(frame) && bytes.isDirect()) {
+			write(Unpooled.wrappedBuffer(bytes), onComplete, flush, frame);
+		} else {
+			super.writeFrame(frame, onComplete, flush);
+		}
+	}
+
 	@Override
 	protected void write(ByteBuffer data, Promise<Void> onComplete, boolean flush) {
 		ByteBuf buf = ioChannel.alloc().buffer(data.remaining());
@@ -100,11 +115,16 @@ public class NettyNetChannel<IN, OUT> extends AbstractNetChannel<IN, OUT> {
 	}
 
 	@Override
-	protected void write(Object data, final Promise<Void> onComplete, boolean flush) {
+	protected void write(Object data, Promise<Void> onComplete, boolean flush) {
+		write(data, onComplete, flush, null);
+	}
+
+	private void write(Object data, final Promise<Void> onComplete, boolean flush, final Buffer pooled) {
 		ChannelFuture writeFuture = ioChannel.write(Tuple.of(data, flush));
 		writeFuture.addListener(new ChannelFutureListener() {
 			@Override
 			public void operationComplete(ChannelFuture future) throws Exception {
+				PooledBufferAllocator.release(pooled);
 				boolean success = future.isSuccess();
 
 				if (!success) {
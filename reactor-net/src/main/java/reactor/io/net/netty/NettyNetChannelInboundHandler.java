@@ -72,7 +72,7 @@ public class NettyNetChannelInboundHandler extends ChannelInboundHandlerAdapter
 			return;
 		}
 
-		if (!bufferHasSufficientCapacity(remainder, data)) {
+		if (isShared(remainder) || !bufferHasSufficientCapacity(remainder, data)) {
 			ByteBuf combined = createCombinedBuffer(remainder, data, ctx);
 			remainder.release();
 			remainder = combined;
@@ -84,15 +84,24 @@ public class NettyNetChannelInboundHandler extends ChannelInboundHandlerAdapter
 		try {
 			passToConnection(remainder);
 		} finally {
-			if (remainder.isReadable()) {
-				remainder.discardSomeReadBytes();
-			} else {
+			if (!remainder.isReadable()) {
 				remainder.release();
 				remainder = null;
+			} else if (!isShared(remainder)) {
+				remainder.discardSomeReadBytes();
 			}
 		}
 	}
 
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+		if (null != remainder) {
+			remainder.release();
+			remainder = null;
+		}
+		super.channelInactive(ctx);
+	}
+
 	@Override
 	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
 		if ("Broken pipe".equals(cause.getMessage()) || "Connection reset by peer".equals(cause.getMessage())) {
@@ -104,6 +113,13 @@ public class NettyNetChannelInboundHandler extends ChannelInboundHandlerAdapter
 		ctx.close();
 	}
 
+	/**
+	 * A buffer retained by a consumer of its {@link NettyBuffer} must not be written to nor compacted.
+	 */
+	private boolean isShared(ByteBuf buffer) {
+		return buffer.refCnt() > 1;
+	}
+
 	private boolean bufferHasSufficientCapacity(ByteBuf receiver, ByteBuf provider) {
 		return receiver.writerIndex() <= receiver.maxCapacity() - provider.readableBytes();
 	}
@@ -116,7 +132,7 @@ public class NettyNetChannelInboundHandler extends ChannelInboundHandlerAdapter
 	}
 
 	private void passToConnection(ByteBuf data) {
-		Buffer b = new Buffer(data.nioBuffer());
+		Buffer b = new NettyBuffer(data);
 		int start = b.position();
 		netChannel.read(b);
 		data.skipBytes(b.position() - start);
@@ -16,29 +16,132 @@
 
 package reactor.io.net.netty;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
 import reactor.fn.tuple.Tuple2;
+import reactor.io.net.config.CommonSocketOptions;
+
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Netty {@link io.netty.channel.ChannelOutboundHandler} implementation that writes the data of a Reactor {@link
+ * reactor.io.net.AbstractNetChannel}.
+ * <p>
+ * By default, every message is flushed as soon as it is written. When the {@link CommonSocketOptions} coalesce writes,
+ * messages are only flushed together once enough of them, or enough bytes, are pending. Otherwise they are flushed
+ * after the configured delay or, without delay, once the event loop has run the writes already submitted to it.
+ * Batches written by a {@link reactor.fn.batch.BatchConsumer} are flushed when they end.
+ *
  * @author Jon Brisbin
+ * @author Stephane Maldini
  */
 public class NettyNetChannelOutboundHandler extends ChannelOutboundHandlerAdapter {
+
+	private final int  flushAfterMessages;
+	private final int  flushAfterBytes;
+	private final long flushDelay;
+
+	private ChannelHandlerContext ctx;
+	private int                   pendingMessages = 0;
+	private long                  pendingBytes    = 0;
+	private boolean               flushScheduled  = false;
+
+	private final Runnable flushTask = new Runnable() {
+		@Override
+		public void run() {
+			flushScheduled = false;
+			if (pendingMessages > 0) {
+				flushPending(ctx);
+			}
+		}
+	};
+
+	public NettyNetChannelOutboundHandler() {
+		this(1, 0, 0);
+	}
+
+	public NettyNetChannelOutboundHandler(CommonSocketOptions<?> options) {
+		this(options.flushAfterMessages(), options.flushAfterBytes(), options.flushDelay());
+	}
+
+	/**
+	 * Create a {@code NettyNetChannelOutboundHandler}.
+	 *
+	 * @param flushAfterMessages the number of messages after which the socket is flushed, {@code 1} to flush every
+	 *                           message, {@code 0} for no limit
+	 * @param flushAfterBytes    the number of bytes after which coalesced writes are flushed, {@code 0} for no limit
+	 * @param flushDelay         the maximum delay in milliseconds before coalesced writes are flushed, {@code 0} to
+	 *                           flush at the end of the event loop batch
+	 */
+	public NettyNetChannelOutboundHandler(int flushAfterMessages, int flushAfterBytes, long flushDelay) {
+		this.flushAfterMessages = flushAfterMessages;
+		this.flushAfterBytes = flushAfterBytes;
+		this.flushDelay = flushDelay;
+	}
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+		this.ctx = ctx;
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
 		if (Tuple2.class.isInstance(msg)) {
 			Tuple2<Object, Boolean> tup = (Tuple2<Object, Boolean>) msg;
-			if (null != tup.getT1()) {
-				super.write(ctx, tup.getT1(), promise);
+			if (null == tup.getT1()) {
+				if (tup.getT2()) {
+					flushPending(ctx);
+				}
+				return;
 			}
+			writePending(ctx, tup.getT1(), promise);
 			if (tup.getT2()) {
-				ctx.flush();
+				autoFlush(ctx);
 			}
 		} else {
-			super.write(ctx, msg, promise);
-			ctx.flush();
+			writePending(ctx, msg, promise);
+			autoFlush(ctx);
+		}
+	}
+
+	@Override
+	public void flush(ChannelHandlerContext ctx) throws Exception {
+		flushPending(ctx);
+	}
+
+	private void writePending(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+		pendingMessages++;
+		if (ByteBuf.class.isInstance(msg)) {
+			pendingBytes += ((ByteBuf) msg).readableBytes();
+		} else if (ByteBufHolder.class.isInstance(msg)) {
+			pendingBytes += ((ByteBufHolder) msg).content().readableBytes();
 		}
+		super.write(ctx, msg, promise);
 	}
+
+	private void autoFlush(ChannelHandlerContext ctx) {
+		if (flushAfterMessages == 1
+				|| (flushAfterMessages > 1 && pendingMessages >= flushAfterMessages)
+				|| (flushAfterBytes > 0 && pendingBytes >= flushAfterBytes)) {
+			flushPending(ctx);
+		} else if (!flushScheduled) {
+			flushScheduled = true;
+			if (flushDelay > 0) {
+				ctx.executor().schedule(flushTask, flushDelay, TimeUnit.MILLISECONDS);
+			} else {
+				ctx.executor().execute(flushTask);
+			}
+		}
+	}
+
+	private void flushPending(ChannelHandlerContext ctx) {
+		pendingMessages = 0;
+		pendingBytes = 0;
+		ctx.flush();
+	}
+
 }
@@ -217,7 +217,9 @@ public class NettyTcpClient<IN, OUT> extends TcpClient<IN, OUT> {
 		NettyNetChannel<IN, OUT> conn = (NettyNetChannel<IN, OUT>) createChannel(ioChannel);
 		NettyNetChannelInboundHandler readHandler = new NettyNetChannelInboundHandler()
 				.setNetChannel(conn);
-		NettyNetChannelOutboundHandler writeHandler = new NettyNetChannelOutboundHandler();
+		NettyNetChannelOutboundHandler writeHandler = (null != getOptions()
+		                                               ? new NettyNetChannelOutboundHandler(getOptions())
+		                                               : new NettyNetChannelOutboundHandler());
 
 		return new ChannelHandler[]{readHandler, writeHandler};
 	}
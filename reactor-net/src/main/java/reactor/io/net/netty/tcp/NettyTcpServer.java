@@ -205,7 +205,7 @@ public class NettyTcpServer<IN, OUT> extends TcpServer<IN, OUT> {
 		AbstractNetChannel<IN, OUT> netChannel = (AbstractNetChannel<IN, OUT>) select(ch);
 		NettyNetChannelInboundHandler readHandler = new NettyNetChannelInboundHandler()
 				.setNetChannel(netChannel);
-		NettyNetChannelOutboundHandler writeHandler = new NettyNetChannelOutboundHandler();
+		NettyNetChannelOutboundHandler writeHandler = new NettyNetChannelOutboundHandler(getOptions());
 
 		return new ChannelHandler[]{readHandler, writeHandler};
 	}
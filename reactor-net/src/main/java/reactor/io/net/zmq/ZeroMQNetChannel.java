@@ -30,6 +30,7 @@ import reactor.bus.EventBus;
 import reactor.core.Dispatcher;
 import reactor.fn.Consumer;
 import reactor.io.buffer.Buffer;
+import reactor.io.buffer.PooledBufferAllocator;
 import reactor.io.codec.Codec;
 import reactor.io.net.AbstractNetChannel;
 import reactor.rx.Promise;
@@ -105,6 +106,10 @@ public class ZeroMQNetChannel<IN, OUT> extends AbstractNetChannel<IN, OUT> {
 	protected void write(Object data, Promise<Void> onComplete, boolean flush) {
 		Buffer buff = getEncoder().apply((OUT) data);
 		write(buff.byteBuffer(), onComplete, flush);
+		if (buff != data) {
+			// only give back a frame encoded for this write, never the caller's own buffer
+			PooledBufferAllocator.release(buff);
+		}
 	}
 
 	@Override
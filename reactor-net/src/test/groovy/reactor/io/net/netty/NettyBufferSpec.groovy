@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.io.net.netty
+
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.Unpooled
+import io.netty.channel.embedded.EmbeddedChannel
+import io.netty.util.CharsetUtil
+import reactor.Environment
+import reactor.bus.EventBus
+import reactor.core.dispatch.SynchronousDispatcher
+import reactor.fn.Consumer
+import reactor.fn.Function
+import reactor.io.buffer.Buffer
+import reactor.io.buffer.PooledBufferAllocator
+import reactor.io.codec.Codec
+import reactor.io.codec.LengthFieldCodec
+import reactor.io.codec.StandardCodecs
+import spock.lang.Specification
+
+/**
+ * @author Stephane Maldini
+ */
+class NettyBufferSpec extends Specification {
+
+	Environment env
+
+	def setup() {
+		env = new Environment()
+	}
+
+	def cleanup() {
+		env.shutdown()
+	}
+
+	def "A NettyBuffer shares the memory of its ByteBuf"() {
+		given:
+			'a direct ByteBuf'
+			def byteBuf = Unpooled.directBuffer(16).writeBytes('Hello World!'.bytes)
+			byteBuf.readByte()
+
+		when:
+			'it is viewed as a Buffer'
+			def buffer = new NettyBuffer(byteBuf)
+			byteBuf.setByte(1, (int) ('E' as char))
+
+		then:
+			'the Buffer reads its readable bytes without moving its reader index'
+			buffer.asString() == 'Ello World!'
+			byteBuf.readerIndex() == 1
+
+		when:
+			'the Buffer is retained and released'
+			buffer.retain()
+			buffer.release()
+
+		then:
+			'the ByteBuf is only deallocated on its last release'
+			byteBuf.refCnt() == 1
+			buffer.release()
+			byteBuf.refCnt() == 0
+	}
+
+	def "Frames spanning several reads are decoded once complete"() {
+		given:
+			'a channel decoding length-prefixed Strings'
+			def frames = []
+			def channel = channel(new LengthFieldCodec<String, String>(StandardCodecs.STRING_CODEC))
+			channel.netChannel.consume({ frames << it } as Consumer<String>)
+
+		when:
+			'a frame is split across two reads followed by a complete frame'
+			def bytes = Unpooled.buffer().writeInt(5).writeBytes('Hello'.bytes).writeInt(5).writeBytes('World'.bytes)
+			channel.ioChannel.writeInbound(bytes.readBytes(6))
+			channel.ioChannel.writeInbound(bytes.readBytes(12))
+
+		then:
+			'both frames are decoded'
+			frames == ['Hello', 'World']
+	}
+
+	def "A retained NettyBuffer is not overwritten by the next reads"() {
+		given:
+			'a channel decoding 4 bytes at a time and retaining the first buffer it reads'
+			def decoded = []
+			def retained = []
+			def codec = new Codec<Buffer, String, String>() {
+				@Override
+				Function<Buffer, String> decoder(Consumer<String> next) {
+					return { Buffer b ->
+						if (retained.empty) {
+							retained << ((NettyBuffer) b).retain()
+						}
+						while (b.remaining() >= 4) {
+							def chunk = new byte[4]
+							b.read(chunk)
+							next.accept(new String(chunk))
+						}
+						return null
+					} as Function<Buffer, String>
+				}
+
+				@Override
+				Function<String, Buffer> encoder() {
+					return null
+				}
+			}
+			def channel = channel(codec)
+			channel.netChannel.consume({ decoded << it } as Consumer<String>)
+
+		when:
+			'a partial chunk is read, then completed one byte at a time'
+			channel.ioChannel.writeInbound(Unpooled.buffer(8).writeBytes('abcdef'.bytes))
+			channel.ioChannel.writeInbound(Unpooled.buffer(1).writeBytes('g'.bytes))
+			channel.ioChannel.writeInbound(Unpooled.buffer(1).writeBytes('h'.bytes))
+
+		then:
+			'the chunks are decoded and the retained buffer is left untouched'
+			decoded == ['abcd', 'efgh']
+			retained[0].byteBuf().toString(0, 6, CharsetUtil.UTF_8) == 'abcdef'
+			retained[0].byteBuf().refCnt() == 1
+			retained[0].release()
+	}
+
+	def "Pooled frames are written without being copied, then released"() {
+		given:
+			'a channel encoding length-prefixed Strings into pooled frames'
+			def channel = channel(new LengthFieldCodec<String, String>(4, StandardCodecs.STRING_CODEC,
+					PooledBufferAllocator.DEFAULT))
+
+		when:
+			'a String is sent'
+			channel.netChannel.send('Hello')
+			ByteBuf frame = channel.ioChannel.readOutbound()
+
+		then:
+			'the direct pooled frame is written as is'
+			frame.isDirect()
+			frame.readableBytes() == 9
+			frame.getInt(0) == 5
+			frame.toString(4, 5, CharsetUtil.UTF_8) == 'Hello'
+
+		when:
+			'a buffer of the same size class is allocated next'
+			PooledBufferAllocator.DEFAULT.buffer(9).append('Goodbye!!'.bytes)
+
+		then:
+			'it reuses the memory of the written frame'
+			frame.toString(0, 9, CharsetUtil.UTF_8) == 'Goodbye!!'
+	}
+
+	def "Buffers sent through the channel are never released by it"() {
+		given:
+			'a channel passing buffers through and a pooled buffer owned by the caller'
+			def channel = channel(StandardCodecs.PASS_THROUGH_CODEC)
+			def buffer = PooledBufferAllocator.DEFAULT.buffer(9).append('Hello!!!!'.bytes).flip()
+
+		when:
+			'the buffer is sent, then a buffer of the same size class is allocated'
+			channel.netChannel.send(buffer)
+			ByteBuf frame = channel.ioChannel.readOutbound()
+			def next = PooledBufferAllocator.DEFAULT.buffer(9)
+
+		then:
+			'the buffer is written and its memory is still leased by the caller'
+			frame.toString(CharsetUtil.UTF_8) == 'Hello!!!!'
+			!next.is(buffer)
+			buffer.flip().asString() == 'Hello!!!!'
+
+		cleanup:
+			PooledBufferAllocator.release(next)
+			PooledBufferAllocator.release(buffer)
+	}
+
+	def channel(Codec<Buffer, ?, ?> codec) {
+		def inbound = new NettyNetChannelInboundHandler()
+		def ioChannel = new EmbeddedChannel(inbound, new NettyNetChannelOutboundHandler())
+		def netChannel = new NettyNetChannel(env,
+				codec,
+				SynchronousDispatcher.INSTANCE,
+				EventBus.create(env, SynchronousDispatcher.INSTANCE),
+				ioChannel)
+		inbound.netChannel = netChannel
+		[ioChannel: ioChannel, netChannel: netChannel]
+	}
+}
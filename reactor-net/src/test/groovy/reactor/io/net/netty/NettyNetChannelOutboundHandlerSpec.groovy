@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2011-2015 Pivotal Software Inc., Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.io.net.netty
+
+import io.netty.buffer.Unpooled
+import io.netty.channel.embedded.EmbeddedChannel
+import reactor.Environment
+import reactor.bus.EventBus
+import reactor.core.dispatch.SynchronousDispatcher
+import reactor.fn.Consumer
+import reactor.fn.tuple.Tuple
+import reactor.io.buffer.Buffer
+import reactor.io.codec.PassThroughCodec
+import reactor.io.codec.StandardCodecs
+import reactor.io.net.NetChannel
+import reactor.io.net.config.ServerSocketOptions
+import reactor.io.net.netty.tcp.NettyTcpServer
+import reactor.io.net.tcp.spec.TcpServerSpec
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.nio.channels.SocketChannel
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * @author Stephane Maldini
+ */
+class NettyNetChannelOutboundHandlerSpec extends Specification {
+
+	def "Every message is flushed by default"() {
+		given:
+			'a channel with the default flush policy'
+			def channel = new EmbeddedChannel(new NettyNetChannelOutboundHandler())
+
+		when:
+			'messages are written'
+			3.times { channel.write(Tuple.of(Unpooled.wrappedBuffer(new byte[4]), true)) }
+
+		then:
+			'they are all flushed'
+			channel.outboundMessages().size() == 3
+	}
+
+	def "Coalesced writes are flushed after a number of messages or at the end of the event loop batch"() {
+		given:
+			'a channel flushing every 3 messages'
+			def channel = new EmbeddedChannel(new NettyNetChannelOutboundHandler(3, 0, 0))
+
+		when:
+			'5 messages are written'
+			5.times { channel.write(Tuple.of(Unpooled.wrappedBuffer(new byte[4]), true)) }
+
+		then:
+			'only the first 3 messages are flushed'
+			channel.outboundMessages().size() == 3
+
+		when:
+			'the event loop runs its pending tasks'
+			channel.runPendingTasks()
+
+		then:
+			'the remaining messages are flushed'
+			channel.outboundMessages().size() == 5
+	}
+
+	def "Coalesced writes are flushed after a number of bytes"() {
+		given:
+			'a channel flushing every 10 bytes'
+			def channel = new EmbeddedChannel(new NettyNetChannelOutboundHandler(0, 10, 0))
+
+		when:
+			'2 then 3 messages of 4 bytes are written'
+			2.times { channel.write(Unpooled.wrappedBuffer(new byte[4])) }
+			def beforeLimit = channel.outboundMessages().size()
+			channel.write(Unpooled.wrappedBuffer(new byte[4]))
+
+		then:
+			'they are flushed once 12 bytes are pending'
+			beforeLimit == 0
+			channel.outboundMessages().size() == 3
+	}
+
+	def "A batch of writes is flushed when it ends"() {
+		given:
+			'a NetChannel coalescing every 2 messages'
+			def env = new Environment()
+			def ioChannel = new EmbeddedChannel(new NettyNetChannelOutboundHandler(2, 0, 0))
+			def netChannel = new NettyNetChannel<String, String>(env,
+					StandardCodecs.STRING_CODEC,
+					SynchronousDispatcher.INSTANCE,
+					EventBus.create(env, SynchronousDispatcher.INSTANCE),
+					ioChannel)
+			def out = netChannel.out()
+
+		when:
+			'a batch of 3 messages is written'
+			out.start()
+			3.times { out.accept('Hello') }
+
+		then:
+			'nothing is flushed until the batch ends'
+			ioChannel.outboundMessages().empty
+
+		when:
+			'the batch ends'
+			out.end()
+
+		then:
+			'all messages are flushed'
+			ioChannel.outboundMessages().size() == 3
+
+		cleanup:
+			env.shutdown()
+	}
+
+	def "Coalesced writes are flushed after the flush delay"() {
+		given:
+			'a server replying with 3 messages, flushed after 200ms'
+			def env = new Environment()
+			def startLatch = new CountDownLatch(1)
+			def server = new TcpServerSpec<Buffer, Buffer>(NettyTcpServer).
+					env(env).
+					listen(26875).
+					codec(new PassThroughCodec<Buffer>()).
+					options(new ServerSocketOptions().flushAfterMessages(0).flushDelay(200)).
+					consume({ NetChannel<Buffer, Buffer> conn ->
+						conn.consume({ Buffer data ->
+							3.times { conn.sendAndForget(Buffer.wrap('Hi!')) }
+						} as Consumer<Buffer>)
+					} as Consumer<NetChannel<Buffer, Buffer>>).
+					get()
+			server.start({ startLatch.countDown() })
+			startLatch.await(5, TimeUnit.SECONDS)
+
+		when:
+			'a request is sent'
+			def client = SocketChannel.open(new InetSocketAddress(26875))
+			def reply = ByteBuffer.allocate(9)
+			def replyLatch = new CountDownLatch(1)
+			def start = System.currentTimeMillis()
+			Thread.start {
+				client.write(ByteBuffer.wrap('Hello'.bytes))
+				while (reply.hasRemaining() && client.read(reply) > 0) {
+				}
+				replyLatch.countDown()
+			}
+			replyLatch.await(5, TimeUnit.SECONDS)
+			def elapsed = System.currentTimeMillis() - start
+
+		then:
+			'the 3 messages are received together once the delay has elapsed'
+			new String(reply.array()) == 'Hi!Hi!Hi!'
+			elapsed >= 150
+
+		cleanup:
+			client?.close()
+			server?.shutdown()?.await(5, TimeUnit.SECONDS)
+			env.shutdown()
+	}
+
+}